@@ -0,0 +1,159 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class NngAioTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private NngSocket server;
+    private NngSocket client;
+
+    @Before
+    public void setUp() throws Exception {
+        String url = "inproc://aio-" + System.nanoTime();
+        server = NngSocket.pair0();
+        server.listen(url);
+        client = NngSocket.pair0();
+        client.dial(url);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void closeFromHandlerOnDirectExecutor() throws Exception {
+        final CountDownLatch handled = new CountDownLatch(1);
+        final AtomicInteger result = new AtomicInteger(-1);
+        NngAio aio = new NngAio(DIRECT, new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(NngAio a, int rv) {
+                result.set(rv);
+                // Runs on the NNG callback thread; must not wait for itself
+                a.close();
+                handled.countDown();
+            }
+        });
+        aio.receive(server.handle());
+        client.send(new byte[] {1, 2, 3});
+
+        assertTrue("handler did not return", handled.await(5, TimeUnit.SECONDS));
+        assertEquals(NngWrapper.NNG_OK, result.get());
+        // Closing again, and use after close, are harmless
+        aio.close();
+        aio.setTimeout(100);
+        aio.cancel();
+        assertEquals(0, aio.takeMessage());
+        try {
+            aio.receive(server.handle());
+            fail("receive after close");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void closeFromHandlerOnExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch handled = new CountDownLatch(1);
+            NngAio aio = new NngAio(executor, new NngAio.CompletionHandler() {
+                @Override
+                public void onComplete(NngAio a, int rv) {
+                    a.close();
+                    handled.countDown();
+                }
+            });
+            aio.receive(server.handle());
+            client.send(new byte[] {1});
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void closeWithPendingReceiveDeliversError() throws Exception {
+        final CountDownLatch handled = new CountDownLatch(1);
+        final AtomicInteger result = new AtomicInteger(-1);
+        NngAio aio = new NngAio(DIRECT, new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(NngAio a, int rv) {
+                result.set(rv);
+                handled.countDown();
+            }
+        });
+        aio.receive(server.handle());
+        assertTrue(aio.isBusy());
+        aio.close();
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertNotEquals(NngWrapper.NNG_OK, result.get());
+        assertFalse(aio.isBusy());
+    }
+
+    @Test
+    public void timeoutFailsReceive() throws Exception {
+        final CountDownLatch handled = new CountDownLatch(1);
+        final AtomicInteger result = new AtomicInteger(-1);
+        try (NngAio aio = new NngAio(DIRECT, new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(NngAio a, int rv) {
+                result.set(rv);
+                handled.countDown();
+            }
+        })) {
+            aio.setTimeout(50);
+            aio.receive(server.handle());
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertEquals(NngWrapper.NNG_ETIMEDOUT, result.get());
+        }
+    }
+
+    @Test
+    public void rearmFromHandler() throws Exception {
+        final CountDownLatch received = new CountDownLatch(3);
+        final long socket = server.handle();
+        try (NngAio aio = new NngAio(DIRECT, new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(NngAio a, int rv) {
+                if (rv != NngWrapper.NNG_OK) return;
+                try (NngMessage msg = a.takeMessage(NngMessagePool.getDefault())) {
+                    if (msg != null && msg.length() == 1) received.countDown();
+                }
+                a.receive(socket);
+            }
+        })) {
+            aio.receive(socket);
+            for (int i = 0; i < 3; i++) {
+                client.send(new byte[] {(byte) i});
+            }
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class NngBatchingSenderTest {
+
+    @Test
+    public void batchSplitsBackIntoRecords() throws Exception {
+        String url = "inproc://batching-" + System.nanoTime();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            NngBatchingSender sender = new NngBatchingSender(push, 1024, 3);
+            sender.add(new byte[] {1, 2});
+            sender.addString("héllo");
+            sender.add(ByteBuffer.wrap(new byte[200]));
+            assertEquals(0, sender.pendingRecords());
+            assertEquals(3, sender.recordsSent());
+            assertEquals(1, sender.messagesSent());
+
+            try (NngMessage batch = pull.receiveMessage()) {
+                NngFrameReader frames = new NngFrameReader().reset(batch);
+                assertTrue(frames.next());
+                assertEquals(2, frames.frameLength());
+                assertTrue(frames.next());
+                assertEquals("héllo", frames.frameString());
+                assertTrue(frames.next());
+                assertEquals(200, frames.frameLength());
+                assertFalse(frames.next());
+            }
+            sender.close();
+        }
+    }
+
+    @Test
+    public void failedFlushDoesNotQueueTheRecord() throws Exception {
+        NngSocket push = NngSocket.push0();
+        NngBatchingSender sender = new NngBatchingSender(push, 1024, 2);
+        sender.add(new byte[] {1, 2, 3});
+        int pendingBytes = sender.pendingBytes();
+        push.close();
+
+        try {
+            sender.add(new byte[] {4, 5});
+            fail("flush on a closed socket");
+        } catch (NngClosedException expected) {
+        }
+        assertEquals(1, sender.pendingRecords());
+        assertEquals(pendingBytes, sender.pendingBytes());
+
+        try {
+            sender.addString("retry");
+            fail("flush on a closed socket");
+        } catch (NngClosedException expected) {
+        }
+        assertEquals(1, sender.pendingRecords());
+        assertEquals(pendingBytes, sender.pendingBytes());
+
+        ByteBuffer record = ByteBuffer.wrap(new byte[] {6, 7, 8});
+        try {
+            sender.add(record);
+            fail("flush on a closed socket");
+        } catch (NngClosedException expected) {
+        }
+        assertEquals(0, record.position());
+        assertEquals(1, sender.pendingRecords());
+        assertEquals(pendingBytes, sender.pendingBytes());
+        assertEquals(0, sender.recordsSent());
+        sender.close();
+    }
+}
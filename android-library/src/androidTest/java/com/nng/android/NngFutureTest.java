@@ -0,0 +1,177 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class NngFutureTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private NngSocket pull;
+    private NngSocket push;
+
+    @Before
+    public void setUp() throws Exception {
+        String url = "inproc://future-" + System.nanoTime();
+        pull = NngSocket.pull0();
+        pull.listen(url);
+        push = NngSocket.push0();
+        push.dial(url);
+    }
+
+    @After
+    public void tearDown() {
+        push.close();
+        pull.close();
+    }
+
+    @Test
+    public void cancelAbortsPendingReceive() throws Exception {
+        NngFuture<NngMessage> future = pull.awaitRecv(NngWrapper.NNG_DURATION_INFINITE);
+        final CountDownLatch notified = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                notified.countDown();
+            }
+        }, DIRECT);
+
+        assertFalse(future.isDone());
+        assertTrue(future.cancel(true));
+        assertFalse(future.cancel(true));
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        try {
+            future.get();
+            fail("get after cancel");
+        } catch (CancellationException expected) {
+        }
+        try {
+            future.await();
+            fail("await after cancel");
+        } catch (NngCanceledException expected) {
+        }
+
+        // The cancelled receive must not swallow the next message
+        NngFuture<NngMessage> next = pull.awaitRecv(5000);
+        push.send(new byte[] {7});
+        try (NngMessage msg = next.await()) {
+            assertArrayEquals(new byte[] {7}, msg.toByteArray());
+        }
+    }
+
+    @Test
+    public void timeoutFailsFuture() throws Exception {
+        NngFuture<NngMessage> future = pull.awaitRecv(20);
+        try {
+            future.await();
+            fail("receive without a sender");
+        } catch (NngTimeoutException expected) {
+        }
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    public void sendOfClosedMessageFailsWithoutLeaking() throws Exception {
+        NngMessage msg = NngMessage.allocate(0);
+        msg.close();
+        try {
+            push.awaitSend(msg, 1000);
+            fail("send of a closed message");
+        } catch (IllegalStateException expected) {
+        }
+        // The operation taken for the failed send went back to the pool and still works
+        NngFuture<NngMessage> received = pull.awaitRecv(5000);
+        try (NngMessage out = NngMessage.allocate(0).append(new byte[] {3})) {
+            push.awaitSend(out, 5000).await();
+        }
+        try (NngMessage in = received.await()) {
+            assertArrayEquals(new byte[] {3}, in.toByteArray());
+        }
+    }
+
+    @Test
+    public void listenersOnNngThreadCanChainOperations() throws Exception {
+        // More futures than the idle pool keeps, so some operations are retired
+        int total = 300;
+        List<NngFuture<NngMessage>> pending = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            pending.add(pull.awaitRecv(NngWrapper.NNG_DURATION_INFINITE));
+        }
+        for (NngFuture<NngMessage> future : pending) {
+            future.cancel(true);
+        }
+
+        final int rounds = 50;
+        final AtomicInteger received = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(1);
+        Runnable chain = new Runnable() {
+            @Override
+            public void run() {
+                if (received.incrementAndGet() == rounds) {
+                    finished.countDown();
+                    return;
+                }
+                try {
+                    // Started from the NNG callback thread of the previous receive
+                    final NngFuture<NngMessage> next = pull.awaitRecv(5000);
+                    next.addListener(new Closer(next, this), DIRECT);
+                } catch (NngWrapper.NngException e) {
+                    finished.countDown();
+                }
+            }
+        };
+        NngFuture<NngMessage> first = pull.awaitRecv(5000);
+        first.addListener(new Closer(first, chain), DIRECT);
+        for (int i = 0; i < rounds; i++) {
+            push.send(new byte[] {(byte) i});
+        }
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(rounds, received.get());
+    }
+
+    // Closes the received message, then continues
+    private static final class Closer implements Runnable {
+        private final NngFuture<NngMessage> future;
+        private final Runnable then;
+
+        Closer(NngFuture<NngMessage> future, Runnable then) {
+            this.future = future;
+            this.then = then;
+        }
+
+        @Override
+        public void run() {
+            try (NngMessage msg = future.await()) {
+                msg.length();
+            } catch (NngWrapper.NngException | InterruptedException e) {
+                return;
+            }
+            then.run();
+        }
+    }
+}
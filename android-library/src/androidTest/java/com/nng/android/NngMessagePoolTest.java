@@ -0,0 +1,125 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class NngMessagePoolTest {
+
+    @Test
+    public void closedStorageIsReused() throws Exception {
+        NngMessagePool pool = new NngMessagePool(4);
+        NngMessage first = pool.acquire(0);
+        first.append(new byte[] {1, 2, 3});
+        long storage = first.handle();
+        first.close();
+
+        NngMessage second = pool.acquire(2);
+        assertNotSame(first, second);
+        assertEquals(storage, second.handle());
+        assertEquals(2, second.length());
+        assertNull(second.pipe());
+        second.close();
+        pool.clear();
+    }
+
+    @Test
+    public void staleCloseDoesNotReleaseNewOwner() throws Exception {
+        NngMessagePool pool = new NngMessagePool(4);
+        NngMessage stale = pool.acquire(0);
+        stale.close();
+
+        NngMessage owner = pool.acquire(0);
+        owner.append(new byte[] {7, 8});
+        // A holder of the old reference closes again
+        stale.close();
+        stale.close();
+
+        assertArrayEquals(new byte[] {7, 8}, owner.toByteArray());
+        // The storage was not returned to the pool behind the owner's back
+        NngMessage other = pool.acquire(0);
+        other.append(new byte[] {9});
+        assertArrayEquals(new byte[] {7, 8}, owner.toByteArray());
+        other.close();
+        owner.close();
+        pool.clear();
+    }
+
+    @Test
+    public void closedMessageRejectsUse() throws Exception {
+        NngMessage msg = new NngMessagePool(0).acquire(1);
+        msg.close();
+        try {
+            msg.handle();
+            fail("handle after close");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void closeAfterSendIsHarmless() throws Exception {
+        String url = "inproc://pool-" + System.nanoTime();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            NngMessage msg = NngMessage.allocate(0).append(new byte[] {4, 5});
+            push.send(msg);
+            msg.close();
+            msg.close();
+            try (NngMessage received = pull.receiveMessage()) {
+                assertArrayEquals(new byte[] {4, 5}, received.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void failedAppendLeavesBodyUnchanged() throws Exception {
+        try (NngMessage msg = NngMessage.allocate(0)) {
+            msg.append(new byte[] {1});
+            try {
+                msg.append(new byte[2], 1, 5);
+                fail("out of bounds append");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            assertEquals(1, msg.length());
+        }
+    }
+
+    @Test
+    public void rawCopiesRejectRangesOutsideTheArray() throws Exception {
+        NngWrapper nng = new NngWrapper();
+        try (NngMessage msg = NngMessage.allocate(0)) {
+            long handle = msg.handle();
+            byte[] data = new byte[4];
+            int[][] ranges = {{-1, 2}, {0, -1}, {3, 2}, {0, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 1}};
+            for (int[] range : ranges) {
+                try {
+                    nng.nngMsgInsert(handle, data, range[0], range[1]);
+                    fail("insert " + range[0] + "+" + range[1]);
+                } catch (ArrayIndexOutOfBoundsException expected) {
+                }
+                try {
+                    nng.nngMsgHeaderAppend(handle, data, range[0], range[1]);
+                    fail("header append " + range[0] + "+" + range[1]);
+                } catch (ArrayIndexOutOfBoundsException expected) {
+                }
+                try {
+                    nng.nngMsgAppend(handle, data, range[0], range[1]);
+                    fail("append " + range[0] + "+" + range[1]);
+                } catch (ArrayIndexOutOfBoundsException expected) {
+                }
+            }
+            assertEquals(0, msg.length());
+            assertEquals(0, nng.nngMsgHeaderLen(handle));
+            assertEquals(0, nng.nngMsgInsert(handle, data, 4, 0));
+        }
+    }
+}
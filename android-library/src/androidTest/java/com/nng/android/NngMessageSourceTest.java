@@ -0,0 +1,143 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class NngMessageSourceTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void listenerRunsOnExecutor() throws Exception {
+        final AtomicReference<Thread> executorThread = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "source-executor");
+                executorThread.set(t);
+                return t;
+            }
+        });
+        String url = "inproc://source-" + System.nanoTime();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            final CountDownLatch received = new CountDownLatch(3);
+            final AtomicBoolean wrongThread = new AtomicBoolean(false);
+            NngMessageSource source = NngMessageSource.open(pull, executor, 2, new Listener() {
+                @Override
+                public void onMessage(@NonNull NngMessage message) {
+                    message.close();
+                    if (Thread.currentThread() != executorThread.get()) wrongThread.set(true);
+                    received.countDown();
+                }
+            });
+            // Requested from the test thread; delivery must still happen on the executor
+            source.request(3);
+            for (int i = 0; i < 3; i++) {
+                push.send(new byte[] {(byte) i});
+            }
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            assertFalse(wrongThread.get());
+            source.cancel();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void requestFromListenerDoesNotRecurse() throws Exception {
+        String url = "inproc://source-recurse-" + System.nanoTime();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            int total = 20;
+            for (int i = 0; i < total; i++) {
+                push.send(new byte[] {(byte) i});
+            }
+            final CountDownLatch received = new CountDownLatch(total);
+            final AtomicInteger depth = new AtomicInteger();
+            final AtomicInteger maxDepth = new AtomicInteger();
+            final NngMessageSource[] source = new NngMessageSource[1];
+            source[0] = NngMessageSource.open(pull, DIRECT, 1, new Listener() {
+                @Override
+                public void onMessage(@NonNull NngMessage message) {
+                    int d = depth.incrementAndGet();
+                    maxDepth.set(Math.max(maxDepth.get(), d));
+                    message.close();
+                    received.countDown();
+                    source[0].request(1);
+                    depth.decrementAndGet();
+                }
+            });
+            source[0].request(1);
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            assertEquals(1, maxDepth.get());
+            source[0].cancel();
+        }
+    }
+
+    @Test
+    public void completesWhenSocketClosedOnDirectExecutor() throws Exception {
+        final CountDownLatch completed = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        NngSocket pull = NngSocket.pull0();
+        pull.listen("inproc://source-close-" + System.nanoTime());
+        NngMessageSource source = NngMessageSource.open(pull, DIRECT, 2, new Listener() {
+            @Override
+            public void onError(@NonNull Throwable e) {
+                error.set(e);
+                completed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+        source.request(Long.MAX_VALUE);
+        // The terminal signal runs on the NNG callback thread and must not wait for it
+        pull.close();
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertNull(error.get());
+        assertTrue(source.isCancelled());
+    }
+
+    private static class Listener implements NngMessageSource.Listener {
+        @Override
+        public void onMessage(@NonNull NngMessage message) {
+            message.close();
+        }
+
+        @Override
+        public void onError(@NonNull Throwable error) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class NngPollerTest {
+
+    @Test
+    public void selectReportsOnlyReadySockets() throws Exception {
+        String quietUrl = "inproc://poll-quiet-" + System.nanoTime();
+        String busyUrl = "inproc://poll-busy-" + System.nanoTime();
+        try (NngPoller poller = NngPoller.open();
+             NngSocket quiet = NngSocket.pull0(); NngSocket busy = NngSocket.pull0();
+             NngSocket push = NngSocket.push0()) {
+            quiet.listen(quietUrl);
+            busy.listen(busyUrl);
+            push.dial(busyUrl);
+            Object tag = new Object();
+            poller.register(quiet, NngPoller.OP_RECV, null);
+            NngPoller.Key busyKey = poller.register(busy, NngPoller.OP_RECV, tag);
+
+            assertEquals(0, poller.selectNow());
+            push.send(new byte[] {1});
+            push.send(new byte[] {2});
+
+            assertEquals(1, poller.select(5000));
+            NngPoller.Key key = poller.readyKeys().get(0);
+            assertSame(busyKey, key);
+            assertSame(tag, key.attachment());
+            assertTrue(key.isReadable());
+
+            // Level-triggered: drain until nothing is queued
+            for (byte b = 1; b <= 2; b++) {
+                try (NngMessage msg = key.socket().tryReceiveMessage()) {
+                    assertArrayEquals(new byte[] {b}, msg.toByteArray());
+                }
+            }
+            assertNull(key.socket().tryReceiveMessage());
+            busyKey.cancel();
+        }
+    }
+
+    @Test
+    public void emptyPollIsNotAnError() throws Exception {
+        NngSocketMetrics metrics = new NngSocketMetrics();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen("inproc://poll-empty-" + System.nanoTime());
+            NngSocket measured = pull.withMetrics(metrics);
+            assertNull(measured.tryReceiveMessage());
+            // Push with no peer cannot send without blocking
+            assertFalse(push.withMetrics(metrics).trySend(new byte[] {1}));
+        }
+        assertEquals(0, metrics.again().sum());
+        assertEquals(0, metrics.errors().sum());
+    }
+}
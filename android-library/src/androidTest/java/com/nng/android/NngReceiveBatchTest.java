@@ -0,0 +1,87 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class NngReceiveBatchTest {
+
+    @Test
+    public void smallBatchGrowsWithoutLosingMessages() throws Exception {
+        String url = "inproc://batch-" + System.nanoTime();
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            int total = 50;
+            for (int i = 0; i < total; i++) {
+                push.send(new byte[] {(byte) i, (byte) i, (byte) i, (byte) i});
+            }
+
+            // Room for two bytes and one message: every call overflows at first
+            NngReceiveBatch batch = new NngReceiveBatch(2, 0);
+            int next = 0;
+            while (next < total) {
+                int n = pull.receiveBatch(batch, 16, 1000);
+                assertTrue("timed out after " + next + " messages", n > 0);
+                assertTrue(n <= 16);
+                for (int i = 0; i < n; i++) {
+                    byte b = (byte) next++;
+                    assertArrayEquals(new byte[] {b, b, b, b}, batch.copy(i));
+                }
+            }
+            assertEquals(0, pull.receiveBatch(batch, 16, 0));
+        }
+    }
+
+    @Test
+    public void batchIsUsableAcrossThreadsAndAfterClose() throws Exception {
+        String url = "inproc://batch-threads-" + System.nanoTime();
+        final NngReceiveBatch batch = new NngReceiveBatch(1, 0);
+        try (NngSocket pull = NngSocket.pull0(); NngSocket push = NngSocket.push0()) {
+            pull.listen(url);
+            push.dial(url);
+            push.send(new byte[] {1, 2, 3});
+            push.send(new byte[] {4});
+
+            assertEquals(1, pull.receiveBatch(batch, 8, 1000));
+            assertArrayEquals(new byte[] {1, 2, 3}, batch.copy(0));
+            batch.close();
+
+            // The next call may come from another thread
+            final NngSocket socket = pull;
+            final int[] n = new int[1];
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        n[0] = socket.receiveBatch(batch, 8, 1000);
+                    } catch (NngWrapper.NngException e) {
+                        n[0] = -e.getErrorCode();
+                    }
+                }
+            });
+            t.start();
+            t.join(5000);
+            assertEquals(1, n[0]);
+            assertArrayEquals(new byte[] {4}, batch.copy(0));
+        } finally {
+            batch.close();
+        }
+    }
+
+    @Test
+    public void timeoutReturnsEmptyBatch() throws Exception {
+        try (NngSocket pull = NngSocket.pull0()) {
+            pull.listen("inproc://batch-empty-" + System.nanoTime());
+            NngReceiveBatch batch = new NngReceiveBatch();
+            assertEquals(0, pull.receiveBatch(batch, 8, 20));
+            assertEquals(0, batch.count());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nng.android;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class NngSurveyTest {
+
+    @Test
+    public void collectReturnsResponsesWhenSurveyExpires() throws Exception {
+        String url = "inproc://survey-" + System.nanoTime();
+        List<NngSocket> respondents = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        try (NngSocket surveyor = NngSocket.surveyor0()) {
+            surveyor.listen(url);
+            for (int i = 0; i < 3; i++) {
+                final NngSocket respondent = NngSocket.respondent0();
+                respondent.dial(url);
+                respondents.add(respondent);
+                final byte id = (byte) i;
+                Thread t = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            byte[] question = respondent.receive();
+                            respondent.send(new byte[] {question[0], id});
+                        } catch (NngWrapper.NngException e) {
+                            // Socket closed by the test
+                        }
+                    }
+                });
+                t.start();
+                threads.add(t);
+            }
+            // Let the respondents connect before the survey goes out
+            Thread.sleep(100);
+
+            // More responses are allowed than arrive, so only expiry ends the survey,
+            // either as a receive timeout or as a context with no survey left
+            long start = System.nanoTime();
+            List<byte[]> responses = NngSurvey.collect(surveyor, new byte[] {42}, 300, 10);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(3, responses.size());
+            boolean[] seen = new boolean[3];
+            for (byte[] response : responses) {
+                assertEquals(42, response[0]);
+                seen[response[1]] = true;
+            }
+            assertArrayEquals(new boolean[] {true, true, true}, seen);
+            assertTrue("returned after " + elapsedMs + " ms", elapsedMs < 5000);
+        } finally {
+            for (NngSocket respondent : respondents) {
+                respondent.close();
+            }
+            for (Thread t : threads) {
+                t.join(1000);
+            }
+        }
+    }
+
+    @Test
+    public void collectWithoutRespondentsReturnsEmptyList() throws Exception {
+        try (NngSocket surveyor = NngSocket.surveyor0()) {
+            surveyor.listen("inproc://survey-empty-" + System.nanoTime());
+            assertEquals(0, NngSurvey.collect(surveyor, new byte[] {1}, 50, 4).size());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.nng.android;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * {@link NngLog} sink that writes to logcat; the only class that touches
+ * {@code android.util.Log}, so the host build can leave it out
+ */
+final class LogcatSink implements NngLog.Sink {
+
+    @Override
+    public void log(int priority, @NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+        if (tr != null) {
+            Log.println(priority, tag, msg + '\n' + Log.getStackTraceString(tr));
+        } else {
+            Log.println(priority, tag, msg);
+        }
+    }
+}
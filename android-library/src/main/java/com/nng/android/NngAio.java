@@ -0,0 +1,362 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Callback-driven asynchronous I/O for NNG
+ *
+ * <p>Each instance owns an {@code nng_aio} allocated with a native completion
+ * callback. When an operation finishes, NNG runs the callback on one of its
+ * worker threads (attached to the JVM once and reused for later completions),
+ * and the result is handed to the {@link CompletionHandler} on the
+ * {@link Executor} supplied at construction. No thread is parked waiting for
+ * the operation, so a small pool can serve many in-flight receives.</p>
+ *
+ * <p>An NngAio runs one operation at a time. Use one instance per operation
+ * that should be in flight concurrently.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>{@code
+ * ExecutorService pool = Executors.newFixedThreadPool(2);
+ * NngAio aio = new NngAio(pool, (a, result) -> {
+ *     if (result == NngWrapper.NNG_OK) {
+ *         long msg = a.takeMessage();
+ *         // ... use msg, then nng.nngMsgFree(msg) ...
+ *         a.receive(socket);  // re-arm
+ *     }
+ * });
+ * aio.receive(socket);
+ * // ...
+ * aio.close();
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngAio implements AutoCloseable {
+    private static final String TAG = "NngAio";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /**
+     * Receives the completion of an asynchronous operation
+     */
+    public interface CompletionHandler {
+        /**
+         * Called on the executor when an operation completes
+         * @param aio the AIO object whose operation completed
+         * @param result 0 on success, NNG error code on failure
+         */
+        void onComplete(@NonNull NngAio aio, int result);
+    }
+
+    private final Executor executor;
+    private final CompletionHandler handler;
+    private final long handle;
+    private final long aio;
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile int result;
+
+    // Guards every native call against freeing the AIO, and freeing it while a completion is being dispatched
+    private final Object lock = new Object();
+    private boolean dispatching;
+    private boolean stopped;
+    private boolean freed;
+    // Thread running the native callback; nng_aio_stop and nng_aio_free must not be called on it
+    private final AtomicReference<Thread> callbackThread = new AtomicReference<>();
+
+    // Reused for every completion; one operation is in flight at a time
+    private final Runnable dispatch = new Runnable() {
+        @Override
+        public void run() {
+            int rv = result;
+            busy.set(false);
+            try {
+                handler.onComplete(NngAio.this, rv);
+            } finally {
+                synchronized (lock) {
+                    dispatching = false;
+                    // Only once close() has stopped the AIO, so never on the callback thread
+                    if (stopped) {
+                        freeNative();
+                    }
+                }
+            }
+        }
+    };
+
+    // Stops and frees the AIO off the NNG callback thread after a close from inside it
+    private final Runnable deferredClose = new Runnable() {
+        @Override
+        public void run() {
+            closeNative();
+        }
+    };
+
+    /**
+     * Allocate an AIO object
+     * @param executor executor on which completions are delivered
+     * @param handler completion handler
+     * @throws NngWrapper.NngException if allocation fails
+     */
+    public NngAio(@NonNull Executor executor, @NonNull CompletionHandler handler)
+            throws NngWrapper.NngException {
+        this.executor = executor;
+        this.handler = handler;
+        this.handle = NNG.nngAioCallbackAlloc(this);
+        if (NngWrapper.isError(handle)) {
+            throw NngWrapper.NngException.of("Failed to allocate AIO", NngWrapper.errorCode(handle));
+        }
+        this.aio = NNG.nngAioCallbackAio(handle);
+    }
+
+    /**
+     * Start an asynchronous send of a message
+     *
+     * <p>On success NNG takes ownership of the message. On failure the message
+     * stays attached to this AIO and can be reclaimed with {@link #takeMessage()}.</p>
+     *
+     * @param socket socket handle
+     * @param msg message handle
+     */
+    public void send(long socket, long msg) {
+        synchronized (lock) {
+            begin();
+            NNG.nngAioSetMsg(aio, msg);
+            NNG.nngSocketSendAio(socket, aio);
+        }
+    }
+
+    /**
+     * Start an asynchronous send of a message object
+     *
+     * <p>The native message is handed to this AIO immediately; close the
+     * {@link NngMessage} afterwards to return the object to its pool. If the
+     * send fails the native message can be reclaimed with {@link #takeMessage(NngMessagePool)}.</p>
+     *
+     * @param socket socket handle
+     * @param message message to send
+     */
+    public void send(long socket, @NonNull NngMessage message) {
+        message.handle();
+        synchronized (lock) {
+            // Detach only once the AIO is known to be free, so a refused send keeps the message
+            begin();
+            NNG.nngAioSetMsg(aio, message.detach());
+            NNG.nngSocketSendAio(socket, aio);
+        }
+    }
+
+    /**
+     * Start an asynchronous send on a context
+     * @param context context to send on
+     * @param message message to send (see {@link #send(long, NngMessage)} for ownership)
+     */
+    public void send(@NonNull NngContext context, @NonNull NngMessage message) {
+        message.handle();
+        synchronized (lock) {
+            begin();
+            NNG.nngAioSetMsg(aio, message.detach());
+            NNG.nngCtxSendAio(context.id(), aio);
+        }
+    }
+
+    /**
+     * Start an asynchronous receive
+     *
+     * <p>On success the received message is available from {@link #takeMessage()}.</p>
+     *
+     * @param socket socket handle
+     */
+    public void receive(long socket) {
+        synchronized (lock) {
+            begin();
+            NNG.nngAioSetMsg(aio, 0);
+            NNG.nngSocketRecvAio(socket, aio);
+        }
+    }
+
+    /**
+     * Start an asynchronous receive on a context
+     * @param context context to receive on
+     */
+    public void receive(@NonNull NngContext context) {
+        synchronized (lock) {
+            begin();
+            NNG.nngAioSetMsg(aio, 0);
+            NNG.nngCtxRecvAio(context.id(), aio);
+        }
+    }
+
+    /**
+     * Take the message held by this AIO object, transferring ownership to the caller
+     * @return message handle, or 0 if none
+     */
+    public long takeMessage() {
+        synchronized (lock) {
+            if (freed) return 0;
+            long msg = NNG.nngAioGetMsg(aio);
+            if (msg != 0) {
+                NNG.nngAioSetMsg(aio, 0);
+            }
+            return msg;
+        }
+    }
+
+    /**
+     * Take the message held by this AIO object as a pooled message object
+     * @param pool pool that receives the message when it is closed
+     * @return message, or null if none
+     */
+    @Nullable
+    public NngMessage takeMessage(@NonNull NngMessagePool pool) {
+        long msg = takeMessage();
+        return msg != 0 ? pool.adopt(msg) : null;
+    }
+
+    /**
+     * Set the timeout for subsequent operations
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     */
+    public void setTimeout(int ms) {
+        synchronized (lock) {
+            if (freed) return;
+            NNG.nngAioSetTimeout(aio, ms);
+        }
+    }
+
+    /**
+     * Cancel the operation in progress; the handler receives NNG_ECANCELED
+     */
+    public void cancel() {
+        synchronized (lock) {
+            if (freed) return;
+            NNG.nngAioCancel(aio);
+        }
+    }
+
+    /**
+     * Whether an operation is in progress
+     * @return true until the completion has been dispatched
+     */
+    public boolean isBusy() {
+        if (busy.get()) failDropped();
+        return busy.get();
+    }
+
+    /**
+     * Result of the last completed operation
+     * @return 0 on success, NNG error code on failure
+     */
+    public int getResult() {
+        return result;
+    }
+
+    /**
+     * Free the AIO object
+     *
+     * <p>An operation still in flight is aborted and its completion is still
+     * delivered to the handler, with an error. If a completion is being
+     * dispatched, the native AIO is freed once the handler returns, so this
+     * may also be called from inside the handler, on any executor. When the
+     * handler runs on the NNG callback thread (a direct executor), the native
+     * AIO is freed shortly afterwards on another thread.</p>
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        if (callbackThread.get() == Thread.currentThread()) {
+            // nng_aio_stop would wait for the callback this thread is running
+            cancel();
+            NngCleaner.defer(deferredClose);
+            return;
+        }
+        closeNative();
+    }
+
+    private void closeNative() {
+        // Abort any operation and wait for the native callback to finish
+        NNG.nngAioStop(aio);
+        synchronized (lock) {
+            stopped = true;
+            if (!dispatching) {
+                freeNative();
+            }
+        }
+    }
+
+    // Must hold lock
+    private void freeNative() {
+        if (freed) return;
+        freed = true;
+        long msg = NNG.nngAioGetMsg(aio);
+        if (msg != 0) {
+            NNG.nngAioSetMsg(aio, 0);
+            NNG.nngMsgFree(msg);
+        }
+        NNG.nngAioCallbackFree(handle);
+    }
+
+    // Must hold lock
+    private void begin() {
+        if (closed.get() || freed) throw new IllegalStateException("AIO closed");
+        if (!busy.compareAndSet(false, true)) {
+            // A lost completion is failed now, but this call still finds the AIO busy
+            failDropped();
+            throw new IllegalStateException("AIO operation already in progress");
+        }
+    }
+
+    /**
+     * Fail an operation whose completion the native callback could not deliver
+     * because its thread could not be attached to the JVM; the handler receives
+     * NNG_EINTERNAL instead
+     */
+    private void failDropped() {
+        synchronized (lock) {
+            if (freed || dispatching || NNG.nngAioCallbackDropped(handle) < 0) return;
+            long msg = NNG.nngAioGetMsg(aio);
+            if (msg != 0) {
+                NNG.nngAioSetMsg(aio, 0);
+                NNG.nngMsgFree(msg);
+            }
+            NngLog.e(TAG, "Completion was not delivered by NNG; failing the operation");
+            result = NngWrapper.NNG_EINTERNAL;
+            dispatching = true;
+        }
+        deliver();
+    }
+
+    /**
+     * Called from the native completion callback on an NNG worker thread
+     */
+    @SuppressWarnings("unused")
+    private void onNativeComplete(int rv) {
+        result = rv;
+        synchronized (lock) {
+            dispatching = true;
+        }
+        Thread self = Thread.currentThread();
+        callbackThread.set(self);
+        try {
+            deliver();
+        } finally {
+            // A completion of an operation restarted meanwhile may already run on another thread
+            callbackThread.compareAndSet(self, null);
+        }
+    }
+
+    private void deliver() {
+        try {
+            executor.execute(dispatch);
+        } catch (RejectedExecutionException e) {
+            NngLog.w(TAG, "Executor rejected completion, running inline");
+            dispatch.run();
+        }
+    }
+}
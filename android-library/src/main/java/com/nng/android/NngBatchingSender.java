@@ -0,0 +1,325 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs many small records into one message before sending
+ *
+ * <p>Sending each small record on its own costs a JNI call, an
+ * {@code nng_send} and, on {@code tcp://}, a frame and usually a write per
+ * record. This sender copies records into a native staging buffer instead, and
+ * sends the buffer as one message when it holds {@code maxBytes} bytes or
+ * {@code maxRecords} records, or when the oldest record has waited
+ * {@code lingerMicros}. Records are length-prefixed (see
+ * {@link NngFrameReader}), so the receiver can split them without copies.</p>
+ *
+ * <pre>{@code
+ * ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+ * NngBatchingSender sender = new NngBatchingSender(push, 64 * 1024, 512, 2000, timer);
+ * // per sensor event
+ * sender.addString(event.toJson());
+ * // ...
+ * sender.close();   // sends what is left
+ * }</pre>
+ *
+ * <p>Batching trades latency for throughput: a record may wait up to the
+ * linger time before it is sent. A record too large for the staging buffer is
+ * sent in a message of its own. All methods are thread-safe. Sends block while
+ * holding the sender's lock, which applies backpressure to producers.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngBatchingSender implements AutoCloseable {
+    private static final String TAG = "NngBatchingSender";
+
+    private final NngSocket socket;
+    private final ByteBuffer batch;
+    private final int maxRecords;
+    private final long lingerNanos;
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+    private int records;
+    // Incremented by every successful flush; a linger timer only flushes its own batch
+    private long generation;
+    private boolean closed;
+    private final NngCounter recordsSent = new NngCounter();
+    private final NngCounter messagesSent = new NngCounter();
+    private final NngCounter bytesSent = new NngCounter();
+
+    /**
+     * Create a sender that flushes on size and count only
+     * @param socket socket to send on; left open by {@link #close()}
+     * @param maxBytes message size, including length prefixes, at which the batch is sent
+     * @param maxRecords record count at which the batch is sent
+     */
+    public NngBatchingSender(@NonNull NngSocket socket, int maxBytes, int maxRecords) {
+        this(socket, maxBytes, maxRecords, 0, null);
+    }
+
+    /**
+     * Create a sender
+     * @param socket socket to send on; left open by {@link #close()}
+     * @param maxBytes message size, including length prefixes, at which the batch is sent
+     * @param maxRecords record count at which the batch is sent
+     * @param lingerMicros longest time a record waits before its batch is sent, 0 for no limit
+     * @param scheduler runs the linger timer and the sends it triggers; required if
+     *        {@code lingerMicros} is positive
+     */
+    public NngBatchingSender(@NonNull NngSocket socket, int maxBytes, int maxRecords, long lingerMicros,
+                             @Nullable ScheduledExecutorService scheduler) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive");
+        if (maxRecords <= 0) throw new IllegalArgumentException("maxRecords must be positive");
+        if (lingerMicros < 0) throw new IllegalArgumentException("lingerMicros must not be negative");
+        if (lingerMicros > 0 && scheduler == null) {
+            throw new IllegalArgumentException("A scheduler is required for a linger time");
+        }
+        this.socket = socket;
+        this.batch = ByteBuffer.allocateDirect(maxBytes);
+        this.maxRecords = maxRecords;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.scheduler = lingerMicros > 0 ? scheduler : null;
+    }
+
+    /**
+     * Queue a record
+     * @param record record bytes; copied before this returns
+     * @throws NngWrapper.NngException if a send triggered by this record fails; the
+     *         record is not queued
+     */
+    public void add(@NonNull byte[] record) throws NngWrapper.NngException {
+        add(record, 0, record.length);
+    }
+
+    /**
+     * Queue part of an array as a record
+     * @param record source array; copied before this returns
+     * @param offset offset of the record
+     * @param length record length
+     * @throws NngWrapper.NngException if a send triggered by this record fails; the
+     *         record is not queued
+     */
+    public synchronized void add(@NonNull byte[] record, int offset, int length) throws NngWrapper.NngException {
+        if (offset < 0 || length < 0 || offset > record.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length
+                    + ", array length=" + record.length);
+        }
+        ByteBuffer out = reserve(length);
+        if (out == null) {
+            try (NngMessage message = NngMessage.allocate(frameSize(length))) {
+                ByteBuffer body = message.body();
+                NngFrameReader.putLength(body, length);
+                body.put(record, offset, length);
+                sendAlone(message);
+            }
+            return;
+        }
+        out.put(record, offset, length);
+        added(length);
+    }
+
+    /**
+     * Queue the remaining bytes of a buffer as a record; the buffer's position is advanced
+     * @param record record bytes
+     * @throws NngWrapper.NngException if a send triggered by this record fails; the
+     *         record is not queued and the buffer's position is left unchanged
+     */
+    public synchronized void add(@NonNull ByteBuffer record) throws NngWrapper.NngException {
+        int length = record.remaining();
+        ByteBuffer out = reserve(length);
+        if (out == null) {
+            try (NngMessage message = NngMessage.allocate(frameSize(length))) {
+                ByteBuffer body = message.body();
+                NngFrameReader.putLength(body, length);
+                body.put(record);
+                sendAlone(message);
+            }
+            return;
+        }
+        int start = record.position();
+        out.put(record);
+        try {
+            added(length);
+        } catch (NngWrapper.NngException | RuntimeException e) {
+            record.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Queue a UTF-8 record, encoded straight into the batch without a temporary byte[]
+     * @param record record text
+     * @throws NngWrapper.NngException if a send triggered by this record fails; the
+     *         record is not queued
+     */
+    public synchronized void addString(@NonNull CharSequence record) throws NngWrapper.NngException {
+        int length = NngUtf8.encodedLength(record);
+        ByteBuffer out = reserve(length);
+        if (out == null) {
+            try (NngMessage message = NngMessage.allocate(frameSize(length))) {
+                ByteBuffer body = message.body();
+                NngFrameReader.putLength(body, length);
+                NngUtf8.encode(record, body);
+                sendAlone(message);
+            }
+            return;
+        }
+        NngUtf8.encode(record, out);
+        added(length);
+    }
+
+    /**
+     * Send the queued records now
+     * @throws NngWrapper.NngException if sending fails; the records stay queued
+     */
+    public synchronized void flush() throws NngWrapper.NngException {
+        if (records == 0) return;
+        int size = batch.position();
+        batch.flip();
+        try {
+            socket.send(batch);
+        } catch (NngWrapper.NngException | RuntimeException e) {
+            // Reopen the batch for appending
+            batch.limit(batch.capacity());
+            batch.position(size);
+            throw e;
+        }
+        recordsSent.add(records);
+        messagesSent.increment();
+        bytesSent.add(size);
+        batch.clear();
+        records = 0;
+        generation++;
+    }
+
+    /**
+     * Records waiting to be sent
+     * @return record count
+     */
+    public synchronized int pendingRecords() {
+        return records;
+    }
+
+    /**
+     * Bytes waiting to be sent, including length prefixes
+     * @return byte count
+     */
+    public synchronized int pendingBytes() {
+        return batch.position();
+    }
+
+    /**
+     * Records sent so far
+     * @return record count
+     */
+    public long recordsSent() {
+        return recordsSent.sum();
+    }
+
+    /**
+     * Messages sent so far; {@code recordsSent() / messagesSent()} is the batching factor
+     * @return message count
+     */
+    public long messagesSent() {
+        return messagesSent.sum();
+    }
+
+    /**
+     * Bytes sent so far, including length prefixes
+     * @return byte count
+     */
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Send the queued records and stop the linger timer; the socket is left open
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        try {
+            flush();
+        } catch (NngWrapper.NngException e) {
+            NngLog.w(TAG, "Dropped " + records + " queued records", e);
+        }
+        closed = true;
+    }
+
+    // Makes room for a record and writes its length, or returns null if it cannot fit in a batch
+    @Nullable
+    private ByteBuffer reserve(int length) throws NngWrapper.NngException {
+        if (closed) throw new IllegalStateException("Sender closed");
+        int size = frameSize(length);
+        if (size > batch.capacity()) {
+            flush();
+            return null;
+        }
+        if (size > batch.remaining()) {
+            flush();
+        }
+        NngFrameReader.putLength(batch, length);
+        return batch;
+    }
+
+    // Counts the record just written; if the flush it triggers fails, the record is taken out again
+    private void added(int length) throws NngWrapper.NngException {
+        records++;
+        if (records >= maxRecords || !batch.hasRemaining()) {
+            int start = batch.position() - frameSize(length);
+            try {
+                flush();
+            } catch (NngWrapper.NngException | RuntimeException e) {
+                batch.position(start);
+                records--;
+                throw e;
+            }
+        } else if (records == 1) {
+            scheduleLinger();
+        }
+    }
+
+    private void sendAlone(NngMessage message) throws NngWrapper.NngException {
+        int size = message.length();
+        socket.send(message);
+        recordsSent.increment();
+        messagesSent.increment();
+        bytesSent.add(size);
+    }
+
+    private void scheduleLinger() {
+        if (scheduler == null) return;
+        final long batchGeneration = generation;
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    lingerExpired(batchGeneration);
+                }
+            }, lingerNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            NngLog.w(TAG, "Scheduler rejected linger timer; batch waits for size, count or flush()");
+        }
+    }
+
+    private synchronized void lingerExpired(long batchGeneration) {
+        if (closed || batchGeneration != generation || records == 0) return;
+        try {
+            flush();
+        } catch (NngClosedException e) {
+            NngLog.w(TAG, "Socket closed, " + records + " queued records not sent");
+        } catch (NngWrapper.NngException e) {
+            NngLog.w(TAG, "Linger flush failed, retrying", e);
+            scheduleLinger();
+        }
+    }
+
+    private static int frameSize(int length) {
+        return NngFrameReader.lengthSize(length) + length;
+    }
+}
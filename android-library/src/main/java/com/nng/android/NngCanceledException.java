@@ -0,0 +1,20 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Operation was canceled (NNG_ECANCELED)
+ *
+ * @since 1.11.0
+ */
+public class NngCanceledException extends NngWrapper.NngException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception
+     * @param message context, prefixed to the NNG error text
+     */
+    public NngCanceledException(@NonNull String message) {
+        super(message, NngWrapper.NNG_ECANCELED);
+    }
+}
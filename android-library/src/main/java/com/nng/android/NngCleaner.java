@@ -0,0 +1,87 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Releases native resources of objects that became unreachable without being closed
+ *
+ * <p>A minimal stand-in for {@code java.lang.ref.Cleaner}, which is not
+ * available below API 33. Cleanup actions run on a single daemon thread and
+ * must not reference the object they clean up.</p>
+ */
+final class NngCleaner {
+    private static final String TAG = "NngCleaner";
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    // Keeps registered references reachable until they are cleaned
+    private static final Set<Cleanable> PENDING =
+            Collections.newSetFromMap(new ConcurrentHashMap<Cleanable, Boolean>());
+
+    static {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        ((Cleanable) QUEUE.remove()).clean();
+                    } catch (InterruptedException e) {
+                        // Keep running; this thread lives as long as the process
+                    } catch (Throwable t) {
+                        NngLog.e(TAG, "Cleanup action failed", t);
+                    }
+                }
+            }
+        }, "NngCleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private NngCleaner() {
+    }
+
+    /**
+     * Run {@code action} soon on the cleaner thread, e.g. to free native state
+     * that must not be freed on the calling NNG callback thread
+     */
+    static void defer(@NonNull Runnable action) {
+        Cleanable cleanable = new Cleanable(new Object(), action);
+        PENDING.add(cleanable);
+        cleanable.enqueue();
+    }
+
+    /**
+     * Run {@code action} once {@code referent} becomes phantom reachable,
+     * unless {@link Cleanable#clean()} is called first
+     */
+    @NonNull
+    static Cleanable register(@NonNull Object referent, @NonNull Runnable action) {
+        Cleanable cleanable = new Cleanable(referent, action);
+        PENDING.add(cleanable);
+        return cleanable;
+    }
+
+    static final class Cleanable extends PhantomReference<Object> {
+        private final Runnable action;
+
+        private Cleanable(Object referent, Runnable action) {
+            super(referent, QUEUE);
+            this.action = action;
+        }
+
+        /**
+         * Run the action now if it has not run yet, and unregister it
+         */
+        void clean() {
+            if (PENDING.remove(this)) {
+                action.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Socket, context or other object has been closed (NNG_ECLOSED)
+ *
+ * @since 1.11.0
+ */
+public class NngClosedException extends NngWrapper.NngException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception
+     * @param message context, prefixed to the NNG error text
+     */
+    public NngClosedException(@NonNull String message) {
+        super(message, NngWrapper.NNG_ECLOSED);
+    }
+}
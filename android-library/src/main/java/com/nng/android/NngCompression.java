@@ -0,0 +1,313 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression applied to payloads by a socket view
+ *
+ * <p>Attach with {@link NngSocket#withCompression(NngCompression)}. Every
+ * payload sent through the view starts with a flag byte: payloads smaller
+ * than the threshold, or that do not shrink, are sent as they are after
+ * {@link #FLAG_NONE}; the others are sent after {@link #FLAG_DEFLATE} and
+ * their uncompressed length (4 bytes, big-endian) as a zlib stream. Both
+ * peers must use compression on the link.</p>
+ *
+ * <pre>{@code
+ * NngCompression deflate = NngCompression.deflate(1024);
+ * NngSocketMetrics metrics = new NngSocketMetrics();
+ * NngSocket push = NngSocket.push0().withCompression(deflate).withMetrics(metrics);
+ * push.send(snapshotJson);
+ * // ...
+ * Log.i(TAG, "ratio " + metrics.compressionRatio() + ", deflate " + metrics.compressTime());
+ * }</pre>
+ *
+ * <p>{@code Deflater}/{@code Inflater} instances and their scratch arrays
+ * are pooled, so a steady stream of messages compresses without allocating
+ * native zlib state. One instance may be shared by many sockets and
+ * threads.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngCompression {
+    /** Flag byte of a payload sent uncompressed */
+    public static final byte FLAG_NONE = 0;
+    /** Flag byte of a Deflate-compressed payload */
+    public static final byte FLAG_DEFLATE = 1;
+
+    private static final int DEFLATE_HEADER_SIZE = 5;
+    private static final int DEFAULT_MAX_DECODED_SIZE = 64 * 1024 * 1024;
+    // Scratch arrays larger than this are dropped when a codec returns to the pool
+    private static final int MAX_RETAINED_SCRATCH = 1024 * 1024;
+
+    private final int threshold;
+    private final int level;
+    private final int maxDecodedSize;
+    private final Codec[] codecs;
+    private int codecCount;
+
+    /**
+     * Pooled zlib state and scratch arrays, used by one thread at a time
+     */
+    static final class Codec {
+        final Deflater deflater;
+        final Inflater inflater = new Inflater();
+        // Input copied out of native buffers
+        byte[] in = new byte[0];
+        // Encoded or decoded payload
+        byte[] out = new byte[0];
+
+        Codec(int level) {
+            this.deflater = new Deflater(level);
+        }
+
+        byte[] in(int size) {
+            if (in.length < size) in = new byte[size];
+            return in;
+        }
+
+        byte[] out(int size) {
+            if (out.length < size) out = new byte[size];
+            return out;
+        }
+
+        void end() {
+            deflater.end();
+            inflater.end();
+        }
+    }
+
+    private NngCompression(int threshold, int level, int maxDecodedSize) {
+        this.threshold = threshold;
+        this.level = level;
+        this.maxDecodedSize = maxDecodedSize;
+        this.codecs = new Codec[Math.max(2, Runtime.getRuntime().availableProcessors())];
+    }
+
+    /**
+     * Deflate at the default level
+     * @param threshold smallest payload, in bytes, that is compressed
+     * @return compression
+     */
+    @NonNull
+    public static NngCompression deflate(int threshold) {
+        return deflate(threshold, Deflater.DEFAULT_COMPRESSION, DEFAULT_MAX_DECODED_SIZE);
+    }
+
+    /**
+     * Deflate with explicit settings
+     * @param threshold smallest payload, in bytes, that is compressed
+     * @param level 1 (fastest) to 9 (smallest), or {@code Deflater.DEFAULT_COMPRESSION}
+     * @param maxDecodedSize largest uncompressed size accepted from a peer; larger
+     *        payloads fail with NNG_EMSGSIZE instead of being inflated
+     * @return compression
+     */
+    @NonNull
+    public static NngCompression deflate(int threshold, int level, int maxDecodedSize) {
+        if (threshold < 0) throw new IllegalArgumentException("Negative threshold");
+        if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)
+                && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid level: " + level);
+        }
+        if (maxDecodedSize <= 0) throw new IllegalArgumentException("maxDecodedSize must be positive");
+        return new NngCompression(threshold, level, maxDecodedSize);
+    }
+
+    /**
+     * Smallest payload that is compressed
+     * @return size in bytes
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+    /**
+     * Deflate level
+     * @return level, or {@code Deflater.DEFAULT_COMPRESSION}
+     */
+    public int level() {
+        return level;
+    }
+
+    /**
+     * Largest uncompressed size accepted from a peer
+     * @return size in bytes
+     */
+    public int maxDecodedSize() {
+        return maxDecodedSize;
+    }
+
+    /**
+     * Encode a payload as a compression view would send it, e.g. for use with {@link NngAio}
+     * @param data payload
+     * @return flag byte followed by the payload, compressed if that pays off
+     */
+    @NonNull
+    public byte[] compress(@NonNull byte[] data) {
+        Codec codec = acquire();
+        try {
+            int length = encode(codec, data, 0, data.length, null);
+            byte[] result = new byte[length];
+            System.arraycopy(codec.out, 0, result, 0, length);
+            return result;
+        } finally {
+            release(codec);
+        }
+    }
+
+    /**
+     * Decode a payload produced by {@link #compress(byte[])} or a compression view
+     * @param data flag byte followed by the payload
+     * @return original payload
+     * @throws NngWrapper.NngException with NNG_EPROTO if the payload is malformed, or
+     *         NNG_EMSGSIZE if it is larger than {@link #maxDecodedSize()}
+     */
+    @NonNull
+    public byte[] decompress(@NonNull byte[] data) throws NngWrapper.NngException {
+        Codec codec = acquire();
+        try {
+            int length = decode(codec, data, 0, data.length, null);
+            byte[] result = new byte[length];
+            System.arraycopy(codec.out, 0, result, 0, length);
+            return result;
+        } finally {
+            release(codec);
+        }
+    }
+
+    /**
+     * Free the pooled zlib state; the instance stays usable
+     */
+    public void clear() {
+        synchronized (this) {
+            while (codecCount > 0) {
+                Codec codec = codecs[--codecCount];
+                codecs[codecCount] = null;
+                codec.end();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NngCompression{deflate, threshold=" + threshold + ", level=" + level + "}";
+    }
+
+    @NonNull
+    Codec acquire() {
+        synchronized (this) {
+            if (codecCount > 0) {
+                Codec codec = codecs[--codecCount];
+                codecs[codecCount] = null;
+                return codec;
+            }
+        }
+        return new Codec(level);
+    }
+
+    void release(@NonNull Codec codec) {
+        if (codec.in.length > MAX_RETAINED_SCRATCH) codec.in = new byte[0];
+        if (codec.out.length > MAX_RETAINED_SCRATCH) codec.out = new byte[0];
+        synchronized (this) {
+            if (codecCount < codecs.length) {
+                codecs[codecCount++] = codec;
+                return;
+            }
+        }
+        codec.end();
+    }
+
+    /**
+     * Encode a payload into {@code codec.out}
+     * @param socket socket to report the compression to, or null
+     * @return encoded length
+     */
+    int encode(@NonNull Codec codec, @NonNull byte[] data, int offset, int length, @Nullable NngSocket socket) {
+        // The payload is sent as it is unless deflate saves at least one byte
+        int rawSize = 1 + length;
+        byte[] out = codec.out(rawSize);
+        if (length >= threshold && rawSize > DEFLATE_HEADER_SIZE) {
+            NngMetricsListener metrics = socket != null ? socket.metrics() : null;
+            long start = metrics != null ? System.nanoTime() : 0;
+            Deflater deflater = codec.deflater;
+            deflater.reset();
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            int n = DEFLATE_HEADER_SIZE;
+            while (!deflater.finished() && n < rawSize) {
+                n += deflater.deflate(out, n, rawSize - n);
+            }
+            boolean smaller = deflater.finished() && n < rawSize;
+            if (metrics != null) {
+                metrics.onCompress(socket, length, smaller ? n : rawSize, System.nanoTime() - start);
+            }
+            if (smaller) {
+                out[0] = FLAG_DEFLATE;
+                out[1] = (byte) (length >>> 24);
+                out[2] = (byte) (length >>> 16);
+                out[3] = (byte) (length >>> 8);
+                out[4] = (byte) length;
+                return n;
+            }
+        }
+        out[0] = FLAG_NONE;
+        System.arraycopy(data, offset, out, 1, length);
+        return rawSize;
+    }
+
+    /**
+     * Decode a payload into {@code codec.out}
+     * @param socket socket to report the decompression to, or null
+     * @return decoded length
+     */
+    int decode(@NonNull Codec codec, @NonNull byte[] data, int offset, int length, @Nullable NngSocket socket)
+            throws NngWrapper.NngException {
+        if (length < 1) throw malformed("Missing compression flag");
+        byte flag = data[offset];
+        if (flag == FLAG_NONE) {
+            byte[] out = codec.out(length - 1);
+            System.arraycopy(data, offset + 1, out, 0, length - 1);
+            return length - 1;
+        }
+        if (flag != FLAG_DEFLATE) throw malformed("Unknown compression flag " + flag);
+        if (length < DEFLATE_HEADER_SIZE) throw malformed("Truncated compression header");
+        int decodedSize = (data[offset + 1] & 0xff) << 24 | (data[offset + 2] & 0xff) << 16
+                | (data[offset + 3] & 0xff) << 8 | (data[offset + 4] & 0xff);
+        if (decodedSize < 0 || decodedSize > maxDecodedSize) {
+            throw NngWrapper.NngException.of("Compressed payload of " + (decodedSize & 0xffffffffL)
+                    + " bytes exceeds " + maxDecodedSize, NngWrapper.NNG_EMSGSIZE);
+        }
+        NngMetricsListener metrics = socket != null ? socket.metrics() : null;
+        long start = metrics != null ? System.nanoTime() : 0;
+        // One spare byte lets zlib read the stream trailer, and exposes payloads longer than declared
+        byte[] out = codec.out(decodedSize + 1);
+        Inflater inflater = codec.inflater;
+        inflater.reset();
+        inflater.setInput(data, offset + DEFLATE_HEADER_SIZE, length - DEFLATE_HEADER_SIZE);
+        int n = 0;
+        try {
+            while (!inflater.finished()) {
+                int r = inflater.inflate(out, n, decodedSize + 1 - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary() || n > decodedSize)) {
+                    throw malformed("Truncated compressed payload");
+                }
+                n += r;
+            }
+        } catch (DataFormatException e) {
+            throw malformed("Corrupt compressed payload: " + e.getMessage());
+        }
+        if (n != decodedSize) throw malformed("Compressed payload length mismatch");
+        if (metrics != null) {
+            metrics.onDecompress(socket, length, n, System.nanoTime() - start);
+        }
+        return n;
+    }
+
+    private static NngWrapper.NngException malformed(String message) {
+        return NngWrapper.NngException.of(message, NngWrapper.NNG_EPROTO);
+    }
+}
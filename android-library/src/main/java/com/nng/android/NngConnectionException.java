@@ -0,0 +1,24 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Peer could not be reached or the connection was lost
+ *
+ * <p>Raised for NNG_ECONNREFUSED, NNG_ECONNRESET, NNG_ECONNABORTED and
+ * NNG_EUNREACHABLE; {@link #getErrorCode()} tells them apart.</p>
+ *
+ * @since 1.11.0
+ */
+public class NngConnectionException extends NngWrapper.NngException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception
+     * @param message context, prefixed to the NNG error text
+     * @param errorCode one of the connection error codes
+     */
+    public NngConnectionException(@NonNull String message, int errorCode) {
+        super(message, errorCode);
+    }
+}
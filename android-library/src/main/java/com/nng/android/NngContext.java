@@ -0,0 +1,223 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Independent protocol context on a socket
+ *
+ * <p>A socket by itself runs one request/reply exchange at a time. Each
+ * context carries its own protocol state, so a Req0 socket can have one
+ * request outstanding per context and a Rep0 socket can serve one request per
+ * context, all over the same connections.</p>
+ *
+ * <pre>{@code
+ * NngSocket req = NngSocket.req0();
+ * req.dial("tcp://server:5555");
+ *
+ * // one context per concurrent caller
+ * try (NngContext ctx = NngContext.open(req)) {
+ *     ctx.setRecvTimeout(1000);
+ *     try (NngMessage request = NngMessage.allocate(0)) {
+ *         request.append(payload);
+ *         ctx.send(request);
+ *     }
+ *     try (NngMessage reply = ctx.receive()) {
+ *         // ...
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Blocking {@link #send(NngMessage)} and {@link #receive()} may be called
+ * from any thread, but a context runs one operation at a time; use one
+ * context per concurrent exchange.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngContext implements AutoCloseable {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    private final long socket;
+    private final long ctx;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private NngContext(long socket, long ctx) {
+        this.socket = socket;
+        this.ctx = ctx;
+    }
+
+    /**
+     * Open a context on a socket
+     * @param socket socket handle (Req0, Rep0, Sub0, Surveyor0 or Respondent0)
+     * @return new context
+     * @throws NngWrapper.NngException if the protocol does not support contexts or the socket is closed
+     */
+    @NonNull
+    public static NngContext open(long socket) throws NngWrapper.NngException {
+        long ctx = NNG.nngCtxOpen(socket);
+        if (ctx <= 0) {
+            throw NngWrapper.NngException.of("Failed to open context", (int)(-ctx));
+        }
+        return new NngContext(socket, ctx);
+    }
+
+    /**
+     * Open a context on a socket
+     * @param socket Req0, Rep0, Sub0, Surveyor0 or Respondent0 socket
+     * @return new context
+     * @throws NngWrapper.NngException if the protocol does not support contexts or the socket is closed
+     */
+    @NonNull
+    public static NngContext open(@NonNull NngSocket socket) throws NngWrapper.NngException {
+        return open(socket.handle());
+    }
+
+    /**
+     * Context handle, for use with the raw {@code nngCtx*} natives
+     * @return context handle
+     */
+    public long id() {
+        return ctx;
+    }
+
+    /**
+     * Socket this context was opened on
+     * @return socket handle
+     */
+    public long socket() {
+        return socket;
+    }
+
+    /**
+     * Send a message, waiting up to the send timeout
+     *
+     * <p>On success the native message is consumed and {@code message} can only
+     * be closed. On failure it is left intact and may be retried.</p>
+     *
+     * @param message message to send
+     * @throws NngWrapper.NngException if send fails
+     */
+    public void send(@NonNull NngMessage message) throws NngWrapper.NngException {
+        int rv = NNG.nngCtxSendMsg(ctx, message.handle());
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to send", rv);
+        }
+        message.detach();
+    }
+
+    /**
+     * Receive a message, waiting up to the receive timeout
+     *
+     * <p>The message comes from the default {@link NngMessagePool}; close it when done.</p>
+     *
+     * @return received message
+     * @throws NngWrapper.NngException if receive fails
+     */
+    @NonNull
+    public NngMessage receive() throws NngWrapper.NngException {
+        long msg = NNG.nngCtxRecvMsg(ctx);
+        if (NngWrapper.isError(msg)) {
+            throw NngWrapper.NngException.of("Failed to receive", NngWrapper.errorCode(msg));
+        }
+        return NngMessagePool.getDefault().adopt(msg);
+    }
+
+    /**
+     * Start an asynchronous send; completion is reported to the AIO's handler
+     * @param aio idle AIO object
+     * @param message message to send
+     */
+    public void sendAsync(@NonNull NngAio aio, @NonNull NngMessage message) {
+        aio.send(this, message);
+    }
+
+    /**
+     * Start an asynchronous receive; completion is reported to the AIO's handler
+     * @param aio idle AIO object
+     */
+    public void receiveAsync(@NonNull NngAio aio) {
+        aio.receive(this);
+    }
+
+    /**
+     * Start a send on a pooled AIO and return at once
+     * @param message message to send; close it right after this call
+     * @param timeoutMs timeout in milliseconds, applied with {@code nng_aio_set_timeout}
+     * @return future completed once NNG has accepted the message
+     * @throws NngWrapper.NngException if no AIO can be allocated
+     * @see NngSocket#awaitSend(NngMessage, int)
+     * @since 1.11.0
+     */
+    @NonNull
+    public NngFuture<Void> awaitSend(@NonNull NngMessage message, int timeoutMs) throws NngWrapper.NngException {
+        return NngFuture.send(this, message, timeoutMs);
+    }
+
+    /**
+     * Start a receive on a pooled AIO and return at once
+     * @param timeoutMs timeout in milliseconds, applied with {@code nng_aio_set_timeout}
+     * @return future of the received message; close the message when done
+     * @throws NngWrapper.NngException if no AIO can be allocated
+     * @see NngSocket#awaitRecv(int)
+     * @since 1.11.0
+     */
+    @NonNull
+    public NngFuture<NngMessage> awaitRecv(int timeoutMs) throws NngWrapper.NngException {
+        return NngFuture.receive(this, timeoutMs);
+    }
+
+    /**
+     * Set receive timeout for this context
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setRecvTimeout(int ms) throws NngWrapper.NngException {
+        int rv = NNG.nngCtxSetRecvTimeout(ctx, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set receive timeout", rv);
+        }
+    }
+
+    /**
+     * Set send timeout for this context
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSendTimeout(int ms) throws NngWrapper.NngException {
+        int rv = NNG.nngCtxSetSendTimeout(ctx, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set send timeout", rv);
+        }
+    }
+
+    /**
+     * Set how long a survey sent on this context collects responses (Surveyor0 only)
+     * @param ms survey duration in milliseconds
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSurveyTime(int ms) throws NngWrapper.NngException {
+        int rv = NNG.nngCtxSetSurveyTime(ctx, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set survey time", rv);
+        }
+    }
+
+    /**
+     * Whether {@link #close()} has been called
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Close the context; pending operations complete with NNG_ECLOSED
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            NNG.nngCtxClose(ctx);
+        }
+    }
+}
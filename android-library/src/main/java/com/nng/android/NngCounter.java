@@ -0,0 +1,78 @@
+package com.nng.android;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped counter for hot paths
+ *
+ * <p>A stand-in for {@code java.util.concurrent.atomic.LongAdder}, which is
+ * not available below API 24. Each thread adds to one of several cells chosen
+ * by its ID; cells are spaced a cache line apart so concurrent senders and
+ * receivers do not contend. {@link #sum()} is not an atomic snapshot while
+ * updates are in progress.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngCounter {
+    // 8 longs = 64 bytes between cells
+    private static final int PAD_SHIFT = 3;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * Create a counter with a stripe per available processor (rounded up to a power of two)
+     */
+    public NngCounter() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes << PAD_SHIFT);
+    }
+
+    /**
+     * Add to the counter
+     * @param delta amount to add
+     */
+    public void add(long delta) {
+        cells.getAndAdd(cell(), delta);
+    }
+
+    /**
+     * Add one to the counter
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Current total
+     * @return sum of all cells
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i << PAD_SHIFT);
+        }
+        return sum;
+    }
+
+    /**
+     * Reset to zero; concurrent additions may be lost
+     */
+    public void reset() {
+        for (int i = 0; i <= mask; i++) {
+            cells.set(i << PAD_SHIFT, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+
+    private int cell() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & mask) << PAD_SHIFT;
+    }
+}
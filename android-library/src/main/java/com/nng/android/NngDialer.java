@@ -0,0 +1,162 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dialer of a socket: connects to one URL and reconnects when the connection drops
+ *
+ * <p>A dialer started with {@link #start()} returns at once. The first
+ * connection attempt runs in the background, and failed attempts are retried
+ * with the reconnect back-off, so the peer does not have to be up yet.
+ * Register an {@link NngPipeListener} on the socket to learn when the
+ * connection is made.</p>
+ *
+ * <pre>{@code
+ * NngSocket client = NngSocket.pair0();
+ * client.setPipeListener((pipe, event) -> {
+ *     if (event == NngWrapper.NNG_PIPE_EV_ADD_POST) onConnected();
+ * });
+ * NngDialer dialer = client.dialer("tcp://server:5555");
+ * dialer.setReconnectTime(50, 2000);
+ * dialer.start();
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngDialer implements AutoCloseable {
+    private static final String TAG = "NngDialer";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    private final long id;
+    private final String url;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private NngDialer(long id, String url) {
+        this.id = id;
+        this.url = url;
+    }
+
+    static NngDialer create(long socket, @NonNull String url) throws NngWrapper.NngException {
+        long rv = NNG.nngDialerCreate(socket, url);
+        if (rv < 0) {
+            throw NngWrapper.NngException.of("Failed to create dialer for " + url, (int) -rv);
+        }
+        return new NngDialer(rv, url);
+    }
+
+    /**
+     * Dialer handle, for use with the raw {@link NngWrapper} natives
+     * @return dialer handle
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * URL this dialer connects to
+     * @return URL
+     */
+    @NonNull
+    public String url() {
+        return url;
+    }
+
+    /**
+     * Set the reconnect back-off
+     *
+     * <p>The dialer waits {@code minMs} before retrying and doubles the wait
+     * after each failure, up to {@code maxMs}.</p>
+     *
+     * @param minMs initial delay in milliseconds
+     * @param maxMs upper bound in milliseconds, 0 to always wait {@code minMs}
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setReconnectTime(int minMs, int maxMs) throws NngWrapper.NngException {
+        setMsOption(NngWrapper.NNG_OPT_RECONNMINT, minMs);
+        setMsOption(NngWrapper.NNG_OPT_RECONNMAXT, maxMs);
+    }
+
+    /**
+     * Set a boolean option, e.g. NNG_OPT_TCP_NODELAY
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param value option value
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setBoolOption(@NonNull String name, boolean value) throws NngWrapper.NngException {
+        checkSet(name, NNG.nngOptSetBool(NngWrapper.NNG_OPT_TARGET_DIALER, id, name, value));
+    }
+
+    /**
+     * Set a duration option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param ms duration in milliseconds
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setMsOption(@NonNull String name, int ms) throws NngWrapper.NngException {
+        checkSet(name, NNG.nngOptSetMs(NngWrapper.NNG_OPT_TARGET_DIALER, id, name, ms));
+    }
+
+    /**
+     * Set a size option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param bytes size in bytes
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSizeOption(@NonNull String name, long bytes) throws NngWrapper.NngException {
+        checkSet(name, NNG.nngOptSetSize(NngWrapper.NNG_OPT_TARGET_DIALER, id, name, bytes));
+    }
+
+    /**
+     * Start connecting in the background
+     *
+     * <p>Returns immediately. If the peer is not reachable the dialer keeps
+     * retrying with the reconnect back-off.</p>
+     *
+     * @throws NngWrapper.NngException if the dialer cannot be started
+     */
+    public void start() throws NngWrapper.NngException {
+        start(NngWrapper.NNG_FLAG_NONBLOCK);
+    }
+
+    /**
+     * Connect and wait for the first attempt to finish
+     * @throws NngWrapper.NngException if the first connection attempt fails
+     */
+    public void startBlocking() throws NngWrapper.NngException {
+        start(0);
+    }
+
+    /**
+     * Stop dialing and close the connections it made
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            NNG.nngDialerClose(id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NngDialer{" + url + ", " + id + (closed.get() ? ", closed}" : "}");
+    }
+
+    private void start(int flags) throws NngWrapper.NngException {
+        if (closed.get()) {
+            throw NngWrapper.NngException.of("Dialer closed", NngWrapper.NNG_ECLOSED);
+        }
+        int rv = NNG.nngDialerStart(id, flags);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to dial " + url, rv);
+        }
+        NngLog.i(TAG, (flags == 0 ? "Connected to " : "Dialing ") + url);
+    }
+
+    private static void checkSet(String name, int rv) throws NngWrapper.NngException {
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set option " + name, rv);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Iterates the records packed into one message by {@link NngBatchingSender}
+ *
+ * <p>Each record is framed as its length (unsigned LEB128 varint, 1 to 5
+ * bytes) followed by its bytes. The reader walks the body in place: the
+ * buffer returned by {@link #frame()} is the message body itself, with its
+ * position and limit moved to the current record, so no record is copied and
+ * nothing is allocated per record. One reader can be reused for every
+ * message.</p>
+ *
+ * <pre>{@code
+ * NngFrameReader frames = new NngFrameReader();
+ * while (running) {
+ *     try (NngMessage batch = pull.receiveMessage()) {
+ *         frames.reset(batch);
+ *         while (frames.next()) {
+ *             ByteBuffer record = frames.frame();
+ *             handle(record.getLong(), record.getFloat());
+ *         }
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>The frame view is valid until the next call to {@link #next()} and
+ * must not be used after the message is closed. Not thread-safe.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngFrameReader {
+    private ByteBuffer buffer;
+    private int cursor;
+    private int end;
+    private int frameLength;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Start reading the body of a message
+     * @param message message built by {@link NngBatchingSender}
+     * @return this reader
+     */
+    @NonNull
+    public NngFrameReader reset(@NonNull NngMessage message) {
+        return reset(message.body());
+    }
+
+    /**
+     * Start reading the bytes between a buffer's position and limit
+     *
+     * <p>The reader moves the buffer's position and limit as it goes.</p>
+     *
+     * @param body framed records
+     * @return this reader
+     */
+    @NonNull
+    public NngFrameReader reset(@NonNull ByteBuffer body) {
+        this.buffer = body;
+        this.cursor = body.position();
+        this.end = body.limit();
+        this.frameLength = 0;
+        return this;
+    }
+
+    /**
+     * Advance to the next record
+     * @return false when all records have been read
+     * @throws NngWrapper.NngException with NNG_EPROTO if the framing is malformed
+     */
+    public boolean next() throws NngWrapper.NngException {
+        if (buffer == null) throw new IllegalStateException("reset() not called");
+        if (cursor >= end) return false;
+        buffer.limit(end);
+        int p = cursor;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (p >= end || shift > 28) throw malformed();
+            int b = buffer.get(p++) & 0xff;
+            length |= (b & 0x7f) << shift;
+            if (b < 0x80) break;
+        }
+        if (length < 0 || length > end - p) throw malformed();
+        buffer.position(p);
+        buffer.limit(p + length);
+        cursor = p + length;
+        frameLength = length;
+        return true;
+    }
+
+    /**
+     * Current record as a view over the message body
+     * @return buffer positioned at the record's first byte, limited to its end
+     */
+    @NonNull
+    public ByteBuffer frame() {
+        if (buffer == null) throw new IllegalStateException("reset() not called");
+        return buffer;
+    }
+
+    /**
+     * Length of the current record
+     * @return number of bytes
+     */
+    public int frameLength() {
+        return frameLength;
+    }
+
+    /**
+     * Decode the current record as UTF-8
+     * @return record text
+     */
+    @NonNull
+    public String frameString() {
+        ByteBuffer frame = frame();
+        int length = frame.remaining();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        frame.get(scratch, 0, length);
+        frame.position(frame.position() - length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a frame length prefix at the buffer's position
+     */
+    static void putLength(@NonNull ByteBuffer out, int length) {
+        while ((length & ~0x7f) != 0) {
+            out.put((byte) ((length & 0x7f) | 0x80));
+            length >>>= 7;
+        }
+        out.put((byte) length);
+    }
+
+    /**
+     * Size of the length prefix of a record
+     */
+    static int lengthSize(int length) {
+        int size = 1;
+        while ((length & ~0x7f) != 0) {
+            size++;
+            length >>>= 7;
+        }
+        return size;
+    }
+
+    private NngWrapper.NngException malformed() {
+        cursor = end;
+        return NngWrapper.NngException.of("Malformed frame", NngWrapper.NNG_EPROTO);
+    }
+}
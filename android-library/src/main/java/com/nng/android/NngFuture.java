@@ -0,0 +1,432 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of an asynchronous send or receive started with
+ * {@link NngSocket#awaitRecv(int)} or {@link NngSocket#awaitSend(NngMessage, int)}
+ *
+ * <p>The operation runs on an {@code nng_aio}, so no thread is parked in
+ * {@code nng_recv} while it is pending. Waiting in {@link #await()} or
+ * {@link #get()} uses {@code java.util.concurrent} primitives, which a
+ * virtual thread can unmount from; callback-style callers (e.g. a Kotlin
+ * {@code suspendCancellableCoroutine}) use {@link #addListener} instead and
+ * never block at all.</p>
+ *
+ * <pre>{@code
+ * NngFuture<NngMessage> reply = socket.awaitRecv(5000);
+ * reply.addListener(new Runnable() {
+ *     public void run() {
+ *         try (NngMessage msg = reply.await()) {
+ *             handle(msg);
+ *         } catch (NngTimeoutException e) {
+ *             // nothing arrived within 5 s
+ *         } catch (NngWrapper.NngException | InterruptedException e) {
+ *             // failed or cancelled
+ *         }
+ *     }
+ * }, executor);
+ * // ...
+ * reply.cancel(true);   // nng_aio_cancel; the listener still runs
+ * }</pre>
+ *
+ * <p>{@link #cancel(boolean)} aborts the native operation. A receive that
+ * completes anyway has its message returned to the pool; a send may already
+ * have gone out.</p>
+ *
+ * @param <T> {@link NngMessage} for receives, {@code Void} for sends
+ * @since 1.11.0
+ */
+public final class NngFuture<T> implements Future<T> {
+    private static final String TAG = "NngFuture";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    /**
+     * Turns a received message into the future's value, e.g. by decompressing it
+     */
+    interface Decoder {
+        @NonNull
+        NngMessage decode(@NonNull NngMessage message) throws NngWrapper.NngException;
+    }
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final Operation operation;
+    // Guarded by this
+    private int state = PENDING;
+    private T value;
+    private NngWrapper.NngException error;
+    private List<Runnable> listeners;
+
+    private NngFuture(@NonNull Operation operation) {
+        this.operation = operation;
+    }
+
+    // ========== Factories ==========
+
+    @NonNull
+    static NngFuture<NngMessage> receive(long socket, int timeoutMs, @Nullable Decoder decoder)
+            throws NngWrapper.NngException {
+        Operation op = Operation.acquire();
+        NngFuture<NngMessage> future = new NngFuture<>(op);
+        op.start(future, decoder, false, timeoutMs);
+        try {
+            op.aio.receive(socket);
+        } catch (RuntimeException e) {
+            // begin() refused: the AIO was closed or still busy; the operation never started
+            op.abort();
+            throw e;
+        }
+        return future;
+    }
+
+    @NonNull
+    static NngFuture<NngMessage> receive(@NonNull NngContext context, int timeoutMs)
+            throws NngWrapper.NngException {
+        Operation op = Operation.acquire();
+        NngFuture<NngMessage> future = new NngFuture<>(op);
+        op.start(future, null, false, timeoutMs);
+        try {
+            op.aio.receive(context);
+        } catch (RuntimeException e) {
+            // begin() refused: the AIO was closed or still busy; the operation never started
+            op.abort();
+            throw e;
+        }
+        return future;
+    }
+
+    @NonNull
+    static NngFuture<Void> send(long socket, @NonNull NngMessage message, int timeoutMs)
+            throws NngWrapper.NngException {
+        Operation op = Operation.acquire();
+        NngFuture<Void> future = new NngFuture<>(op);
+        op.start(future, null, true, timeoutMs);
+        try {
+            op.aio.send(socket, message);
+        } catch (RuntimeException e) {
+            // The message was already closed or sent, or begin() refused because the AIO was
+            // closed or still busy; the operation never started
+            op.abort();
+            throw e;
+        }
+        return future;
+    }
+
+    @NonNull
+    static NngFuture<Void> send(@NonNull NngContext context, @NonNull NngMessage message, int timeoutMs)
+            throws NngWrapper.NngException {
+        Operation op = Operation.acquire();
+        NngFuture<Void> future = new NngFuture<>(op);
+        op.start(future, null, true, timeoutMs);
+        try {
+            op.aio.send(context, message);
+        } catch (RuntimeException e) {
+            // The message was already closed or sent, or begin() refused because the AIO was
+            // closed or still busy; the operation never started
+            op.abort();
+            throw e;
+        }
+        return future;
+    }
+
+    // ========== Future ==========
+
+    /**
+     * Abort the operation with {@code nng_aio_cancel}
+     * @param mayInterruptIfRunning ignored; the native operation is always aborted
+     * @return false if the operation had already completed
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!complete(CANCELLED, null, null)) return false;
+        operation.cancel(this);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    /**
+     * Wait for the result
+     * @return message received, or null for a send
+     * @throws ExecutionException wrapping the {@link NngWrapper.NngException} on failure,
+     *         e.g. an NngTimeoutException after the timeout
+     * @throws CancellationException if cancelled
+     */
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return report();
+    }
+
+    @Override
+    public T get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    /**
+     * Wait for the result, failing with the NNG exception itself
+     * @return message received, or null for a send
+     * @throws NngWrapper.NngException on failure; NngCanceledException if cancelled
+     * @throws InterruptedException if the waiting thread is interrupted; the operation continues
+     */
+    public T await() throws NngWrapper.NngException, InterruptedException {
+        done.await();
+        synchronized (this) {
+            switch (state) {
+                case SUCCEEDED: return value;
+                case CANCELLED: throw NngWrapper.NngException.of("Operation canceled", NngWrapper.NNG_ECANCELED);
+                default: throw error;
+            }
+        }
+    }
+
+    /**
+     * Run {@code listener} on {@code executor} once the future completes, or at once if it has
+     * @param listener listener; typically calls {@link #await()}, which then does not block
+     * @param executor executor to run it on; a direct executor runs it on an NNG thread,
+     *        where it must return quickly
+     */
+    public void addListener(@NonNull Runnable listener, @NonNull Executor executor) {
+        Runnable task = new ListenerTask(listener, executor);
+        synchronized (this) {
+            if (state == PENDING) {
+                if (listeners == null) listeners = new ArrayList<>(1);
+                listeners.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    @Override
+    public String toString() {
+        String s;
+        synchronized (this) {
+            switch (state) {
+                case PENDING:   s = "pending"; break;
+                case SUCCEEDED: s = "succeeded"; break;
+                case CANCELLED: s = "cancelled"; break;
+                default:        s = "failed: " + error.getMessage(); break;
+            }
+        }
+        return "NngFuture{" + s + "}";
+    }
+
+    // ========== Completion ==========
+
+    private boolean complete(int newState, @Nullable T result, @Nullable NngWrapper.NngException failure) {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (state != PENDING) return false;
+            state = newState;
+            value = result;
+            error = failure;
+            toRun = listeners;
+            listeners = null;
+        }
+        done.countDown();
+        if (toRun != null) {
+            for (Runnable listener : toRun) {
+                listener.run();
+            }
+        }
+        return true;
+    }
+
+    private synchronized T report() throws ExecutionException {
+        switch (state) {
+            case SUCCEEDED: return value;
+            case CANCELLED: throw new CancellationException();
+            default: throw new ExecutionException(error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void onComplete(int rv, @Nullable NngMessage received, @Nullable Decoder decoder) {
+        if (rv != 0) {
+            // NNG_ECANCELED after cancel(): the future is already complete
+            complete(FAILED, null, NngWrapper.NngException.of("Asynchronous operation failed", rv));
+            return;
+        }
+        if (received == null) {
+            complete(SUCCEEDED, null, null);
+            return;
+        }
+        NngMessage message = received;
+        try {
+            if (decoder != null) message = decoder.decode(received);
+        } catch (NngWrapper.NngException e) {
+            complete(FAILED, null, e);
+            return;
+        }
+        if (!complete(SUCCEEDED, (T) message, null)) {
+            // Cancelled while the message was arriving
+            message.close();
+        }
+    }
+
+    private static final class ListenerTask implements Runnable {
+        private final Runnable listener;
+        private final Executor executor;
+
+        ListenerTask(Runnable listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            try {
+                executor.execute(listener);
+            } catch (RejectedExecutionException e) {
+                NngLog.w(TAG, "Executor rejected listener, running inline");
+                listener.run();
+            } catch (RuntimeException e) {
+                NngLog.e(TAG, "Listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Pooled callback AIO; one operation at a time, reused after its completion
+     */
+    static final class Operation implements NngAio.CompletionHandler {
+        private static final int MAX_IDLE = 256;
+        private static final Operation[] IDLE = new Operation[MAX_IDLE];
+        private static int idleCount;
+
+        final NngAio aio;
+        private NngFuture<?> future;
+        private Decoder decoder;
+        private boolean sending;
+
+        // Completion handlers are short, so they run on the NNG thread. The
+        // operation goes back to the pool only once the AIO has finished
+        // dispatching, so a new owner cannot restart it from another thread
+        // while this completion is still running.
+        private final Executor dispatcher = new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                try {
+                    command.run();
+                } finally {
+                    release(Operation.this);
+                }
+            }
+        };
+
+        // Surplus operations are freed on the cleaner thread, never on an NNG callback
+        private final Runnable retire = new Runnable() {
+            @Override
+            public void run() {
+                aio.close();
+            }
+        };
+
+        private Operation() throws NngWrapper.NngException {
+            this.aio = new NngAio(dispatcher, this);
+        }
+
+        static Operation acquire() throws NngWrapper.NngException {
+            synchronized (IDLE) {
+                if (idleCount > 0) {
+                    Operation op = IDLE[--idleCount];
+                    IDLE[idleCount] = null;
+                    return op;
+                }
+            }
+            return new Operation();
+        }
+
+        void start(@NonNull NngFuture<?> future, @Nullable Decoder decoder, boolean sending, int timeoutMs) {
+            synchronized (this) {
+                this.future = future;
+                this.decoder = decoder;
+                this.sending = sending;
+            }
+            aio.setTimeout(timeoutMs);
+        }
+
+        // Return an operation whose start failed; no completion will release it
+        void abort() {
+            synchronized (this) {
+                future = null;
+                decoder = null;
+            }
+            release(this);
+        }
+
+        synchronized void cancel(@NonNull NngFuture<?> owner) {
+            // The operation may already serve a newer future
+            if (future == owner) {
+                aio.cancel();
+            }
+        }
+
+        @Override
+        public void onComplete(@NonNull NngAio a, int result) {
+            NngFuture<?> f;
+            Decoder d;
+            boolean send;
+            synchronized (this) {
+                f = future;
+                d = decoder;
+                send = sending;
+                future = null;
+                decoder = null;
+            }
+            NngMessage received = null;
+            if (result == 0 && !send) {
+                received = a.takeMessage(NngMessagePool.getDefault());
+            } else if (result != 0) {
+                // The unsent message after a failed send; nobody else can reclaim it
+                long msg = a.takeMessage();
+                if (msg != 0) NNG.nngMsgFree(msg);
+            }
+            if (f != null) {
+                f.onComplete(result, received, d);
+            } else if (received != null) {
+                received.close();
+            }
+        }
+
+        private static void release(Operation op) {
+            synchronized (IDLE) {
+                if (idleCount < MAX_IDLE) {
+                    IDLE[idleCount++] = op;
+                    return;
+                }
+            }
+            NngCleaner.defer(op.retire);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram (HDR-style)
+ *
+ * <p>Values are recorded in nanoseconds into buckets that double in width
+ * every power of two, each split into 32 linear sub-buckets, so any recorded
+ * value is reported within about 3% of its true value across the whole range
+ * from 1 ns to hours. Recording is a single atomic increment and never
+ * allocates.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngLatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT + SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one value
+     * @param nanos duration in nanoseconds (negative values count as 0)
+     */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.getAndIncrement(index(v));
+        long current;
+        while (v > (current = max.get())) {
+            if (max.compareAndSet(current, v)) break;
+        }
+    }
+
+    /**
+     * Number of recorded values
+     * @return count
+     */
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * Largest recorded value
+     * @return maximum in nanoseconds, or 0 if empty
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Mean of the recorded values, from bucket midpoints
+     * @return mean in nanoseconds, or 0 if empty
+     */
+    public double mean() {
+        long n = 0;
+        double total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                n += c;
+                total += c * (double) ((lowestValue(i) + highestValue(i)) / 2);
+            }
+        }
+        return n == 0 ? 0 : total / n;
+    }
+
+    /**
+     * Value at a percentile
+     * @param percentile 0 to 100, e.g. 99.9
+     * @return highest value equivalent to the percentile bucket, in nanoseconds, or 0 if empty
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Add all values recorded in another histogram
+     * @param other histogram to merge in
+     */
+    public void add(@NonNull NngLatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.getAndAdd(i, c);
+        }
+        long v = other.max.get();
+        long current;
+        while (v > (current = max.get())) {
+            if (max.compareAndSet(current, v)) break;
+        }
+    }
+
+    /**
+     * Clear all values; values recorded concurrently may be lost
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count()
+                + " p50=" + micros(percentile(50))
+                + " p90=" + micros(percentile(90))
+                + " p99=" + micros(percentile(99))
+                + " p99.9=" + micros(percentile(99.9))
+                + " max=" + micros(max()) + "us";
+    }
+
+    private static String micros(long nanos) {
+        return Long.toString(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private static int index(long v) {
+        int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(v)) - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    private static long lowestValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BITS) - 1);
+        return (long) (index - (shift << SUB_BITS)) << shift;
+    }
+
+    private static long highestValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BITS) - 1);
+        return lowestValue(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Logging front end for the Java side of the library
+ *
+ * <p>On Android messages go to logcat through {@code android.util.Log}. On a
+ * plain JVM, such as the host benchmark build, {@code android.util.Log} does
+ * not exist and messages are written to {@code System.err} instead; the
+ * threshold there is set with {@code -Dnng.log.level=DEBUG|INFO|WARN|ERROR|SILENT}
+ * (default INFO).</p>
+ */
+final class NngLog {
+
+    /**
+     * Destination for log messages; priorities use the android.util.Log values
+     */
+    interface Sink {
+        void log(int priority, @NonNull String tag, @NonNull String msg, @Nullable Throwable tr);
+    }
+
+    static final int DEBUG = 3;
+    static final int INFO = 4;
+    static final int WARN = 5;
+    static final int ERROR = 6;
+
+    private static final Sink SINK = createSink();
+
+    private NngLog() {
+    }
+
+    static void d(@NonNull String tag, @NonNull String msg) {
+        SINK.log(DEBUG, tag, msg, null);
+    }
+
+    static void i(@NonNull String tag, @NonNull String msg) {
+        SINK.log(INFO, tag, msg, null);
+    }
+
+    static void w(@NonNull String tag, @NonNull String msg) {
+        SINK.log(WARN, tag, msg, null);
+    }
+
+    static void w(@NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+        SINK.log(WARN, tag, msg, tr);
+    }
+
+    static void e(@NonNull String tag, @NonNull String msg) {
+        SINK.log(ERROR, tag, msg, null);
+    }
+
+    static void e(@NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+        SINK.log(ERROR, tag, msg, tr);
+    }
+
+    private static Sink createSink() {
+        try {
+            Class.forName("android.util.Log");
+            // Loaded by name so that this class compiles without android.jar
+            return (Sink) Class.forName("com.nng.android.LogcatSink").getDeclaredConstructor().newInstance();
+        } catch (Throwable t) {
+            return new StderrSink(parseLevel(System.getProperty("nng.log.level", "INFO")));
+        }
+    }
+
+    private static int parseLevel(String level) {
+        switch (level.toUpperCase(java.util.Locale.ROOT)) {
+            case "VERBOSE":
+            case "DEBUG":  return DEBUG;
+            case "WARN":   return WARN;
+            case "ERROR":  return ERROR;
+            case "SILENT": return Integer.MAX_VALUE;
+            default:       return INFO;
+        }
+    }
+
+    private static final class StderrSink implements Sink {
+        private static final String LEVELS = "??VDIWEF";
+        private final int threshold;
+
+        StderrSink(int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void log(int priority, @NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+            if (priority < threshold) return;
+            synchronized (System.err) {
+                System.err.println(LEVELS.charAt(priority) + "/" + tag + ": " + msg);
+                if (tr != null) {
+                    tr.printStackTrace(System.err);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * NNG message backed by a native {@code nng_msg}
+ *
+ * <p>Messages come from an {@link NngMessagePool} and their native storage
+ * goes back to it on {@link #close()}, which makes release deterministic. A message that is never
+ * closed has its native storage freed after it becomes unreachable, but that
+ * is only a safety net.</p>
+ *
+ * <p>{@link #body()} exposes the body as a direct {@link ByteBuffer} over the
+ * native memory, without copying. The view is valid until the next call that
+ * changes the body size and must not be used after the message is closed or
+ * sent.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngMessage implements AutoCloseable {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    private final NngMessagePool pool;
+    private final State state;
+    private ByteBuffer bodyView;
+    private boolean closed = true;
+
+    /**
+     * Holds the native pointer; freed by the cleaner if the message leaks
+     */
+    private static final class State implements Runnable {
+        volatile long msg;
+
+        @Override
+        public void run() {
+            long m = msg;
+            msg = 0;
+            if (m != 0) {
+                NNG.nngMsgFree(m);
+            }
+        }
+    }
+
+    NngMessage(@NonNull NngMessagePool pool) {
+        this.pool = pool;
+        this.state = new State();
+        NngCleaner.register(this, state);
+    }
+
+    /**
+     * Allocate a message from the default pool
+     * @param size initial body size in bytes
+     * @return message
+     * @throws NngWrapper.NngException if allocation fails
+     */
+    @NonNull
+    public static NngMessage allocate(int size) throws NngWrapper.NngException {
+        return NngMessagePool.getDefault().acquire(size);
+    }
+
+    // ========== Body ==========
+
+    /**
+     * Body length
+     * @return number of bytes in the body
+     */
+    public int length() {
+        return NNG.nngMsgLen(handle());
+    }
+
+    /**
+     * Direct buffer viewing the body in place
+     * @return view of the body, positioned at 0 with limit equal to its length
+     */
+    @NonNull
+    public ByteBuffer body() {
+        ByteBuffer view = bodyView;
+        if (view == null) {
+            view = NNG.nngMsgBodyBuffer(handle());
+            if (view == null) throw new IllegalStateException("Message body unavailable");
+            bodyView = view;
+        }
+        view.clear();
+        return view;
+    }
+
+    /**
+     * Copy the body into a new array
+     * @return body bytes
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        byte[] body = NNG.nngMsgBody(handle());
+        return body != null ? body : new byte[0];
+    }
+
+    /**
+     * Append bytes to the body
+     * @param data bytes to append
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage append(@NonNull byte[] data) throws NngWrapper.NngException {
+        return append(data, 0, data.length);
+    }
+
+    /**
+     * Append part of an array to the body
+     * @param data source array
+     * @param offset offset in source array
+     * @param length number of bytes
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage append(@NonNull byte[] data, int offset, int length) throws NngWrapper.NngException {
+        checkBounds(data, offset, length);
+        check(NNG.nngMsgAppend(handle(), data, offset, length), "Failed to append to message");
+        return this;
+    }
+
+    /**
+     * Append text to the body as UTF-8, encoding it in place without a temporary byte[]
+     * @param text text to append
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage appendString(@NonNull CharSequence text) throws NngWrapper.NngException {
+        int length = length();
+        resize(length + NngUtf8.encodedLength(text));
+        ByteBuffer body = body();
+        body.position(length);
+        NngUtf8.encode(text, body);
+        return this;
+    }
+
+    /**
+     * Insert bytes at the front of the body
+     * @param data bytes to insert
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage insert(@NonNull byte[] data) throws NngWrapper.NngException {
+        return insert(data, 0, data.length);
+    }
+
+    /**
+     * Insert part of an array at the front of the body
+     * @param data source array
+     * @param offset offset in source array
+     * @param length number of bytes
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage insert(@NonNull byte[] data, int offset, int length) throws NngWrapper.NngException {
+        checkBounds(data, offset, length);
+        check(NNG.nngMsgInsert(handle(), data, offset, length), "Failed to insert into message");
+        return this;
+    }
+
+    /**
+     * Remove bytes from the front of the body
+     * @param size number of bytes
+     * @return this message
+     * @throws NngWrapper.NngException if the body is shorter than {@code size}
+     */
+    @NonNull
+    public NngMessage trim(int size) throws NngWrapper.NngException {
+        check(NNG.nngMsgTrim(handle(), size), "Failed to trim message");
+        return this;
+    }
+
+    /**
+     * Remove bytes from the end of the body
+     * @param size number of bytes
+     * @return this message
+     * @throws NngWrapper.NngException if the body is shorter than {@code size}
+     */
+    @NonNull
+    public NngMessage chop(int size) throws NngWrapper.NngException {
+        check(NNG.nngMsgChop(handle(), size), "Failed to chop message");
+        return this;
+    }
+
+    /**
+     * Resize the body, keeping existing content
+     * @param size new body size
+     * @return this message
+     * @throws NngWrapper.NngException if the body cannot grow
+     */
+    @NonNull
+    public NngMessage resize(int size) throws NngWrapper.NngException {
+        check(NNG.nngMsgRealloc(handle(), size), "Failed to resize message");
+        return this;
+    }
+
+    /**
+     * Empty the body, keeping its storage
+     * @return this message
+     */
+    @NonNull
+    public NngMessage clear() {
+        NNG.nngMsgClear(handle());
+        bodyView = null;
+        return this;
+    }
+
+    // ========== Header ==========
+
+    /**
+     * Header length
+     * @return number of bytes in the header
+     */
+    public int headerLength() {
+        return NNG.nngMsgHeaderLen(handle());
+    }
+
+    /**
+     * Copy the header into a new array
+     * @return header bytes
+     */
+    @NonNull
+    public byte[] header() {
+        byte[] header = NNG.nngMsgHeader(handle());
+        return header != null ? header : new byte[0];
+    }
+
+    /**
+     * Append bytes to the header
+     * @param data bytes to append
+     * @return this message
+     * @throws NngWrapper.NngException if the header cannot grow
+     */
+    @NonNull
+    public NngMessage appendHeader(@NonNull byte[] data) throws NngWrapper.NngException {
+        int rv = NNG.nngMsgHeaderAppend(handle(), data, 0, data.length);
+        if (rv != 0) throw NngWrapper.NngException.of("Failed to append to message header", rv);
+        return this;
+    }
+
+    /**
+     * Empty the header
+     * @return this message
+     */
+    @NonNull
+    public NngMessage clearHeader() {
+        NNG.nngMsgHeaderClear(handle());
+        return this;
+    }
+
+    // ========== Pipe ==========
+
+    /**
+     * Pipe this message was received on
+     * @return pipe, or null if the message was not received from a peer
+     */
+    @Nullable
+    public NngPipe pipe() {
+        long pipe = NNG.nngMsgGetPipe(handle());
+        return pipe > 0 ? NngPipe.of(pipe) : null;
+    }
+
+    /**
+     * Send this message to one peer only (Pair1 polyamorous sockets)
+     * @param pipe pipe to send on
+     * @return this message
+     */
+    @NonNull
+    public NngMessage setPipe(@NonNull NngPipe pipe) {
+        NNG.nngMsgSetPipe(handle(), pipe.id());
+        return this;
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Native message handle, for use with the raw {@link NngWrapper} API
+     * @return message handle
+     */
+    public long handle() {
+        long msg = state.msg;
+        if (closed || msg == 0) throw new IllegalStateException("Message closed or sent");
+        return msg;
+    }
+
+    /**
+     * Return the message to its pool
+     *
+     * <p>Safe to call more than once, and after the message has been sent.</p>
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        bodyView = null;
+        long msg = state.msg;
+        state.msg = 0;
+        pool.release(msg);
+    }
+
+    /**
+     * Take ownership of a native message (called by the pool, once per object)
+     */
+    void attach(long msg) {
+        state.msg = msg;
+        bodyView = null;
+        closed = false;
+    }
+
+    /**
+     * Give up the native message after NNG has taken ownership of it
+     * @return message handle that was held
+     */
+    long detach() {
+        long msg = state.msg;
+        state.msg = 0;
+        bodyView = null;
+        return msg;
+    }
+
+    private void check(int rv, String message) throws NngWrapper.NngException {
+        bodyView = null;
+        if (rv != 0) throw NngWrapper.NngException.of(message, rv);
+    }
+
+    private static void checkBounds(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length
+                    + ", array length=" + data.length);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Pool of reusable NNG messages
+ *
+ * <p>Recycles the native {@code nng_msg} storage of messages. A closed
+ * message is cleared with {@code nng_msg_clear} and kept for the next
+ * {@link #acquire(int)}, which resizes it with {@code nng_msg_realloc}
+ * instead of allocating; the storage of received messages is therefore
+ * reused by later sends. Messages handed to NNG by a successful send are
+ * owned by NNG and do not return to the pool.</p>
+ *
+ * <p>{@link NngMessage} objects are not reused: each acquire returns a new
+ * object, so a stale reference to a closed message can never close or modify
+ * a message acquired later.</p>
+ *
+ * <pre>{@code
+ * try (NngMessage msg = NngMessagePool.getDefault().acquire(0)) {
+ *     msg.append(payload);
+ *     nng.send(msg);
+ * }
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngMessagePool {
+    private static final NngWrapper NNG = new NngWrapper();
+    private static final int DEFAULT_MAX_POOLED = 64;
+    private static final NngMessagePool DEFAULT = new NngMessagePool(DEFAULT_MAX_POOLED);
+
+    private final long[] messages;
+    private int messageCount;
+
+    /**
+     * Create a pool
+     * @param maxPooled maximum number of idle messages kept (0 disables pooling)
+     */
+    public NngMessagePool(int maxPooled) {
+        if (maxPooled < 0) throw new IllegalArgumentException("Negative pool size");
+        this.messages = new long[maxPooled];
+    }
+
+    /**
+     * Shared pool used by the high-level API
+     * @return default pool
+     */
+    @NonNull
+    public static NngMessagePool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get a message with a body of the given size, reusing pooled storage when possible
+     * @param size body size in bytes
+     * @return message; close it to return it to the pool
+     * @throws NngWrapper.NngException if allocation fails
+     */
+    @NonNull
+    public NngMessage acquire(int size) throws NngWrapper.NngException {
+        long msg = takeNative();
+        if (msg != 0) {
+            int rv = NNG.nngMsgRealloc(msg, size);
+            if (rv != 0) {
+                NNG.nngMsgFree(msg);
+                throw NngWrapper.NngException.of("Failed to resize message", rv);
+            }
+        } else {
+            msg = NNG.nngMsgAlloc(size);
+            if (NngWrapper.isError(msg)) {
+                throw NngWrapper.NngException.of("Failed to allocate message", NngWrapper.errorCode(msg));
+            }
+        }
+        return adopt(msg);
+    }
+
+    /**
+     * Wrap a native message (e.g. one returned by {@code nngRecvMsg}), taking ownership of it
+     * @param msg message handle
+     * @return message; close it to return it to the pool
+     */
+    @NonNull
+    public NngMessage adopt(long msg) {
+        NngMessage message = new NngMessage(this);
+        message.attach(msg);
+        return message;
+    }
+
+    /**
+     * Free all idle native messages held by the pool
+     */
+    public void clear() {
+        synchronized (this) {
+            while (messageCount > 0) {
+                long msg = messages[--messageCount];
+                messages[messageCount] = 0;
+                NNG.nngMsgFree(msg);
+            }
+        }
+    }
+
+    /**
+     * Return a closed message's storage to the pool
+     */
+    void release(long msg) {
+        if (msg == 0) return;
+        NNG.nngMsgClear(msg);
+        NNG.nngMsgHeaderClear(msg);
+        // A received message remembers its pipe; reused for sending it would go to that peer only
+        NNG.nngMsgSetPipe(msg, 0);
+        if (!offerNative(msg)) {
+            NNG.nngMsgFree(msg);
+        }
+    }
+
+    private synchronized long takeNative() {
+        if (messageCount == 0) return 0;
+        long msg = messages[--messageCount];
+        messages[messageCount] = 0;
+        return msg;
+    }
+
+    private synchronized boolean offerNative(long msg) {
+        if (messageCount == messages.length) return false;
+        messages[messageCount++] = msg;
+        return true;
+    }
+}
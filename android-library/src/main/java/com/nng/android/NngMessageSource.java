@@ -0,0 +1,320 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Demand-driven stream of messages received from a socket
+ *
+ * <p>Receives are started with {@link NngAio} only when the listener has
+ * asked for messages with {@link #request(long)}, and at most
+ * {@code maxInFlight} are outstanding at once. A slow consumer therefore leaves
+ * messages in NNG's socket queue, where the protocol's own flow control (or,
+ * for Sub0, dropping) applies, rather than in an unbounded Java queue.</p>
+ *
+ * <p>Listener calls are serialized and run on the executor. This is the
+ * callback form of {@link NngPublisher} and works on every API level;
+ * it maps directly onto Kotlin's {@code callbackFlow}:</p>
+ *
+ * <pre>{@code
+ * fun NngSocket.messages(executor: Executor) = callbackFlow<ByteArray> {
+ *     val source = NngMessageSource.open(this@messages, executor, 4, object : NngMessageSource.Listener {
+ *         override fun onMessage(message: NngMessage) { message.use { trySendBlocking(it.toByteArray()) } }
+ *         override fun onError(error: Throwable) { close(error) }
+ *         override fun onComplete() { close() }
+ *     })
+ *     source.request(Long.MAX_VALUE)
+ *     awaitClose { source.cancel() }
+ * }.buffer(Channel.RENDEZVOUS)
+ * }</pre>
+ *
+ * <p>Works with Sub0, Pull0, Rep0, Pair and Bus0 sockets. Rep0 keeps a
+ * single pending request per socket, so {@code maxInFlight} is forced to 1 there and the
+ * reply must be sent with {@link NngSocket#send(NngMessage)} before more
+ * messages are requested; use {@link NngRepServer} to serve requests
+ * concurrently.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngMessageSource {
+    private static final String TAG = "NngMessageSource";
+
+    /**
+     * Receives the messages of a source
+     */
+    public interface Listener {
+        /**
+         * Called for each message, never more often than requested
+         * @param message received message; the listener owns it and must close it
+         */
+        void onMessage(@NonNull NngMessage message);
+
+        /**
+         * Called once when receiving fails; no further calls follow
+         * @param error {@link NngWrapper.NngException} from NNG, or
+         *              IllegalArgumentException for a non-positive request
+         */
+        void onError(@NonNull Throwable error);
+
+        /**
+         * Called once when the socket is closed; no further calls follow
+         */
+        void onComplete();
+    }
+
+    private final NngSocket socket;
+    private final Executor executor;
+    private final Listener listener;
+    private final int maxInFlight;
+    private final NngAio[] aios;
+    private final ConcurrentLinkedQueue<NngAio> idle = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<NngMessage> ready = new ConcurrentLinkedQueue<>();
+
+    // Requested but not yet delivered
+    private final AtomicLong demand = new AtomicLong();
+    // Receives in flight plus messages waiting in ready
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // Serializes the drain loop; listener calls only happen inside it
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drainLoop();
+        }
+    };
+    private final Runnable closeTask = new Runnable() {
+        @Override
+        public void run() {
+            closeAios();
+        }
+    };
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile Throwable failure;
+    private volatile boolean completed;
+    private boolean terminated;
+
+    private NngMessageSource(NngSocket socket, Executor executor, int maxInFlight, Listener listener)
+            throws NngWrapper.NngException {
+        this.socket = socket;
+        this.executor = executor;
+        this.listener = listener;
+        this.maxInFlight = maxInFlight;
+        this.aios = new NngAio[maxInFlight];
+        NngAio.CompletionHandler handler = new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(@NonNull NngAio aio, int result) {
+                onReceived(aio, result);
+            }
+        };
+        try {
+            for (int i = 0; i < maxInFlight; i++) {
+                aios[i] = new NngAio(executor, handler);
+                idle.offer(aios[i]);
+            }
+        } catch (NngWrapper.NngException e) {
+            closeAios();
+            throw e;
+        }
+    }
+
+    /**
+     * Create a source; nothing is received until {@link #request(long)} is called
+     * @param socket Sub0, Pull0, Rep0, Pair or Bus0 socket
+     * @param executor executor on which the listener is called
+     * @param maxInFlight maximum number of concurrent native receives (1 or more)
+     * @param listener receives messages and the terminal signal
+     * @return new source
+     * @throws NngWrapper.NngException if the AIO objects cannot be allocated
+     */
+    @NonNull
+    public static NngMessageSource open(@NonNull NngSocket socket, @NonNull Executor executor,
+                                        int maxInFlight, @NonNull Listener listener)
+            throws NngWrapper.NngException {
+        switch (socket.protocol()) {
+            case SUB0:
+            case PULL0:
+            case PAIR0:
+            case PAIR1:
+            case BUS0:
+                break;
+            case REP0:
+                maxInFlight = 1;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported protocol: " + socket.protocol());
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        return new NngMessageSource(socket, executor, maxInFlight, listener);
+    }
+
+    /**
+     * Ask for {@code n} more messages
+     *
+     * <p>May be called from any thread, including from the listener. Messages
+     * are always delivered on the executor, never from inside this call.</p>
+     *
+     * @param n number of messages (Long.MAX_VALUE for unbounded)
+     */
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Request must be positive: " + n));
+            return;
+        }
+        long current;
+        long next;
+        do {
+            current = demand.get();
+            next = current + n;
+            if (next < 0) next = Long.MAX_VALUE;
+        } while (!demand.compareAndSet(current, next));
+        drain();
+    }
+
+    /**
+     * Stop receiving and free native resources; no further listener calls are made
+     *
+     * <p>Messages received but not yet delivered are freed. The AIO objects
+     * are freed shortly afterwards on a background thread, so this may be
+     * called from the listener. The socket itself is left open.</p>
+     */
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) return;
+        // May be called from the listener, which can run on an NNG callback thread
+        NngCleaner.defer(closeTask);
+        drain();
+    }
+
+    /**
+     * Whether {@link #cancel()} has been called or a terminal signal delivered
+     * @return true if no more messages will be delivered
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    private void onReceived(NngAio aio, int result) {
+        if (result == NngWrapper.NNG_OK) {
+            NngMessage message = aio.takeMessage(NngMessagePool.getDefault());
+            idle.offer(aio);
+            if (message != null) {
+                ready.offer(message);
+            } else {
+                outstanding.decrementAndGet();
+            }
+        } else {
+            idle.offer(aio);
+            outstanding.decrementAndGet();
+            if (result == NngWrapper.NNG_ECLOSED) {
+                completed = true;
+            } else if (result != NngWrapper.NNG_ETIMEDOUT && result != NngWrapper.NNG_ECANCELED) {
+                fail(NngWrapper.NngException.of("Failed to receive", result));
+            }
+        }
+        drain();
+    }
+
+    private void fail(Throwable error) {
+        if (failure == null) {
+            failure = error;
+        }
+        drain();
+    }
+
+    // Runs the drain loop on the executor unless it is already scheduled or running
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        try {
+            executor.execute(drainTask);
+        } catch (RejectedExecutionException e) {
+            NngLog.w(TAG, "Executor rejected delivery, running inline");
+            drainLoop();
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            if (cancelled.get()) {
+                freeReady();
+            } else {
+                deliver();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Only called from drainLoop(), one thread at a time
+    private void deliver() {
+        NngMessage message;
+        while (demand.get() > 0 && (message = ready.poll()) != null) {
+            demand.decrementAndGet();
+            outstanding.decrementAndGet();
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException e) {
+                NngLog.e(TAG, "Listener threw", e);
+            }
+            if (cancelled.get()) return;
+        }
+        Throwable error = failure;
+        if (error != null || (completed && ready.isEmpty())) {
+            terminate(error);
+            return;
+        }
+        // Top up native receives to the lesser of demand and maxInFlight
+        while (!completed) {
+            int current = outstanding.get();
+            if (current >= maxInFlight || current >= demand.get()) break;
+            if (!outstanding.compareAndSet(current, current + 1)) continue;
+            NngAio aio = idle.poll();
+            if (aio == null) {
+                outstanding.decrementAndGet();
+                break;
+            }
+            try {
+                aio.receive(socket.handle());
+            } catch (IllegalStateException e) {
+                // Cancelled concurrently
+                outstanding.decrementAndGet();
+                break;
+            }
+        }
+    }
+
+    private void terminate(Throwable error) {
+        if (terminated) return;
+        terminated = true;
+        cancelled.set(true);
+        // Usually reached from a completion handler; freeing its AIO there would wait for itself
+        NngCleaner.defer(closeTask);
+        freeReady();
+        if (error != null) {
+            listener.onError(error);
+        } else {
+            listener.onComplete();
+        }
+    }
+
+    private void freeReady() {
+        NngMessage message;
+        while ((message = ready.poll()) != null) {
+            message.close();
+        }
+    }
+
+    private void closeAios() {
+        for (NngAio aio : aios) {
+            if (aio != null) {
+                aio.close();
+            }
+        }
+    }
+}
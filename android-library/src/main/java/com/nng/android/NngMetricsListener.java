@@ -0,0 +1,79 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives per-operation measurements from an {@link NngSocket}
+ *
+ * <p>Attach with {@link NngSocket#withMetrics(NngMetricsListener)}. Methods are
+ * called on the thread that performed the operation, right after it returns,
+ * so implementations must be thread-safe and cheap. {@link NngSocketMetrics}
+ * is a ready-made implementation with histograms and striped counters.</p>
+ *
+ * <p>A socket without a listener does not read the clock or call out at all.</p>
+ *
+ * @since 1.11.0
+ */
+public interface NngMetricsListener {
+
+    /** Send operation ({@code send*}) */
+    int OP_SEND = 0;
+    /** Receive operation ({@code receive*}) */
+    int OP_RECEIVE = 1;
+    /** Request/reply round trip ({@link NngSocket#request(byte[])}) */
+    int OP_REQUEST = 2;
+
+    /**
+     * Messages were sent
+     * @param socket socket used
+     * @param messages number of messages (more than 1 for batches)
+     * @param bytes total payload bytes
+     * @param nanos time spent in the call, including any wait for buffer space
+     */
+    void onSend(@NonNull NngSocket socket, int messages, long bytes, long nanos);
+
+    /**
+     * Messages were received
+     * @param socket socket used
+     * @param messages number of messages (more than 1 for batches)
+     * @param bytes total payload bytes
+     * @param nanos time spent in the call, including the wait for a message
+     */
+    void onReceive(@NonNull NngSocket socket, int messages, long bytes, long nanos);
+
+    /**
+     * A request/reply round trip completed
+     * @param socket Req0 socket used
+     * @param requestBytes size of the request
+     * @param replyBytes size of the reply
+     * @param nanos time from sending the request to receiving the reply
+     */
+    void onRequest(@NonNull NngSocket socket, int requestBytes, int replyBytes, long nanos);
+
+    /**
+     * A payload was compressed by a compression view ({@link NngSocket#withCompression})
+     * @param socket socket used
+     * @param rawBytes payload size
+     * @param wireBytes size sent, including the compression header; {@code rawBytes + 1}
+     *        when compression did not pay off and the payload was sent as it is
+     * @param nanos time spent compressing, on the sending thread
+     */
+    void onCompress(@NonNull NngSocket socket, int rawBytes, int wireBytes, long nanos);
+
+    /**
+     * A compressed payload was decompressed by a compression view
+     * @param socket socket used
+     * @param wireBytes size received, including the compression header
+     * @param rawBytes payload size
+     * @param nanos time spent decompressing, on the receiving thread
+     */
+    void onDecompress(@NonNull NngSocket socket, int wireBytes, int rawBytes, long nanos);
+
+    /**
+     * An operation failed
+     * @param socket socket used
+     * @param operation one of the OP_* constants
+     * @param errorCode NNG error code, e.g. NNG_ETIMEDOUT or NNG_EAGAIN
+     */
+    void onError(@NonNull NngSocket socket, int operation, int errorCode);
+}
@@ -0,0 +1,178 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * One connection of a socket to a peer
+ *
+ * <p>Every received {@link NngMessage} records the pipe it arrived on, so
+ * a peer can be identified without an ID in the payload, and a misbehaving
+ * peer can be disconnected without affecting the others. On a Pair1
+ * polyamorous socket a reply can also be routed back to that peer alone:</p>
+ *
+ * <pre>{@code
+ * NngSocket server = NngSocket.pair1();
+ * server.setPair1Polyamorous(true);
+ * server.listen("tcp://0.0.0.0:5555");
+ *
+ * try (NngMessage request = server.receiveMessage()) {
+ *     NngPipe peer = request.pipe();
+ *     if (peer == null) return;
+ *     if (!allowed(peer.remoteAddress())) {
+ *         peer.close();
+ *         return;
+ *     }
+ *     NngMessage reply = NngMessage.allocate(0).append(answer(request));
+ *     reply.setPipe(peer);
+ *     server.send(reply);
+ * }
+ * }</pre>
+ *
+ * <p>An NngPipe is only an ID: it does not own the connection and stays
+ * valid to hold after the peer disconnects, when its getters fail with
+ * NNG_ENOENT or NNG_ECLOSED.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngPipe {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    private final long id;
+
+    private NngPipe(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Wrap a pipe ID, e.g. one passed to an {@link NngPipeListener}
+     * @param id pipe ID
+     * @return pipe
+     */
+    @NonNull
+    public static NngPipe of(long id) {
+        if (id <= 0) throw new IllegalArgumentException("Invalid pipe ID: " + id);
+        return new NngPipe(id);
+    }
+
+    /**
+     * Pipe ID, for use with the raw {@link NngWrapper} natives
+     * @return pipe ID
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Socket this pipe belongs to
+     * @return socket handle, or -1 if the pipe is gone
+     */
+    public long socketId() {
+        return NNG.nngPipeSocket(id);
+    }
+
+    /**
+     * Dialer that created this pipe
+     * @return dialer handle, or -1 if the pipe was accepted by a listener
+     */
+    public long dialerId() {
+        return NNG.nngPipeDialer(id);
+    }
+
+    /**
+     * Listener that accepted this pipe
+     * @return listener handle, or -1 if the pipe was created by a dialer
+     */
+    public long listenerId() {
+        return NNG.nngPipeListener(id);
+    }
+
+    /**
+     * Address of the peer
+     * @return {@code host:port} for TCP, or the name or path for inproc and IPC
+     * @throws NngWrapper.NngException if the pipe is gone or has no address
+     */
+    @NonNull
+    public String remoteAddress() throws NngWrapper.NngException {
+        return NNG.nngPipeGetAddr(id, NngWrapper.NNG_OPT_REMADDR);
+    }
+
+    /**
+     * Local address of the connection
+     * @return {@code host:port} for TCP, or the name or path for inproc and IPC
+     * @throws NngWrapper.NngException if the pipe is gone or has no address
+     */
+    @NonNull
+    public String localAddress() throws NngWrapper.NngException {
+        return NNG.nngPipeGetAddr(id, NngWrapper.NNG_OPT_LOCADDR);
+    }
+
+    /**
+     * Get a boolean option, e.g. NNG_OPT_TCP_NODELAY
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public boolean getBoolOption(@NonNull String name) throws NngWrapper.NngException {
+        return NNG.nngOptGetBool(NngWrapper.NNG_OPT_TARGET_PIPE, id, name);
+    }
+
+    /**
+     * Get an integer option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public int getIntOption(@NonNull String name) throws NngWrapper.NngException {
+        return NNG.nngOptGetInt(NngWrapper.NNG_OPT_TARGET_PIPE, id, name);
+    }
+
+    /**
+     * Get a size option, e.g. NNG_OPT_RECVMAXSZ
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return size in bytes
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public long getSizeOption(@NonNull String name) throws NngWrapper.NngException {
+        return NNG.nngOptGetSize(NngWrapper.NNG_OPT_TARGET_PIPE, id, name);
+    }
+
+    /**
+     * Get a string option, e.g. NNG_OPT_URL
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    @NonNull
+    public String getStringOption(@NonNull String name) throws NngWrapper.NngException {
+        return NNG.nngOptGetString(NngWrapper.NNG_OPT_TARGET_PIPE, id, name);
+    }
+
+    /**
+     * Disconnect this peer; the socket and its other pipes are unaffected
+     *
+     * <p>A dialer reconnects after its reconnect delay.</p>
+     *
+     * @throws NngWrapper.NngException if the pipe is already gone
+     */
+    public void close() throws NngWrapper.NngException {
+        int rv = NNG.nngPipeClose(id);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to close pipe " + id, rv);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NngPipe && ((NngPipe) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (id ^ (id >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NngPipe{" + id + "}";
+    }
+}
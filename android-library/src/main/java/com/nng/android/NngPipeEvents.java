@@ -0,0 +1,54 @@
+package com.nng.android;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Native pipe notification state of one socket, shared by its views
+ *
+ * <p>The native registration is made with the first listener and kept until
+ * the socket is closed; replacing the listener only swaps the Java reference.</p>
+ */
+final class NngPipeEvents {
+    private static final String TAG = "NngPipeEvents";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    @Nullable
+    private volatile NngPipeListener listener;
+    // Native handle, 0 while not registered
+    private long handle;
+
+    synchronized void setListener(long socket, @Nullable NngPipeListener listener)
+            throws NngWrapper.NngException {
+        this.listener = listener;
+        if (listener == null || handle != 0) return;
+        long rv = NNG.nngPipeNotifyAlloc(socket, this);
+        if (NngWrapper.isError(rv)) {
+            this.listener = null;
+            throw NngWrapper.NngException.of("Failed to register pipe notifications", NngWrapper.errorCode(rv));
+        }
+        handle = rv;
+    }
+
+    // Only after the socket is closed: nng_close delivers the last events before returning
+    synchronized void release() {
+        listener = null;
+        if (handle != 0) {
+            NNG.nngPipeNotifyFree(handle);
+            handle = 0;
+        }
+    }
+
+    /**
+     * Called from the native pipe callback on an NNG thread
+     */
+    @SuppressWarnings("unused")
+    private void onNativePipeEvent(long pipe, int event) {
+        NngPipeListener l = listener;
+        if (l == null) return;
+        try {
+            l.onPipeEvent(pipe, event);
+        } catch (RuntimeException e) {
+            NngLog.e(TAG, "Pipe listener threw", e);
+        }
+    }
+}
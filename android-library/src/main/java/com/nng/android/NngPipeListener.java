@@ -0,0 +1,24 @@
+package com.nng.android;
+
+/**
+ * Receives connection events of a socket
+ *
+ * <p>A pipe is one connection to a peer. Events are delivered on an NNG
+ * thread while connection setup for that pipe waits, so implementations must
+ * return quickly and hand longer work to an executor.</p>
+ *
+ * <p>Do not close the socket from inside {@link #onPipeEvent}: closing waits
+ * for running pipe callbacks to finish, so it would wait for itself and
+ * deadlock. Post the close to another thread instead.</p>
+ *
+ * @see NngSocket#setPipeListener(NngPipeListener)
+ * @since 1.11.0
+ */
+public interface NngPipeListener {
+    /**
+     * Called for every pipe event
+     * @param pipe pipe ID
+     * @param event one of the NngWrapper.NNG_PIPE_EV_* constants
+     */
+    void onPipeEvent(long pipe, int event);
+}
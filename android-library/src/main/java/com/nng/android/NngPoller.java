@@ -0,0 +1,401 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Waits on many sockets from one thread, like {@code java.nio.channels.Selector}
+ *
+ * <p>Each registered socket contributes its {@code NNG_OPT_RECVFD} and/or
+ * {@code NNG_OPT_SENDFD} descriptor to a native {@code epoll} set, so a
+ * single {@link #select(int)} call waits on all of them instead of one
+ * blocking thread per socket.</p>
+ *
+ * <pre>{@code
+ * NngPoller poller = NngPoller.open();
+ * poller.register(quotes, NngPoller.OP_RECV, quoteHandler);
+ * poller.register(control, NngPoller.OP_RECV, controlHandler);
+ * poller.register(jobs, NngPoller.OP_RECV, jobHandler);
+ *
+ * while (running) {
+ *     poller.select(NngWrapper.NNG_DURATION_INFINITE);
+ *     for (NngPoller.Key key : poller.readyKeys()) {
+ *         NngMessage msg;
+ *         while ((msg = key.socket().tryReceiveMessage()) != null) {
+ *             try (NngMessage m = msg) {
+ *                 ((Handler) key.attachment()).handle(m);
+ *             }
+ *         }
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Readiness is level-triggered: a socket stays ready while messages are
+ * queued, so drain it with {@link NngSocket#tryReceiveMessage()} or the raw
+ * natives with {@code NNG_FLAG_NONBLOCK}. Readiness may be spurious (another
+ * thread may receive first), so never use blocking calls on a ready key.
+ * Sending readiness is only meaningful on protocols that can send, and
+ * receiving readiness on protocols that can receive; registering other
+ * operations fails with NNG_ENOTSUP.</p>
+ *
+ * <p>Keys may be registered and cancelled from any thread, also while
+ * another thread is in {@link #select(int)}. Only one thread may select at a
+ * time. Cancel a socket's key before closing the socket.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngPoller implements AutoCloseable {
+    private static final String TAG = "NngPoller";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /** Interest in the socket having a message to receive */
+    public static final int OP_RECV = 1;
+    /** Interest in the socket being able to send without blocking */
+    public static final int OP_SEND = 2;
+
+    // Matches the native per-call limit
+    private static final int MAX_EVENTS = 64;
+
+    private final long handle;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    // Guards the key table; the native wait runs outside it
+    private final Object keyLock = new Object();
+    // Serializes select() and close()
+    private final Object selectLock = new Object();
+    private Key[] slots = new Key[16];
+    private int keyCount;
+    private final int[] events = new int[MAX_EVENTS];
+    private final ArrayList<Key> ready = new ArrayList<>();
+    private final List<Key> readyView = Collections.unmodifiableList(ready);
+
+    /**
+     * Registration of one socket with a poller
+     */
+    public static final class Key {
+        private final NngPoller poller;
+        private final NngSocket socket;
+        private final int slot;
+        private volatile int interestOps;
+        private int readyOps;
+        private volatile Object attachment;
+        private volatile boolean valid = true;
+
+        Key(@NonNull NngPoller poller, @NonNull NngSocket socket, int slot, int interestOps,
+            @Nullable Object attachment) {
+            this.poller = poller;
+            this.socket = socket;
+            this.slot = slot;
+            this.interestOps = interestOps;
+            this.attachment = attachment;
+        }
+
+        /**
+         * Registered socket
+         * @return socket
+         */
+        @NonNull
+        public NngSocket socket() {
+            return socket;
+        }
+
+        /**
+         * Operations this key waits for
+         * @return OP_RECV and/or OP_SEND
+         */
+        public int interestOps() {
+            return interestOps;
+        }
+
+        /**
+         * Change the operations this key waits for
+         * @param ops OP_RECV and/or OP_SEND
+         * @throws NngWrapper.NngException if the socket does not support an operation;
+         *         the previous interest is kept
+         */
+        public void interestOps(int ops) throws NngWrapper.NngException {
+            poller.modify(this, ops);
+        }
+
+        /**
+         * Operations found ready by the last {@link NngPoller#select(int)}
+         * @return OP_RECV and/or OP_SEND, or 0 if not in the ready list
+         */
+        public int readyOps() {
+            return readyOps;
+        }
+
+        /**
+         * Whether the socket had a message to receive at the last select
+         * @return true if OP_RECV is ready
+         */
+        public boolean isReadable() {
+            return (readyOps & OP_RECV) != 0;
+        }
+
+        /**
+         * Whether the socket could send at the last select
+         * @return true if OP_SEND is ready
+         */
+        public boolean isWritable() {
+            return (readyOps & OP_SEND) != 0;
+        }
+
+        /**
+         * Object attached at registration, e.g. a handler
+         * @return attachment, or null
+         */
+        @Nullable
+        public Object attachment() {
+            return attachment;
+        }
+
+        /**
+         * Replace the attachment
+         * @param attachment new attachment, or null
+         */
+        public void attach(@Nullable Object attachment) {
+            this.attachment = attachment;
+        }
+
+        /**
+         * Whether this key is still registered
+         * @return false after {@link #cancel()} or {@link NngPoller#close()}
+         */
+        public boolean isValid() {
+            return valid && !poller.closed.get();
+        }
+
+        /**
+         * Stop polling the socket; the socket itself stays open
+         */
+        public void cancel() {
+            poller.cancel(this);
+        }
+
+        @Override
+        public String toString() {
+            return "NngPoller.Key{" + socket + ", interest=" + interestOps + ", ready=" + readyOps + "}";
+        }
+    }
+
+    private NngPoller(long handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Create a poller
+     * @return new poller
+     * @throws NngWrapper.NngException if the native epoll set cannot be created
+     */
+    @NonNull
+    public static NngPoller open() throws NngWrapper.NngException {
+        long handle = NNG.nngPollerOpen();
+        if (NngWrapper.isError(handle)) {
+            throw NngWrapper.NngException.of("Failed to create poller", NngWrapper.errorCode(handle));
+        }
+        return new NngPoller(handle);
+    }
+
+    /**
+     * Start polling a socket
+     * @param socket socket to poll; a socket may be registered once per poller
+     * @param ops OP_RECV and/or OP_SEND
+     * @param attachment object returned by {@link Key#attachment()}, or null
+     * @return key of the registration
+     * @throws NngWrapper.NngException if the socket does not support an operation
+     *         (NNG_ENOTSUP), is already registered (NNG_EBUSY) or is closed
+     */
+    @NonNull
+    public Key register(@NonNull NngSocket socket, int ops, @Nullable Object attachment)
+            throws NngWrapper.NngException {
+        checkOps(ops);
+        synchronized (keyLock) {
+            checkOpen();
+            if (socket.isClosed()) {
+                throw NngWrapper.NngException.of("Socket closed", NngWrapper.NNG_ECLOSED);
+            }
+            int slot = freeSlot();
+            Key key = new Key(this, socket, slot, ops, attachment);
+            int rv = NNG.nngPollerAdd(handle, socket.handle(), ops, slot);
+            if (rv != 0) {
+                throw NngWrapper.NngException.of("Failed to register " + socket, rv);
+            }
+            slots[slot] = key;
+            keyCount++;
+            return key;
+        }
+    }
+
+    /**
+     * Wait until at least one registered socket is ready
+     *
+     * <p>Returns at most 64 ready descriptors per call; more stay ready for
+     * the next call. The ready list is replaced by every call.</p>
+     *
+     * @param timeoutMs timeout in milliseconds, or NNG_DURATION_INFINITE (-1) to wait
+     *        until a socket is ready or {@link #wakeup()} is called
+     * @return number of ready keys; 0 on timeout, wakeup or signal interruption
+     * @throws NngWrapper.NngException if the poller is closed or the wait fails
+     */
+    public int select(int timeoutMs) throws NngWrapper.NngException {
+        synchronized (selectLock) {
+            checkOpen();
+            for (int i = 0; i < ready.size(); i++) {
+                ready.get(i).readyOps = 0;
+            }
+            ready.clear();
+            int n = NNG.nngPollerWait(handle, events, timeoutMs);
+            if (n < 0) {
+                throw NngWrapper.NngException.of("Poll failed", -n);
+            }
+            synchronized (keyLock) {
+                for (int i = 0; i < n; i++) {
+                    int slot = events[i] >>> 2;
+                    int op = events[i] & (OP_RECV | OP_SEND);
+                    Key key = slot < slots.length ? slots[slot] : null;
+                    // The key may have been cancelled or changed during the wait
+                    if (key == null || (key.interestOps & op) == 0) continue;
+                    if (key.readyOps == 0) ready.add(key);
+                    key.readyOps |= op;
+                }
+            }
+            return ready.size();
+        }
+    }
+
+    /**
+     * Check the sockets without waiting
+     * @return number of ready keys
+     * @throws NngWrapper.NngException if the poller is closed or the check fails
+     */
+    public int selectNow() throws NngWrapper.NngException {
+        return select(0);
+    }
+
+    /**
+     * Keys found ready by the last select
+     * @return read-only list, valid until the next select; call from the selecting thread
+     */
+    @NonNull
+    public List<Key> readyKeys() {
+        return readyView;
+    }
+
+    /**
+     * Registered keys
+     * @return snapshot of the keys
+     */
+    @NonNull
+    public List<Key> keys() {
+        synchronized (keyLock) {
+            List<Key> keys = new ArrayList<>(keyCount);
+            for (Key key : slots) {
+                if (key != null) keys.add(key);
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Make a blocked {@link #select(int)} return 0 at once, or the next one if none is blocked
+     */
+    public void wakeup() {
+        // Under the key lock so close() cannot free the poller in between
+        synchronized (keyLock) {
+            if (closed.get()) return;
+            int rv = NNG.nngPollerWakeup(handle);
+            if (rv != 0) {
+                NngLog.w(TAG, "Wakeup failed: " + rv);
+            }
+        }
+    }
+
+    /**
+     * Cancel all keys and free the poller; registered sockets stay open
+     *
+     * <p>A thread blocked in {@link #select(int)} is woken, and this method
+     * waits for it to return.</p>
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        NNG.nngPollerWakeup(handle);
+        synchronized (selectLock) {
+            synchronized (keyLock) {
+                for (Key key : slots) {
+                    if (key != null) key.valid = false;
+                }
+                Arrays.fill(slots, null);
+                keyCount = 0;
+                NNG.nngPollerClose(handle);
+            }
+            ready.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NngPoller{" + keyCount + " keys" + (closed.get() ? ", closed}" : "}");
+    }
+
+    private void modify(Key key, int ops) throws NngWrapper.NngException {
+        checkOps(ops);
+        synchronized (keyLock) {
+            checkOpen();
+            if (!key.valid) throw new IllegalStateException("Key cancelled");
+            int old = key.interestOps;
+            int added = ops & ~old;
+            int removed = old & ~ops;
+            if (added != 0) {
+                int rv = NNG.nngPollerAdd(handle, key.socket.handle(), added, key.slot);
+                if (rv != 0) {
+                    throw NngWrapper.NngException.of("Failed to register " + key.socket, rv);
+                }
+            }
+            if (removed != 0) {
+                NNG.nngPollerRemove(handle, key.socket.handle(), removed);
+            }
+            key.interestOps = ops;
+        }
+    }
+
+    private void cancel(Key key) {
+        synchronized (keyLock) {
+            if (!key.valid || closed.get()) return;
+            key.valid = false;
+            int rv = NNG.nngPollerRemove(handle, key.socket.handle(), key.interestOps);
+            if (rv != 0) {
+                NngLog.w(TAG, "Failed to remove " + key.socket + ": " + rv);
+            }
+            slots[key.slot] = null;
+            keyCount--;
+        }
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) return i;
+        }
+        int slot = slots.length;
+        slots = Arrays.copyOf(slots, slots.length * 2);
+        return slot;
+    }
+
+    private static void checkOps(int ops) {
+        if (ops == 0 || (ops & ~(OP_RECV | OP_SEND)) != 0) {
+            throw new IllegalArgumentException("Invalid interest ops: " + ops);
+        }
+    }
+
+    private void checkOpen() throws NngWrapper.NngException {
+        if (closed.get()) {
+            throw NngWrapper.NngException.of("Poller closed", NngWrapper.NNG_ECLOSED);
+        }
+    }
+}
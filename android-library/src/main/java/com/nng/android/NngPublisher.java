@@ -0,0 +1,132 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Flow.Publisher} of the messages received on a socket
+ *
+ * <p>Backed by {@link NngMessageSource}: the subscriber's
+ * {@link Flow.Subscription#request(long) request(n)} decides how many native
+ * receives are started, up to {@code maxInFlight} at once. Signals are
+ * delivered on the executor. Each {@link NngMessage} belongs to the subscriber,
+ * which must close it.</p>
+ *
+ * <pre>{@code
+ * NngSocket sub = NngSocket.sub0();
+ * sub.subscribe("");
+ * sub.dial("tcp://server:5555");
+ * new NngPublisher(sub, executor, 4).subscribe(new Flow.Subscriber<NngMessage>() {
+ *     private Flow.Subscription subscription;
+ *     public void onSubscribe(Flow.Subscription s) { subscription = s; s.request(16); }
+ *     public void onNext(NngMessage message) {
+ *         try (NngMessage m = message) { handle(m.toByteArray()); }
+ *         subscription.request(1);
+ *     }
+ *     public void onError(Throwable error) { ... }
+ *     public void onComplete() { ... }  // socket closed
+ * });
+ * }</pre>
+ *
+ * <p>Kotlin callers can use {@code asFlow()} from kotlinx-coroutines-jdk9, or
+ * {@link NngMessageSource} with {@code callbackFlow} below API 30. The
+ * publisher is unicast: messages on a socket are consumed by one subscriber,
+ * and a second concurrent subscriber is rejected with IllegalStateException.</p>
+ *
+ * @since 1.11.0
+ */
+@RequiresApi(30)
+public final class NngPublisher implements Flow.Publisher<NngMessage> {
+    private final NngSocket socket;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    /**
+     * Create a publisher
+     * @param socket Sub0, Pull0, Rep0, Pair or Bus0 socket
+     * @param executor executor on which subscriber signals are delivered
+     * @param maxInFlight maximum number of concurrent native receives
+     */
+    public NngPublisher(@NonNull NngSocket socket, @NonNull Executor executor, int maxInFlight) {
+        this.socket = socket;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super NngMessage> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            reject(subscriber, new IllegalStateException("NngPublisher allows one subscriber at a time"));
+            return;
+        }
+        NngMessageSource source;
+        try {
+            source = NngMessageSource.open(socket, executor, maxInFlight, new Relay(subscriber));
+        } catch (NngWrapper.NngException | RuntimeException e) {
+            subscribed.set(false);
+            reject(subscriber, e);
+            return;
+        }
+        subscriber.onSubscribe(new SourceSubscription(source));
+    }
+
+    private static void reject(Flow.Subscriber<?> subscriber, Throwable error) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override public void request(long n) { }
+            @Override public void cancel() { }
+        });
+        subscriber.onError(error);
+    }
+
+    private final class SourceSubscription implements Flow.Subscription {
+        private final NngMessageSource source;
+
+        SourceSubscription(NngMessageSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void request(long n) {
+            source.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            if (!source.isCancelled()) {
+                source.cancel();
+                subscribed.set(false);
+            }
+        }
+    }
+
+    private final class Relay implements NngMessageSource.Listener {
+        private final Flow.Subscriber<? super NngMessage> subscriber;
+
+        Relay(Flow.Subscriber<? super NngMessage> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onMessage(@NonNull NngMessage message) {
+            subscriber.onNext(message);
+        }
+
+        @Override
+        public void onError(@NonNull Throwable error) {
+            subscribed.set(false);
+            subscriber.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            subscribed.set(false);
+            subscriber.onComplete();
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of workers consuming jobs from a single Pull0 socket
+ *
+ * <p>Each of the {@code concurrency} workers keeps one asynchronous receive
+ * armed on the socket and runs the {@link Handler} on the supplied executor
+ * when a job arrives. Push0 peers hand each job to one ready receive, so jobs
+ * spread over the workers and no thread waits on the socket between jobs.</p>
+ *
+ * <pre>{@code
+ * NngSocket pull = NngSocket.pull0();
+ * pull.listen("ipc:///data/local/tmp/jobs.ipc");
+ *
+ * int cores = Runtime.getRuntime().availableProcessors();
+ * NngPullWorkerPool workers = new NngPullWorkerPool(pull, cores,
+ *         Executors.newFixedThreadPool(cores), job -> process(job.body()));
+ * workers.start();
+ * // ...
+ * workers.shutdown(100);                     // finish queued jobs
+ * workers.awaitTermination(5, TimeUnit.SECONDS);
+ * workers.close();
+ * pull.close();
+ * }</pre>
+ *
+ * <p>Per-worker counters ({@link #processed(int)}, {@link #failed(int)},
+ * {@link #busyNanos(int)}) show how evenly the load is spread, and
+ * {@link #latency()} records how long jobs take to handle.</p>
+ *
+ * <p>A worker whose receive keeps failing (for example because the socket is
+ * in a bad state) stops after a few attempts in a row rather than re-arming in
+ * a tight loop; the pool terminates once every worker has stopped.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngPullWorkerPool implements AutoCloseable {
+    private static final String TAG = "NngPullWorkerPool";
+    private static final NngWrapper NNG = new NngWrapper();
+    // Receive errors in a row after which a worker gives up instead of spinning
+    private static final int MAX_RECEIVE_FAILURES = 8;
+
+    /**
+     * Processes one job
+     */
+    public interface Handler {
+        /**
+         * Called on the executor for every job
+         * @param job received message; closed by the pool after this returns
+         * @throws Exception if processing fails; counted in {@link #failed(int)}
+         */
+        void handle(@NonNull NngMessage job) throws Exception;
+    }
+
+    private final long socket;
+    private final int concurrency;
+    private final Executor executor;
+    private final Handler handler;
+    private final NngMessagePool pool;
+    private final NngLatencyHistogram latency = new NngLatencyHistogram();
+    private final List<Worker> workers = new ArrayList<>();
+    private final Object terminationLock = new Object();
+    private int running;
+    private long startedNanos;
+    private boolean started;
+    private volatile boolean closed;
+    private volatile boolean draining;
+    private volatile int drainTimeoutMs;
+
+    /**
+     * Create a pool
+     * @param socket Pull0 socket handle
+     * @param concurrency number of jobs processed at once
+     * @param executor executor that runs the handler
+     * @param handler job handler
+     */
+    public NngPullWorkerPool(long socket, int concurrency, @NonNull Executor executor, @NonNull Handler handler) {
+        if (concurrency <= 0) throw new IllegalArgumentException("Concurrency must be positive");
+        this.socket = socket;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.handler = handler;
+        this.pool = NngMessagePool.getDefault();
+    }
+
+    /**
+     * Create a pool
+     * @param socket Pull0 socket
+     * @param concurrency number of jobs processed at once
+     * @param executor executor that runs the handler
+     * @param handler job handler
+     */
+    public NngPullWorkerPool(@NonNull NngSocket socket, int concurrency, @NonNull Executor executor,
+                             @NonNull Handler handler) {
+        this(socket.handle(), concurrency, executor, handler);
+    }
+
+    /**
+     * Allocate the workers and start receiving
+     * @throws NngWrapper.NngException if an AIO cannot be allocated
+     */
+    public synchronized void start() throws NngWrapper.NngException {
+        if (closed) throw new IllegalStateException("Pool closed");
+        if (started) throw new IllegalStateException("Pool already started");
+        started = true;
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(new Worker());
+            }
+        } catch (NngWrapper.NngException e) {
+            close();
+            throw e;
+        }
+        synchronized (terminationLock) {
+            running = workers.size();
+        }
+        startedNanos = System.nanoTime();
+        for (Worker worker : workers) {
+            worker.receive();
+        }
+        NngLog.i(TAG, "Started " + concurrency + " workers on socket " + socket);
+    }
+
+    /**
+     * Stop taking jobs once the socket's queue is empty
+     *
+     * <p>Workers keep receiving, but give up as soon as no job arrives within
+     * {@code drainTimeoutMs}. Jobs already queued in the socket are therefore
+     * handled rather than dropped. Use {@link #awaitTermination} to wait for
+     * the last job to finish.</p>
+     *
+     * @param drainTimeoutMs how long a worker waits for another job before stopping
+     */
+    public void shutdown(int drainTimeoutMs) {
+        List<Worker> current;
+        synchronized (this) {
+            if (draining || closed) return;
+            this.drainTimeoutMs = drainTimeoutMs;
+            draining = true;
+            current = new ArrayList<>(workers);
+        }
+        NngLog.i(TAG, "Draining");
+        // Re-arm idle receives with the drain timeout
+        for (Worker worker : current) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Wait for all workers to stop after {@link #shutdown(int)} or {@link #close()}
+     * @param timeout maximum time to wait
+     * @param unit unit of {@code timeout}
+     * @return true if all workers stopped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (running > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Whether all workers have stopped
+     * @return true once the last worker stopped after a shutdown or close
+     */
+    public boolean isTerminated() {
+        synchronized (terminationLock) {
+            return started && running == 0;
+        }
+    }
+
+    /**
+     * Stop immediately and release the workers
+     *
+     * <p>Jobs already being handled finish; jobs still queued in the socket are
+     * left there. The socket itself is left open.</p>
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (Worker worker : workers) {
+            worker.close();
+        }
+        NngLog.i(TAG, "Closed");
+    }
+
+    // ========== Metrics ==========
+
+    /**
+     * Number of workers
+     * @return configured concurrency
+     */
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Jobs handled successfully by a worker
+     * @param worker worker index, 0 to concurrency - 1
+     * @return job count
+     */
+    public long processed(int worker) {
+        Worker w = worker(worker);
+        return w != null ? w.processed : 0;
+    }
+
+    /**
+     * Jobs whose handler threw, per worker
+     * @param worker worker index, 0 to concurrency - 1
+     * @return job count
+     */
+    public long failed(int worker) {
+        Worker w = worker(worker);
+        return w != null ? w.failed : 0;
+    }
+
+    /**
+     * Time a worker spent in the handler
+     * @param worker worker index, 0 to concurrency - 1
+     * @return nanoseconds
+     */
+    public long busyNanos(int worker) {
+        Worker w = worker(worker);
+        return w != null ? w.busyNanos : 0;
+    }
+
+    /**
+     * Share of the time since {@link #start()} that a worker spent in the handler
+     * @param worker worker index, 0 to concurrency - 1
+     * @return 0.0 (idle) to 1.0 (saturated)
+     */
+    public double utilization(int worker) {
+        long elapsed = System.nanoTime() - startedNanos;
+        return elapsed > 0 ? Math.min(1.0, (double) busyNanos(worker) / elapsed) : 0.0;
+    }
+
+    /**
+     * Jobs handled by all workers, successful or not
+     * @return job count
+     */
+    public long totalProcessed() {
+        long sum = 0;
+        for (int i = 0; i < concurrency; i++) {
+            sum += processed(i) + failed(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Time spent in the handler, per job, across all workers
+     * @return latency histogram
+     */
+    @NonNull
+    public NngLatencyHistogram latency() {
+        return latency;
+    }
+
+    // Null before start()
+    private synchronized Worker worker(int index) {
+        if (index < 0 || index >= concurrency) {
+            throw new IndexOutOfBoundsException("Worker " + index + " of " + concurrency);
+        }
+        return index < workers.size() ? workers.get(index) : null;
+    }
+
+    private void workerStopped() {
+        synchronized (terminationLock) {
+            running--;
+            if (running == 0) {
+                NngLog.i(TAG, "All workers stopped");
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * One AIO alternating between receiving a job and running the handler
+     */
+    private final class Worker implements NngAio.CompletionHandler {
+        private final NngAio aio;
+        private boolean stopped;
+        // Written only from this worker's completions, one at a time
+        private int receiveFailures;
+        volatile long processed;
+        volatile long failed;
+        volatile long busyNanos;
+
+        Worker() throws NngWrapper.NngException {
+            aio = new NngAio(executor, this);
+        }
+
+        synchronized void receive() {
+            if (stopped) return;
+            aio.setTimeout(draining ? drainTimeoutMs : NngWrapper.NNG_DURATION_INFINITE);
+            try {
+                aio.receive(socket);
+            } catch (IllegalStateException e) {
+                // AIO closed by a concurrent close()
+                if (!closed) throw e;
+            }
+        }
+
+        // Cancels a receive armed without the drain timeout; onComplete re-arms it
+        synchronized void interrupt() {
+            aio.cancel();
+        }
+
+        void close() {
+            aio.close();
+        }
+
+        private void stop() {
+            synchronized (this) {
+                if (stopped) return;
+                stopped = true;
+            }
+            workerStopped();
+        }
+
+        @Override
+        public void onComplete(@NonNull NngAio aio, int result) {
+            if (closed || result == NngWrapper.NNG_ECLOSED) {
+                NngMessage late = aio.takeMessage(pool);
+                if (late != null) late.close();
+                stop();
+                return;
+            }
+            if (result != NngWrapper.NNG_OK) {
+                if (result == NngWrapper.NNG_ETIMEDOUT && draining) {
+                    // Queue is empty
+                    stop();
+                    return;
+                }
+                if (result != NngWrapper.NNG_ECANCELED && result != NngWrapper.NNG_ETIMEDOUT) {
+                    NngLog.w(TAG, "Receive failed: " + NNG.nngStrerror(result));
+                    if (++receiveFailures >= MAX_RECEIVE_FAILURES) {
+                        NngLog.e(TAG, "Worker stopped after " + receiveFailures + " failed receives");
+                        stop();
+                        return;
+                    }
+                }
+                receive();
+                return;
+            }
+            receiveFailures = 0;
+
+            NngMessage job = aio.takeMessage(pool);
+            if (job != null) {
+                long start = System.nanoTime();
+                try {
+                    handler.handle(job);
+                    processed++;
+                } catch (Exception e) {
+                    failed++;
+                    NngLog.e(TAG, "Handler failed", e);
+                } finally {
+                    job.close();
+                    long nanos = System.nanoTime() - start;
+                    busyNanos += nanos;
+                    latency.record(nanos);
+                }
+            }
+            if (closed) {
+                stop();
+                return;
+            }
+            receive();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Reusable container for messages received in one batch
+ *
+ * <p>Filled by {@link NngWrapper#nngRecvBatch(long, NngReceiveBatch, int, int)}.
+ * Message {@code i} occupies {@code data()[offset(i) .. offset(i) + length(i))}.
+ * The backing arrays are replaced only when a batch does not fit, so reusing
+ * one instance avoids per-message allocation.</p>
+ *
+ * <p>Not thread-safe; use one batch per receiving thread and socket.</p>
+ *
+ * <p>If the arrays cannot grow for a message already taken from the socket,
+ * the batch holds on to that message and the next receive into it on the
+ * same socket returns it first. {@link #close()} frees such a message; it is
+ * also freed when the batch is garbage collected.</p>
+ *
+ * <pre>{@code
+ * NngReceiveBatch batch = new NngReceiveBatch();
+ * int n = nng.receiveBatch(batch, 64, 100);
+ * for (int i = 0; i < n; i++) {
+ *     process(batch.data(), batch.offset(i), batch.length(i));
+ * }
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngReceiveBatch implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 16 * 1024;
+    private static final int DEFAULT_MESSAGES = 64;
+
+    // Written by native code; offsets has count + 1 valid entries
+    byte[] data;
+    int[] offsets;
+    int count;
+    // Message held back by native code; freed by close() or the cleaner
+    final Carry carry = new Carry();
+
+    /**
+     * Create a batch with default initial capacity
+     */
+    public NngReceiveBatch() {
+        this(DEFAULT_CAPACITY, DEFAULT_MESSAGES);
+    }
+
+    /**
+     * Create a batch with the given initial capacity
+     * @param initialBytes initial size of the packed data buffer
+     * @param initialMessages initial number of message slots
+     */
+    public NngReceiveBatch(int initialBytes, int initialMessages) {
+        if (initialBytes < 0 || initialMessages < 0) throw new IllegalArgumentException("Negative capacity");
+        this.data = new byte[initialBytes];
+        this.offsets = new int[initialMessages + 1];
+        NngCleaner.register(this, carry);
+    }
+
+    /**
+     * Number of messages in the last batch
+     * @return message count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Packed message data
+     * @return backing array (may be replaced by the next receive)
+     */
+    @NonNull
+    public byte[] data() {
+        return data;
+    }
+
+    /**
+     * Start of a message within {@link #data()}
+     * @param index message index
+     * @return offset in bytes
+     */
+    public int offset(int index) {
+        checkIndex(index);
+        return offsets[index];
+    }
+
+    /**
+     * Length of a message
+     * @param index message index
+     * @return length in bytes
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Copy a message into a new array
+     * @param index message index
+     * @return message bytes
+     */
+    @NonNull
+    public byte[] copy(int index) {
+        int offset = offset(index);
+        byte[] result = new byte[offsets[index + 1] - offset];
+        System.arraycopy(data, offset, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Free a message held back for the next receive, if any
+     *
+     * <p>The batch stays usable.</p>
+     */
+    @Override
+    public void close() {
+        carry.run();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index=" + index + ", count=" + count);
+        }
+    }
+
+    /**
+     * Native message that did not fit, and the socket it was received from
+     */
+    static final class Carry implements Runnable {
+        private static final NngWrapper NNG = new NngWrapper();
+
+        // Written by native code
+        long msg;
+        long socket;
+
+        @Override
+        public void run() {
+            if (msg != 0) {
+                NNG.nngMsgFree(msg);
+                msg = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Reusable receive buffer
+ *
+ * <p>Passed to {@link NngWrapper#receive(NngReceiveBuffer)} or
+ * {@link NngWrapper#nngRecvInto(long, NngReceiveBuffer, int)}. The backing
+ * array is replaced with a larger one only when a message does not fit, so a
+ * steady stream of similarly sized messages is received without allocation.
+ * {@link #length()} always reports the true size of the last message.</p>
+ *
+ * <p>Not thread-safe; use one buffer per receiving thread.</p>
+ *
+ * <pre>{@code
+ * NngReceiveBuffer buf = new NngReceiveBuffer(64 * 1024);
+ * while (running) {
+ *     int len = nng.receive(buf);
+ *     process(buf.data(), 0, len);
+ * }
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngReceiveBuffer {
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    // Written by native code
+    byte[] data;
+    int length;
+
+    /**
+     * Create a buffer with the default initial capacity (4 KB)
+     */
+    public NngReceiveBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a buffer with the given initial capacity
+     * @param initialCapacity initial size of the backing array
+     */
+    public NngReceiveBuffer(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity");
+        this.data = new byte[initialCapacity];
+    }
+
+    /**
+     * Backing array; valid bytes are {@code [0, length())}
+     * @return backing array (may be replaced by the next receive)
+     */
+    @NonNull
+    public byte[] data() {
+        return data;
+    }
+
+    /**
+     * Size of the last received message
+     * @return message length in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Current size of the backing array
+     * @return capacity in bytes
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Copy the last received message into a new array
+     * @return message bytes
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        byte[] result = new byte[length];
+        System.arraycopy(data, 0, result, 0, length);
+        return result;
+    }
+}
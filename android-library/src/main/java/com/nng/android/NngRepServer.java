@@ -0,0 +1,238 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Concurrent request/reply server on a single Rep0 socket
+ *
+ * <p>Opens {@code concurrency} {@link NngContext}s on the socket and keeps a
+ * receive armed on each one. Requests are handed to the {@link Handler} on the
+ * supplied executor, so up to {@code concurrency} requests are processed in
+ * parallel and a slow request no longer holds up the others. No thread waits
+ * on the socket between requests.</p>
+ *
+ * <pre>{@code
+ * NngSocket rep = NngSocket.rep0();
+ * rep.listen("tcp://0.0.0.0:5555");
+ *
+ * ExecutorService pool = Executors.newFixedThreadPool(
+ *         Runtime.getRuntime().availableProcessors());
+ * NngRepServer server = new NngRepServer(rep, 16, pool, request -> {
+ *     NngMessage reply = NngMessage.allocate(0);
+ *     reply.append(process(request.toByteArray()));
+ *     return reply;
+ * });
+ * server.start();
+ * // ...
+ * server.close();
+ * rep.close();
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngRepServer implements AutoCloseable {
+    private static final String TAG = "NngRepServer";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /**
+     * Processes one request
+     */
+    public interface Handler {
+        /**
+         * Called on the executor for every request
+         *
+         * <p>The request is closed by the server after this returns. The handler
+         * may return the request itself (e.g. after modifying it) as the reply.
+         * Returning null sends no reply; the requester will time out or resend.</p>
+         *
+         * @param request received request
+         * @return reply to send, or null for none
+         * @throws Exception if processing fails; the request is dropped and no reply is sent
+         */
+        @Nullable
+        NngMessage handle(@NonNull NngMessage request) throws Exception;
+    }
+
+    private final long socket;
+    private final int concurrency;
+    private final Executor executor;
+    private final Handler handler;
+    private final NngMessagePool pool;
+    private final List<Worker> workers = new ArrayList<>();
+    private boolean started;
+    private volatile boolean closed;
+
+    /**
+     * Create a server
+     * @param socket Rep0 socket handle
+     * @param concurrency number of requests processed at once
+     * @param executor executor that runs the handler
+     * @param handler request handler
+     */
+    public NngRepServer(long socket, int concurrency, @NonNull Executor executor, @NonNull Handler handler) {
+        if (concurrency <= 0) throw new IllegalArgumentException("Concurrency must be positive");
+        this.socket = socket;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.handler = handler;
+        this.pool = NngMessagePool.getDefault();
+    }
+
+    /**
+     * Create a server
+     * @param socket Rep0 socket
+     * @param concurrency number of requests processed at once
+     * @param executor executor that runs the handler
+     * @param handler request handler
+     */
+    public NngRepServer(@NonNull NngSocket socket, int concurrency, @NonNull Executor executor, @NonNull Handler handler) {
+        this(socket.handle(), concurrency, executor, handler);
+    }
+
+    /**
+     * Open the contexts and start receiving
+     * @throws NngWrapper.NngException if a context or AIO cannot be created
+     */
+    public synchronized void start() throws NngWrapper.NngException {
+        if (closed) throw new IllegalStateException("Server closed");
+        if (started) throw new IllegalStateException("Server already started");
+        started = true;
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(new Worker());
+            }
+        } catch (NngWrapper.NngException e) {
+            close();
+            throw e;
+        }
+        for (Worker worker : workers) {
+            worker.receive();
+        }
+        NngLog.i(TAG, "Started with " + concurrency + " contexts on socket " + socket);
+    }
+
+    /**
+     * Whether {@link #close()} has been called
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stop serving and release the contexts
+     *
+     * <p>Requests already being handled finish, but their replies are dropped.
+     * The socket itself is left open.</p>
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (Worker worker : workers) {
+            worker.close();
+        }
+        workers.clear();
+        NngLog.i(TAG, "Closed");
+    }
+
+    /**
+     * One context and its AIO, alternating between receiving a request and
+     * sending the reply
+     */
+    private final class Worker implements NngAio.CompletionHandler {
+        private final NngContext context;
+        private final NngAio aio;
+        private boolean sending;
+
+        Worker() throws NngWrapper.NngException {
+            context = NngContext.open(socket);
+            try {
+                aio = new NngAio(executor, this);
+            } catch (NngWrapper.NngException e) {
+                context.close();
+                throw e;
+            }
+        }
+
+        void receive() {
+            sending = false;
+            try {
+                aio.receive(context);
+            } catch (IllegalStateException e) {
+                // AIO closed by a concurrent close()
+                if (!closed) throw e;
+            }
+        }
+
+        void close() {
+            context.close();
+            aio.close();
+        }
+
+        @Override
+        public void onComplete(@NonNull NngAio aio, int result) {
+            if (closed || result == NngWrapper.NNG_ECLOSED || result == NngWrapper.NNG_ECANCELED) {
+                return;
+            }
+            if (sending) {
+                if (result != NngWrapper.NNG_OK) {
+                    NngLog.w(TAG, "Reply failed: " + NNG.nngStrerror(result));
+                    NngMessage unsent = aio.takeMessage(pool);
+                    if (unsent != null) unsent.close();
+                }
+                receive();
+                return;
+            }
+            if (result != NngWrapper.NNG_OK) {
+                if (result != NngWrapper.NNG_ETIMEDOUT) {
+                    NngLog.w(TAG, "Receive failed: " + NNG.nngStrerror(result));
+                }
+                receive();
+                return;
+            }
+
+            NngMessage request = aio.takeMessage(pool);
+            if (request == null) {
+                receive();
+                return;
+            }
+            NngMessage reply = null;
+            try {
+                reply = handler.handle(request);
+            } catch (Exception e) {
+                NngLog.e(TAG, "Handler failed", e);
+            } finally {
+                if (reply != request) {
+                    request.close();
+                }
+            }
+
+            if (closed) {
+                if (reply != null) reply.close();
+                return;
+            }
+            if (reply == null) {
+                receive();
+                return;
+            }
+            sending = true;
+            try {
+                aio.send(context, reply);
+            } catch (IllegalStateException e) {
+                // Reply already closed or sent, or the server closed meanwhile
+                if (!closed) {
+                    NngLog.e(TAG, "Invalid reply", e);
+                    receive();
+                }
+            } finally {
+                reply.close();
+            }
+        }
+    }
+}
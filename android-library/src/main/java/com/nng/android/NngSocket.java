@@ -0,0 +1,1165 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NNG socket of a fixed protocol
+ *
+ * <p>The socket handle and protocol never change after construction, so one
+ * instance can be shared freely between threads. NNG sockets are themselves
+ * thread-safe: send and receive may run at the same time from different
+ * threads without any locking on the Java side. {@link #close()} may be called
+ * while operations are in flight; they fail with {@code NNG_ECLOSED}.</p>
+ *
+ * <pre>{@code
+ * NngSocket server = NngSocket.pair0();
+ * server.listen("inproc://demo");
+ *
+ * NngSocket client = NngSocket.pair0();
+ * client.dial("inproc://demo");
+ *
+ * client.sendString("hello");           // on one thread
+ * String msg = server.receiveString();  // on another
+ *
+ * client.close();
+ * server.close();
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngSocket implements AutoCloseable {
+    private static final String TAG = "NngSocket";
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /**
+     * Scalability protocol of a socket
+     */
+    public enum Protocol {
+        PAIR0, PAIR1, REQ0, REP0, PUB0, SUB0, PUSH0, PULL0, BUS0, SURVEYOR0, RESPONDENT0
+    }
+
+    private final Protocol protocol;
+    private final long handle;
+    // Shared by every view of the same socket
+    private final AtomicBoolean closed;
+    private final NngPipeEvents pipeEvents;
+    @Nullable
+    private final NngMetricsListener metrics;
+    @Nullable
+    private final NngCompression compression;
+
+    private NngSocket(@NonNull Protocol protocol, long handle, @NonNull AtomicBoolean closed,
+                      @NonNull NngPipeEvents pipeEvents, @Nullable NngMetricsListener metrics,
+                      @Nullable NngCompression compression) {
+        this.protocol = protocol;
+        this.handle = handle;
+        this.closed = closed;
+        this.pipeEvents = pipeEvents;
+        this.metrics = metrics;
+        this.compression = compression;
+    }
+
+    /**
+     * Open a socket
+     * @param protocol protocol to use
+     * @return new socket
+     * @throws NngWrapper.NngException if socket creation fails
+     */
+    @NonNull
+    public static NngSocket open(@NonNull Protocol protocol) throws NngWrapper.NngException {
+        long handle;
+        switch (protocol) {
+            case PAIR0:       handle = NNG.nngPair0Open(); break;
+            case PAIR1:       handle = NNG.nngPair1Open(); break;
+            case REQ0:        handle = NNG.nngReq0Open(); break;
+            case REP0:        handle = NNG.nngRep0Open(); break;
+            case PUB0:        handle = NNG.nngPub0Open(); break;
+            case SUB0:        handle = NNG.nngSub0Open(); break;
+            case PUSH0:       handle = NNG.nngPush0Open(); break;
+            case PULL0:       handle = NNG.nngPull0Open(); break;
+            case BUS0:        handle = NNG.nngBus0Open(); break;
+            case SURVEYOR0:   handle = NNG.nngSurveyor0Open(); break;
+            case RESPONDENT0: handle = NNG.nngRespondent0Open(); break;
+            default: throw new IllegalArgumentException("Unknown protocol: " + protocol);
+        }
+        if (handle <= 0) {
+            throw NngWrapper.NngException.of("Failed to open " + protocol + " socket", (int)(-handle));
+        }
+        NngLog.i(TAG, protocol + " socket opened: " + handle);
+        return new NngSocket(protocol, handle, new AtomicBoolean(false), new NngPipeEvents(), null, null);
+    }
+
+    /** Open a Pair0 socket */
+    @NonNull public static NngSocket pair0() throws NngWrapper.NngException { return open(Protocol.PAIR0); }
+    /** Open a Pair1 socket */
+    @NonNull public static NngSocket pair1() throws NngWrapper.NngException { return open(Protocol.PAIR1); }
+    /** Open a Req0 socket */
+    @NonNull public static NngSocket req0() throws NngWrapper.NngException { return open(Protocol.REQ0); }
+    /** Open a Rep0 socket */
+    @NonNull public static NngSocket rep0() throws NngWrapper.NngException { return open(Protocol.REP0); }
+    /** Open a Pub0 socket */
+    @NonNull public static NngSocket pub0() throws NngWrapper.NngException { return open(Protocol.PUB0); }
+    /** Open a Sub0 socket */
+    @NonNull public static NngSocket sub0() throws NngWrapper.NngException { return open(Protocol.SUB0); }
+    /** Open a Push0 socket */
+    @NonNull public static NngSocket push0() throws NngWrapper.NngException { return open(Protocol.PUSH0); }
+    /** Open a Pull0 socket */
+    @NonNull public static NngSocket pull0() throws NngWrapper.NngException { return open(Protocol.PULL0); }
+    /** Open a Bus0 socket */
+    @NonNull public static NngSocket bus0() throws NngWrapper.NngException { return open(Protocol.BUS0); }
+    /** Open a Surveyor0 socket */
+    @NonNull public static NngSocket surveyor0() throws NngWrapper.NngException { return open(Protocol.SURVEYOR0); }
+    /** Open a Respondent0 socket */
+    @NonNull public static NngSocket respondent0() throws NngWrapper.NngException { return open(Protocol.RESPONDENT0); }
+
+    /**
+     * Protocol of this socket
+     * @return protocol
+     */
+    @NonNull
+    public Protocol protocol() {
+        return protocol;
+    }
+
+    /**
+     * Socket handle, for use with the raw {@link NngWrapper} natives
+     * @return socket handle
+     */
+    public long handle() {
+        return handle;
+    }
+
+    /**
+     * View of this socket that reports every operation to {@code listener}
+     *
+     * <p>The view shares the native socket: closing either closes both. The
+     * original instance stays uninstrumented, so a socket can be measured on
+     * one code path only.</p>
+     *
+     * @param listener listener to report to, or null for an uninstrumented view
+     * @return socket view
+     */
+    @NonNull
+    public NngSocket withMetrics(@Nullable NngMetricsListener listener) {
+        return new NngSocket(protocol, handle, closed, pipeEvents, listener, compression);
+    }
+
+    /**
+     * Metrics listener of this view
+     * @return listener, or null if not instrumented
+     */
+    @Nullable
+    public NngMetricsListener metrics() {
+        return metrics;
+    }
+
+    /**
+     * View of this socket that compresses what it sends and decompresses what it receives
+     *
+     * <p>Applies to {@code send(byte[])}, {@code send(NngMessage)},
+     * {@link #sendString}, {@link #sendBatch}, {@link #request},
+     * {@code receive()}, {@code receive(NngReceiveBuffer)},
+     * {@link #receiveMessage()} and {@link #receiveString()}. The direct
+     * {@link ByteBuffer} methods and {@link #receiveBatch} throw
+     * IllegalStateException on a compression view. Helpers built on the raw
+     * handle, such as {@link NngAio} and {@link NngContext}, are not affected;
+     * use {@link NngCompression#compress(byte[])} there.</p>
+     *
+     * <p>Metrics of the view count bytes on the wire, and compression is
+     * reported through {@link NngMetricsListener#onCompress} and
+     * {@link NngMetricsListener#onDecompress}. The view keeps the metrics
+     * listener of this one.</p>
+     *
+     * @param compression compression to apply, or null for a view without compression
+     * @return socket view
+     */
+    @NonNull
+    public NngSocket withCompression(@Nullable NngCompression compression) {
+        return new NngSocket(protocol, handle, closed, pipeEvents, metrics, compression);
+    }
+
+    /**
+     * Compression of this view
+     * @return compression, or null if payloads are sent as they are
+     */
+    @Nullable
+    public NngCompression compression() {
+        return compression;
+    }
+
+    /**
+     * Whether {@link #close()} has been called
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    // ========== Endpoints ==========
+
+    /**
+     * Listen on URL
+     * @param url URL to listen on
+     * @throws NngWrapper.NngException if listen fails
+     */
+    public void listen(@NonNull String url) throws NngWrapper.NngException {
+        checkOpen();
+        int rv = NNG.nngListen(handle, url);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to listen on " + url, rv);
+        }
+        NngLog.i(TAG, "Listening on " + url);
+    }
+
+    /**
+     * Dial URL, waiting for the first connection attempt
+     *
+     * <p>Fails if the peer is not up yet; see {@link #dialNonBlocking(String)}.</p>
+     *
+     * @param url URL to connect to
+     * @throws NngWrapper.NngException if dial fails
+     */
+    public void dial(@NonNull String url) throws NngWrapper.NngException {
+        checkOpen();
+        int rv = NNG.nngDial(handle, url);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to dial " + url, rv);
+        }
+        NngLog.i(TAG, "Connected to " + url);
+    }
+
+    /**
+     * Dial URL without waiting for the connection
+     *
+     * <p>Returns at once; the dialer connects in the background and keeps
+     * retrying with the socket's reconnect back-off (see
+     * {@link #setReconnectTime(int, int)}) until the peer is up. Use
+     * {@link #setPipeListener(NngPipeListener)} to learn when it connects.
+     * Sends on most protocols wait for the connection within the send timeout.</p>
+     *
+     * @param url URL to connect to
+     * @return started dialer; closing it stops reconnecting
+     * @throws NngWrapper.NngException if the URL is invalid or the dialer cannot start
+     */
+    @NonNull
+    public NngDialer dialNonBlocking(@NonNull String url) throws NngWrapper.NngException {
+        NngDialer dialer = dialer(url);
+        try {
+            dialer.start();
+        } catch (NngWrapper.NngException e) {
+            dialer.close();
+            throw e;
+        }
+        return dialer;
+    }
+
+    /**
+     * Create a dialer without starting it, to set its options first
+     * @param url URL to connect to
+     * @return dialer; call {@link NngDialer#start()} to connect
+     * @throws NngWrapper.NngException if the URL is invalid
+     */
+    @NonNull
+    public NngDialer dialer(@NonNull String url) throws NngWrapper.NngException {
+        checkOpen();
+        return NngDialer.create(handle, url);
+    }
+
+    /**
+     * Receive connection events (pipe added or removed) for this socket
+     *
+     * <p>The listener is shared by every view of the socket and replaces any
+     * previous one. Register it before dialing or listening so no event is
+     * missed. It is called on an NNG thread and must return quickly, and it
+     * must not close this socket (see {@link NngPipeListener}).</p>
+     *
+     * @param listener listener, or null to stop delivering events
+     * @throws NngWrapper.NngException if notifications cannot be registered
+     */
+    public void setPipeListener(@Nullable NngPipeListener listener) throws NngWrapper.NngException {
+        checkOpen();
+        pipeEvents.setListener(handle, listener);
+    }
+
+    // ========== Send ==========
+
+    /**
+     * Send bytes
+     * @param data data to send
+     * @throws NngWrapper.NngException if send fails
+     */
+    public void send(@NonNull byte[] data) throws NngWrapper.NngException {
+        checkOpen();
+        if (compression != null) {
+            sendCompressed(data);
+            return;
+        }
+        long start = startTimer();
+        int rv = NNG.nngSend(handle, data, data.length, 0);
+        if (rv != 0) {
+            throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+        }
+        sent(1, data.length, start);
+    }
+
+    /**
+     * Send the remaining bytes of a direct buffer without copying them into the Java heap
+     * @param buffer direct buffer; its position is advanced past the sent bytes
+     * @throws NngWrapper.NngException if send fails
+     */
+    public void send(@NonNull ByteBuffer buffer) throws NngWrapper.NngException {
+        requireUncompressed("send(ByteBuffer)");
+        sendDirect(buffer);
+    }
+
+    private void sendDirect(ByteBuffer buffer) throws NngWrapper.NngException {
+        int bytes = buffer.remaining();
+        long start = startTimer();
+        int rv = NNG.nngSend(handle, buffer, 0);
+        if (rv != 0) {
+            throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+        }
+        sent(1, bytes, start);
+    }
+
+    /**
+     * Send a message object
+     *
+     * <p>On success NNG takes the native message; close {@code message} afterwards
+     * to return it to its pool. On failure the message is left intact. A
+     * compression view sends a compressed copy and leaves {@code message}
+     * intact either way.</p>
+     *
+     * @param message message to send
+     * @throws NngWrapper.NngException if send fails
+     */
+    public void send(@NonNull NngMessage message) throws NngWrapper.NngException {
+        checkOpen();
+        if (compression != null) {
+            sendCompressed(message);
+            return;
+        }
+        int bytes = metrics != null ? message.length() : 0;
+        long start = startTimer();
+        int rv = NNG.nngSendMsg(handle, message.handle(), 0);
+        if (rv != 0) {
+            throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+        }
+        message.detach();
+        sent(1, bytes, start);
+    }
+
+    /**
+     * Send bytes if that can be done without waiting, e.g. after {@link NngPoller} reports the socket writable
+     * @param data data to send
+     * @return false if the send would block (NNG_EAGAIN)
+     * @throws NngWrapper.NngException if send fails for another reason
+     */
+    public boolean trySend(@NonNull byte[] data) throws NngWrapper.NngException {
+        checkOpen();
+        byte[] wire = compression != null ? compress(data) : data;
+        long start = startTimer();
+        int rv = NNG.nngSend(handle, wire, wire.length, NngWrapper.NNG_FLAG_NONBLOCK);
+        if (rv == NngWrapper.NNG_EAGAIN) {
+            // Not ready is the expected answer to a readiness check, not a failure
+            return false;
+        }
+        if (rv != 0) {
+            throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+        }
+        sent(1, wire.length, start);
+        return true;
+    }
+
+    /**
+     * Send text as UTF-8
+     *
+     * <p>The text is encoded straight into a per-thread direct buffer, so a
+     * reused {@link StringBuilder} can be sent without creating a String or a
+     * byte[]. ASCII is copied without transcoding.</p>
+     *
+     * @param message message to send
+     * @throws NngWrapper.NngException if send fails
+     */
+    public void sendString(@NonNull CharSequence message) throws NngWrapper.NngException {
+        if (compression != null) {
+            send(message.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        checkOpen();
+        ByteBuffer buffer = NngUtf8.encodeScratch(NngUtf8.encodedLength(message));
+        NngUtf8.encode(message, buffer);
+        buffer.flip();
+        sendDirect(buffer);
+    }
+
+    /**
+     * Send several messages in one native call
+     * @param msgs messages to send, in order
+     * @throws NngWrapper.NngException if any message cannot be sent
+     */
+    public void sendBatch(@NonNull byte[][] msgs) throws NngWrapper.NngException {
+        checkOpen();
+        if (compression != null) {
+            msgs = compressAll(msgs);
+        }
+        long start = startTimer();
+        int sent = 0;
+        while (sent < msgs.length) {
+            int rv = NNG.nngSendBatch(handle, sent == 0 ? msgs : Arrays.copyOfRange(msgs, sent, msgs.length), 0);
+            if (rv < 0) {
+                throw failed(NngMetricsListener.OP_SEND, "Failed to send", -rv);
+            }
+            sent += rv;
+        }
+        if (metrics != null) {
+            long bytes = 0;
+            for (byte[] msg : msgs) {
+                bytes += msg.length;
+            }
+            sent(msgs.length, bytes, start);
+        }
+    }
+
+    /**
+     * Send a request and wait for its reply (Req0 only)
+     *
+     * <p>The round trip is reported to the metrics listener as one
+     * {@link NngMetricsListener#onRequest request}.</p>
+     *
+     * @param request request payload
+     * @return reply payload
+     * @throws NngWrapper.NngException if send or receive fails
+     */
+    @NonNull
+    public byte[] request(@NonNull byte[] request) throws NngWrapper.NngException {
+        requireProtocol(Protocol.REQ0);
+        byte[] wire = compression != null ? compress(request) : request;
+        long start = startTimer();
+        int rv = NNG.nngSend(handle, wire, wire.length, 0);
+        if (rv != 0) {
+            throw failed(NngMetricsListener.OP_REQUEST, "Failed to send request", rv);
+        }
+        byte[] reply;
+        try {
+            reply = NNG.nngRecvAlloc(handle, 0);
+        } catch (NngWrapper.NngException e) {
+            if (metrics != null) metrics.onError(this, NngMetricsListener.OP_REQUEST, e.getErrorCode());
+            throw e;
+        }
+        if (metrics != null) {
+            metrics.onRequest(this, wire.length, reply.length, System.nanoTime() - start);
+        }
+        return compression != null ? decompress(reply, NngMetricsListener.OP_REQUEST) : reply;
+    }
+
+    // ========== Receive ==========
+
+    /**
+     * Receive bytes; the returned array is exactly the size of the message
+     * @return received data
+     * @throws NngWrapper.NngException if receive fails
+     */
+    @NonNull
+    public byte[] receive() throws NngWrapper.NngException {
+        checkOpen();
+        long start = startTimer();
+        byte[] data;
+        try {
+            data = NNG.nngRecvAlloc(handle, 0);
+        } catch (NngWrapper.NngException e) {
+            if (metrics != null) metrics.onError(this, NngMetricsListener.OP_RECEIVE, e.getErrorCode());
+            throw e;
+        }
+        received(1, data.length, start);
+        return compression != null ? decompress(data, NngMetricsListener.OP_RECEIVE) : data;
+    }
+
+    /**
+     * Receive into a reusable buffer
+     * @param buffer buffer to receive into (grown if the message does not fit)
+     * @return message length
+     * @throws NngWrapper.NngException if receive fails
+     */
+    public int receive(@NonNull NngReceiveBuffer buffer) throws NngWrapper.NngException {
+        checkOpen();
+        long start = startTimer();
+        int length;
+        try {
+            length = NNG.nngRecvInto(handle, buffer, 0);
+        } catch (NngWrapper.NngException e) {
+            if (metrics != null) metrics.onError(this, NngMetricsListener.OP_RECEIVE, e.getErrorCode());
+            throw e;
+        }
+        received(1, length, start);
+        return compression != null ? decompressInPlace(buffer) : length;
+    }
+
+    /**
+     * Receive into the remaining space of a direct buffer
+     * @param buffer direct buffer; its position is advanced past the received bytes
+     * @return full message length (larger than the bytes stored if truncated)
+     * @throws NngWrapper.NngException if receive fails
+     */
+    public int receive(@NonNull ByteBuffer buffer) throws NngWrapper.NngException {
+        requireUncompressed("receive(ByteBuffer)");
+        long start = startTimer();
+        int rv = NNG.nngRecv(handle, buffer, 0);
+        if (rv < 0) {
+            throw failed(NngMetricsListener.OP_RECEIVE, "Failed to receive", -rv);
+        }
+        received(1, rv, start);
+        return rv;
+    }
+
+    /**
+     * Receive a message object from the default {@link NngMessagePool}; close it when done
+     * @return received message
+     * @throws NngWrapper.NngException if receive fails
+     */
+    @NonNull
+    public NngMessage receiveMessage() throws NngWrapper.NngException {
+        checkOpen();
+        long start = startTimer();
+        long msg = NNG.nngRecvMsg(handle, 0);
+        if (NngWrapper.isError(msg)) {
+            throw failed(NngMetricsListener.OP_RECEIVE, "Failed to receive", NngWrapper.errorCode(msg));
+        }
+        NngMessage message = NngMessagePool.getDefault().adopt(msg);
+        if (metrics != null) {
+            received(1, message.length(), start);
+        }
+        return compression != null ? decompress(message) : message;
+    }
+
+    /**
+     * Receive a queued message without waiting, e.g. after {@link NngPoller} reports the socket readable
+     * @return received message, or null if none is queued (NNG_EAGAIN); close it when done
+     * @throws NngWrapper.NngException if receive fails for another reason
+     */
+    @Nullable
+    public NngMessage tryReceiveMessage() throws NngWrapper.NngException {
+        checkOpen();
+        long start = startTimer();
+        long msg = NNG.nngRecvMsg(handle, NngWrapper.NNG_FLAG_NONBLOCK);
+        if (msg == -NngWrapper.NNG_EAGAIN) {
+            // Nothing queued is the expected end of a drain, not a failure
+            return null;
+        }
+        if (NngWrapper.isError(msg)) {
+            throw failed(NngMetricsListener.OP_RECEIVE, "Failed to receive", NngWrapper.errorCode(msg));
+        }
+        NngMessage message = NngMessagePool.getDefault().adopt(msg);
+        if (metrics != null) {
+            received(1, message.length(), start);
+        }
+        return compression != null ? decompress(message) : message;
+    }
+
+    /**
+     * Receive string decoded as UTF-8
+     *
+     * <p>The message is received into a per-thread buffer, so the String is
+     * the only object created.</p>
+     *
+     * @return received string
+     * @throws NngWrapper.NngException if receive fails
+     */
+    @NonNull
+    public String receiveString() throws NngWrapper.NngException {
+        NngReceiveBuffer buffer = NngUtf8.receiveScratch();
+        int length = receive(buffer);
+        return new String(buffer.data, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receive UTF-8 text into reusable storage, without creating a String
+     * @param text text to receive into (reused across calls)
+     * @return {@code text}
+     * @throws NngWrapper.NngException if receive fails
+     */
+    @NonNull
+    public NngText receiveText(@NonNull NngText text) throws NngWrapper.NngException {
+        text.decode(receive(text.bytes));
+        return text;
+    }
+
+    // ========== Suspending Send/Receive ==========
+
+    /**
+     * Start a receive on a pooled AIO and return at once
+     *
+     * <p>No thread waits while the receive is pending: block in
+     * {@link NngFuture#await()} (virtual-thread friendly) or resume a coroutine
+     * from {@link NngFuture#addListener}. {@link NngFuture#cancel(boolean)}
+     * aborts the receive with {@code nng_aio_cancel}. Metrics listeners are
+     * not notified.</p>
+     *
+     * @param timeoutMs timeout in milliseconds, applied with {@code nng_aio_set_timeout}
+     *        (use NNG_DURATION_* constants); the receive fails with NngTimeoutException
+     * @return future of the received message; close the message when done
+     * @throws NngWrapper.NngException if the socket is closed or no AIO can be allocated
+     * @since 1.11.0
+     */
+    @NonNull
+    public NngFuture<NngMessage> awaitRecv(int timeoutMs) throws NngWrapper.NngException {
+        checkOpen();
+        NngFuture.Decoder decoder = null;
+        if (compression != null) {
+            decoder = new NngFuture.Decoder() {
+                @NonNull
+                @Override
+                public NngMessage decode(@NonNull NngMessage message) throws NngWrapper.NngException {
+                    return decompress(message);
+                }
+            };
+        }
+        return NngFuture.receive(handle, timeoutMs, decoder);
+    }
+
+    /**
+     * Start a send on a pooled AIO and return at once
+     *
+     * <p>The native message is handed to the AIO immediately, so close
+     * {@code message} right after this call to return the object to its pool;
+     * it cannot be retried. A compression view sends a compressed copy and
+     * leaves {@code message} intact.</p>
+     *
+     * @param message message to send
+     * @param timeoutMs timeout in milliseconds, applied with {@code nng_aio_set_timeout}
+     *        (use NNG_DURATION_* constants)
+     * @return future completed once NNG has accepted the message
+     * @throws NngWrapper.NngException if the socket is closed or no AIO can be allocated
+     * @since 1.11.0
+     */
+    @NonNull
+    public NngFuture<Void> awaitSend(@NonNull NngMessage message, int timeoutMs) throws NngWrapper.NngException {
+        checkOpen();
+        if (compression == null) {
+            return NngFuture.send(handle, message, timeoutMs);
+        }
+        try (NngMessage copy = compressedCopy(message)) {
+            return NngFuture.send(handle, copy, timeoutMs);
+        }
+    }
+
+    /**
+     * Receive up to {@code max} queued messages in one native call
+     * @param batch batch to receive into (reused across calls)
+     * @param max maximum number of messages
+     * @param timeoutMs time to wait for the first message
+     * @return number of messages received (0 on timeout); fewer than {@code max} may be
+     *         returned while the batch's buffer grows
+     * @throws NngWrapper.NngException if receive fails; no message already taken from
+     *         the socket is lost (see {@link NngWrapper#nngRecvBatch(long, NngReceiveBatch, int, int)})
+     */
+    public int receiveBatch(@NonNull NngReceiveBatch batch, int max, int timeoutMs) throws NngWrapper.NngException {
+        requireUncompressed("receiveBatch");
+        long start = startTimer();
+        int rv = NNG.nngRecvBatch(handle, batch, max, timeoutMs);
+        if (rv < 0) {
+            throw failed(NngMetricsListener.OP_RECEIVE, "Failed to receive", -rv);
+        }
+        if (metrics != null) {
+            if (rv == 0) {
+                metrics.onError(this, NngMetricsListener.OP_RECEIVE, NngWrapper.NNG_ETIMEDOUT);
+            } else {
+                received(rv, batch.offsets[rv] - batch.offsets[0], start);
+            }
+        }
+        return rv;
+    }
+
+    // ========== Options ==========
+
+    /**
+     * Set receive timeout
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setRecvTimeout(int ms) throws NngWrapper.NngException {
+        checkOpen();
+        int rv = NNG.nngSetRecvTimeout(handle, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set receive timeout", rv);
+        }
+    }
+
+    /**
+     * Set send timeout
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSendTimeout(int ms) throws NngWrapper.NngException {
+        checkOpen();
+        int rv = NNG.nngSetSendTimeout(handle, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set send timeout", rv);
+        }
+    }
+
+    /**
+     * Set how long a survey collects responses (Surveyor0 only)
+     * @param ms survey duration in milliseconds
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSurveyTime(int ms) throws NngWrapper.NngException {
+        requireProtocol(Protocol.SURVEYOR0);
+        int rv = NNG.nngSetSurveyTime(handle, ms);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set survey time", rv);
+        }
+    }
+
+    /**
+     * Set how many messages are queued for receiving
+     * @param messages queue depth, 0 to 8192
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setRecvBufferSize(int messages) throws NngWrapper.NngException {
+        setIntOption(NngWrapper.NNG_OPT_RECVBUF, messages);
+    }
+
+    /**
+     * Get how many messages are queued for receiving
+     * @return queue depth
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public int getRecvBufferSize() throws NngWrapper.NngException {
+        return getIntOption(NngWrapper.NNG_OPT_RECVBUF);
+    }
+
+    /**
+     * Set how many messages are queued for sending
+     * @param messages queue depth, 0 to 8192
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSendBufferSize(int messages) throws NngWrapper.NngException {
+        setIntOption(NngWrapper.NNG_OPT_SENDBUF, messages);
+    }
+
+    /**
+     * Get how many messages are queued for sending
+     * @return queue depth
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public int getSendBufferSize() throws NngWrapper.NngException {
+        return getIntOption(NngWrapper.NNG_OPT_SENDBUF);
+    }
+
+    /**
+     * Set the largest message accepted from a peer; larger messages drop the connection
+     * @param bytes maximum size, 0 for no limit
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setRecvMaxSize(long bytes) throws NngWrapper.NngException {
+        setSizeOption(NngWrapper.NNG_OPT_RECVMAXSZ, bytes);
+    }
+
+    /**
+     * Get the largest message accepted from a peer
+     * @return maximum size in bytes, 0 for no limit
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public long getRecvMaxSize() throws NngWrapper.NngException {
+        return getSizeOption(NngWrapper.NNG_OPT_RECVMAXSZ);
+    }
+
+    /**
+     * Set the reconnect back-off for dialers created afterwards
+     *
+     * <p>A dialer waits {@code minMs} before its first reconnect attempt and
+     * doubles the wait after each failure, up to {@code maxMs}.</p>
+     *
+     * @param minMs initial delay in milliseconds
+     * @param maxMs upper bound in milliseconds, 0 to always wait {@code minMs}
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setReconnectTime(int minMs, int maxMs) throws NngWrapper.NngException {
+        setMsOption(NngWrapper.NNG_OPT_RECONNMINT, minMs);
+        setMsOption(NngWrapper.NNG_OPT_RECONNMAXT, maxMs);
+    }
+
+    /**
+     * Disable Nagle's algorithm on TCP connections made afterwards
+     * @param noDelay true to send small messages immediately
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setTcpNoDelay(boolean noDelay) throws NngWrapper.NngException {
+        setBoolOption(NngWrapper.NNG_OPT_TCP_NODELAY, noDelay);
+    }
+
+    /**
+     * Enable TCP keep-alive probes on connections made afterwards
+     * @param keepAlive true to detect dead peers on idle connections
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setTcpKeepAlive(boolean keepAlive) throws NngWrapper.NngException {
+        setBoolOption(NngWrapper.NNG_OPT_TCP_KEEPALIVE, keepAlive);
+    }
+
+    /**
+     * Allow a Pair1 socket to talk to several peers (Pair1 only, before dial/listen)
+     * @param polyamorous true for polyamorous mode
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setPair1Polyamorous(boolean polyamorous) throws NngWrapper.NngException {
+        requireProtocol(Protocol.PAIR1);
+        setBoolOption(NngWrapper.NNG_OPT_PAIR1_POLY, polyamorous);
+    }
+
+    /**
+     * Set how long a request waits for a reply before it is resent (Req0 only)
+     * @param ms resend interval in milliseconds
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setRequestResendTime(int ms) throws NngWrapper.NngException {
+        requireProtocol(Protocol.REQ0);
+        setMsOption(NngWrapper.NNG_OPT_REQ_RESENDTIME, ms);
+    }
+
+    /**
+     * Set a boolean option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param value option value
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setBoolOption(@NonNull String name, boolean value) throws NngWrapper.NngException {
+        checkOpen();
+        checkSet(name, NNG.nngOptSetBool(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name, value));
+    }
+
+    /**
+     * Set an integer option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param value option value
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setIntOption(@NonNull String name, int value) throws NngWrapper.NngException {
+        checkOpen();
+        checkSet(name, NNG.nngOptSetInt(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name, value));
+    }
+
+    /**
+     * Set a duration option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param ms duration in milliseconds (use NNG_DURATION_* constants)
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setMsOption(@NonNull String name, int ms) throws NngWrapper.NngException {
+        checkOpen();
+        checkSet(name, NNG.nngOptSetMs(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name, ms));
+    }
+
+    /**
+     * Set a size option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param bytes size in bytes
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setSizeOption(@NonNull String name, long bytes) throws NngWrapper.NngException {
+        checkOpen();
+        checkSet(name, NNG.nngOptSetSize(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name, bytes));
+    }
+
+    /**
+     * Set a string option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @param value option value
+     * @throws NngWrapper.NngException if the option cannot be set
+     */
+    public void setStringOption(@NonNull String name, @NonNull String value) throws NngWrapper.NngException {
+        checkOpen();
+        checkSet(name, NNG.nngOptSetString(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name, value));
+    }
+
+    /**
+     * Get a boolean option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public boolean getBoolOption(@NonNull String name) throws NngWrapper.NngException {
+        checkOpen();
+        return NNG.nngOptGetBool(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name);
+    }
+
+    /**
+     * Get an integer option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public int getIntOption(@NonNull String name) throws NngWrapper.NngException {
+        checkOpen();
+        return NNG.nngOptGetInt(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name);
+    }
+
+    /**
+     * Get a duration option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return duration in milliseconds
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public int getMsOption(@NonNull String name) throws NngWrapper.NngException {
+        checkOpen();
+        return NNG.nngOptGetMs(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name);
+    }
+
+    /**
+     * Get a size option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return size in bytes
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    public long getSizeOption(@NonNull String name) throws NngWrapper.NngException {
+        checkOpen();
+        return NNG.nngOptGetSize(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name);
+    }
+
+    /**
+     * Get a string option
+     * @param name option name (NngWrapper.NNG_OPT_* constants)
+     * @return option value
+     * @throws NngWrapper.NngException if the option cannot be read
+     */
+    @NonNull
+    public String getStringOption(@NonNull String name) throws NngWrapper.NngException {
+        checkOpen();
+        return NNG.nngOptGetString(NngWrapper.NNG_OPT_TARGET_SOCKET, handle, name);
+    }
+
+    /**
+     * Subscribe to a topic prefix (Sub0 only)
+     * @param topic topic prefix; empty matches every message
+     * @throws NngWrapper.NngException if the subscription fails
+     */
+    public void subscribe(@NonNull byte[] topic) throws NngWrapper.NngException {
+        requireProtocol(Protocol.SUB0);
+        int rv = NNG.nngSubSubscribe(handle, topic);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to subscribe", rv);
+        }
+    }
+
+    /**
+     * Subscribe to a UTF-8 topic prefix (Sub0 only)
+     * @param topic topic prefix; empty matches every message
+     * @throws NngWrapper.NngException if the subscription fails
+     */
+    public void subscribe(@NonNull String topic) throws NngWrapper.NngException {
+        subscribe(topic.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Remove a topic subscription (Sub0 only)
+     * @param topic topic prefix previously subscribed
+     * @throws NngWrapper.NngException if the topic was not subscribed
+     */
+    public void unsubscribe(@NonNull byte[] topic) throws NngWrapper.NngException {
+        requireProtocol(Protocol.SUB0);
+        int rv = NNG.nngSubUnsubscribe(handle, topic);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to unsubscribe", rv);
+        }
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Close the socket
+     *
+     * <p>Safe to call more than once and from any thread. Operations blocked
+     * in other threads return with {@code NNG_ECLOSED}.</p>
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            NNG.nngClose(handle);
+            pipeEvents.release();
+            NngLog.i(TAG, "Socket closed: " + handle);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NngSocket{" + protocol + ", " + handle + (closed.get() ? ", closed}" : "}");
+    }
+
+    // ========== Compression ==========
+
+    private void sendCompressed(byte[] data) throws NngWrapper.NngException {
+        NngCompression.Codec codec = compression.acquire();
+        try {
+            int wire = compression.encode(codec, data, 0, data.length, this);
+            long start = startTimer();
+            int rv = NNG.nngSend(handle, codec.out, wire, 0);
+            if (rv != 0) {
+                throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+            }
+            sent(1, wire, start);
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private void sendCompressed(NngMessage message) throws NngWrapper.NngException {
+        try (NngMessage copy = compressedCopy(message)) {
+            int wire = copy.length();
+            long start = startTimer();
+            int rv = NNG.nngSendMsg(handle, copy.handle(), 0);
+            if (rv != 0) {
+                throw failed(NngMetricsListener.OP_SEND, "Failed to send", rv);
+            }
+            copy.detach();
+            sent(1, wire, start);
+        }
+    }
+
+    private NngMessage compressedCopy(NngMessage message) throws NngWrapper.NngException {
+        NngCompression.Codec codec = compression.acquire();
+        try {
+            ByteBuffer body = message.body();
+            int length = body.remaining();
+            byte[] in = codec.in(length);
+            body.get(in, 0, length);
+            int wire = compression.encode(codec, in, 0, length, this);
+            NngMessage copy = NngMessage.allocate(wire);
+            copy.body().put(codec.out, 0, wire);
+            NngPipe pipe = message.pipe();
+            if (pipe != null) copy.setPipe(pipe);
+            return copy;
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private byte[] compress(byte[] data) {
+        NngCompression.Codec codec = compression.acquire();
+        try {
+            int length = compression.encode(codec, data, 0, data.length, this);
+            return Arrays.copyOf(codec.out, length);
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private byte[][] compressAll(byte[][] msgs) {
+        byte[][] wire = new byte[msgs.length][];
+        for (int i = 0; i < msgs.length; i++) {
+            wire[i] = compress(msgs[i]);
+        }
+        return wire;
+    }
+
+    private byte[] decompress(byte[] data, int operation) throws NngWrapper.NngException {
+        NngCompression.Codec codec = compression.acquire();
+        try {
+            int length = compression.decode(codec, data, 0, data.length, this);
+            return Arrays.copyOf(codec.out, length);
+        } catch (NngWrapper.NngException e) {
+            if (metrics != null) metrics.onError(this, operation, e.getErrorCode());
+            throw e;
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private int decompressInPlace(NngReceiveBuffer buffer) throws NngWrapper.NngException {
+        NngCompression.Codec codec = compression.acquire();
+        try {
+            int length = compression.decode(codec, buffer.data, 0, buffer.length, this);
+            if (buffer.data.length < length) {
+                buffer.data = new byte[length];
+            }
+            System.arraycopy(codec.out, 0, buffer.data, 0, length);
+            buffer.length = length;
+            return length;
+        } catch (NngWrapper.NngException e) {
+            if (metrics != null) metrics.onError(this, NngMetricsListener.OP_RECEIVE, e.getErrorCode());
+            throw e;
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private NngMessage decompress(NngMessage wire) throws NngWrapper.NngException {
+        NngCompression.Codec codec = compression.acquire();
+        try (NngMessage received = wire) {
+            ByteBuffer body = received.body();
+            int wireLength = body.remaining();
+            byte[] in = codec.in(wireLength);
+            body.get(in, 0, wireLength);
+            int length;
+            try {
+                length = compression.decode(codec, in, 0, wireLength, this);
+            } catch (NngWrapper.NngException e) {
+                if (metrics != null) metrics.onError(this, NngMetricsListener.OP_RECEIVE, e.getErrorCode());
+                throw e;
+            }
+            NngMessage message = NngMessage.allocate(length);
+            message.body().put(codec.out, 0, length);
+            NngPipe pipe = received.pipe();
+            if (pipe != null) message.setPipe(pipe);
+            return message;
+        } finally {
+            compression.release(codec);
+        }
+    }
+
+    private void requireUncompressed(String operation) throws NngWrapper.NngException {
+        if (compression != null) {
+            throw new IllegalStateException(operation + " is not supported on a compression view");
+        }
+        checkOpen();
+    }
+
+    // The clock is only read when a listener is attached
+    private long startTimer() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+
+    private void sent(int messages, long bytes, long start) {
+        if (metrics != null) {
+            metrics.onSend(this, messages, bytes, System.nanoTime() - start);
+        }
+    }
+
+    private void received(int messages, long bytes, long start) {
+        if (metrics != null) {
+            metrics.onReceive(this, messages, bytes, System.nanoTime() - start);
+        }
+    }
+
+    private NngWrapper.NngException failed(int operation, String message, int rv) {
+        if (metrics != null) {
+            metrics.onError(this, operation, rv);
+        }
+        return NngWrapper.NngException.of(message, rv);
+    }
+
+    private void checkOpen() throws NngWrapper.NngException {
+        if (closed.get()) {
+            throw NngWrapper.NngException.of("Socket closed", NngWrapper.NNG_ECLOSED);
+        }
+    }
+
+    private static void checkSet(String name, int rv) throws NngWrapper.NngException {
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to set option " + name, rv);
+        }
+    }
+
+    private void requireProtocol(Protocol required) throws NngWrapper.NngException {
+        if (protocol != required) {
+            throw new IllegalStateException(required + " operation on " + protocol + " socket");
+        }
+        checkOpen();
+    }
+}
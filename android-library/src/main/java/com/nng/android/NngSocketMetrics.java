@@ -0,0 +1,165 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * {@link NngMetricsListener} that keeps latency histograms and counters
+ *
+ * <p>One instance may be shared by several sockets to aggregate them. All
+ * updates are lock-free; counters are striped so concurrent senders and
+ * receivers do not contend.</p>
+ *
+ * <pre>{@code
+ * NngSocketMetrics metrics = new NngSocketMetrics();
+ * NngSocket req = NngSocket.req0().withMetrics(metrics);
+ * req.dial(url);
+ * byte[] reply = req.request(payload);
+ * // ...
+ * Log.i(TAG, "rtt " + metrics.requestLatency());
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngSocketMetrics implements NngMetricsListener {
+    private final NngLatencyHistogram sendLatency = new NngLatencyHistogram();
+    private final NngLatencyHistogram receiveLatency = new NngLatencyHistogram();
+    private final NngLatencyHistogram requestLatency = new NngLatencyHistogram();
+    private final NngLatencyHistogram compressTime = new NngLatencyHistogram();
+    private final NngLatencyHistogram decompressTime = new NngLatencyHistogram();
+    private final NngCounter messagesSent = new NngCounter();
+    private final NngCounter bytesSent = new NngCounter();
+    private final NngCounter messagesReceived = new NngCounter();
+    private final NngCounter bytesReceived = new NngCounter();
+    private final NngCounter timeouts = new NngCounter();
+    private final NngCounter again = new NngCounter();
+    private final NngCounter errors = new NngCounter();
+    private final NngCounter compressRawBytes = new NngCounter();
+    private final NngCounter compressWireBytes = new NngCounter();
+    private final NngCounter decompressWireBytes = new NngCounter();
+    private final NngCounter decompressRawBytes = new NngCounter();
+
+    @Override
+    public void onSend(@NonNull NngSocket socket, int messages, long bytes, long nanos) {
+        sendLatency.record(nanos);
+        messagesSent.add(messages);
+        bytesSent.add(bytes);
+    }
+
+    @Override
+    public void onReceive(@NonNull NngSocket socket, int messages, long bytes, long nanos) {
+        receiveLatency.record(nanos);
+        messagesReceived.add(messages);
+        bytesReceived.add(bytes);
+    }
+
+    @Override
+    public void onRequest(@NonNull NngSocket socket, int requestBytes, int replyBytes, long nanos) {
+        requestLatency.record(nanos);
+        messagesSent.increment();
+        bytesSent.add(requestBytes);
+        messagesReceived.increment();
+        bytesReceived.add(replyBytes);
+    }
+
+    @Override
+    public void onCompress(@NonNull NngSocket socket, int rawBytes, int wireBytes, long nanos) {
+        compressTime.record(nanos);
+        compressRawBytes.add(rawBytes);
+        compressWireBytes.add(wireBytes);
+    }
+
+    @Override
+    public void onDecompress(@NonNull NngSocket socket, int wireBytes, int rawBytes, long nanos) {
+        decompressTime.record(nanos);
+        decompressWireBytes.add(wireBytes);
+        decompressRawBytes.add(rawBytes);
+    }
+
+    @Override
+    public void onError(@NonNull NngSocket socket, int operation, int errorCode) {
+        switch (errorCode) {
+            case NngWrapper.NNG_ETIMEDOUT: timeouts.increment(); break;
+            case NngWrapper.NNG_EAGAIN:    again.increment(); break;
+            default:                       errors.increment(); break;
+        }
+    }
+
+    /** Time spent in send calls */
+    @NonNull public NngLatencyHistogram sendLatency() { return sendLatency; }
+    /** Time spent in receive calls, including waiting for a message */
+    @NonNull public NngLatencyHistogram receiveLatency() { return receiveLatency; }
+    /** Request/reply round-trip time */
+    @NonNull public NngLatencyHistogram requestLatency() { return requestLatency; }
+    /** Messages sent */
+    @NonNull public NngCounter messagesSent() { return messagesSent; }
+    /** Payload bytes sent */
+    @NonNull public NngCounter bytesSent() { return bytesSent; }
+    /** Messages received */
+    @NonNull public NngCounter messagesReceived() { return messagesReceived; }
+    /** Payload bytes received */
+    @NonNull public NngCounter bytesReceived() { return bytesReceived; }
+    /** Operations that failed with NNG_ETIMEDOUT */
+    @NonNull public NngCounter timeouts() { return timeouts; }
+    /** Operations that failed with NNG_EAGAIN (non-blocking, would block); empty {@code try*} polls are not counted */
+    @NonNull public NngCounter again() { return again; }
+    /** Operations that failed with any other error */
+    @NonNull public NngCounter errors() { return errors; }
+    /** Time spent compressing payloads at or above the threshold */
+    @NonNull public NngLatencyHistogram compressTime() { return compressTime; }
+    /** Time spent decompressing received payloads */
+    @NonNull public NngLatencyHistogram decompressTime() { return decompressTime; }
+    /** Payload bytes that went through the compressor */
+    @NonNull public NngCounter compressRawBytes() { return compressRawBytes; }
+    /** Bytes the compressor produced, including payloads sent as they were */
+    @NonNull public NngCounter compressWireBytes() { return compressWireBytes; }
+    /** Compressed bytes received */
+    @NonNull public NngCounter decompressWireBytes() { return decompressWireBytes; }
+    /** Bytes the compressed payloads expanded to */
+    @NonNull public NngCounter decompressRawBytes() { return decompressRawBytes; }
+
+    /**
+     * Send-side compression ratio, including payloads that did not shrink
+     * @return raw bytes per wire byte (above 1 means compression pays off), or 0 if nothing was compressed
+     */
+    public double compressionRatio() {
+        long wire = compressWireBytes.sum();
+        return wire == 0 ? 0 : (double) compressRawBytes.sum() / wire;
+    }
+
+    /**
+     * Clear all histograms and counters
+     */
+    public void reset() {
+        sendLatency.reset();
+        receiveLatency.reset();
+        requestLatency.reset();
+        messagesSent.reset();
+        bytesSent.reset();
+        messagesReceived.reset();
+        bytesReceived.reset();
+        timeouts.reset();
+        again.reset();
+        errors.reset();
+        compressTime.reset();
+        decompressTime.reset();
+        compressRawBytes.reset();
+        compressWireBytes.reset();
+        decompressWireBytes.reset();
+        decompressRawBytes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "sent=" + messagesSent + " msgs/" + bytesSent + " B"
+                + ", received=" + messagesReceived + " msgs/" + bytesReceived + " B"
+                + ", timeouts=" + timeouts + ", again=" + again + ", errors=" + errors
+                + "\n  send: " + sendLatency
+                + "\n  recv: " + receiveLatency
+                + "\n  request: " + requestLatency
+                + (compressTime.count() == 0 && decompressTime.count() == 0 ? ""
+                        : "\n  compress: ratio " + String.format(Locale.US, "%.2f", compressionRatio())
+                        + ", " + compressTime + "\n  decompress: " + decompressTime);
+    }
+}
@@ -0,0 +1,300 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Set of socket options applied in one call
+ *
+ * <p>Options left unset keep the socket's current value. Transport options
+ * (TCP, reconnect) set on a socket are used by the dialers and listeners
+ * created afterwards, so apply the options before {@code dial}/{@code listen}:</p>
+ *
+ * <pre>{@code
+ * NngSocket req = NngSocket.req0();
+ * NngSocketOptions.LOW_LATENCY.apply(req);
+ * req.dial("tcp://server:5555");
+ *
+ * NngSocketOptions options = NngSocketOptions.HIGH_THROUGHPUT.toBuilder()
+ *         .recvMaxSize(16 << 20)
+ *         .build();
+ * options.apply(pull);
+ * }</pre>
+ *
+ * <p>Instances are immutable and can be shared between sockets.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngSocketOptions {
+
+    /**
+     * Interactive traffic: Nagle off, short queues so stale messages are not
+     * buffered, and fast reconnects
+     */
+    public static final NngSocketOptions LOW_LATENCY = new Builder()
+            .tcpNoDelay(true)
+            .tcpKeepAlive(true)
+            .recvBufferSize(16)
+            .sendBufferSize(16)
+            .reconnectTime(10, 1000)
+            .build();
+
+    /**
+     * Bulk traffic: Nagle on to coalesce small writes, deep queues to absorb
+     * bursts, and a relaxed reconnect back-off
+     */
+    public static final NngSocketOptions HIGH_THROUGHPUT = new Builder()
+            .tcpNoDelay(false)
+            .tcpKeepAlive(true)
+            .recvBufferSize(1024)
+            .sendBufferSize(1024)
+            .reconnectTime(100, 5000)
+            .build();
+
+    private final Integer recvBufferSize;
+    private final Integer sendBufferSize;
+    private final Long recvMaxSize;
+    private final Integer recvTimeoutMs;
+    private final Integer sendTimeoutMs;
+    private final Integer reconnectMinMs;
+    private final Integer reconnectMaxMs;
+    private final Boolean tcpNoDelay;
+    private final Boolean tcpKeepAlive;
+    private final Boolean pair1Polyamorous;
+    private final Integer requestResendTimeMs;
+
+    private NngSocketOptions(Builder b) {
+        this.recvBufferSize = b.recvBufferSize;
+        this.sendBufferSize = b.sendBufferSize;
+        this.recvMaxSize = b.recvMaxSize;
+        this.recvTimeoutMs = b.recvTimeoutMs;
+        this.sendTimeoutMs = b.sendTimeoutMs;
+        this.reconnectMinMs = b.reconnectMinMs;
+        this.reconnectMaxMs = b.reconnectMaxMs;
+        this.tcpNoDelay = b.tcpNoDelay;
+        this.tcpKeepAlive = b.tcpKeepAlive;
+        this.pair1Polyamorous = b.pair1Polyamorous;
+        this.requestResendTimeMs = b.requestResendTimeMs;
+    }
+
+    /**
+     * Look up a predefined profile by name
+     * @param name "low-latency" or "high-throughput"
+     * @return the profile
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    @NonNull
+    public static NngSocketOptions profile(@NonNull String name) {
+        switch (name) {
+            case "low-latency": return LOW_LATENCY;
+            case "high-throughput": return HIGH_THROUGHPUT;
+            default: throw new IllegalArgumentException("Unknown socket options profile: " + name);
+        }
+    }
+
+    /**
+     * Apply the options that are set
+     *
+     * <p>Options are applied in order and the first failure is thrown; options
+     * applied before it stay in effect. Protocol-specific options throw
+     * IllegalStateException on a socket of another protocol.</p>
+     *
+     * @param socket socket to configure
+     * @throws NngWrapper.NngException if an option cannot be set
+     */
+    public void apply(@NonNull NngSocket socket) throws NngWrapper.NngException {
+        if (recvBufferSize != null) socket.setRecvBufferSize(recvBufferSize);
+        if (sendBufferSize != null) socket.setSendBufferSize(sendBufferSize);
+        if (recvMaxSize != null) socket.setRecvMaxSize(recvMaxSize);
+        if (recvTimeoutMs != null) socket.setRecvTimeout(recvTimeoutMs);
+        if (sendTimeoutMs != null) socket.setSendTimeout(sendTimeoutMs);
+        if (reconnectMinMs != null) socket.setMsOption(NngWrapper.NNG_OPT_RECONNMINT, reconnectMinMs);
+        if (reconnectMaxMs != null) socket.setMsOption(NngWrapper.NNG_OPT_RECONNMAXT, reconnectMaxMs);
+        if (tcpNoDelay != null) socket.setTcpNoDelay(tcpNoDelay);
+        if (tcpKeepAlive != null) socket.setTcpKeepAlive(tcpKeepAlive);
+        if (pair1Polyamorous != null) socket.setPair1Polyamorous(pair1Polyamorous);
+        if (requestResendTimeMs != null) socket.setRequestResendTime(requestResendTimeMs);
+    }
+
+    /**
+     * Start a builder from these options
+     * @return builder holding a copy of every option
+     */
+    @NonNull
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        b.recvBufferSize = recvBufferSize;
+        b.sendBufferSize = sendBufferSize;
+        b.recvMaxSize = recvMaxSize;
+        b.recvTimeoutMs = recvTimeoutMs;
+        b.sendTimeoutMs = sendTimeoutMs;
+        b.reconnectMinMs = reconnectMinMs;
+        b.reconnectMaxMs = reconnectMaxMs;
+        b.tcpNoDelay = tcpNoDelay;
+        b.tcpKeepAlive = tcpKeepAlive;
+        b.pair1Polyamorous = pair1Polyamorous;
+        b.requestResendTimeMs = requestResendTimeMs;
+        return b;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("NngSocketOptions{");
+        append(sb, "recvBuffer", recvBufferSize);
+        append(sb, "sendBuffer", sendBufferSize);
+        append(sb, "recvMaxSize", recvMaxSize);
+        append(sb, "recvTimeoutMs", recvTimeoutMs);
+        append(sb, "sendTimeoutMs", sendTimeoutMs);
+        append(sb, "reconnectMinMs", reconnectMinMs);
+        append(sb, "reconnectMaxMs", reconnectMaxMs);
+        append(sb, "tcpNoDelay", tcpNoDelay);
+        append(sb, "tcpKeepAlive", tcpKeepAlive);
+        append(sb, "pair1Polyamorous", pair1Polyamorous);
+        append(sb, "requestResendTimeMs", requestResendTimeMs);
+        return sb.append('}').toString();
+    }
+
+    private static void append(StringBuilder sb, String name, @Nullable Object value) {
+        if (value == null) return;
+        if (sb.charAt(sb.length() - 1) != '{') sb.append(", ");
+        sb.append(name).append('=').append(value);
+    }
+
+    /**
+     * Builder for {@link NngSocketOptions}; options not called are left unchanged on apply
+     */
+    public static final class Builder {
+        private Integer recvBufferSize;
+        private Integer sendBufferSize;
+        private Long recvMaxSize;
+        private Integer recvTimeoutMs;
+        private Integer sendTimeoutMs;
+        private Integer reconnectMinMs;
+        private Integer reconnectMaxMs;
+        private Boolean tcpNoDelay;
+        private Boolean tcpKeepAlive;
+        private Boolean pair1Polyamorous;
+        private Integer requestResendTimeMs;
+
+        /**
+         * Messages queued for receiving
+         * @param messages queue depth, 0 to 8192
+         * @return this builder
+         */
+        @NonNull
+        public Builder recvBufferSize(int messages) {
+            this.recvBufferSize = messages;
+            return this;
+        }
+
+        /**
+         * Messages queued for sending
+         * @param messages queue depth, 0 to 8192
+         * @return this builder
+         */
+        @NonNull
+        public Builder sendBufferSize(int messages) {
+            this.sendBufferSize = messages;
+            return this;
+        }
+
+        /**
+         * Largest message accepted from a peer
+         * @param bytes maximum size, 0 for no limit
+         * @return this builder
+         */
+        @NonNull
+        public Builder recvMaxSize(long bytes) {
+            this.recvMaxSize = bytes;
+            return this;
+        }
+
+        /**
+         * Receive timeout
+         * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+         * @return this builder
+         */
+        @NonNull
+        public Builder recvTimeout(int ms) {
+            this.recvTimeoutMs = ms;
+            return this;
+        }
+
+        /**
+         * Send timeout
+         * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+         * @return this builder
+         */
+        @NonNull
+        public Builder sendTimeout(int ms) {
+            this.sendTimeoutMs = ms;
+            return this;
+        }
+
+        /**
+         * Reconnect back-off of dialers
+         * @param minMs initial delay in milliseconds
+         * @param maxMs upper bound in milliseconds, 0 to always wait {@code minMs}
+         * @return this builder
+         */
+        @NonNull
+        public Builder reconnectTime(int minMs, int maxMs) {
+            this.reconnectMinMs = minMs;
+            this.reconnectMaxMs = maxMs;
+            return this;
+        }
+
+        /**
+         * Disable Nagle's algorithm on TCP connections
+         * @param noDelay true to send small messages immediately
+         * @return this builder
+         */
+        @NonNull
+        public Builder tcpNoDelay(boolean noDelay) {
+            this.tcpNoDelay = noDelay;
+            return this;
+        }
+
+        /**
+         * TCP keep-alive probes
+         * @param keepAlive true to detect dead peers on idle connections
+         * @return this builder
+         */
+        @NonNull
+        public Builder tcpKeepAlive(boolean keepAlive) {
+            this.tcpKeepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Pair1 polyamorous mode (Pair1 sockets only)
+         * @param polyamorous true for polyamorous mode
+         * @return this builder
+         */
+        @NonNull
+        public Builder pair1Polyamorous(boolean polyamorous) {
+            this.pair1Polyamorous = polyamorous;
+            return this;
+        }
+
+        /**
+         * Time before an unanswered request is resent (Req0 sockets only)
+         * @param ms resend interval in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder requestResendTime(int ms) {
+            this.requestResendTimeMs = ms;
+            return this;
+        }
+
+        /**
+         * Create the options
+         * @return immutable options
+         */
+        @NonNull
+        public NngSocketOptions build() {
+            return new NngSocketOptions(this);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the NNG statistics tree
+ *
+ * <p>{@link #snapshot()} walks the whole tree in a single native call. Nodes
+ * are stored in flat arrays in pre-order, so a parent always comes before its
+ * children and {@link #parent(int)} gives the tree structure. Node names are
+ * interned on the native side and shared between snapshots.</p>
+ *
+ * <p>Scopes that carry an {@code id} child (sockets, dialers, listeners,
+ * pipes) get that ID in their {@link #key(int) key}, e.g.
+ * {@code socket#1/tx_msgs}, so the same node can be matched across
+ * snapshots. {@link #ratesSince(NngStats)} turns two snapshots into per-second
+ * rates for every counter:</p>
+ *
+ * <pre>{@code
+ * NngStats previous = NngStats.snapshot();
+ * // ... one second later ...
+ * NngStats current = NngStats.snapshot();
+ * NngStats.Rates rates = current.ratesSince(previous);
+ * for (int i = 0; i < current.size(); i++) {
+ *     if (current.type(i) == NngStats.TYPE_COUNTER) {
+ *         export(current.key(i), current.value(i), rates.rate(i));
+ *     }
+ * }
+ * previous = current;
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngStats {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /** Scope (container) node; has no value */
+    public static final int TYPE_SCOPE = 0;
+    /** Instantaneous value that may go up or down */
+    public static final int TYPE_LEVEL = 1;
+    /** Monotonically increasing counter */
+    public static final int TYPE_COUNTER = 2;
+    /** String value, see {@link #stringValue(int)} */
+    public static final int TYPE_STRING = 3;
+    /** Boolean value, reported as 0 or 1 */
+    public static final int TYPE_BOOLEAN = 4;
+    /** Object identifier */
+    public static final int TYPE_ID = 5;
+
+    /** No unit */
+    public static final int UNIT_NONE = 0;
+    /** Bytes */
+    public static final int UNIT_BYTES = 1;
+    /** Messages */
+    public static final int UNIT_MESSAGES = 2;
+    /** Milliseconds */
+    public static final int UNIT_MILLIS = 3;
+    /** Events */
+    public static final int UNIT_EVENTS = 4;
+
+    // Written by native code
+    String[] names;
+    String[] strings;
+    long[] values;
+    int[] types;
+    int[] units;
+    int[] parents;
+    long timestampMs;
+
+    private long capturedNanos;
+    private String[] keys;
+    private Map<String, Integer> index;
+
+    private NngStats() {
+    }
+
+    /**
+     * Take a snapshot of all statistics
+     * @return new snapshot
+     * @throws NngWrapper.NngException if statistics are unavailable (e.g. built with NNG_ENABLE_STATS=OFF)
+     */
+    @NonNull
+    public static NngStats snapshot() throws NngWrapper.NngException {
+        NngStats stats = new NngStats();
+        int rv = NNG.nngStatsSnapshot(stats);
+        if (rv != 0) {
+            throw NngWrapper.NngException.of("Failed to get statistics", rv);
+        }
+        stats.capturedNanos = System.nanoTime();
+        return stats;
+    }
+
+    /**
+     * Number of nodes, including scopes
+     * @return node count
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Node name, e.g. {@code tx_msgs}
+     * @param i node index
+     * @return name
+     */
+    @NonNull
+    public String name(int i) {
+        return names[i];
+    }
+
+    /**
+     * Node type
+     * @param i node index
+     * @return one of the TYPE_* constants
+     */
+    public int type(int i) {
+        return types[i];
+    }
+
+    /**
+     * Node unit
+     * @param i node index
+     * @return one of the UNIT_* constants
+     */
+    public int unit(int i) {
+        return units[i];
+    }
+
+    /**
+     * Parent node index
+     * @param i node index
+     * @return parent index, or -1 for the root
+     */
+    public int parent(int i) {
+        return parents[i];
+    }
+
+    /**
+     * Numeric value of a level, counter, boolean or ID node
+     * @param i node index
+     * @return value (0 for scopes and strings)
+     */
+    public long value(int i) {
+        return values[i];
+    }
+
+    /**
+     * Value of a string node
+     * @param i node index
+     * @return string value, or null if the node is not a string
+     */
+    @Nullable
+    public String stringValue(int i) {
+        return strings[i];
+    }
+
+    /**
+     * NNG timestamp of the snapshot
+     * @return milliseconds on the NNG clock
+     */
+    public long timestampMs() {
+        return timestampMs;
+    }
+
+    /**
+     * {@link System#nanoTime()} when the snapshot was taken
+     * @return capture time in nanoseconds
+     */
+    public long capturedNanos() {
+        return capturedNanos;
+    }
+
+    /**
+     * Path of the node that is stable across snapshots, e.g. {@code socket#1/rx_msgs}
+     * @param i node index
+     * @return key ("" for the root)
+     */
+    @NonNull
+    public String key(int i) {
+        return keys()[i];
+    }
+
+    /**
+     * Find a node by key
+     * @param key key as returned by {@link #key(int)}
+     * @return node index, or -1 if absent
+     */
+    public int find(@NonNull String key) {
+        Integer i = index().get(key);
+        return i != null ? i : -1;
+    }
+
+    /**
+     * Per-second rates of change of every counter since an earlier snapshot
+     * @param previous earlier snapshot
+     * @return rates aligned with the nodes of this snapshot
+     */
+    @NonNull
+    public Rates ratesSince(@NonNull NngStats previous) {
+        long elapsed = capturedNanos - previous.capturedNanos;
+        double[] rates = new double[size()];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = Double.NaN;
+            if (types[i] != TYPE_COUNTER || elapsed <= 0) continue;
+            int j = previous.find(key(i));
+            if (j >= 0 && previous.types[j] == TYPE_COUNTER) {
+                rates[i] = (values[i] - previous.values[j]) * 1e9 / elapsed;
+            }
+        }
+        return new Rates(rates, elapsed);
+    }
+
+    /**
+     * Counter rates between two snapshots
+     */
+    public static final class Rates {
+        private final double[] rates;
+        private final long elapsedNanos;
+
+        Rates(@NonNull double[] rates, long elapsedNanos) {
+            this.rates = rates;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Rate of a counter node
+         * @param i node index in the newer snapshot
+         * @return units per second, or NaN if the node is not a counter or is new
+         */
+        public double rate(int i) {
+            return rates[i];
+        }
+
+        /**
+         * Time between the two snapshots
+         * @return elapsed nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    private synchronized String[] keys() {
+        if (keys != null) return keys;
+        int n = size();
+        // Scopes that own an ID child are qualified with it ("socket#3")
+        String[] segments = names.clone();
+        boolean[] qualified = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int p = parents[i];
+            if (types[i] == TYPE_ID && p >= 0 && types[p] == TYPE_SCOPE && !qualified[p]) {
+                segments[p] = names[p] + '#' + values[i];
+                qualified[p] = true;
+            }
+        }
+        String[] result = new String[n];
+        for (int i = 0; i < n; i++) {
+            int p = parents[i];
+            // Parents precede children, so result[p] is already set
+            result[i] = p < 0 ? "" : (result[p].isEmpty() ? segments[i] : result[p] + '/' + segments[i]);
+        }
+        keys = result;
+        return result;
+    }
+
+    private synchronized Map<String, Integer> index() {
+        if (index != null) return index;
+        String[] k = keys();
+        Map<String, Integer> map = new HashMap<>(k.length * 2);
+        for (int i = 0; i < k.length; i++) {
+            map.put(k[i], i);
+        }
+        index = map;
+        return map;
+    }
+}
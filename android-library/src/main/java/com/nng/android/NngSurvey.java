@@ -0,0 +1,235 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One survey on a Surveyor0 socket and the responses it collects
+ *
+ * <p>A survey is sent to every connected Respondent0 peer, and responses are
+ * accepted until the survey time expires. Each survey runs on its own
+ * {@link NngContext}, so several surveys can be in flight on one socket.</p>
+ *
+ * <p>Responses can be streamed to a {@link Listener} as they arrive, driven
+ * by an {@link NngAio} with no waiting thread:</p>
+ *
+ * <pre>{@code
+ * NngSocket surveyor = NngSocket.surveyor0();
+ * surveyor.listen("ipc:///data/local/tmp/health.ipc");
+ *
+ * NngSurvey.start(surveyor, "ping".getBytes(), 250, executor, new NngSurvey.Listener() {
+ *     public void onResponse(NngMessage response) {
+ *         try (NngMessage r = response) { record(r.toByteArray()); }
+ *     }
+ *     public void onComplete(int responses) { publish(responses); }
+ *     public void onError(NngWrapper.NngException error) { ... }
+ * });
+ * }</pre>
+ *
+ * <p>or collected into a bounded list with the blocking
+ * {@link #collect(NngSocket, byte[], int, int)}.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngSurvey implements AutoCloseable {
+    private static final String TAG = "NngSurvey";
+
+    /**
+     * Receives the responses to a survey
+     */
+    public interface Listener {
+        /**
+         * Called on the executor for each response
+         * @param response response message; the listener owns it and must close it
+         */
+        void onResponse(@NonNull NngMessage response);
+
+        /**
+         * Called once when the survey time expires or the survey is closed
+         * @param responses number of responses delivered
+         */
+        void onComplete(int responses);
+
+        /**
+         * Called once if the survey cannot be sent or receiving fails
+         * @param error cause
+         */
+        void onError(@NonNull NngWrapper.NngException error);
+    }
+
+    private final NngContext context;
+    private final NngAio aio;
+    private final Listener listener;
+    private final AtomicBoolean done = new AtomicBoolean(false);
+    private boolean sending = true;
+    private int responses;
+
+    private NngSurvey(NngContext context, Executor executor, Listener listener) throws NngWrapper.NngException {
+        this.context = context;
+        this.listener = listener;
+        this.aio = new NngAio(executor, new NngAio.CompletionHandler() {
+            @Override
+            public void onComplete(@NonNull NngAio aio, int result) {
+                onAioComplete(result);
+            }
+        });
+    }
+
+    /**
+     * Send a survey and stream the responses to a listener
+     * @param surveyor Surveyor0 socket
+     * @param question survey payload
+     * @param surveyTimeMs how long responses are accepted
+     * @param executor executor on which the listener is called
+     * @param listener receives the responses
+     * @return running survey; close it to stop early
+     * @throws NngWrapper.NngException if the context or AIO cannot be created
+     */
+    @NonNull
+    public static NngSurvey start(@NonNull NngSocket surveyor, @NonNull byte[] question, int surveyTimeMs,
+                                  @NonNull Executor executor, @NonNull Listener listener)
+            throws NngWrapper.NngException {
+        NngContext context = open(surveyor, surveyTimeMs);
+        NngSurvey survey;
+        try {
+            survey = new NngSurvey(context, executor, listener);
+        } catch (NngWrapper.NngException e) {
+            context.close();
+            throw e;
+        }
+        try (NngMessage message = NngMessage.allocate(question.length)) {
+            message.body().put(question);
+            survey.aio.send(context, message);
+        } catch (NngWrapper.NngException | RuntimeException e) {
+            context.close();
+            survey.aio.close();
+            throw e;
+        }
+        return survey;
+    }
+
+    /**
+     * Send a survey and wait for its responses
+     *
+     * <p>Returns when the survey time expires or {@code maxResponses}
+     * responses have arrived, whichever comes first.</p>
+     *
+     * @param surveyor Surveyor0 socket
+     * @param question survey payload
+     * @param surveyTimeMs how long responses are accepted
+     * @param maxResponses maximum number of responses to collect
+     * @return response payloads in arrival order
+     * @throws NngWrapper.NngException if the survey cannot be sent or receiving fails
+     */
+    @NonNull
+    public static List<byte[]> collect(@NonNull NngSocket surveyor, @NonNull byte[] question,
+                                       int surveyTimeMs, int maxResponses) throws NngWrapper.NngException {
+        List<byte[]> result = new ArrayList<>();
+        try (NngContext context = open(surveyor, surveyTimeMs)) {
+            try (NngMessage message = NngMessage.allocate(question.length)) {
+                message.body().put(question);
+                context.send(message);
+            }
+            while (result.size() < maxResponses) {
+                try (NngMessage response = context.receive()) {
+                    result.add(response.toByteArray());
+                } catch (NngTimeoutException e) {
+                    // Survey time expired
+                    break;
+                } catch (NngWrapper.NngException e) {
+                    // Expired between two receives: the context no longer has a survey
+                    if (e.getErrorCode() == NngWrapper.NNG_ESTATE) break;
+                    throw e;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the survey has finished
+     * @return true once the listener has been told it completed or failed
+     */
+    public boolean isDone() {
+        return done.get();
+    }
+
+    /**
+     * Stop collecting responses; the listener's onComplete is called if it has not been already
+     */
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static NngContext open(NngSocket surveyor, int surveyTimeMs) throws NngWrapper.NngException {
+        if (surveyor.protocol() != NngSocket.Protocol.SURVEYOR0) {
+            throw new IllegalArgumentException("NngSurvey requires a Surveyor0 socket");
+        }
+        NngContext context = NngContext.open(surveyor);
+        try {
+            context.setSurveyTime(surveyTimeMs);
+        } catch (NngWrapper.NngException e) {
+            context.close();
+            throw e;
+        }
+        return context;
+    }
+
+    // Runs on the executor, one completion at a time
+    private void onAioComplete(int result) {
+        if (sending) {
+            sending = false;
+            if (result != NngWrapper.NNG_OK) {
+                NngMessage unsent = aio.takeMessage(NngMessagePool.getDefault());
+                if (unsent != null) unsent.close();
+                finish(result == NngWrapper.NNG_ECLOSED || result == NngWrapper.NNG_ECANCELED
+                        ? null : NngWrapper.NngException.of("Failed to send survey", result));
+                return;
+            }
+            receiveNext();
+            return;
+        }
+        if (result == NngWrapper.NNG_OK) {
+            NngMessage response = aio.takeMessage(NngMessagePool.getDefault());
+            if (response != null) {
+                responses++;
+                try {
+                    listener.onResponse(response);
+                } catch (RuntimeException e) {
+                    NngLog.e(TAG, "Listener threw", e);
+                }
+            }
+            receiveNext();
+        } else if (result == NngWrapper.NNG_ETIMEDOUT || result == NngWrapper.NNG_ECLOSED
+                || result == NngWrapper.NNG_ECANCELED || result == NngWrapper.NNG_ESTATE) {
+            // Survey time expired, or the survey was closed
+            finish(null);
+        } else {
+            finish(NngWrapper.NngException.of("Failed to receive response", result));
+        }
+    }
+
+    private void receiveNext() {
+        try {
+            aio.receive(context);
+        } catch (IllegalStateException e) {
+            finish(null);
+        }
+    }
+
+    private void finish(NngWrapper.NngException error) {
+        if (!done.compareAndSet(false, true)) return;
+        context.close();
+        aio.close();
+        if (error != null) {
+            listener.onError(error);
+        } else {
+            listener.onComplete(responses);
+        }
+    }
+}
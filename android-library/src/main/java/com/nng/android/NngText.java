@@ -0,0 +1,111 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.nio.CharBuffer;
+
+/**
+ * Reusable UTF-8 text received by {@link NngSocket#receiveText(NngText)}
+ *
+ * <p>For consumers that only parse: the message is received into an
+ * internal byte array and decoded into an internal char array, both reused
+ * across receives, so no {@code String} is created unless
+ * {@link #toString()} is called. Runs of ASCII are copied without
+ * transcoding; malformed UTF-8 decodes to U+FFFD.</p>
+ *
+ * <pre>{@code
+ * NngText text = new NngText();
+ * while (running) {
+ *     socket.receiveText(text);
+ *     if (startsWith(text, "temp=")) handleTemperature(parseDouble(text, 5));
+ * }
+ * }</pre>
+ *
+ * <p>The content, and any {@link #subSequence} of it, changes with the next
+ * receive. Not thread-safe; use one instance per receiving thread.</p>
+ *
+ * @since 1.11.0
+ */
+public final class NngText implements CharSequence {
+    final NngReceiveBuffer bytes;
+    private char[] chars;
+    private int length;
+
+    /**
+     * Create text with the default initial capacity (4 KB)
+     */
+    public NngText() {
+        this(4096);
+    }
+
+    /**
+     * Create text with the given initial capacity
+     * @param initialCapacity initial size, in bytes, of the receive buffer
+     */
+    public NngText(int initialCapacity) {
+        this.bytes = new NngReceiveBuffer(initialCapacity);
+        this.chars = new char[initialCapacity];
+    }
+
+    /**
+     * Decode the first {@code byteLength} bytes of the receive buffer
+     */
+    void decode(int byteLength) {
+        // UTF-8 never decodes to more chars than bytes
+        if (chars.length < byteLength) {
+            chars = new char[Math.max(byteLength, chars.length * 2)];
+        }
+        length = NngUtf8.decode(bytes.data, 0, byteLength, chars);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index=" + index + ", length=" + length);
+        }
+        return chars[index];
+    }
+
+    /**
+     * View of part of the text, sharing its storage
+     * @param start first char, inclusive
+     * @param end last char, exclusive
+     * @return view valid until the next receive
+     */
+    @NonNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length);
+        }
+        return CharBuffer.wrap(chars, start, end - start);
+    }
+
+    /**
+     * Compare with other text without creating a String
+     * @param other text to compare with
+     * @return true if both hold the same chars
+     */
+    public boolean contentEquals(@NonNull CharSequence other) {
+        if (other.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != other.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copy the text into a new String
+     * @return text
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nng.android;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Operation timed out (NNG_ETIMEDOUT)
+ *
+ * <p>This is the expected outcome of receives with a timeout, so
+ * {@link NngWrapper.NngException#of(String, int)} and the natives raise it
+ * without filling in a stack trace. On API 24 and later every failure
+ * throws the same immutable instance: it ignores {@code addSuppressed} and
+ * rejects {@code initCause}, so sharing it between threads is safe. On API 23
+ * each failure gets its own instance instead. Test for it with
+ * {@code instanceof} or {@link #getErrorCode()}, never by identity.</p>
+ *
+ * @since 1.11.0
+ */
+public class NngTimeoutException extends NngWrapper.NngException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception with its own stack trace
+     * @param message context, prefixed to the NNG error text
+     */
+    public NngTimeoutException(@NonNull String message) {
+        super(message, NngWrapper.NNG_ETIMEDOUT);
+    }
+
+    // Thrown by NngException.of and, through JNI, by the natives; null on API 23
+    @Nullable
+    static final NngTimeoutException SHARED = Build.VERSION.SDK_INT >= 24 ? new NngTimeoutException(false) : null;
+
+    private NngTimeoutException() {
+        super(NngWrapper.NNG_ETIMEDOUT);
+    }
+
+    @RequiresApi(24)
+    private NngTimeoutException(boolean writable) {
+        super(NngWrapper.NNG_ETIMEDOUT, writable);
+    }
+
+    // The shared instance, or a fresh stackless one where it cannot be made immutable
+    @NonNull
+    static NngTimeoutException stackless() {
+        return SHARED != null ? SHARED : new Stackless();
+    }
+
+    // API 23 fallback for SHARED; also created by the natives there
+    static final class Stackless extends NngTimeoutException {
+        private static final long serialVersionUID = 1L;
+
+        Stackless() {
+        }
+
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Dispatches messages from one Sub0 socket to handlers by topic prefix
+ *
+ * <p>Handlers are kept in a byte trie keyed by their topic prefix. Each
+ * message body is walked once, byte by byte, straight from native memory, and
+ * every handler whose prefix matches is called; topics are never decoded into
+ * Strings. The trie is copy-on-write, so dispatch reads it without locking
+ * while handlers are added and removed.</p>
+ *
+ * <p>The router keeps the socket's NNG subscriptions in step with the trie:
+ * a prefix is subscribed when its first handler is added and unsubscribed
+ * when its last handler is removed.</p>
+ *
+ * <pre>{@code
+ * NngSocket sub = NngSocket.sub0();
+ * sub.dial("tcp://server:5555");
+ * NngTopicRouter router = new NngTopicRouter(sub, executor, 4);
+ * NngTopicRouter.Subscription prices = router.subscribe("price/", message -> {
+ *     ByteBuffer body = message.body();
+ *     // ...
+ * });
+ * // ...
+ * prices.close();   // unsubscribes "price/" if no other handler uses it
+ * router.close();   // closes the socket
+ * }</pre>
+ *
+ * @since 1.11.0
+ */
+public final class NngTopicRouter implements AutoCloseable {
+    private static final String TAG = "NngTopicRouter";
+
+    /**
+     * Receives the messages matching a topic prefix
+     */
+    public interface Handler {
+        /**
+         * Called on the router's executor for each matching message
+         *
+         * <p>The message is shared with other matching handlers and is closed
+         * when dispatch finishes. Do not close or modify it, and copy what
+         * must outlive the call.</p>
+         *
+         * @param message received message; the body starts with the topic
+         */
+        void onMessage(@NonNull NngMessage message);
+    }
+
+    /**
+     * Registration of a handler; close it to remove the handler
+     */
+    public final class Subscription implements AutoCloseable {
+        private final byte[] prefix;
+        private final Handler handler;
+        private boolean closed;
+
+        Subscription(byte[] prefix, Handler handler) {
+            this.prefix = prefix;
+            this.handler = handler;
+        }
+
+        /**
+         * Topic prefix of this registration
+         * @return copy of the prefix
+         */
+        @NonNull
+        public byte[] prefix() {
+            return prefix.clone();
+        }
+
+        /**
+         * Remove the handler, unsubscribing the prefix if it was the last one
+         */
+        @Override
+        public void close() {
+            remove(this);
+        }
+    }
+
+    private final NngSocket socket;
+    private final NngMessageSource source;
+    private final Object lock = new Object();
+    // Copy-on-write; replaced under lock, read without it
+    private volatile Node root = Node.EMPTY;
+    private boolean closed;
+
+    /**
+     * Create a router and start receiving
+     * @param socket Sub0 socket; the router owns it and closes it on {@link #close()}
+     * @param executor executor on which handlers are called
+     * @param maxInFlight maximum number of concurrent native receives
+     * @throws NngWrapper.NngException if the receive path cannot be set up
+     */
+    public NngTopicRouter(@NonNull NngSocket socket, @NonNull Executor executor, int maxInFlight)
+            throws NngWrapper.NngException {
+        if (socket.protocol() != NngSocket.Protocol.SUB0) {
+            throw new IllegalArgumentException("NngTopicRouter requires a Sub0 socket");
+        }
+        this.socket = socket;
+        this.source = NngMessageSource.open(socket, executor, maxInFlight, new NngMessageSource.Listener() {
+            @Override
+            public void onMessage(@NonNull NngMessage message) {
+                try {
+                    dispatch(message);
+                } finally {
+                    message.close();
+                }
+            }
+
+            @Override
+            public void onError(@NonNull Throwable error) {
+                NngLog.e(TAG, "Receive failed, router stopped", error);
+            }
+
+            @Override
+            public void onComplete() {
+                NngLog.d(TAG, "Socket closed, router stopped");
+            }
+        });
+        source.request(Long.MAX_VALUE);
+    }
+
+    /**
+     * Add a handler for a topic prefix
+     * @param prefix topic prefix; empty matches every message
+     * @param handler handler to call
+     * @return registration that removes the handler when closed
+     * @throws NngWrapper.NngException if NNG rejects the subscription
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull byte[] prefix, @NonNull Handler handler)
+            throws NngWrapper.NngException {
+        Subscription subscription = new Subscription(prefix.clone(), handler);
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Router closed");
+            Node current = root;
+            if (current.find(subscription.prefix, 0).handlers.length == 0) {
+                socket.subscribe(subscription.prefix);
+            }
+            root = current.with(subscription.prefix, 0, subscription);
+        }
+        return subscription;
+    }
+
+    /**
+     * Add a handler for a UTF-8 topic prefix
+     * @param prefix topic prefix; empty matches every message
+     * @param handler handler to call
+     * @return registration that removes the handler when closed
+     * @throws NngWrapper.NngException if NNG rejects the subscription
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull String prefix, @NonNull Handler handler)
+            throws NngWrapper.NngException {
+        return subscribe(prefix.getBytes(StandardCharsets.UTF_8), handler);
+    }
+
+    /**
+     * Stop receiving and close the socket; handlers are not called afterwards
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            root = Node.EMPTY;
+        }
+        source.cancel();
+        socket.close();
+    }
+
+    private void remove(Subscription subscription) {
+        synchronized (lock) {
+            if (subscription.closed || closed) return;
+            subscription.closed = true;
+            Node current = root.without(subscription.prefix, 0, subscription);
+            root = current;
+            if (current.find(subscription.prefix, 0).handlers.length == 0) {
+                try {
+                    socket.unsubscribe(subscription.prefix);
+                } catch (NngWrapper.NngException e) {
+                    NngLog.w(TAG, "Failed to unsubscribe", e);
+                }
+            }
+        }
+    }
+
+    private void dispatch(NngMessage message) {
+        Node node = root;
+        ByteBuffer body = null;
+        int length = 0;
+        for (int i = 0; ; i++) {
+            for (Subscription s : node.handlers) {
+                try {
+                    s.handler.onMessage(message);
+                } catch (RuntimeException e) {
+                    NngLog.e(TAG, "Handler threw", e);
+                }
+            }
+            if (node.keys.length == 0) return;
+            if (body == null) {
+                body = message.body();
+                length = body.limit();
+            }
+            if (i >= length) return;
+            node = node.child(body.get(i));
+            if (node == null) return;
+        }
+    }
+
+    /**
+     * Immutable trie node; children are sorted by unsigned key byte
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(new byte[0], new Node[0], new Subscription[0]);
+
+        final byte[] keys;
+        final Node[] children;
+        final Subscription[] handlers;
+
+        Node(byte[] keys, Node[] children, Subscription[] handlers) {
+            this.keys = keys;
+            this.children = children;
+            this.handlers = handlers;
+        }
+
+        Node child(byte key) {
+            int i = indexOf(key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        // Node at prefix[depth..], or EMPTY if absent
+        Node find(byte[] prefix, int depth) {
+            Node node = this;
+            for (int i = depth; i < prefix.length; i++) {
+                node = node.child(prefix[i]);
+                if (node == null) return EMPTY;
+            }
+            return node;
+        }
+
+        Node with(byte[] prefix, int depth, Subscription subscription) {
+            if (depth == prefix.length) {
+                Subscription[] h = Arrays.copyOf(handlers, handlers.length + 1);
+                h[handlers.length] = subscription;
+                return new Node(keys, children, h);
+            }
+            byte key = prefix[depth];
+            int i = indexOf(key);
+            if (i >= 0) {
+                Node[] c = children.clone();
+                c[i] = children[i].with(prefix, depth + 1, subscription);
+                return new Node(keys, c, handlers);
+            }
+            int at = -i - 1;
+            byte[] k = new byte[keys.length + 1];
+            Node[] c = new Node[children.length + 1];
+            System.arraycopy(keys, 0, k, 0, at);
+            System.arraycopy(children, 0, c, 0, at);
+            k[at] = key;
+            c[at] = EMPTY.with(prefix, depth + 1, subscription);
+            System.arraycopy(keys, at, k, at + 1, keys.length - at);
+            System.arraycopy(children, at, c, at + 1, children.length - at);
+            return new Node(k, c, handlers);
+        }
+
+        // Returns null when the resulting node is empty and can be pruned
+        Node without(byte[] prefix, int depth, Subscription subscription) {
+            Node result;
+            if (depth == prefix.length) {
+                int n = 0;
+                Subscription[] h = new Subscription[handlers.length];
+                for (Subscription s : handlers) {
+                    if (s != subscription) h[n++] = s;
+                }
+                result = new Node(keys, children, Arrays.copyOf(h, n));
+            } else {
+                int i = indexOf(prefix[depth]);
+                if (i < 0) return this;
+                Node child = children[i].without(prefix, depth + 1, subscription);
+                if (child != null) {
+                    Node[] c = children.clone();
+                    c[i] = child;
+                    result = new Node(keys, c, handlers);
+                } else {
+                    byte[] k = new byte[keys.length - 1];
+                    Node[] c = new Node[children.length - 1];
+                    System.arraycopy(keys, 0, k, 0, i);
+                    System.arraycopy(children, 0, c, 0, i);
+                    System.arraycopy(keys, i + 1, k, i, keys.length - i - 1);
+                    System.arraycopy(children, i + 1, c, i, children.length - i - 1);
+                    result = new Node(k, c, handlers);
+                }
+            }
+            if (result.handlers.length == 0 && result.keys.length == 0) {
+                return depth == 0 ? EMPTY : null;
+            }
+            return result;
+        }
+
+        private int indexOf(byte key) {
+            int k = key & 0xff;
+            int lo = 0;
+            int hi = keys.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int m = keys[mid] & 0xff;
+                if (m < k) lo = mid + 1;
+                else if (m > k) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+    }
+}
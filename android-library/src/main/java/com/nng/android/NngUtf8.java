@@ -0,0 +1,174 @@
+package com.nng.android;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * UTF-8 encoding and decoding without intermediate arrays or Strings
+ *
+ * <p>Unpaired surrogates are encoded as '?', matching
+ * {@code String.getBytes(StandardCharsets.UTF_8)}; malformed input decodes
+ * to U+FFFD. Both directions copy runs of ASCII without transcoding. The
+ * per-thread scratch buffers back {@link NngSocket#sendString} and
+ * {@link NngSocket#receiveString()}.</p>
+ */
+final class NngUtf8 {
+    private static final char REPLACEMENT = '\uFFFD';
+    private static final int INITIAL_SCRATCH = 4096;
+    // Scratch buffers that grew beyond this are not kept for the next call
+    private static final int MAX_RETAINED_SCRATCH = 256 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> ENCODE_SCRATCH = new ThreadLocal<>();
+    private static final ThreadLocal<NngReceiveBuffer> RECEIVE_SCRATCH = new ThreadLocal<>();
+
+    private NngUtf8() {
+    }
+
+    /**
+     * This thread's direct scratch buffer, cleared, with at least {@code size} bytes
+     */
+    @NonNull
+    static ByteBuffer encodeScratch(int size) {
+        ByteBuffer buffer = ENCODE_SCRATCH.get();
+        if (buffer == null || buffer.capacity() < size
+                || (buffer.capacity() > MAX_RETAINED_SCRATCH && size <= MAX_RETAINED_SCRATCH)) {
+            buffer = ByteBuffer.allocateDirect(Math.max(size, INITIAL_SCRATCH));
+            ENCODE_SCRATCH.set(buffer);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * This thread's receive scratch buffer
+     */
+    @NonNull
+    static NngReceiveBuffer receiveScratch() {
+        NngReceiveBuffer buffer = RECEIVE_SCRATCH.get();
+        if (buffer == null || buffer.capacity() > MAX_RETAINED_SCRATCH) {
+            buffer = new NngReceiveBuffer(INITIAL_SCRATCH);
+            RECEIVE_SCRATCH.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Number of bytes {@link #encode} writes for {@code s}
+     */
+    static int encodedLength(@NonNull CharSequence s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                // 2 chars, 4 bytes
+                bytes += 2;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired: '?'
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode {@code s} at the buffer's position, advancing it
+     * @throws java.nio.BufferOverflowException if the buffer has less than
+     *         {@link #encodedLength} bytes remaining
+     */
+    static void encode(@NonNull CharSequence s, @NonNull ByteBuffer out) {
+        int length = s.length();
+        // ASCII prefix: one absolute put per char, no transcoding
+        int position = out.position();
+        int ascii = Math.min(length, out.remaining());
+        int i = 0;
+        for (; i < ascii; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) break;
+            out.put(position + i, (byte) c);
+        }
+        out.position(position + i);
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xc0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xf0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                out.put((byte) (0x80 | (cp & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xe0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                out.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    /**
+     * Decode UTF-8 bytes into {@code dst}, which needs room for {@code length} chars
+     * @return number of chars written
+     */
+    static int decode(@NonNull byte[] src, int offset, int length, @NonNull char[] dst) {
+        int end = offset + length;
+        int i = offset;
+        int n = 0;
+        // ASCII prefix
+        while (i < end && src[i] >= 0) {
+            dst[n++] = (char) src[i++];
+        }
+        while (i < end) {
+            int b = src[i++];
+            if (b >= 0) {
+                dst[n++] = (char) b;
+            } else if ((b & 0xe0) == 0xc0 && b != (byte) 0xc0 && b != (byte) 0xc1
+                    && i < end && isContinuation(src[i])) {
+                dst[n++] = (char) (((b & 0x1f) << 6) | (src[i++] & 0x3f));
+            } else if ((b & 0xf0) == 0xe0 && i + 1 < end
+                    && isContinuation(src[i]) && isContinuation(src[i + 1])) {
+                int c = ((b & 0x0f) << 12) | ((src[i] & 0x3f) << 6) | (src[i + 1] & 0x3f);
+                if (c < 0x800 || Character.isSurrogate((char) c)) {
+                    // Overlong or encoded surrogate: replace the lead byte only
+                    dst[n++] = REPLACEMENT;
+                } else {
+                    dst[n++] = (char) c;
+                    i += 2;
+                }
+            } else if ((b & 0xf8) == 0xf0 && i + 2 < end && isContinuation(src[i])
+                    && isContinuation(src[i + 1]) && isContinuation(src[i + 2])) {
+                int cp = ((b & 0x07) << 18) | ((src[i] & 0x3f) << 12)
+                        | ((src[i + 1] & 0x3f) << 6) | (src[i + 2] & 0x3f);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    dst[n++] = REPLACEMENT;
+                } else {
+                    dst[n++] = Character.highSurrogate(cp);
+                    dst[n++] = Character.lowSurrogate(cp);
+                    i += 3;
+                }
+            } else {
+                dst[n++] = REPLACEMENT;
+            }
+        }
+        return n;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+}
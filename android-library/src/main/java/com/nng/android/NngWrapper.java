@@ -1,8 +1,13 @@
 package com.nng.android;
 
-import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import dalvik.annotation.optimization.FastNative;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * NNG (nanomsg-next-generation) JNI Wrapper for Android
@@ -19,16 +24,24 @@ import androidx.annotation.Nullable;
  * nng.nngClose(socket);
  * }</pre>
  *
- * <p>Or use the high-level API:</p>
+ * <p>Or use the thread-safe {@link NngSocket}:</p>
  * <pre>{@code
- * NngWrapper nng = new NngWrapper();
- * nng.openPair0();
- * nng.listen("tcp://127.0.0.1:5555");
- * nng.sendString("Hello World");
- * String response = nng.receiveString();
- * nng.close();
+ * NngSocket socket = NngSocket.pair0();
+ * socket.listen("tcp://127.0.0.1:5555");
+ * socket.sendString("Hello World");
+ * String response = socket.receiveString();
+ * socket.close();
  * }</pre>
  *
+ * <p>Natives are bound in one pass by {@code RegisterNatives} when the
+ * library loads. Short natives that never take an NNG lock or block
+ * (message lengths, IDs, AIO fields, statistics) are marked
+ * {@link FastNative}; the annotation comes from the SDK and is ignored on
+ * runtimes that do not know it.</p>
+ *
+ * <p>The single-socket high-level API ({@link #openPair0()}, {@link #send(byte[])}, ...)
+ * is kept for compatibility and delegates to an {@link NngSocket}.</p>
+ *
  * @version 1.11.0
  * @since 1.0.0
  */
@@ -37,11 +50,11 @@ public class NngWrapper {
 
     static {
         try {
-            System.loadLibrary("nng");
+            // libnng.so is pulled in as a dependency of libnng_jni.so
             System.loadLibrary("nng_jni");
-            Log.i(TAG, "NNG libraries loaded successfully");
+            NngLog.i(TAG, "NNG libraries loaded successfully");
         } catch (UnsatisfiedLinkError e) {
-            Log.e(TAG, "Failed to load NNG libraries: " + e.getMessage());
+            NngLog.e(TAG, "Failed to load NNG libraries: " + e.getMessage());
             throw e;
         }
     }
@@ -159,6 +172,144 @@ public class NngWrapper {
      */
     public native int nngRecv(long socket, @NonNull byte[] buffer, int bufferSize, int flags);
 
+    /**
+     * Receive a message into a new array of exactly the message's size
+     *
+     * <p>Unlike {@link #nngRecv(long, byte[], int, int)} there is no size limit
+     * and no intermediate buffer: the array is created once in native code and
+     * filled directly from the NNG message.</p>
+     *
+     * @param socket socket handle
+     * @param flags receive flags (NNG_FLAG_NONBLOCK, etc.)
+     * @return received data
+     * @throws NngException if receive fails
+     */
+    @NonNull
+    public native byte[] nngRecvAlloc(long socket, int flags) throws NngException;
+
+    /**
+     * Receive a message into a reusable buffer, growing it if the message does not fit
+     * @param socket socket handle
+     * @param buffer buffer to receive into; its length is set to the message size
+     * @param flags receive flags (NNG_FLAG_NONBLOCK, etc.)
+     * @return length of the received message
+     * @throws NngException if receive fails
+     */
+    public native int nngRecvInto(long socket, @NonNull NngReceiveBuffer buffer, int flags) throws NngException;
+
+    /**
+     * Send the remaining bytes of a direct buffer with flags
+     *
+     * <p>The bytes between the buffer's position and limit are passed to NNG
+     * straight from the buffer's native memory, without a JNI-side allocation
+     * or intermediate copy. On success the position is advanced to the limit.</p>
+     *
+     * @param socket socket handle
+     * @param buffer direct buffer holding the data to send
+     * @param flags send flags (NNG_FLAG_NONBLOCK, etc.)
+     * @return 0 on success, error code on failure
+     * @throws IllegalArgumentException if the buffer is not direct
+     */
+    public int nngSend(long socket, @NonNull ByteBuffer buffer, int flags) {
+        if (!buffer.isDirect()) throw new IllegalArgumentException("Buffer must be direct");
+        int position = buffer.position();
+        int length = buffer.limit() - position;
+        int rv = nngSendDirect(socket, buffer, position, length, flags);
+        if (rv == 0) {
+            buffer.position(position + length);
+        }
+        return rv;
+    }
+
+    /**
+     * Receive into the remaining space of a direct buffer with flags
+     *
+     * <p>The message is copied once, from NNG directly into the buffer's native
+     * memory starting at its position. The position is advanced by the number
+     * of bytes stored. If the returned length is larger than the space that was
+     * remaining, the message was truncated to fit.</p>
+     *
+     * @param socket socket handle
+     * @param buffer direct buffer to receive into
+     * @param flags receive flags (NNG_FLAG_NONBLOCK, etc.)
+     * @return full length of the received message on success, negative error code on failure
+     * @throws IllegalArgumentException if the buffer is not direct
+     */
+    public int nngRecv(long socket, @NonNull ByteBuffer buffer, int flags) {
+        if (!buffer.isDirect()) throw new IllegalArgumentException("Buffer must be direct");
+        int position = buffer.position();
+        int remaining = buffer.limit() - position;
+        int rv = nngRecvDirect(socket, buffer, position, remaining, flags);
+        if (rv >= 0) {
+            buffer.position(position + Math.min(rv, remaining));
+        }
+        return rv;
+    }
+
+    /**
+     * Send several messages in one native call
+     *
+     * <p>Amortises the JNI transition and socket lookup over the batch. Each
+     * array is copied once into its own NNG message. Sending stops at the first
+     * failure (e.g. NNG_EAGAIN with NNG_FLAG_NONBLOCK).</p>
+     *
+     * @param socket socket handle
+     * @param msgs messages to send, in order
+     * @param flags send flags (NNG_FLAG_NONBLOCK, etc.)
+     * @return number of messages sent, or negative error code if none could be sent
+     */
+    public native int nngSendBatch(long socket, @NonNull byte[][] msgs, int flags);
+
+    /**
+     * Receive up to {@code max} queued messages in one native call
+     *
+     * <p>Waits up to {@code timeoutMs} for the first message, then drains any
+     * further messages that are already queued without waiting. The messages
+     * are packed back to back into the batch's buffer, which is grown only when
+     * needed so the same batch can be reused.</p>
+     *
+     * <p>Draining stops once the buffer is full; the buffer then grows for the
+     * next call. A drained message is never dropped: if the buffer cannot grow,
+     * the messages that fit are returned and the rest is held by {@code batch}.
+     * The next nngRecvBatch into that batch on the same socket, from any
+     * thread, returns it first; on another socket it fails with NNG_ESTATE
+     * until the batch is closed.</p>
+     *
+     * @param socket socket handle
+     * @param batch batch to receive into
+     * @param max maximum number of messages
+     * @param timeoutMs time to wait for the first message (NNG_DURATION_* constants allowed)
+     * @return number of messages received (0 on timeout), or negative error code on failure
+     */
+    public native int nngRecvBatch(long socket, @NonNull NngReceiveBatch batch, int max, int timeoutMs);
+
+    /**
+     * Receive up to {@code max} queued messages into a new batch
+     *
+     * <p>A message the new batch could not hold is freed with it; reuse one
+     * batch with {@link #nngRecvBatch(long, NngReceiveBatch, int, int)} to
+     * receive it later.</p>
+     *
+     * @param socket socket handle
+     * @param max maximum number of messages
+     * @param timeoutMs time to wait for the first message (NNG_DURATION_* constants allowed)
+     * @return received messages (empty on timeout)
+     * @throws NngException if receive fails
+     */
+    @NonNull
+    public NngReceiveBatch nngRecvBatch(long socket, int max, int timeoutMs) throws NngException {
+        NngReceiveBatch batch = new NngReceiveBatch();
+        int rv = nngRecvBatch(socket, batch, max, timeoutMs);
+        if (rv < 0) {
+            throw NngException.of("Failed to receive", -rv);
+        }
+        return batch;
+    }
+
+    private native int nngSendDirect(long socket, @NonNull ByteBuffer buffer, int offset, int length, int flags);
+
+    private native int nngRecvDirect(long socket, @NonNull ByteBuffer buffer, int offset, int length, int flags);
+
     // ========== Socket Options ==========
 
     /**
@@ -191,6 +342,14 @@ public class NngWrapper {
      */
     public native int nngGetSendTimeout(long socket);
 
+    /**
+     * Set how long a Surveyor0 socket collects responses to a survey
+     * @param socket Surveyor0 socket handle
+     * @param ms survey duration in milliseconds
+     * @return 0 on success, error code on failure
+     */
+    public native int nngSetSurveyTime(long socket, int ms);
+
     // ========== Subscriber Specific ==========
 
     /**
@@ -213,7 +372,7 @@ public class NngWrapper {
 
     /**
      * Allocate an AIO object for asynchronous operations
-     * @return AIO handle (positive value on success, negative error code on failure)
+     * @return AIO handle (negated error code on failure; test with {@link #isError(long)})
      */
     public native long nngAioAlloc();
 
@@ -242,6 +401,7 @@ public class NngWrapper {
      * @param aio AIO handle
      * @return 0 on success, error code on failure
      */
+    @FastNative
     public native int nngAioResult(long aio);
 
     /**
@@ -250,10 +410,90 @@ public class NngWrapper {
      */
     public native void nngAioWait(long aio);
 
+    /**
+     * Set the timeout applied to the next operation on an AIO object
+     * @param aio AIO handle
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     */
+    @FastNative
+    public native void nngAioSetTimeout(long aio, int ms);
+
+    /**
+     * Cancel the operation in progress on an AIO object
+     * @param aio AIO handle
+     */
+    public native void nngAioCancel(long aio);
+
+    /**
+     * Stop an AIO object, aborting any operation and waiting for its callback
+     * @param aio AIO handle
+     */
+    public native void nngAioStop(long aio);
+
+    /**
+     * Attach a message to an AIO object before an asynchronous send
+     * @param aio AIO handle
+     * @param msg message handle (0 to detach)
+     */
+    @FastNative
+    public native void nngAioSetMsg(long aio, long msg);
+
+    /**
+     * Get the message held by an AIO object after an asynchronous receive
+     * @param aio AIO handle
+     * @return message handle, or 0 if none
+     */
+    @FastNative
+    public native long nngAioGetMsg(long aio);
+
+    /**
+     * Allocate an AIO object whose completion is delivered to {@code target}
+     * @param target AIO object notified on completion
+     * @return callback AIO handle (negated error code on failure; test with {@link #isError(long)})
+     */
+    native long nngAioCallbackAlloc(@NonNull NngAio target);
+
+    /**
+     * Get the underlying AIO handle of a callback AIO object
+     * @param handle callback AIO handle
+     * @return AIO handle usable with the nngAio* and nngSocket*Aio methods
+     */
+    @FastNative
+    native long nngAioCallbackAio(long handle);
+
+    /**
+     * Free a callback AIO object, waiting for any running callback to finish
+     * @param handle callback AIO handle
+     */
+    native void nngAioCallbackFree(long handle);
+
+    /**
+     * Take the result of a completion that could not be delivered to the AIO object
+     * because the NNG thread could not be attached to the JVM
+     * @param handle callback AIO handle
+     * @return result of the lost completion, or -1 if none was lost
+     */
+    @FastNative
+    native int nngAioCallbackDropped(long handle);
+
+    /**
+     * Register for pipe add/remove notifications on a socket
+     * @param socket socket handle
+     * @param target receives every pipe event on an NNG thread
+     * @return notification handle (negated error code on failure; test with {@link #isError(long)})
+     */
+    native long nngPipeNotifyAlloc(long socket, @NonNull NngPipeEvents target);
+
+    /**
+     * Release a notification handle; the socket must already be closed
+     * @param handle notification handle
+     */
+    native void nngPipeNotifyFree(long handle);
+
     /**
      * Allocate a message object
      * @param size initial size of message
-     * @return message handle (positive value on success, negative error code on failure)
+     * @return message handle (negated error code on failure; test with {@link #isError(long)})
      */
     public native long nngMsgAlloc(int size);
 
@@ -276,6 +516,7 @@ public class NngWrapper {
      * @param msg message handle
      * @return message length, or 0 on error
      */
+    @FastNative
     public native int nngMsgLen(long msg);
 
     /**
@@ -291,10 +532,211 @@ public class NngWrapper {
      * Receive a message object
      * @param socket socket handle
      * @param flags receive flags
-     * @return message handle (positive value on success, negative error code on failure)
+     * @return message handle (negated error code on failure; test with {@link #isError(long)})
      */
     public native long nngRecvMsg(long socket, int flags);
 
+    /**
+     * Resize a message body, keeping existing content
+     * @param msg message handle
+     * @param size new body size
+     * @return 0 on success, error code on failure
+     */
+    public native int nngMsgRealloc(long msg, int size);
+
+    /**
+     * Clear a message body without releasing its storage
+     * @param msg message handle
+     */
+    @FastNative
+    public native void nngMsgClear(long msg);
+
+    /**
+     * Append data to the end of a message body
+     * @param msg message handle
+     * @param data source array
+     * @param offset offset in source array
+     * @param length number of bytes to append
+     * @return 0 on success, error code on failure
+     * @throws ArrayIndexOutOfBoundsException if the range lies outside {@code data}
+     */
+    public native int nngMsgAppend(long msg, @NonNull byte[] data, int offset, int length);
+
+    /**
+     * Insert data at the front of a message body
+     * @param msg message handle
+     * @param data source array
+     * @param offset offset in source array
+     * @param length number of bytes to insert
+     * @return 0 on success, error code on failure
+     * @throws ArrayIndexOutOfBoundsException if the range lies outside {@code data}
+     */
+    public native int nngMsgInsert(long msg, @NonNull byte[] data, int offset, int length);
+
+    /**
+     * Remove bytes from the front of a message body
+     * @param msg message handle
+     * @param size number of bytes to remove
+     * @return 0 on success, error code on failure
+     */
+    @FastNative
+    public native int nngMsgTrim(long msg, int size);
+
+    /**
+     * Remove bytes from the end of a message body
+     * @param msg message handle
+     * @param size number of bytes to remove
+     * @return 0 on success, error code on failure
+     */
+    @FastNative
+    public native int nngMsgChop(long msg, int size);
+
+    /**
+     * Get a direct buffer viewing the message body in place
+     *
+     * <p>The view is invalidated by any operation that changes the body size
+     * and by freeing the message; it must not be used afterwards.</p>
+     *
+     * @param msg message handle
+     * @return direct buffer over the body, or null on error
+     */
+    @Nullable
+    public native ByteBuffer nngMsgBodyBuffer(long msg);
+
+    /**
+     * Get message header as byte array
+     * @param msg message handle
+     * @return message header, or null on error
+     */
+    @Nullable
+    public native byte[] nngMsgHeader(long msg);
+
+    /**
+     * Get message header length
+     * @param msg message handle
+     * @return header length, or 0 on error
+     */
+    @FastNative
+    public native int nngMsgHeaderLen(long msg);
+
+    /**
+     * Append data to the end of a message header
+     * @param msg message handle
+     * @param data source array
+     * @param offset offset in source array
+     * @param length number of bytes to append
+     * @return 0 on success, error code on failure
+     * @throws ArrayIndexOutOfBoundsException if the range lies outside {@code data}
+     */
+    public native int nngMsgHeaderAppend(long msg, @NonNull byte[] data, int offset, int length);
+
+    /**
+     * Clear a message header
+     * @param msg message handle
+     */
+    @FastNative
+    public native void nngMsgHeaderClear(long msg);
+
+    /**
+     * Get the pipe a message was received on
+     * @param msg message handle
+     * @return pipe ID, or -1 if the message has no pipe
+     */
+    @FastNative
+    public native long nngMsgGetPipe(long msg);
+
+    /**
+     * Set the pipe a message is sent on (Pair1 polyamorous sockets)
+     * @param msg message handle
+     * @param pipe pipe ID
+     */
+    @FastNative
+    public native void nngMsgSetPipe(long msg, long pipe);
+
+    // ========== Contexts ==========
+
+    /**
+     * Open a context on a socket (Req0, Rep0, Sub0, Surveyor0, Respondent0)
+     *
+     * <p>Each context keeps its own protocol state, so several requests can be
+     * outstanding (Req0) or served (Rep0) concurrently on one socket.</p>
+     *
+     * @param socket socket handle
+     * @return context handle (positive value on success, negative error code on failure)
+     */
+    public native long nngCtxOpen(long socket);
+
+    /**
+     * Close a context, aborting its pending operations
+     * @param ctx context handle
+     * @return 0 on success, error code on failure
+     */
+    public native int nngCtxClose(long ctx);
+
+    /**
+     * Get the context ID
+     * @param ctx context handle
+     * @return context ID, or negative value if invalid
+     */
+    @FastNative
+    public native int nngCtxId(long ctx);
+
+    /**
+     * Send a message on a context, waiting up to the context's send timeout
+     *
+     * <p>On success NNG takes ownership of the message; on failure it stays with the caller.</p>
+     *
+     * @param ctx context handle
+     * @param msg message handle
+     * @return 0 on success, error code on failure
+     */
+    public native int nngCtxSendMsg(long ctx, long msg);
+
+    /**
+     * Receive a message on a context, waiting up to the context's receive timeout
+     * @param ctx context handle
+     * @return message handle (negated error code on failure; test with {@link #isError(long)})
+     */
+    public native long nngCtxRecvMsg(long ctx);
+
+    /**
+     * Start asynchronous send operation on a context
+     * @param ctx context handle
+     * @param aio AIO handle with the message attached
+     */
+    public native void nngCtxSendAio(long ctx, long aio);
+
+    /**
+     * Start asynchronous receive operation on a context
+     * @param ctx context handle
+     * @param aio AIO handle
+     */
+    public native void nngCtxRecvAio(long ctx, long aio);
+
+    /**
+     * Set context receive timeout
+     * @param ctx context handle
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @return 0 on success, error code on failure
+     */
+    public native int nngCtxSetRecvTimeout(long ctx, int ms);
+
+    /**
+     * Set context send timeout
+     * @param ctx context handle
+     * @param ms timeout in milliseconds (use NNG_DURATION_* constants)
+     * @return 0 on success, error code on failure
+     */
+    public native int nngCtxSetSendTimeout(long ctx, int ms);
+
+    /**
+     * Set how long a Surveyor0 context collects responses to a survey
+     * @param ctx context handle
+     * @param ms survey duration in milliseconds
+     * @return 0 on success, error code on failure
+     */
+    public native int nngCtxSetSurveyTime(long ctx, int ms);
+
     // ========== URL Operations ==========
 
     /**
@@ -382,6 +824,203 @@ public class NngWrapper {
      */
     public native int nngListenerClose(long listener);
 
+    // ========== Typed Options ==========
+
+    /**
+     * Set a boolean option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer or listener handle
+     * @param name option name (NNG_OPT_* constants)
+     * @param value option value
+     * @return 0 on success, error code on failure (NNG_EREADONLY for pipes)
+     */
+    public native int nngOptSetBool(int target, long id, @NonNull String name, boolean value);
+
+    /**
+     * Set an integer option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer or listener handle
+     * @param name option name (NNG_OPT_* constants)
+     * @param value option value
+     * @return 0 on success, error code on failure
+     */
+    public native int nngOptSetInt(int target, long id, @NonNull String name, int value);
+
+    /**
+     * Set a duration option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer or listener handle
+     * @param name option name (NNG_OPT_* constants)
+     * @param ms duration in milliseconds (use NNG_DURATION_* constants)
+     * @return 0 on success, error code on failure
+     */
+    public native int nngOptSetMs(int target, long id, @NonNull String name, int ms);
+
+    /**
+     * Set a size option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer or listener handle
+     * @param name option name (NNG_OPT_* constants)
+     * @param value size in bytes; must not be negative
+     * @return 0 on success, error code on failure
+     */
+    public native int nngOptSetSize(int target, long id, @NonNull String name, long value);
+
+    /**
+     * Set a string option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer or listener handle
+     * @param name option name (NNG_OPT_* constants)
+     * @param value option value
+     * @return 0 on success, error code on failure
+     */
+    public native int nngOptSetString(int target, long id, @NonNull String name, @NonNull String value);
+
+    /**
+     * Get a boolean option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer, listener or pipe handle
+     * @param name option name (NNG_OPT_* constants)
+     * @return option value
+     * @throws NngException if the option cannot be read
+     */
+    public native boolean nngOptGetBool(int target, long id, @NonNull String name) throws NngException;
+
+    /**
+     * Get an integer option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer, listener or pipe handle
+     * @param name option name (NNG_OPT_* constants)
+     * @return option value
+     * @throws NngException if the option cannot be read
+     */
+    public native int nngOptGetInt(int target, long id, @NonNull String name) throws NngException;
+
+    /**
+     * Get a duration option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer, listener or pipe handle
+     * @param name option name (NNG_OPT_* constants)
+     * @return duration in milliseconds
+     * @throws NngException if the option cannot be read
+     */
+    public native int nngOptGetMs(int target, long id, @NonNull String name) throws NngException;
+
+    /**
+     * Get a size option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer, listener or pipe handle
+     * @param name option name (NNG_OPT_* constants)
+     * @return size in bytes
+     * @throws NngException if the option cannot be read
+     */
+    public native long nngOptGetSize(int target, long id, @NonNull String name) throws NngException;
+
+    /**
+     * Get a string option
+     * @param target one of the NNG_OPT_TARGET_* constants
+     * @param id socket, dialer, listener or pipe handle
+     * @param name option name (NNG_OPT_* constants)
+     * @return option value
+     * @throws NngException if the option cannot be read
+     */
+    @NonNull
+    public native String nngOptGetString(int target, long id, @NonNull String name) throws NngException;
+
+    // ========== Pipes ==========
+
+    /**
+     * Get the socket a pipe belongs to
+     * @param pipe pipe ID
+     * @return socket handle, or -1 if the pipe is not valid
+     */
+    public native long nngPipeSocket(long pipe);
+
+    /**
+     * Get the dialer that created a pipe
+     * @param pipe pipe ID
+     * @return dialer handle, or -1 if the pipe was not created by a dialer
+     */
+    public native long nngPipeDialer(long pipe);
+
+    /**
+     * Get the listener that accepted a pipe
+     * @param pipe pipe ID
+     * @return listener handle, or -1 if the pipe was not accepted by a listener
+     */
+    public native long nngPipeListener(long pipe);
+
+    /**
+     * Get an address of a pipe as text
+     *
+     * <p>IP addresses are formatted as {@code host:port} or {@code [host]:port};
+     * inproc and IPC addresses as their name or path.</p>
+     *
+     * @param pipe pipe ID
+     * @param name NNG_OPT_REMADDR or NNG_OPT_LOCADDR
+     * @return address, or an empty string for unsupported address families
+     * @throws NngException if the address cannot be read
+     */
+    @NonNull
+    public native String nngPipeGetAddr(long pipe, @NonNull String name) throws NngException;
+
+    /**
+     * Close a pipe, disconnecting that peer only
+     * @param pipe pipe ID
+     * @return 0 on success, error code on failure
+     */
+    public native int nngPipeClose(long pipe);
+
+    // ========== Poller ==========
+
+    /**
+     * Create an epoll set for {@link NngPoller}
+     * @return poller handle (negated error code on failure; test with {@link #isError(long)})
+     */
+    native long nngPollerOpen();
+
+    /**
+     * Add the NNG_OPT_RECVFD and/or NNG_OPT_SENDFD descriptors of a socket
+     * @param poller poller handle
+     * @param socket socket handle
+     * @param ops NngPoller.OP_RECV and/or NngPoller.OP_SEND
+     * @param slot key slot reported by {@link #nngPollerWait}
+     * @return 0 on success, error code on failure (nothing is added)
+     */
+    native int nngPollerAdd(long poller, long socket, int ops, int slot);
+
+    /**
+     * Remove descriptors of a socket; descriptors of closed sockets are skipped
+     * @param poller poller handle
+     * @param socket socket handle
+     * @param ops NngPoller.OP_RECV and/or NngPoller.OP_SEND
+     * @return 0 on success, error code on failure
+     */
+    native int nngPollerRemove(long poller, long socket, int ops);
+
+    /**
+     * Wait until a registered socket is ready, {@link #nngPollerWakeup} is called,
+     * or the timeout expires
+     * @param poller poller handle
+     * @param ready receives {@code (slot << 2) | op} per ready descriptor (at most 64)
+     * @param timeoutMs timeout in milliseconds, negative to wait forever
+     * @return number of entries written (0 on timeout or wakeup), negative error code on failure
+     */
+    native int nngPollerWait(long poller, @NonNull int[] ready, int timeoutMs);
+
+    /**
+     * Make a current or the next {@link #nngPollerWait} return
+     * @param poller poller handle
+     * @return 0 on success, error code on failure
+     */
+    native int nngPollerWakeup(long poller);
+
+    /**
+     * Free a poller; no thread may be waiting on it
+     * @param poller poller handle
+     */
+    native void nngPollerClose(long poller);
+
     // ========== Statistics ==========
 
     /**
@@ -409,6 +1048,7 @@ public class NngWrapper {
      * @param stat statistic handle
      * @return statistic value
      */
+    @FastNative
     public native long nngStatValue(long stat);
 
     /**
@@ -416,8 +1056,40 @@ public class NngWrapper {
      * @param stat current statistic handle
      * @return next statistic handle, or 0 if no more
      */
+    @FastNative
     public native long nngStatNext(long stat);
 
+    /**
+     * Get first child statistic
+     * @param stat statistic handle
+     * @return first child handle, or 0 if none
+     */
+    @FastNative
+    public native long nngStatChild(long stat);
+
+    /**
+     * Get statistic type
+     * @param stat statistic handle
+     * @return one of the {@code NngStats.TYPE_*} constants
+     */
+    @FastNative
+    public native int nngStatType(long stat);
+
+    /**
+     * Get statistic unit
+     * @param stat statistic handle
+     * @return one of the {@code NngStats.UNIT_*} constants
+     */
+    @FastNative
+    public native int nngStatUnit(long stat);
+
+    /**
+     * Walk the whole statistics tree in one call and fill {@code target}
+     * @param target snapshot to fill
+     * @return 0 on success, error code on failure
+     */
+    native int nngStatsSnapshot(@NonNull NngStats target);
+
     // ========== Utilities ==========
 
     /**
@@ -425,6 +1097,7 @@ public class NngWrapper {
      * @param socket socket handle
      * @return socket ID, or negative value if invalid
      */
+    @FastNative
     public native int nngSocketId(long socket);
 
     /**
@@ -442,6 +1115,26 @@ public class NngWrapper {
     @NonNull
     public native String nngVersion();
 
+    /**
+     * Set the minimum priority of messages logged by the native layer
+     *
+     * <p>Per-message events (send/receive, message and AIO calls) are logged at
+     * DEBUG, lifecycle events at INFO. The default level is INFO, so the hot
+     * path does not log. Release builds of libnng_jni compile INFO and DEBUG
+     * logging out entirely (see {@code NNG_JNI_STRIP_LOGS} in Android.mk).</p>
+     *
+     * @param level one of the LOG_LEVEL_* constants
+     */
+    @FastNative
+    public static native void setNativeLogLevel(int level);
+
+    /**
+     * Get the minimum priority of messages logged by the native layer
+     * @return one of the LOG_LEVEL_* constants
+     */
+    @FastNative
+    public static native int getNativeLogLevel();
+
     // ========== Constants: Flags ==========
 
     /** Allocate memory for received data */
@@ -461,6 +1154,113 @@ public class NngWrapper {
     /** Do not wait (poll) */
     public static final int NNG_DURATION_ZERO = 0;
 
+    // ========== Constants: Pipe Events ==========
+
+    /** Pipe connected, not yet added to the socket; closing it here rejects the peer */
+    public static final int NNG_PIPE_EV_ADD_PRE = 0;
+
+    /** Pipe added to the socket and ready for messages */
+    public static final int NNG_PIPE_EV_ADD_POST = 1;
+
+    /** Pipe removed from the socket */
+    public static final int NNG_PIPE_EV_REM_POST = 2;
+
+    // ========== Constants: Option Targets ==========
+
+    /** Option applies to a socket */
+    public static final int NNG_OPT_TARGET_SOCKET = 0;
+
+    /** Option applies to a dialer */
+    public static final int NNG_OPT_TARGET_DIALER = 1;
+
+    /** Option applies to a listener */
+    public static final int NNG_OPT_TARGET_LISTENER = 2;
+
+    /** Option applies to a pipe (read-only) */
+    public static final int NNG_OPT_TARGET_PIPE = 3;
+
+    // ========== Constants: Option Names ==========
+
+    /** Socket name (string) */
+    public static final String NNG_OPT_SOCKNAME = "socket-name";
+
+    /** Protocol name (string, read-only) */
+    public static final String NNG_OPT_PROTONAME = "protocol-name";
+
+    /** Peer protocol name (string, read-only) */
+    public static final String NNG_OPT_PEERNAME = "peer-name";
+
+    /** Messages queued for receiving, 0 to 8192 (int) */
+    public static final String NNG_OPT_RECVBUF = "recv-buffer";
+
+    /** Messages queued for sending, 0 to 8192 (int) */
+    public static final String NNG_OPT_SENDBUF = "send-buffer";
+
+    /** Receive timeout (ms) */
+    public static final String NNG_OPT_RECVTIMEO = "recv-timeout";
+
+    /** Send timeout (ms) */
+    public static final String NNG_OPT_SENDTIMEO = "send-timeout";
+
+    /** Largest message accepted from a peer, 0 for no limit (size) */
+    public static final String NNG_OPT_RECVMAXSZ = "recv-size-max";
+
+    /** Initial delay before a dialer reconnects (ms) */
+    public static final String NNG_OPT_RECONNMINT = "reconnect-time-min";
+
+    /** Upper bound of the reconnect back-off, 0 for no back-off (ms) */
+    public static final String NNG_OPT_RECONNMAXT = "reconnect-time-max";
+
+    /** Maximum hops a message may travel (int) */
+    public static final String NNG_OPT_MAXTTL = "ttl-max";
+
+    /** Address of the peer of a pipe (address, read-only) */
+    public static final String NNG_OPT_REMADDR = "remote-address";
+
+    /** Local address of a pipe or listener (address, read-only) */
+    public static final String NNG_OPT_LOCADDR = "local-address";
+
+    /** Endpoint URL (string, read-only) */
+    public static final String NNG_OPT_URL = "url";
+
+    /** Disable Nagle's algorithm on TCP connections (bool) */
+    public static final String NNG_OPT_TCP_NODELAY = "tcp-nodelay";
+
+    /** Enable TCP keep-alive probes (bool) */
+    public static final String NNG_OPT_TCP_KEEPALIVE = "tcp-keepalive";
+
+    /** Pair1 polyamorous mode; set before connecting (bool) */
+    public static final String NNG_OPT_PAIR1_POLY = "pair1:polyamorous";
+
+    /** Time before Req0 resends an unanswered request (ms) */
+    public static final String NNG_OPT_REQ_RESENDTIME = "req:resend-time";
+
+    /** How long Surveyor0 collects responses (ms) */
+    public static final String NNG_OPT_SURVEYOR_SURVEYTIME = "surveyor:survey-time";
+
+    /** Sub0 drops the oldest queued message, not the newest, when full (bool) */
+    public static final String NNG_OPT_SUB_PREFNEW = "sub:prefnew";
+
+    // ========== Constants: Native Log Levels ==========
+
+    /** Log everything (android.util.Log.VERBOSE) */
+    public static final int LOG_LEVEL_VERBOSE = 2;
+
+    /** Log per-message events and above (android.util.Log.DEBUG) */
+    public static final int LOG_LEVEL_DEBUG = 3;
+
+    /** Log lifecycle events and above (android.util.Log.INFO), the default */
+    public static final int LOG_LEVEL_INFO = 4;
+
+    /** Log warnings and errors only (android.util.Log.WARN) */
+    public static final int LOG_LEVEL_WARN = 5;
+
+    /** Log errors only (android.util.Log.ERROR) */
+    public static final int LOG_LEVEL_ERROR = 6;
+
+    /** Disable native logging */
+    public static final int LOG_LEVEL_SILENT = 8;
+
     // ========== Constants: Error Codes ==========
 
     /** Success */
@@ -526,20 +1326,76 @@ public class NngWrapper {
     /** Operation canceled */
     public static final int NNG_ECANCELED = 20;
 
+    /** Option is read-only */
+    public static final int NNG_EREADONLY = 24;
+
+    /** Option is write-only */
+    public static final int NNG_EWRITEONLY = 25;
+
+    /** Internal error, e.g. a completion that could not be delivered to Java */
+    public static final int NNG_EINTERNAL = 26;
+
+    /** Flag of a system error; the low bits hold the {@code errno} value */
+    public static final int NNG_ESYSERR = 0x10000000;
+
+    // ========== Pointer Results ==========
+
+    /**
+     * Whether the result of a pointer-returning native ({@link #nngMsgAlloc},
+     * {@link #nngRecvMsg}, {@link #nngCtxRecvMsg}, {@link #nngAioAlloc}) is an error
+     *
+     * <p>Failures are returned as the negated NNG error code. A valid pointer
+     * may itself be negative as a {@code long} (heap pointers on arm64 Android
+     * carry a tag in the top byte), so test with this method, never with
+     * {@code <= 0}.</p>
+     *
+     * @param result value returned by the native
+     * @return true if {@code result} is 0 or a negated error code
+     * @since 1.11.0
+     */
+    public static boolean isError(long result) {
+        // User-space pointers, tagged or not, never fall in [-2^31, 0]
+        return result <= 0 && result >= Integer.MIN_VALUE;
+    }
+
+    /**
+     * Error code of a failed pointer-returning native
+     * @param result value for which {@link #isError(long)} is true
+     * @return NNG error code
+     * @since 1.11.0
+     */
+    public static int errorCode(long result) {
+        return result == 0 ? NNG_EINTERNAL : (int) -result;
+    }
+
     // ========== High-Level API (Backward Compatibility) ==========
 
-    private long socketHandle = 0;
+    // Swapped atomically so concurrent readers never see a half-closed socket
+    private final AtomicReference<NngSocket> socket = new AtomicReference<>();
 
     /**
      * Open a Pair0 socket (high-level API)
+     *
+     * <p>Any socket previously opened by this wrapper is closed. New code
+     * should use {@link NngSocket} directly, which supports every protocol and
+     * any number of sockets.</p>
+     *
      * @throws NngException if socket creation fails
      */
     public void openPair0() throws NngException {
-        socketHandle = nngPair0Open();
-        if (socketHandle <= 0) {
-            throw new NngException("Failed to open Pair0 socket", (int)(-socketHandle));
+        NngSocket previous = socket.getAndSet(NngSocket.pair0());
+        if (previous != null) {
+            previous.close();
         }
-        Log.i(TAG, "Pair0 socket opened: " + socketHandle);
+    }
+
+    /**
+     * Socket opened by {@link #openPair0()} (high-level API)
+     * @return socket, or null if none is open
+     */
+    @Nullable
+    public NngSocket getSocket() {
+        return socket.get();
     }
 
     /**
@@ -548,12 +1404,7 @@ public class NngWrapper {
      * @throws NngException if listen fails
      */
     public void listen(@NonNull String url) throws NngException {
-        if (socketHandle == 0) throw new IllegalStateException("Socket not open");
-        int rv = nngListen(socketHandle, url);
-        if (rv != 0) {
-            throw new NngException("Failed to listen on " + url, rv);
-        }
-        Log.i(TAG, "Listening on " + url);
+        requireSocket().listen(url);
     }
 
     /**
@@ -562,12 +1413,7 @@ public class NngWrapper {
      * @throws NngException if dial fails
      */
     public void dial(@NonNull String url) throws NngException {
-        if (socketHandle == 0) throw new IllegalStateException("Socket not open");
-        int rv = nngDial(socketHandle, url);
-        if (rv != 0) {
-            throw new NngException("Failed to dial " + url, rv);
-        }
-        Log.i(TAG, "Connected to " + url);
+        requireSocket().dial(url);
     }
 
     /**
@@ -576,11 +1422,16 @@ public class NngWrapper {
      * @throws NngException if send fails
      */
     public void send(@NonNull byte[] data) throws NngException {
-        if (socketHandle == 0) throw new IllegalStateException("Socket not open");
-        int rv = nngSend(socketHandle, data, data.length, 0);
-        if (rv != 0) {
-            throw new NngException("Failed to send", rv);
-        }
+        requireSocket().send(data);
+    }
+
+    /**
+     * Send several messages in one native call (high-level API)
+     * @param msgs messages to send, in order
+     * @throws NngException if any message cannot be sent
+     */
+    public void sendBatch(@NonNull byte[][] msgs) throws NngException {
+        requireSocket().sendBatch(msgs);
     }
 
     /**
@@ -589,53 +1440,111 @@ public class NngWrapper {
      * @throws NngException if send fails
      */
     public void sendString(@NonNull String message) throws NngException {
-        send(message.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        requireSocket().sendString(message);
+    }
+
+    /**
+     * Send a message object (high-level API)
+     *
+     * <p>On success NNG takes the native message; close {@code message} afterwards
+     * to return it to its pool. On failure the message is left intact.</p>
+     *
+     * @param message message to send
+     * @throws NngException if send fails
+     */
+    public void send(@NonNull NngMessage message) throws NngException {
+        requireSocket().send(message);
     }
 
     /**
      * Receive bytes (high-level API)
+     *
+     * <p>The returned array is exactly the size of the message.</p>
+     *
      * @return received data
      * @throws NngException if receive fails
      */
     @NonNull
     public byte[] receive() throws NngException {
-        if (socketHandle == 0) throw new IllegalStateException("Socket not open");
-        byte[] buffer = new byte[4096];
-        int rv = nngRecv(socketHandle, buffer, buffer.length, 0);
-        if (rv < 0) {
-            throw new NngException("Failed to receive", -rv);
-        }
-        byte[] result = new byte[rv];
-        System.arraycopy(buffer, 0, result, 0, rv);
-        return result;
+        return requireSocket().receive();
     }
 
     /**
-     * Receive string (high-level API)
+     * Receive into a reusable buffer (high-level API)
+     * @param buffer buffer to receive into (grown if the message does not fit)
+     * @return message length
+     * @throws NngException if receive fails
+     */
+    public int receive(@NonNull NngReceiveBuffer buffer) throws NngException {
+        return requireSocket().receive(buffer);
+    }
+
+    /**
+     * Receive a message object (high-level API)
+     *
+     * <p>The message comes from the default {@link NngMessagePool}; close it when done.</p>
+     *
      * @return received message
      * @throws NngException if receive fails
      */
     @NonNull
+    public NngMessage receiveMessage() throws NngException {
+        return requireSocket().receiveMessage();
+    }
+
+    /**
+     * Receive up to {@code max} queued messages in one native call (high-level API)
+     * @param batch batch to receive into (reused across calls)
+     * @param max maximum number of messages
+     * @param timeoutMs time to wait for the first message
+     * @return number of messages received (0 on timeout)
+     * @throws NngException if receive fails
+     */
+    public int receiveBatch(@NonNull NngReceiveBatch batch, int max, int timeoutMs) throws NngException {
+        return requireSocket().receiveBatch(batch, max, timeoutMs);
+    }
+
+    /**
+     * Receive string (high-level API)
+     * @return received string
+     * @throws NngException if receive fails
+     */
+    @NonNull
     public String receiveString() throws NngException {
-        byte[] data = receive();
-        return new String(data, java.nio.charset.StandardCharsets.UTF_8);
+        return requireSocket().receiveString();
     }
 
     /**
      * Close socket (high-level API)
+     *
+     * <p>Safe to call while another thread is blocked in send or receive;
+     * that call fails with NNG_ECLOSED.</p>
      */
     public void close() {
-        if (socketHandle != 0) {
-            nngClose(socketHandle);
-            Log.i(TAG, "Socket closed: " + socketHandle);
-            socketHandle = 0;
+        NngSocket current = socket.getAndSet(null);
+        if (current != null) {
+            current.close();
         }
     }
 
+    @NonNull
+    private NngSocket requireSocket() {
+        NngSocket current = socket.get();
+        if (current == null) throw new IllegalStateException("Socket not open");
+        return current;
+    }
+
     /**
      * Custom exception for NNG operations
+     *
+     * <p>Common error codes have subclasses ({@link NngTimeoutException},
+     * {@link NngAgainException}, {@link NngClosedException},
+     * {@link NngCanceledException}, {@link NngConnectionException});
+     * {@link #of(String, int)} picks the right one.</p>
      */
     public static class NngException extends Exception {
+        private static final long serialVersionUID = 1L;
+
         private final int errorCode;
 
         public NngException(@NonNull String message, int errorCode) {
@@ -643,14 +1552,58 @@ public class NngWrapper {
             this.errorCode = errorCode;
         }
 
+        // Message is the error text alone; used by the stackless instances
+        NngException(int errorCode) {
+            super(getErrorMessage(errorCode));
+            this.errorCode = errorCode;
+        }
+
+        // Not writable: no stack trace, addSuppressed ignored, cause fixed to null
+        @RequiresApi(24)
+        NngException(int errorCode, boolean writable) {
+            super(getErrorMessage(errorCode), null, writable, writable);
+            this.errorCode = errorCode;
+        }
+
+        /**
+         * Exception for an NNG error code, typed by code
+         *
+         * <p>NNG_EAGAIN and NNG_ETIMEDOUT ignore {@code message} and return an
+         * instance without a stack trace, so failed polls stay cheap. On API 24
+         * and later it is one shared, immutable instance per code.</p>
+         *
+         * @param message context, prefixed to the NNG error text
+         * @param errorCode NNG error code
+         * @return exception to throw
+         */
+        @NonNull
+        public static NngException of(@NonNull String message, int errorCode) {
+            switch (errorCode) {
+                case NNG_EAGAIN: return NngAgainException.stackless();
+                case NNG_ETIMEDOUT: return NngTimeoutException.stackless();
+                case NNG_ECLOSED: return new NngClosedException(message);
+                case NNG_ECANCELED: return new NngCanceledException(message);
+                case NNG_ECONNREFUSED:
+                case NNG_ECONNRESET:
+                case NNG_ECONNABORTED:
+                case NNG_EUNREACHABLE:
+                    return new NngConnectionException(message, errorCode);
+                default: return new NngException(message, errorCode);
+            }
+        }
+
         public int getErrorCode() {
             return errorCode;
         }
 
         private static String getErrorMessage(int errorCode) {
             // This will be replaced with actual nngStrerror call when available
+            if ((errorCode & NNG_ESYSERR) != 0) {
+                return "System error " + (errorCode & ~NNG_ESYSERR);
+            }
             switch (errorCode) {
                 case NNG_OK: return "Success";
+                case NNG_EINTERNAL: return "Internal error";
                 case NNG_EINTR: return "Interrupted";
                 case NNG_ENOMEM: return "Out of memory";
                 case NNG_EINVAL: return "Invalid argument";
@@ -671,6 +1624,8 @@ public class NngWrapper {
                 case NNG_ECONNRESET: return "Connection reset";
                 case NNG_ECONNABORTED: return "Connection aborted";
                 case NNG_ECANCELED: return "Operation canceled";
+                case NNG_EREADONLY: return "Read only resource";
+                case NNG_EWRITEONLY: return "Write only resource";
                 default: return "Unknown error (" + errorCode + ")";
             }
         }
@@ -0,0 +1,69 @@
+package com.nng.android;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NngExceptionTest {
+
+    @Test
+    public void ofPicksSubclassByCode() {
+        assertTrue(NngWrapper.NngException.of("x", NngWrapper.NNG_EAGAIN) instanceof NngAgainException);
+        assertTrue(NngWrapper.NngException.of("x", NngWrapper.NNG_ETIMEDOUT) instanceof NngTimeoutException);
+        assertTrue(NngWrapper.NngException.of("x", NngWrapper.NNG_ECLOSED) instanceof NngClosedException);
+        assertTrue(NngWrapper.NngException.of("x", NngWrapper.NNG_ECANCELED) instanceof NngCanceledException);
+        assertTrue(NngWrapper.NngException.of("x", NngWrapper.NNG_ECONNRESET) instanceof NngConnectionException);
+        NngWrapper.NngException other = NngWrapper.NngException.of("x", NngWrapper.NNG_EINVAL);
+        assertEquals(NngWrapper.NngException.class, other.getClass());
+        assertEquals(NngWrapper.NNG_EINVAL, other.getErrorCode());
+    }
+
+    @Test
+    public void stacklessExceptionsAreImmutableWhenShared() {
+        int[] codes = {NngWrapper.NNG_EAGAIN, NngWrapper.NNG_ETIMEDOUT};
+        for (int code : codes) {
+            NngWrapper.NngException first = NngWrapper.NngException.of("first", code);
+            NngWrapper.NngException second = NngWrapper.NngException.of("second", code);
+            assertEquals(0, first.getStackTrace().length);
+            assertEquals(code, first.getErrorCode());
+            if (first != second) {
+                // API 23 fallback (and the local unit test android.jar): fresh instances
+                first.addSuppressed(new IllegalStateException("close failed"));
+                assertEquals(0, second.getSuppressed().length);
+                continue;
+            }
+            // What try-with-resources does to the exception it rethrows
+            first.addSuppressed(new IllegalStateException("close failed"));
+            assertEquals(0, second.getSuppressed().length);
+            try {
+                first.initCause(new RuntimeException("cause"));
+                fail("cause of a shared instance must be fixed");
+            } catch (IllegalStateException expected) {
+                assertNull(second.getCause());
+            }
+            first.setStackTrace(new Throwable().getStackTrace());
+            assertEquals(0, second.getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void fallbackInstancesAreNotShared() {
+        NngAgainException first = new NngAgainException.Stackless();
+        NngAgainException second = new NngAgainException.Stackless();
+        assertNotSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+        first.initCause(new RuntimeException("cause"));
+        assertNull(second.getCause());
+    }
+
+    @Test
+    public void messageConstructorKeepsStackTrace() {
+        NngTimeoutException e = new NngTimeoutException("Receive");
+        assertTrue(e.getStackTrace().length > 0);
+        assertTrue(e.getMessage().startsWith("Receive: "));
+    }
+}
@@ -0,0 +1,120 @@
+package com.nng.android;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NngFrameReaderTest {
+
+    @Test
+    public void lengthPrefixRoundTrips() throws Exception {
+        int[] lengths = {0, 1, 127, 128, 300, 16383, 16384, 100000};
+        int[] sizes = {1, 1, 1, 2, 2, 2, 3, 3};
+        ByteBuffer body = ByteBuffer.allocate(300000);
+        for (int i = 0; i < lengths.length; i++) {
+            assertEquals(sizes[i], NngFrameReader.lengthSize(lengths[i]));
+            int before = body.position();
+            NngFrameReader.putLength(body, lengths[i]);
+            assertEquals(sizes[i], body.position() - before);
+            for (int j = 0; j < lengths[i]; j++) {
+                body.put((byte) (i + j));
+            }
+        }
+        body.flip();
+
+        NngFrameReader reader = new NngFrameReader().reset(body);
+        for (int i = 0; i < lengths.length; i++) {
+            assertTrue(reader.next());
+            assertEquals(lengths[i], reader.frameLength());
+            ByteBuffer frame = reader.frame();
+            assertEquals(lengths[i], frame.remaining());
+            for (int j = 0; j < lengths[i]; j++) {
+                assertEquals((byte) (i + j), frame.get(frame.position() + j));
+            }
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void largestLengthsUseFiveBytes() {
+        assertEquals(4, NngFrameReader.lengthSize((1 << 28) - 1));
+        assertEquals(5, NngFrameReader.lengthSize(1 << 28));
+        assertEquals(5, NngFrameReader.lengthSize(Integer.MAX_VALUE));
+        ByteBuffer out = ByteBuffer.allocate(5);
+        NngFrameReader.putLength(out, Integer.MAX_VALUE);
+        assertEquals(5, out.position());
+        assertEquals(0x07, out.get(4));
+    }
+
+    @Test
+    public void stringRecordsRoundTrip() throws Exception {
+        String[] records = {"", "plain", "café", "日本語", "😀 emoji"};
+        ByteBuffer body = ByteBuffer.allocate(256);
+        for (String record : records) {
+            NngFrameReader.putLength(body, NngUtf8.encodedLength(record));
+            NngUtf8.encode(record, body);
+        }
+        body.flip();
+
+        NngFrameReader reader = new NngFrameReader().reset(body);
+        for (String record : records) {
+            assertTrue(reader.next());
+            assertEquals(record, reader.frameString());
+            // Decoding leaves the view where it was
+            assertEquals(reader.frameLength(), reader.frame().remaining());
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void truncatedRecordIsMalformed() {
+        ByteBuffer body = ByteBuffer.allocate(8);
+        NngFrameReader.putLength(body, 10);
+        body.put(new byte[] {1, 2, 3});
+        body.flip();
+        assertMalformed(new NngFrameReader().reset(body));
+    }
+
+    @Test
+    public void unterminatedPrefixIsMalformed() {
+        assertMalformed(new NngFrameReader().reset(ByteBuffer.wrap(new byte[] {(byte) 0x80, (byte) 0x80})));
+        // Six continuation bytes cannot be a 32-bit length
+        byte[] tooLong = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        assertMalformed(new NngFrameReader().reset(ByteBuffer.wrap(tooLong)));
+    }
+
+    @Test
+    public void readerIsReusable() throws Exception {
+        NngFrameReader reader = new NngFrameReader();
+        for (int round = 0; round < 3; round++) {
+            ByteBuffer body = ByteBuffer.allocate(16);
+            NngFrameReader.putLength(body, 1);
+            body.put((byte) round);
+            body.flip();
+            reader.reset(body);
+            assertTrue(reader.next());
+            assertEquals(round, reader.frame().get());
+            assertFalse(reader.next());
+        }
+    }
+
+    private static void assertMalformed(NngFrameReader reader) {
+        try {
+            reader.next();
+            fail("malformed framing accepted");
+        } catch (NngWrapper.NngException e) {
+            assertEquals(NngWrapper.NNG_EPROTO, e.getErrorCode());
+        }
+        // The reader does not retry past the bad frame
+        try {
+            assertFalse(reader.next());
+        } catch (NngWrapper.NngException e) {
+            fail("reader kept reading after malformed frame");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngReceiveBatch;
+import com.nng.android.NngReceiveBuffer;
+import com.nng.android.NngWrapper;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched versus per-message JNI crossings over inproc Push/Pull
+ *
+ * <p>Each operation moves up to {@code batch} messages, either in one native
+ * call or in one call per message. Compare the {@code messages} counter, which
+ * is in messages per second, rather than the operation rate.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    /** Sending side; a background thread drains the pull socket */
+    @State(Scope.Benchmark)
+    public static class SendSide {
+        @Param({"1", "8", "64"})
+        public int batch;
+
+        @Param({"64", "1024"})
+        public int size;
+
+        Loopback loopback;
+        byte[][] messages;
+
+        @Setup(Level.Trial)
+        public void setUp() throws NngWrapper.NngException {
+            NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_WARN);
+            messages = new byte[batch][size];
+            loopback = Loopback.open(Loopback.Pattern.PUSHPULL, "inproc", false);
+            loopback.startDrain();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            loopback.close();
+        }
+    }
+
+    /** Receiving side; a background thread floods the push socket */
+    @State(Scope.Benchmark)
+    public static class ReceiveSide {
+        @Param({"1", "8", "64"})
+        public int batch;
+
+        @Param({"64", "1024"})
+        public int size;
+
+        Loopback loopback;
+        NngReceiveBatch received;
+        NngReceiveBuffer buffer;
+
+        @Setup(Level.Trial)
+        public void setUp() throws NngWrapper.NngException {
+            NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_WARN);
+            received = new NngReceiveBatch();
+            buffer = new NngReceiveBuffer(size);
+            loopback = Loopback.open(Loopback.Pattern.PUSHPULL, "inproc", false);
+            loopback.in.setRecvTimeout(5000);
+            loopback.startFlood(new byte[size]);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            loopback.close();
+        }
+    }
+
+    /** Messages moved, reported next to the operation rate */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long messages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            messages = 0;
+        }
+    }
+
+    @Benchmark
+    public void sendBatched(SendSide side, Counters counters) throws NngWrapper.NngException {
+        side.loopback.out.sendBatch(side.messages);
+        counters.messages += side.batch;
+    }
+
+    @Benchmark
+    public void sendEach(SendSide side, Counters counters) throws NngWrapper.NngException {
+        for (byte[] message : side.messages) {
+            side.loopback.out.send(message);
+        }
+        counters.messages += side.batch;
+    }
+
+    @Benchmark
+    public void receiveBatched(ReceiveSide side, Counters counters) throws NngWrapper.NngException {
+        int n = NNG.nngRecvBatch(side.loopback.in.handle(), side.received, side.batch, 5000);
+        if (n < 0) {
+            throw NngWrapper.NngException.of("Failed to receive", -n);
+        }
+        counters.messages += n;
+    }
+
+    @Benchmark
+    public void receiveEach(ReceiveSide side, Counters counters) throws NngWrapper.NngException {
+        for (int i = 0; i < side.batch; i++) {
+            side.loopback.in.receive(side.buffer);
+        }
+        counters.messages += side.batch;
+    }
+}
@@ -0,0 +1,107 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngMessage;
+import com.nng.android.NngReceiveBuffer;
+import com.nng.android.NngWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each way of moving a payload across the JNI boundary
+ *
+ * <p>Each operation sends one message over an inproc Pair and receives it on
+ * the same thread, so the score is dominated by copies and allocation at the
+ * binding rather than by transport.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CopyPathBenchmark {
+    private static final NngWrapper NNG = new NngWrapper();
+
+    @Param({"64", "4096", "65536"})
+    public int size;
+
+    private Loopback loopback;
+    private byte[] payload;
+    private byte[] scratch;
+    private NngReceiveBuffer buffer;
+    private ByteBuffer sendDirect;
+    private ByteBuffer recvDirect;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NngWrapper.NngException {
+        NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_WARN);
+        payload = new byte[size];
+        scratch = new byte[size];
+        buffer = new NngReceiveBuffer(size);
+        sendDirect = ByteBuffer.allocateDirect(size);
+        recvDirect = ByteBuffer.allocateDirect(size);
+        loopback = Loopback.open(Loopback.Pattern.PAIR, "inproc", false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loopback.close();
+    }
+
+    /** byte[] in, fixed caller-supplied byte[] out (the original raw API) */
+    @Benchmark
+    public int rawFixedBuffer() {
+        NNG.nngSend(loopback.out.handle(), payload, payload.length, 0);
+        return NNG.nngRecv(loopback.in.handle(), scratch, scratch.length, 0);
+    }
+
+    /** byte[] in, exactly-sized byte[] allocated per message out */
+    @Benchmark
+    public byte[] byteArray() throws NngWrapper.NngException {
+        loopback.out.send(payload);
+        return loopback.in.receive();
+    }
+
+    /** byte[] in, reusable {@link NngReceiveBuffer} out */
+    @Benchmark
+    public int receiveBuffer() throws NngWrapper.NngException {
+        loopback.out.send(payload);
+        return loopback.in.receive(buffer);
+    }
+
+    /** Direct ByteBuffer both ways */
+    @Benchmark
+    public int directBuffer() throws NngWrapper.NngException {
+        sendDirect.clear();
+        loopback.out.send(sendDirect);
+        recvDirect.clear();
+        return loopback.in.receive(recvDirect);
+    }
+
+    /** Pooled {@link NngMessage} both ways, reading the body through its direct view */
+    @Benchmark
+    public int pooledMessage() throws NngWrapper.NngException {
+        try (NngMessage message = NngMessage.allocate(0)) {
+            message.append(payload);
+            loopback.out.send(message);
+        }
+        try (NngMessage message = loopback.in.receiveMessage()) {
+            return message.body().remaining();
+        }
+    }
+}
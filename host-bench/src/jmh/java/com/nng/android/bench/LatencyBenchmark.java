@@ -0,0 +1,71 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngReceiveBuffer;
+import com.nng.android.NngWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback round-trip latency per protocol and transport
+ *
+ * <p>Each operation sends one message and waits for an echo thread to send
+ * it back. Sample-time mode reports the p50/p90/p99/p99.9 percentiles. Pub/Sub
+ * and Push/Pull are one-way protocols, so their echo travels over a second
+ * socket pair of the same protocol.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LatencyBenchmark {
+
+    @Param({"inproc", "ipc", "tcp"})
+    public String transport;
+
+    @Param({"PAIR", "REQREP", "PUBSUB", "PUSHPULL"})
+    public Loopback.Pattern pattern;
+
+    @Param({"64", "4096"})
+    public int size;
+
+    private Loopback loopback;
+    private byte[] payload;
+    private NngReceiveBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NngWrapper.NngException {
+        NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_WARN);
+        payload = new byte[size];
+        buffer = new NngReceiveBuffer(size);
+        loopback = Loopback.open(pattern, transport, true);
+        loopback.startEcho();
+        loopback.awaitRoundTrip(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loopback.close();
+    }
+
+    @Benchmark
+    public int roundTrip() throws NngWrapper.NngException {
+        loopback.out.send(payload);
+        return loopback.backIn.receive(buffer);
+    }
+}
@@ -0,0 +1,229 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngMessage;
+import com.nng.android.NngReceiveBuffer;
+import com.nng.android.NngSocket;
+import com.nng.android.NngWrapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connected socket pair(s) for one protocol over one transport
+ *
+ * <p>{@link #out} sends towards {@link #in}. For round trips, {@link #back}
+ * sends the reply from the {@code in} side and {@link #backIn} receives it.
+ * Pair and Req/Rep are bidirectional, so {@code back == in} and
+ * {@code backIn == out}. Pub/Sub and Push/Pull are one-way and use a second
+ * socket pair for the return path.</p>
+ */
+final class Loopback implements AutoCloseable {
+
+    enum Pattern { PAIR, REQREP, PUBSUB, PUSHPULL }
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    final NngSocket out;
+    final NngSocket in;
+    final NngSocket back;
+    final NngSocket backIn;
+
+    private final List<NngSocket> sockets = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private Loopback(Pattern pattern, String transport, boolean roundTrip) throws NngWrapper.NngException {
+        try {
+            switch (pattern) {
+                case PAIR: {
+                    NngSocket server = connect(NngSocket.pair0(), NngSocket.pair0(), transport);
+                    NngSocket client = sockets.get(1);
+                    out = client; in = server; back = server; backIn = client;
+                    break;
+                }
+                case REQREP: {
+                    NngSocket rep = connect(NngSocket.rep0(), NngSocket.req0(), transport);
+                    NngSocket req = sockets.get(1);
+                    out = req; in = rep; back = rep; backIn = req;
+                    break;
+                }
+                case PUBSUB: {
+                    in = connect(subscribed(), NngSocket.pub0(), transport);
+                    out = sockets.get(sockets.size() - 1);
+                    if (roundTrip) {
+                        backIn = connect(subscribed(), NngSocket.pub0(), transport);
+                        back = sockets.get(sockets.size() - 1);
+                    } else {
+                        back = null; backIn = null;
+                    }
+                    break;
+                }
+                case PUSHPULL: {
+                    in = connect(NngSocket.pull0(), NngSocket.push0(), transport);
+                    out = sockets.get(sockets.size() - 1);
+                    if (roundTrip) {
+                        backIn = connect(NngSocket.pull0(), NngSocket.push0(), transport);
+                        back = sockets.get(sockets.size() - 1);
+                    } else {
+                        back = null; backIn = null;
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown pattern: " + pattern);
+            }
+        } catch (NngWrapper.NngException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open and connect the sockets for a pattern
+     * @param roundTrip whether the return path ({@link #back}, {@link #backIn}) is needed
+     */
+    static Loopback open(Pattern pattern, String transport, boolean roundTrip) throws NngWrapper.NngException {
+        return new Loopback(pattern, transport, roundTrip);
+    }
+
+    static String url(String transport) {
+        int n = SEQ.incrementAndGet();
+        switch (transport) {
+            case "inproc":
+                return "inproc://nng-bench-" + n;
+            case "ipc":
+                return "ipc:///tmp/nng-bench-" + ProcessHandle.current().pid() + "-" + n + ".ipc";
+            case "tcp":
+                return "tcp://127.0.0.1:" + freePort();
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + transport);
+        }
+    }
+
+    /**
+     * Echo every message received on {@link #in} back through {@link #back}
+     */
+    void startEcho() {
+        start("echo", () -> {
+            while (true) {
+                try (NngMessage message = in.receiveMessage()) {
+                    back.send(message);
+                }
+            }
+        });
+    }
+
+    /**
+     * Send {@code payload} on {@link #out} as fast as possible
+     */
+    void startFlood(byte[] payload) {
+        start("flood", () -> {
+            while (true) {
+                out.send(payload);
+            }
+        });
+    }
+
+    /**
+     * Receive and discard everything arriving on {@link #in}
+     */
+    void startDrain() {
+        start("drain", () -> {
+            NngReceiveBuffer buffer = new NngReceiveBuffer();
+            while (true) {
+                in.receive(buffer);
+            }
+        });
+    }
+
+    /**
+     * Send probes until one makes the full round trip, then discard any
+     * duplicate replies. Pub/Sub drops messages sent before the subscriber's
+     * pipe is attached, so the first few probes may be lost.
+     */
+    void awaitRoundTrip(byte[] probe) throws NngWrapper.NngException {
+        NngReceiveBuffer buffer = new NngReceiveBuffer();
+        backIn.setRecvTimeout(100);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                out.send(probe);
+                try {
+                    backIn.receive(buffer);
+                    break;
+                } catch (NngWrapper.NngException e) {
+                    if (e.getErrorCode() != NngWrapper.NNG_ETIMEDOUT || attempt >= 100) throw e;
+                }
+            }
+            while (true) {
+                try {
+                    backIn.receive(buffer);
+                } catch (NngWrapper.NngException e) {
+                    if (e.getErrorCode() == NngWrapper.NNG_ETIMEDOUT) break;
+                    throw e;
+                }
+            }
+        } finally {
+            backIn.setRecvTimeout(5000);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (NngSocket socket : sockets) {
+            socket.close();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private interface Loop {
+        void run() throws NngWrapper.NngException;
+    }
+
+    private void start(String name, Loop loop) {
+        Thread thread = new Thread(() -> {
+            try {
+                loop.run();
+            } catch (NngWrapper.NngException e) {
+                // Socket closed at tear-down
+                if (e.getErrorCode() != NngWrapper.NNG_ECLOSED) {
+                    e.printStackTrace();
+                }
+            }
+        }, "bench-" + name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    // Listener first, then dialer; returns the listener and leaves the dialer last in sockets
+    private NngSocket connect(NngSocket listener, NngSocket dialer, String transport) throws NngWrapper.NngException {
+        sockets.add(listener);
+        sockets.add(dialer);
+        String url = url(transport);
+        listener.listen(url);
+        dialer.dial(url);
+        return listener;
+    }
+
+    private NngSocket subscribed() throws NngWrapper.NngException {
+        NngSocket sub = NngSocket.sub0();
+        sub.subscribe(new byte[0]);
+        return sub;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free TCP port", e);
+        }
+    }
+}
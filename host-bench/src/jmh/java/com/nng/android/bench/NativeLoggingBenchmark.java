@@ -0,0 +1,66 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of native per-message logging on the send/receive path
+ *
+ * <p>SILENT and INFO only pay for the runtime level check; DEBUG formats and
+ * writes two lines per operation. Native log output goes to /dev/null so the
+ * console stays readable. To measure the compile-time floor instead, rebuild
+ * with {@code -PnngJniLogFloor=ANDROID_LOG_WARN} and run at DEBUG.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dnng.native.log.file=/dev/null")
+public class NativeLoggingBenchmark {
+
+    @Param({"SILENT", "INFO", "DEBUG"})
+    public String level;
+
+    private Loopback loopback;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NngWrapper.NngException {
+        loopback = Loopback.open(Loopback.Pattern.PAIR, "inproc", false);
+        payload = new byte[64];
+        switch (level) {
+            case "SILENT": NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_SILENT); break;
+            case "INFO":   NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_INFO); break;
+            case "DEBUG":  NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_DEBUG); break;
+            default: throw new IllegalArgumentException("Unknown level: " + level);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_INFO);
+        loopback.close();
+    }
+
+    @Benchmark
+    public byte[] sendReceive() throws NngWrapper.NngException {
+        loopback.out.send(payload);
+        return loopback.in.receive();
+    }
+}
@@ -0,0 +1,80 @@
+package com.nng.android.bench;
+
+import com.nng.android.NngReceiveBuffer;
+import com.nng.android.NngWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback message rate per protocol and transport
+ *
+ * <p>For Pair, Pub/Sub and Push/Pull a background thread floods the sending
+ * socket and each operation is one message received, so the score is the
+ * delivered message rate (Pub/Sub drops what the subscriber cannot keep up
+ * with). For Req/Rep each operation is one full request/reply exchange
+ * against an echo thread.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThroughputBenchmark {
+
+    @Param({"inproc", "ipc", "tcp"})
+    public String transport;
+
+    @Param({"PAIR", "REQREP", "PUBSUB", "PUSHPULL"})
+    public Loopback.Pattern pattern;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private Loopback loopback;
+    private byte[] payload;
+    private NngReceiveBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NngWrapper.NngException {
+        NngWrapper.setNativeLogLevel(NngWrapper.LOG_LEVEL_WARN);
+        payload = new byte[size];
+        buffer = new NngReceiveBuffer(size);
+        loopback = Loopback.open(pattern, transport, false);
+        if (pattern == Loopback.Pattern.REQREP) {
+            loopback.startEcho();
+            loopback.awaitRoundTrip(payload);
+        } else {
+            loopback.in.setRecvTimeout(5000);
+            loopback.startFlood(payload);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loopback.close();
+    }
+
+    @Benchmark
+    public int message() throws NngWrapper.NngException {
+        if (pattern == Loopback.Pattern.REQREP) {
+            loopback.out.send(payload);
+            return loopback.backIn.receive(buffer);
+        }
+        return loopback.in.receive(buffer);
+    }
+}
@@ -32,5 +32,16 @@ LOCAL_SRC_FILES := com_nng_android_NngWrapper.cpp
 LOCAL_C_INCLUDES := $(LOCAL_PATH)/../../base-repo/include
 LOCAL_SHARED_LIBRARIES := nng
 LOCAL_LDLIBS := -llog -landroid
+
+# ログ出力の制御
+#   NNG_JNI_STRIP_LOGS=1 の場合、INFO/DEBUG ログをコンパイル時に除去する（WARN 以上のみ残る）
+#   APP_OPTIM=release のときはデフォルトで有効。無効にする場合:
+#     ndk-build ... NNG_JNI_STRIP_LOGS=0
+ifeq ($(APP_OPTIM),release)
+NNG_JNI_STRIP_LOGS ?= 1
+endif
+ifeq ($(NNG_JNI_STRIP_LOGS),1)
+LOCAL_CFLAGS += -DNNG_JNI_LOG_FLOOR=ANDROID_LOG_WARN
+endif
 include $(BUILD_SHARED_LIBRARY)
 
@@ -5,6 +5,7 @@
  * It is designed to work with the auto-generated header from javac -h.
  *
  * Build: ndk-build with Android.mk
+ *        (host JVM: CMakeLists.txt, used by the host-bench module)
  * Dependencies: libnng.so
  */
 
@@ -20,18 +21,83 @@
 #include <nng/protocol/pipeline0/push.h>
 #include <nng/protocol/pipeline0/pull.h>
 #include <nng/protocol/bus0/bus.h>
-// Survey protocol headers - check if available in NNG 1.10
-// #include <nng/protocol/survey0/survey.h>
-// #include <nng/protocol/survey0/respond.h>
-#include <android/log.h>
+#include <nng/protocol/survey0/survey.h>
+#include <nng/protocol/survey0/respond.h>
+#include <atomic>
 #include <cstring>
 #include <cstdio>
 #include <cstdlib>
+#include <cstdint>
+#include <algorithm>
+#include <new>
+#include <string>
+#include <unordered_map>
+#include <utility>
+#include <vector>
+#include <cerrno>
+#include <pthread.h>
+#include <unistd.h>
+#include <arpa/inet.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
 
 #define LOG_TAG "NNG-JNI"
-#define LOGI(...) __android_log_print(ANDROID_LOG_INFO, LOG_TAG, __VA_ARGS__)
-#define LOGW(...) __android_log_print(ANDROID_LOG_WARN, LOG_TAG, __VA_ARGS__)
-#define LOGE(...) __android_log_print(ANDROID_LOG_ERROR, LOG_TAG, __VA_ARGS__)
+
+#ifdef __ANDROID__
+#include <android/log.h>
+#define NNG_LOG_WRITE __android_log_print
+#else
+// ホスト JVM ビルド (host-bench) 用: logcat の代わりに stderr へ出力する
+#include <cstdarg>
+
+enum {
+    ANDROID_LOG_VERBOSE = 2,
+    ANDROID_LOG_DEBUG,
+    ANDROID_LOG_INFO,
+    ANDROID_LOG_WARN,
+    ANDROID_LOG_ERROR,
+    ANDROID_LOG_FATAL,
+    ANDROID_LOG_SILENT
+};
+
+// 出力先は -Dnng.native.log.file=<path> で変更できる (JNI_OnLoad で設定)
+static FILE* g_log_file = nullptr;
+
+static void nng_log_stderr(int prio, const char* tag, const char* fmt, ...) {
+    static const char kLevels[] = "??VDIWEFS";
+    char line[1024];
+    va_list ap;
+    va_start(ap, fmt);
+    vsnprintf(line, sizeof(line), fmt, ap);
+    va_end(ap);
+    fprintf(g_log_file != nullptr ? g_log_file : stderr, "%c/%s: %s\n",
+            kLevels[prio >= 0 && prio <= ANDROID_LOG_SILENT ? prio : 0], tag, line);
+}
+#define NNG_LOG_WRITE nng_log_stderr
+#endif
+
+// ログ出力レベル
+//   NNG_JNI_LOG_FLOOR: コンパイル時の下限。これ未満のログはコードごと除去される
+//                      (Android.mk の NNG_JNI_STRIP_LOGS=1 で ANDROID_LOG_WARN になる)
+//   g_log_level:       実行時の閾値。NngWrapper.setNativeLogLevel() で変更する
+#ifndef NNG_JNI_LOG_FLOOR
+#define NNG_JNI_LOG_FLOOR ANDROID_LOG_VERBOSE
+#endif
+
+static std::atomic<int> g_log_level(ANDROID_LOG_INFO);
+
+#define NNG_LOG(prio, ...)                                                 \
+    do {                                                                   \
+        if ((prio) >= NNG_JNI_LOG_FLOOR &&                                 \
+            (prio) >= g_log_level.load(std::memory_order_relaxed)) {       \
+            NNG_LOG_WRITE((prio), LOG_TAG, __VA_ARGS__);                   \
+        }                                                                  \
+    } while (0)
+
+#define LOGD(...) NNG_LOG(ANDROID_LOG_DEBUG, __VA_ARGS__)
+#define LOGI(...) NNG_LOG(ANDROID_LOG_INFO, __VA_ARGS__)
+#define LOGW(...) NNG_LOG(ANDROID_LOG_WARN, __VA_ARGS__)
+#define LOGE(...) NNG_LOG(ANDROID_LOG_ERROR, __VA_ARGS__)
 
 // ============================================================
 // Helper: Convert socket ID to nng_socket structure
@@ -42,6 +108,472 @@ static inline nng_socket id_to_socket(jlong id) {
     return s;
 }
 
+// ============================================================
+// JVM access and cached class references
+// ============================================================
+static JavaVM* g_vm = nullptr;
+static pthread_key_t g_detach_key;
+static jmethodID g_aio_on_complete = nullptr;
+static jmethodID g_pipe_on_event = nullptr;     // NngPipeEvents.onNativePipeEvent(long, int)
+static jclass    g_exception_class = nullptr;   // NngWrapper.NngException (global reference)
+static jmethodID g_exception_of = nullptr;      // NngException.of(String, int)
+static jclass    g_again_class = nullptr;       // NngAgainException.Stackless (global reference)
+static jmethodID g_again_init = nullptr;
+static jclass    g_timeout_class = nullptr;     // NngTimeoutException.Stackless (global reference)
+static jmethodID g_timeout_init = nullptr;
+static jthrowable g_again_shared = nullptr;     // NngAgainException.SHARED (global reference, API 23 では null)
+static jthrowable g_timeout_shared = nullptr;   // NngTimeoutException.SHARED (global reference, API 23 では null)
+static jfieldID  g_recvbuf_data = nullptr;      // NngReceiveBuffer.data
+static jfieldID  g_recvbuf_length = nullptr;    // NngReceiveBuffer.length
+static jfieldID  g_batch_data = nullptr;        // NngReceiveBatch.data
+static jfieldID  g_batch_offsets = nullptr;     // NngReceiveBatch.offsets
+static jfieldID  g_batch_count = nullptr;       // NngReceiveBatch.count
+static jfieldID  g_batch_carry = nullptr;       // NngReceiveBatch.carry
+static jfieldID  g_carry_msg = nullptr;         // NngReceiveBatch.Carry.msg
+static jfieldID  g_carry_socket = nullptr;      // NngReceiveBatch.Carry.socket
+static jclass    g_string_class = nullptr;      // java.lang.String (global reference)
+static jfieldID  g_stats_names = nullptr;       // NngStats.names
+static jfieldID  g_stats_strings = nullptr;     // NngStats.strings
+static jfieldID  g_stats_values = nullptr;      // NngStats.values
+static jfieldID  g_stats_types = nullptr;       // NngStats.types
+static jfieldID  g_stats_units = nullptr;       // NngStats.units
+static jfieldID  g_stats_parents = nullptr;     // NngStats.parents
+static jfieldID  g_stats_timestamp = nullptr;   // NngStats.timestampMs
+static pthread_key_t g_sync_aio_key;           // 同期受信用AIO（スレッドごと）
+
+// NNGワーカースレッド終了時にJVMからデタッチする
+static void detach_current_thread(void*) {
+    if (g_vm != nullptr) {
+        g_vm->DetachCurrentThread();
+    }
+}
+
+// コールバックスレッドのJNIEnvを取得する
+// 初回のみJVMにアタッチし、以降はスレッドローカルにキャッシュした値を使う
+static JNIEnv* callback_env() {
+    static thread_local JNIEnv* cached_env = nullptr;
+    if (cached_env != nullptr) {
+        return cached_env;
+    }
+
+    JNIEnv* env = nullptr;
+    if (g_vm->GetEnv((void**)&env, JNI_VERSION_1_6) != JNI_OK) {
+        JavaVMAttachArgs args = { JNI_VERSION_1_6, const_cast<char*>("nng-callback"), nullptr };
+#ifdef __ANDROID__
+        jint attached = g_vm->AttachCurrentThreadAsDaemon(&env, &args);
+#else
+        // デスクトップ JDK の jni.h は void** を取る
+        jint attached = g_vm->AttachCurrentThreadAsDaemon(reinterpret_cast<void**>(&env), &args);
+#endif
+        if (attached != JNI_OK) {
+            LOGE("Failed to attach NNG thread to JVM");
+            return nullptr;
+        }
+        pthread_setspecific(g_detach_key, env);
+    }
+    cached_env = env;
+    return env;
+}
+
+// スレッド終了時に同期受信用AIOを解放する
+static void free_sync_aio(void* aio) {
+    nng_aio_free((nng_aio*)aio);
+}
+
+// タイムアウト付き同期受信に使うAIOをスレッドごとに1つだけ確保して使い回す
+static nng_aio* thread_sync_aio() {
+    nng_aio* aio = (nng_aio*)pthread_getspecific(g_sync_aio_key);
+    if (aio == nullptr) {
+        if (nng_aio_alloc(&aio, nullptr, nullptr) != 0) {
+            return nullptr;
+        }
+        pthread_setspecific(g_sync_aio_key, aio);
+    }
+    return aio;
+}
+
+// ============================================================
+// Native method registration
+// ============================================================
+// JNI_OnLoad で全 native メソッドを一括登録する。
+// シンボル名による遅延解決 (初回呼び出しごとの dlsym) を避けるため。
+// Java_* のエクスポートは互換のために残している
+// (登録に失敗した場合はそちらで解決される)。
+// NngWrapper に native メソッドを追加したら、ここにも追加すること。
+#define NNG_NATIVE(name, signature)                                          \
+    { const_cast<char*>(#name), const_cast<char*>(signature),               \
+      reinterpret_cast<void*>(Java_com_nng_android_NngWrapper_##name) }
+
+static const JNINativeMethod kNngWrapperMethods[] = {
+    NNG_NATIVE(nngPair0Open, "()J"),
+    NNG_NATIVE(nngPair1Open, "()J"),
+    NNG_NATIVE(nngReq0Open, "()J"),
+    NNG_NATIVE(nngRep0Open, "()J"),
+    NNG_NATIVE(nngPub0Open, "()J"),
+    NNG_NATIVE(nngSub0Open, "()J"),
+    NNG_NATIVE(nngPush0Open, "()J"),
+    NNG_NATIVE(nngPull0Open, "()J"),
+    NNG_NATIVE(nngBus0Open, "()J"),
+    NNG_NATIVE(nngClose, "(J)I"),
+    NNG_NATIVE(nngListen, "(JLjava/lang/String;)I"),
+    NNG_NATIVE(nngDial, "(JLjava/lang/String;)I"),
+    NNG_NATIVE(nngSend, "(J[BII)I"),
+    NNG_NATIVE(nngRecv, "(J[BII)I"),
+    NNG_NATIVE(nngRecvAlloc, "(JI)[B"),
+    NNG_NATIVE(nngRecvInto, "(JLcom/nng/android/NngReceiveBuffer;I)I"),
+    NNG_NATIVE(nngSendBatch, "(J[[BI)I"),
+    NNG_NATIVE(nngRecvBatch, "(JLcom/nng/android/NngReceiveBatch;II)I"),
+    NNG_NATIVE(nngSendDirect, "(JLjava/nio/ByteBuffer;III)I"),
+    NNG_NATIVE(nngRecvDirect, "(JLjava/nio/ByteBuffer;III)I"),
+    NNG_NATIVE(nngSetRecvTimeout, "(JI)I"),
+    NNG_NATIVE(nngSetSendTimeout, "(JI)I"),
+    NNG_NATIVE(nngGetRecvTimeout, "(J)I"),
+    NNG_NATIVE(nngGetSendTimeout, "(J)I"),
+    NNG_NATIVE(nngSetSurveyTime, "(JI)I"),
+    NNG_NATIVE(nngSubSubscribe, "(J[B)I"),
+    NNG_NATIVE(nngSubUnsubscribe, "(J[B)I"),
+    NNG_NATIVE(nngStatChild, "(J)J"),
+    NNG_NATIVE(nngStatType, "(J)I"),
+    NNG_NATIVE(nngStatUnit, "(J)I"),
+    NNG_NATIVE(nngStatsSnapshot, "(Lcom/nng/android/NngStats;)I"),
+    NNG_NATIVE(nngSocketId, "(J)I"),
+    NNG_NATIVE(nngStrerror, "(I)Ljava/lang/String;"),
+    NNG_NATIVE(nngVersion, "()Ljava/lang/String;"),
+    NNG_NATIVE(setNativeLogLevel, "(I)V"),
+    NNG_NATIVE(getNativeLogLevel, "()I"),
+    NNG_NATIVE(nngSurveyor0Open, "()J"),
+    NNG_NATIVE(nngRespondent0Open, "()J"),
+    NNG_NATIVE(nngAioAlloc, "()J"),
+    NNG_NATIVE(nngAioFree, "(J)V"),
+    NNG_NATIVE(nngSocketSendAio, "(JJ)V"),
+    NNG_NATIVE(nngSocketRecvAio, "(JJ)V"),
+    NNG_NATIVE(nngAioResult, "(J)I"),
+    NNG_NATIVE(nngAioWait, "(J)V"),
+    NNG_NATIVE(nngAioSetTimeout, "(JI)V"),
+    NNG_NATIVE(nngAioCancel, "(J)V"),
+    NNG_NATIVE(nngAioStop, "(J)V"),
+    NNG_NATIVE(nngAioSetMsg, "(JJ)V"),
+    NNG_NATIVE(nngAioGetMsg, "(J)J"),
+    NNG_NATIVE(nngAioCallbackAlloc, "(Lcom/nng/android/NngAio;)J"),
+    NNG_NATIVE(nngAioCallbackAio, "(J)J"),
+    NNG_NATIVE(nngAioCallbackFree, "(J)V"),
+    NNG_NATIVE(nngAioCallbackDropped, "(J)I"),
+    NNG_NATIVE(nngPipeNotifyAlloc, "(JLcom/nng/android/NngPipeEvents;)J"),
+    NNG_NATIVE(nngPipeNotifyFree, "(J)V"),
+    NNG_NATIVE(nngMsgAlloc, "(I)J"),
+    NNG_NATIVE(nngMsgFree, "(J)V"),
+    NNG_NATIVE(nngMsgBody, "(J)[B"),
+    NNG_NATIVE(nngMsgLen, "(J)I"),
+    NNG_NATIVE(nngSendMsg, "(JJI)I"),
+    NNG_NATIVE(nngRecvMsg, "(JI)J"),
+    NNG_NATIVE(nngMsgRealloc, "(JI)I"),
+    NNG_NATIVE(nngMsgClear, "(J)V"),
+    NNG_NATIVE(nngMsgAppend, "(J[BII)I"),
+    NNG_NATIVE(nngMsgInsert, "(J[BII)I"),
+    NNG_NATIVE(nngMsgTrim, "(JI)I"),
+    NNG_NATIVE(nngMsgChop, "(JI)I"),
+    NNG_NATIVE(nngMsgBodyBuffer, "(J)Ljava/nio/ByteBuffer;"),
+    NNG_NATIVE(nngMsgHeader, "(J)[B"),
+    NNG_NATIVE(nngMsgHeaderLen, "(J)I"),
+    NNG_NATIVE(nngMsgHeaderAppend, "(J[BII)I"),
+    NNG_NATIVE(nngMsgHeaderClear, "(J)V"),
+    NNG_NATIVE(nngMsgGetPipe, "(J)J"),
+    NNG_NATIVE(nngMsgSetPipe, "(JJ)V"),
+    NNG_NATIVE(nngCtxOpen, "(J)J"),
+    NNG_NATIVE(nngCtxClose, "(J)I"),
+    NNG_NATIVE(nngCtxId, "(J)I"),
+    NNG_NATIVE(nngCtxSendMsg, "(JJ)I"),
+    NNG_NATIVE(nngCtxRecvMsg, "(J)J"),
+    NNG_NATIVE(nngCtxSendAio, "(JJ)V"),
+    NNG_NATIVE(nngCtxRecvAio, "(JJ)V"),
+    NNG_NATIVE(nngCtxSetRecvTimeout, "(JI)I"),
+    NNG_NATIVE(nngCtxSetSendTimeout, "(JI)I"),
+    NNG_NATIVE(nngCtxSetSurveyTime, "(JI)I"),
+    NNG_NATIVE(nngUrlParse, "(Ljava/lang/String;)J"),
+    NNG_NATIVE(nngUrlFree, "(J)V"),
+    NNG_NATIVE(nngUrlScheme, "(J)Ljava/lang/String;"),
+    NNG_NATIVE(nngUrlHost, "(J)Ljava/lang/String;"),
+    NNG_NATIVE(nngUrlPort, "(J)Ljava/lang/String;"),
+    NNG_NATIVE(nngDialerCreate, "(JLjava/lang/String;)J"),
+    NNG_NATIVE(nngListenerCreate, "(JLjava/lang/String;)J"),
+    NNG_NATIVE(nngDialerStart, "(JI)I"),
+    NNG_NATIVE(nngListenerStart, "(JI)I"),
+    NNG_NATIVE(nngDialerClose, "(J)I"),
+    NNG_NATIVE(nngListenerClose, "(J)I"),
+    NNG_NATIVE(nngOptSetBool, "(IJLjava/lang/String;Z)I"),
+    NNG_NATIVE(nngOptSetInt, "(IJLjava/lang/String;I)I"),
+    NNG_NATIVE(nngOptSetMs, "(IJLjava/lang/String;I)I"),
+    NNG_NATIVE(nngOptSetSize, "(IJLjava/lang/String;J)I"),
+    NNG_NATIVE(nngOptSetString, "(IJLjava/lang/String;Ljava/lang/String;)I"),
+    NNG_NATIVE(nngOptGetBool, "(IJLjava/lang/String;)Z"),
+    NNG_NATIVE(nngOptGetInt, "(IJLjava/lang/String;)I"),
+    NNG_NATIVE(nngOptGetMs, "(IJLjava/lang/String;)I"),
+    NNG_NATIVE(nngOptGetSize, "(IJLjava/lang/String;)J"),
+    NNG_NATIVE(nngOptGetString, "(IJLjava/lang/String;)Ljava/lang/String;"),
+    NNG_NATIVE(nngPipeSocket, "(J)J"),
+    NNG_NATIVE(nngPipeDialer, "(J)J"),
+    NNG_NATIVE(nngPipeListener, "(J)J"),
+    NNG_NATIVE(nngPipeGetAddr, "(JLjava/lang/String;)Ljava/lang/String;"),
+    NNG_NATIVE(nngPipeClose, "(J)I"),
+    NNG_NATIVE(nngPollerOpen, "()J"),
+    NNG_NATIVE(nngPollerAdd, "(JJII)I"),
+    NNG_NATIVE(nngPollerRemove, "(JJI)I"),
+    NNG_NATIVE(nngPollerWait, "(J[II)I"),
+    NNG_NATIVE(nngPollerWakeup, "(J)I"),
+    NNG_NATIVE(nngPollerClose, "(J)V"),
+    NNG_NATIVE(nngStatsGet, "()J"),
+    NNG_NATIVE(nngStatsFree, "(J)V"),
+    NNG_NATIVE(nngStatName, "(J)Ljava/lang/String;"),
+    NNG_NATIVE(nngStatValue, "(J)J"),
+    NNG_NATIVE(nngStatNext, "(J)J"),
+};
+
+#undef NNG_NATIVE
+
+static void register_natives(JNIEnv* env) {
+    jclass wrapper_class = env->FindClass("com/nng/android/NngWrapper");
+    if (wrapper_class == nullptr) {
+        env->ExceptionClear();
+        LOGW("NngWrapper class not found, natives resolved by symbol lookup");
+        return;
+    }
+    jint count = (jint)(sizeof(kNngWrapperMethods) / sizeof(kNngWrapperMethods[0]));
+    if (env->RegisterNatives(wrapper_class, kNngWrapperMethods, count) != JNI_OK) {
+        // 例: R8 で未使用の native メソッドが削除されている
+        env->ExceptionClear();
+        LOGW("RegisterNatives failed, natives resolved by symbol lookup");
+    } else {
+        LOGD("Registered %d native methods", (int)count);
+    }
+    env->DeleteLocalRef(wrapper_class);
+}
+
+#ifndef __ANDROID__
+// ホストビルドのみ: システムプロパティ nng.native.log.file があればログをそのファイルへ出す
+static void open_host_log_file(JNIEnv* env) {
+    jclass system = env->FindClass("java/lang/System");
+    jmethodID get_property = env->GetStaticMethodID(system, "getProperty",
+            "(Ljava/lang/String;)Ljava/lang/String;");
+    jstring key = env->NewStringUTF("nng.native.log.file");
+    jstring path = (jstring)env->CallStaticObjectMethod(system, get_property, key);
+    if (path != nullptr) {
+        const char* chars = env->GetStringUTFChars(path, nullptr);
+        g_log_file = fopen(chars, "a");
+        env->ReleaseStringUTFChars(path, chars);
+        env->DeleteLocalRef(path);
+    }
+    env->DeleteLocalRef(key);
+    env->DeleteLocalRef(system);
+}
+#endif
+
+// スタックトレースを持たない例外クラスのグローバル参照と引数なしコンストラクタを取得する
+static jclass stackless_exception(JNIEnv* env, const char* class_name, jmethodID* init) {
+    jclass cls = env->FindClass(class_name);
+    if (cls == nullptr) {
+        return nullptr;
+    }
+    *init = env->GetMethodID(cls, "<init>", "()V");
+    jclass global = *init != nullptr ? (jclass)env->NewGlobalRef(cls) : nullptr;
+    env->DeleteLocalRef(cls);
+    return global;
+}
+
+// 共有される不変の例外インスタンス (static SHARED) を取得する
+// API 23 では SHARED が null のため *shared も null のまま (毎回 Stackless を生成する)
+static bool shared_exception(JNIEnv* env, const char* class_name, const char* signature, jthrowable* shared) {
+    jclass cls = env->FindClass(class_name);
+    if (cls == nullptr) {
+        return false;
+    }
+    jfieldID field = env->GetStaticFieldID(cls, "SHARED", signature);
+    jobject local = field != nullptr ? env->GetStaticObjectField(cls, field) : nullptr;
+    env->DeleteLocalRef(cls);
+    if (field == nullptr || env->ExceptionCheck()) {
+        return false;
+    }
+    if (local != nullptr) {
+        *shared = (jthrowable)env->NewGlobalRef(local);
+        env->DeleteLocalRef(local);
+        return *shared != nullptr;
+    }
+    return true;
+}
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm, void* reserved) {
+    JNIEnv* env;
+    if (vm->GetEnv((void**)&env, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+    g_vm = vm;
+#ifndef __ANDROID__
+    open_host_log_file(env);
+#endif
+    pthread_key_create(&g_detach_key, detach_current_thread);
+    pthread_key_create(&g_sync_aio_key, free_sync_aio);
+
+    jclass aio_class = env->FindClass("com/nng/android/NngAio");
+    if (aio_class == nullptr) {
+        LOGE("NngAio class not found");
+        return JNI_ERR;
+    }
+    g_aio_on_complete = env->GetMethodID(aio_class, "onNativeComplete", "(I)V");
+    env->DeleteLocalRef(aio_class);
+    if (g_aio_on_complete == nullptr) {
+        LOGE("NngAio.onNativeComplete not found");
+        return JNI_ERR;
+    }
+
+    jclass pipe_events_class = env->FindClass("com/nng/android/NngPipeEvents");
+    if (pipe_events_class == nullptr) {
+        LOGE("NngPipeEvents class not found");
+        return JNI_ERR;
+    }
+    g_pipe_on_event = env->GetMethodID(pipe_events_class, "onNativePipeEvent", "(JI)V");
+    env->DeleteLocalRef(pipe_events_class);
+    if (g_pipe_on_event == nullptr) {
+        LOGE("NngPipeEvents.onNativePipeEvent not found");
+        return JNI_ERR;
+    }
+
+    jclass exception_class = env->FindClass("com/nng/android/NngWrapper$NngException");
+    if (exception_class == nullptr) {
+        LOGE("NngWrapper.NngException class not found");
+        return JNI_ERR;
+    }
+    g_exception_class = (jclass)env->NewGlobalRef(exception_class);
+    g_exception_of = env->GetStaticMethodID(exception_class, "of",
+            "(Ljava/lang/String;I)Lcom/nng/android/NngWrapper$NngException;");
+    env->DeleteLocalRef(exception_class);
+    if (g_exception_of == nullptr) {
+        LOGE("NngWrapper.NngException.of not found");
+        return JNI_ERR;
+    }
+
+    g_again_class = stackless_exception(env, "com/nng/android/NngAgainException$Stackless",
+            &g_again_init);
+    g_timeout_class = stackless_exception(env, "com/nng/android/NngTimeoutException$Stackless",
+            &g_timeout_init);
+    if (g_again_class == nullptr || g_timeout_class == nullptr) {
+        LOGE("Stackless exception classes not found");
+        return JNI_ERR;
+    }
+    if (!shared_exception(env, "com/nng/android/NngAgainException",
+                "Lcom/nng/android/NngAgainException;", &g_again_shared)
+            || !shared_exception(env, "com/nng/android/NngTimeoutException",
+                "Lcom/nng/android/NngTimeoutException;", &g_timeout_shared)) {
+        LOGE("Shared exception instances not found");
+        return JNI_ERR;
+    }
+
+    jclass recvbuf_class = env->FindClass("com/nng/android/NngReceiveBuffer");
+    if (recvbuf_class == nullptr) {
+        LOGE("NngReceiveBuffer class not found");
+        return JNI_ERR;
+    }
+    g_recvbuf_data = env->GetFieldID(recvbuf_class, "data", "[B");
+    g_recvbuf_length = env->GetFieldID(recvbuf_class, "length", "I");
+    env->DeleteLocalRef(recvbuf_class);
+    if (g_recvbuf_data == nullptr || g_recvbuf_length == nullptr) {
+        LOGE("NngReceiveBuffer fields not found");
+        return JNI_ERR;
+    }
+
+    jclass batch_class = env->FindClass("com/nng/android/NngReceiveBatch");
+    if (batch_class == nullptr) {
+        LOGE("NngReceiveBatch class not found");
+        return JNI_ERR;
+    }
+    g_batch_data = env->GetFieldID(batch_class, "data", "[B");
+    g_batch_offsets = env->GetFieldID(batch_class, "offsets", "[I");
+    g_batch_count = env->GetFieldID(batch_class, "count", "I");
+    g_batch_carry = env->GetFieldID(batch_class, "carry", "Lcom/nng/android/NngReceiveBatch$Carry;");
+    env->DeleteLocalRef(batch_class);
+    if (g_batch_data == nullptr || g_batch_offsets == nullptr || g_batch_count == nullptr ||
+        g_batch_carry == nullptr) {
+        LOGE("NngReceiveBatch fields not found");
+        return JNI_ERR;
+    }
+
+    jclass carry_class = env->FindClass("com/nng/android/NngReceiveBatch$Carry");
+    if (carry_class == nullptr) {
+        LOGE("NngReceiveBatch.Carry class not found");
+        return JNI_ERR;
+    }
+    g_carry_msg = env->GetFieldID(carry_class, "msg", "J");
+    g_carry_socket = env->GetFieldID(carry_class, "socket", "J");
+    env->DeleteLocalRef(carry_class);
+    if (g_carry_msg == nullptr || g_carry_socket == nullptr) {
+        LOGE("NngReceiveBatch.Carry fields not found");
+        return JNI_ERR;
+    }
+
+    jclass string_class = env->FindClass("java/lang/String");
+    g_string_class = (jclass)env->NewGlobalRef(string_class);
+    env->DeleteLocalRef(string_class);
+
+    jclass stats_class = env->FindClass("com/nng/android/NngStats");
+    if (stats_class == nullptr) {
+        LOGE("NngStats class not found");
+        return JNI_ERR;
+    }
+    g_stats_names = env->GetFieldID(stats_class, "names", "[Ljava/lang/String;");
+    g_stats_strings = env->GetFieldID(stats_class, "strings", "[Ljava/lang/String;");
+    g_stats_values = env->GetFieldID(stats_class, "values", "[J");
+    g_stats_types = env->GetFieldID(stats_class, "types", "[I");
+    g_stats_units = env->GetFieldID(stats_class, "units", "[I");
+    g_stats_parents = env->GetFieldID(stats_class, "parents", "[I");
+    g_stats_timestamp = env->GetFieldID(stats_class, "timestampMs", "J");
+    env->DeleteLocalRef(stats_class);
+    if (g_stats_names == nullptr || g_stats_strings == nullptr || g_stats_values == nullptr ||
+        g_stats_types == nullptr || g_stats_units == nullptr || g_stats_parents == nullptr ||
+        g_stats_timestamp == nullptr) {
+        LOGE("NngStats fields not found");
+        return JNI_ERR;
+    }
+
+    register_natives(env);
+
+    return JNI_VERSION_1_6;
+}
+
+// Java側に NngWrapper.NngException (エラーコードに応じたサブクラス) を送出する
+// （呼び出し後は直ちにreturnすること）
+// EAGAIN / ETIMEDOUT はポーリングで頻発するため、メッセージ文字列とスタックトレースを省く
+// （API 24 以降は不変の共有インスタンスを投げる。API 23 では不変にできないため毎回新しく作る）
+static void throw_stackless(JNIEnv* env, jthrowable shared, jclass cls, jmethodID init) {
+    if (shared != nullptr) {
+        env->Throw(shared);
+        return;
+    }
+    jthrowable ex = (jthrowable)env->NewObject(cls, init);
+    if (ex != nullptr) {
+        env->Throw(ex);
+        env->DeleteLocalRef(ex);
+    }
+}
+
+static void throw_nng_exception(JNIEnv* env, const char* message, int rv) {
+    if (rv == NNG_EAGAIN) {
+        throw_stackless(env, g_again_shared, g_again_class, g_again_init);
+        return;
+    }
+    if (rv == NNG_ETIMEDOUT) {
+        throw_stackless(env, g_timeout_shared, g_timeout_class, g_timeout_init);
+        return;
+    }
+    jstring jmessage = env->NewStringUTF(message);
+    if (jmessage == nullptr) {
+        return;  // OutOfMemoryError pending
+    }
+    jthrowable ex = (jthrowable)env->CallStaticObjectMethod(g_exception_class, g_exception_of, jmessage, (jint)rv);
+    env->DeleteLocalRef(jmessage);
+    if (ex != nullptr) {
+        env->Throw(ex);
+        env->DeleteLocalRef(ex);
+    }
+}
+
 // ============================================================
 // Socket Operations
 // ============================================================
@@ -52,7 +584,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPair0Open
     int rv = nng_pair0_open(&socket);
     if (rv != 0) {
         LOGE("nng_pair0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Pair0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -64,7 +596,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPair1Open
     int rv = nng_pair1_open(&socket);
     if (rv != 0) {
         LOGE("nng_pair1_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Pair1 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -76,7 +608,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngReq0Open
     int rv = nng_req0_open(&socket);
     if (rv != 0) {
         LOGE("nng_req0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Req0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -88,7 +620,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngRep0Open
     int rv = nng_rep0_open(&socket);
     if (rv != 0) {
         LOGE("nng_rep0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Rep0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -100,7 +632,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPub0Open
     int rv = nng_pub0_open(&socket);
     if (rv != 0) {
         LOGE("nng_pub0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Pub0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -112,7 +644,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngSub0Open
     int rv = nng_sub0_open(&socket);
     if (rv != 0) {
         LOGE("nng_sub0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Sub0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -124,7 +656,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPush0Open
     int rv = nng_push0_open(&socket);
     if (rv != 0) {
         LOGE("nng_push0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Push0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -136,7 +668,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPull0Open
     int rv = nng_pull0_open(&socket);
     if (rv != 0) {
         LOGE("nng_pull0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Pull0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -148,7 +680,7 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngBus0Open
     int rv = nng_bus0_open(&socket);
     if (rv != 0) {
         LOGE("nng_bus0_open failed: %s", nng_strerror(rv));
-        return 0;
+        return -rv;
     }
     LOGI("Bus0 socket opened: %u", socket.id);
     return (jlong)socket.id;
@@ -218,7 +750,7 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSend
     free(buffer);
 
     if (rv == 0) {
-        LOGI("Sent %d bytes (flags=%d)", size, flags);
+        LOGD("Sent %d bytes (flags=%d)", size, flags);
     } else if (rv != NNG_EAGAIN) {
         LOGE("nng_send failed: %s", nng_strerror(rv));
     }
@@ -241,10 +773,14 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecv
     int rv = nng_recv(socket, tempBuffer, &received, flags);
 
     if (rv == 0) {
+        // nng_recv はメッセージ本来の長さを返すため、バッファサイズで切り詰める
+        if (received > (size_t)bufferSize) {
+            received = (size_t)bufferSize;
+        }
         // Android推奨: SetByteArrayRegionを使用してJava配列に効率的にコピー
         env->SetByteArrayRegion(buffer, 0, (jsize)received, tempBuffer);
         free(tempBuffer);
-        LOGI("Received %zu bytes (flags=%d)", received, flags);
+        LOGD("Received %zu bytes (flags=%d)", received, flags);
         return (jint)received;
     } else {
         free(tempBuffer);
@@ -255,6 +791,346 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecv
     }
 }
 
+JNIEXPORT jbyteArray JNICALL Java_com_nng_android_NngWrapper_nngRecvAlloc
+  (JNIEnv* env, jobject obj, jlong handle, jint flags) {
+    nng_socket socket = id_to_socket(handle);
+
+    // NNGが確保したメッセージからちょうどのサイズのJava配列を1回だけ作る（一時バッファなし）
+    nng_msg* msg;
+    int rv = nng_recvmsg(socket, &msg, flags);
+    if (rv != 0) {
+        if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+            LOGE("nng_recvmsg failed: %s", nng_strerror(rv));
+        }
+        throw_nng_exception(env, "Failed to receive", rv);
+        return nullptr;
+    }
+
+    size_t len = nng_msg_len(msg);
+    jbyteArray result = env->NewByteArray((jsize)len);
+    if (result != nullptr) {
+        env->SetByteArrayRegion(result, 0, (jsize)len, (const jbyte*)nng_msg_body(msg));
+        LOGD("Received %zu bytes (flags=%d)", len, flags);
+    }
+    nng_msg_free(msg);
+    return result;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvInto
+  (JNIEnv* env, jobject obj, jlong handle, jobject buffer, jint flags) {
+    nng_socket socket = id_to_socket(handle);
+
+    nng_msg* msg;
+    int rv = nng_recvmsg(socket, &msg, flags);
+    if (rv != 0) {
+        if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+            LOGE("nng_recvmsg failed: %s", nng_strerror(rv));
+        }
+        throw_nng_exception(env, "Failed to receive", rv);
+        return -rv;
+    }
+
+    size_t len = nng_msg_len(msg);
+    if (len > (size_t)INT32_MAX) {
+        nng_msg_free(msg);
+        throw_nng_exception(env, "Failed to receive", NNG_EMSGSIZE);
+        return -NNG_EMSGSIZE;
+    }
+
+    // 呼び出し側のバッファを再利用し、足りない場合のみ拡張する
+    jbyteArray data = (jbyteArray)env->GetObjectField(buffer, g_recvbuf_data);
+    jsize capacity = data != nullptr ? env->GetArrayLength(data) : 0;
+    if ((size_t)capacity < len) {
+        size_t grown = (size_t)capacity * 2;
+        if (grown < len) {
+            grown = len;
+        }
+        if (grown > (size_t)INT32_MAX) {
+            grown = (size_t)INT32_MAX;
+        }
+        if (data != nullptr) {
+            env->DeleteLocalRef(data);
+        }
+        data = env->NewByteArray((jsize)grown);
+        if (data == nullptr) {
+            nng_msg_free(msg);
+            return -NNG_ENOMEM;  // OutOfMemoryError pending
+        }
+        env->SetObjectField(buffer, g_recvbuf_data, data);
+    }
+
+    env->SetByteArrayRegion(data, 0, (jsize)len, (const jbyte*)nng_msg_body(msg));
+    env->SetIntField(buffer, g_recvbuf_length, (jint)len);
+    env->DeleteLocalRef(data);
+    nng_msg_free(msg);
+
+    LOGD("Received %zu bytes into reusable buffer (flags=%d)", len, flags);
+    return (jint)len;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendBatch
+  (JNIEnv* env, jobject obj, jlong handle, jobjectArray msgs, jint flags) {
+    nng_socket socket = id_to_socket(handle);
+    jsize count = env->GetArrayLength(msgs);
+
+    // 1回のJNI呼び出しで複数メッセージを送信する
+    // 各配列はnng_msgの本文へ直接コピーする（一時バッファなし）
+    jsize sent = 0;
+    int rv = 0;
+    for (; sent < count; sent++) {
+        jbyteArray data = (jbyteArray)env->GetObjectArrayElement(msgs, sent);
+        if (data == nullptr) {
+            rv = NNG_EINVAL;
+            break;
+        }
+        jsize len = env->GetArrayLength(data);
+
+        nng_msg* msg;
+        rv = nng_msg_alloc(&msg, (size_t)len);
+        if (rv == 0) {
+            env->GetByteArrayRegion(data, 0, len, (jbyte*)nng_msg_body(msg));
+            rv = nng_sendmsg(socket, msg, flags);
+            if (rv != 0) {
+                nng_msg_free(msg);
+            }
+        }
+        env->DeleteLocalRef(data);
+        if (rv != 0) {
+            break;
+        }
+    }
+
+    if (rv != 0 && rv != NNG_EAGAIN) {
+        LOGE("nng_sendmsg failed in batch after %d messages: %s", sent, nng_strerror(rv));
+    }
+    LOGD("Sent batch of %d/%d messages (flags=%d)", sent, count, flags);
+
+    if (sent == 0 && rv != 0) {
+        return -rv;
+    }
+    return sent;
+}
+
+// バッチの配列を拡張できずに入りきらなかったメッセージは NngReceiveBatch.carry に預け、
+// 同じソケットへの次の nngRecvBatch (どのスレッドからでもよい) で先頭に返す。
+// バッチの close() または GC 時に解放される
+static void carry_over(JNIEnv* env, jobject carry, jlong handle, nng_msg* msg) {
+    env->SetLongField(carry, g_carry_msg, (jlong)(uintptr_t)msg);
+    env->SetLongField(carry, g_carry_socket, handle);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvBatch
+  (JNIEnv* env, jobject obj, jlong handle, jobject batch, jint max, jint timeout_ms) {
+    nng_socket socket = id_to_socket(handle);
+    env->SetIntField(batch, g_batch_count, 0);
+    if (max <= 0) {
+        return 0;
+    }
+
+    // 前回持ち越したメッセージがあれば待たずにそれを先頭にする
+    jobject carry = env->GetObjectField(batch, g_batch_carry);
+    nng_msg* first = (nng_msg*)(uintptr_t)env->GetLongField(carry, g_carry_msg);
+    if (first != nullptr) {
+        jlong carried_from = env->GetLongField(carry, g_carry_socket);
+        if (carried_from != handle) {
+            // 別のソケットのメッセージを混ぜない。持ち越しは残したまま失敗させる
+            LOGE("Batch holds a message from socket %lld", (long long)carried_from);
+            env->DeleteLocalRef(carry);
+            return -NNG_ESTATE;
+        }
+        env->SetLongField(carry, g_carry_msg, 0);
+    }
+    int rv = 0;
+    if (first == nullptr && timeout_ms == 0) {
+        rv = nng_recvmsg(socket, &first, NNG_FLAG_NONBLOCK);
+    } else if (first == nullptr) {
+        // 最初の1件はタイムアウト付きで待つ
+        nng_aio* aio = thread_sync_aio();
+        if (aio == nullptr) {
+            env->DeleteLocalRef(carry);
+            return -NNG_ENOMEM;
+        }
+        nng_aio_set_timeout(aio, (nng_duration)timeout_ms);
+        nng_recv_aio(socket, aio);
+        nng_aio_wait(aio);
+        rv = nng_aio_result(aio);
+        if (rv == 0) {
+            first = nng_aio_get_msg(aio);
+            nng_aio_set_msg(aio, nullptr);
+        }
+    }
+    if (rv != 0) {
+        env->DeleteLocalRef(carry);
+        if (rv == NNG_EAGAIN || rv == NNG_ETIMEDOUT) {
+            return 0;
+        }
+        LOGE("nng_recvmsg failed: %s", nng_strerror(rv));
+        return -rv;
+    }
+
+    // 呼び出し側の配列を再利用する
+    jbyteArray data = (jbyteArray)env->GetObjectField(batch, g_batch_data);
+    jintArray offsets = (jintArray)env->GetObjectField(batch, g_batch_offsets);
+    size_t capacity = data != nullptr ? (size_t)env->GetArrayLength(data) : 0;
+    jint slots = offsets != nullptr ? env->GetArrayLength(offsets) - 1 : 0;
+    if (slots < max) {
+        // 枠はメッセージを取り出す前に広げておく (失敗しても今ある枠で続ける)
+        jint wanted = std::min(max, std::max(slots * 2, (jint)64));
+        jintArray grown = env->NewIntArray(wanted + 1);
+        if (grown != nullptr) {
+            env->SetObjectField(batch, g_batch_offsets, grown);
+            if (offsets != nullptr) {
+                env->DeleteLocalRef(offsets);
+            }
+            offsets = grown;
+            slots = wanted;
+        } else {
+            env->ExceptionClear();
+        }
+    }
+
+    // 残りはキューにあるものだけを待たずに取り出す。
+    // 取り出したメッセージを失わないよう、既存の配列に収まる間だけ取り出す
+    // (配列を拡張するのは最後の1件がはみ出した場合のみ)
+    std::vector<nng_msg*> msgs;
+    msgs.reserve(max < 64 ? (size_t)max : 64);
+    msgs.push_back(first);
+    size_t total = nng_msg_len(first);
+    while ((jint)msgs.size() < max && (jint)msgs.size() < slots && total < capacity) {
+        nng_msg* msg;
+        if (nng_recvmsg(socket, &msg, NNG_FLAG_NONBLOCK) != 0) {
+            break;
+        }
+        msgs.push_back(msg);
+        total += nng_msg_len(msg);
+    }
+
+    jint result = 0;
+    if (total > capacity) {
+        nng_msg* last = msgs.back();
+        jbyteArray grown = nullptr;
+        if (total <= (size_t)INT32_MAX) {
+            // 次回以降の拡張を減らすため倍に広げ、無理なら必要な分だけ確保する
+            size_t doubled = std::min(capacity * 2, (size_t)INT32_MAX);
+            grown = env->NewByteArray((jsize)std::max(total, doubled));
+            if (grown == nullptr) {
+                env->ExceptionClear();
+                grown = env->NewByteArray((jsize)total);
+            }
+            if (grown == nullptr) {
+                env->ExceptionClear();
+            }
+        }
+        if (grown != nullptr) {
+            env->SetObjectField(batch, g_batch_data, grown);
+            if (data != nullptr) {
+                env->DeleteLocalRef(data);
+            }
+            data = grown;
+        } else if (msgs.size() > 1) {
+            // はみ出した1件は持ち越し、既存の配列に収まる分だけを返す
+            total -= nng_msg_len(last);
+            msgs.pop_back();
+            carry_over(env, carry, handle, last);
+        } else if (total > (size_t)INT32_MAX) {
+            LOGE("Message of %zu bytes does not fit in a batch", total);
+            result = -NNG_EMSGSIZE;
+            goto done;
+        } else {
+            LOGE("Out of memory for a %zu byte batch; message kept for the next call", total);
+            msgs.pop_back();
+            carry_over(env, carry, handle, last);
+            result = -NNG_ENOMEM;
+            goto done;
+        }
+    }
+    if ((jint)msgs.size() > slots) {
+        // 枠を広げられず、1件目も入らない場合
+        LOGE("Out of memory for batch offsets; message kept for the next call");
+        carry_over(env, carry, handle, msgs.back());
+        msgs.pop_back();
+        result = -NNG_ENOMEM;
+        goto done;
+    }
+
+    {
+        jint count = (jint)msgs.size();
+        jint* offs = env->GetIntArrayElements(offsets, nullptr);
+        jint pos = 0;
+        for (jint i = 0; i < count; i++) {
+            jint len = (jint)nng_msg_len(msgs[i]);
+            offs[i] = pos;
+            env->SetByteArrayRegion(data, pos, len, (const jbyte*)nng_msg_body(msgs[i]));
+            pos += len;
+        }
+        offs[count] = pos;
+        env->ReleaseIntArrayElements(offsets, offs, 0);
+        env->SetIntField(batch, g_batch_count, count);
+        result = count;
+        LOGD("Received batch of %d messages, %zu bytes", count, total);
+    }
+
+done:
+    for (nng_msg* msg : msgs) {
+        nng_msg_free(msg);
+    }
+    env->DeleteLocalRef(carry);
+    if (data != nullptr) {
+        env->DeleteLocalRef(data);
+    }
+    if (offsets != nullptr) {
+        env->DeleteLocalRef(offsets);
+    }
+    return result;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendDirect
+  (JNIEnv* env, jobject obj, jlong handle, jobject buffer, jint offset, jint length, jint flags) {
+    nng_socket socket = id_to_socket(handle);
+
+    // ダイレクトバッファのネイティブメモリをそのままNNGに渡す（malloc・中間コピーなし）
+    jbyte* base = (jbyte*)env->GetDirectBufferAddress(buffer);
+    if (base == nullptr) {
+        LOGE("nng_send: Buffer is not a direct buffer");
+        return NNG_EINVAL;
+    }
+
+    int rv = nng_send(socket, base + offset, (size_t)length, flags);
+
+    if (rv == 0) {
+        LOGD("Sent %d bytes from direct buffer (flags=%d)", length, flags);
+    } else if (rv != NNG_EAGAIN) {
+        LOGE("nng_send failed: %s", nng_strerror(rv));
+    }
+
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvDirect
+  (JNIEnv* env, jobject obj, jlong handle, jobject buffer, jint offset, jint length, jint flags) {
+    nng_socket socket = id_to_socket(handle);
+
+    jbyte* base = (jbyte*)env->GetDirectBufferAddress(buffer);
+    if (base == nullptr) {
+        LOGE("nng_recv: Buffer is not a direct buffer");
+        return -NNG_EINVAL;
+    }
+
+    // NNGからダイレクトバッファへ直接コピー（コピーは1回のみ）
+    // nng_recv は受信サイズにメッセージ本来の長さを返す（切り詰め検出用）
+    size_t received = (size_t)length;
+    int rv = nng_recv(socket, base + offset, &received, flags);
+
+    if (rv == 0) {
+        LOGD("Received %zu bytes into direct buffer (flags=%d)", received, flags);
+        return (jint)received;
+    }
+    if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+        LOGE("nng_recv failed: %s", nng_strerror(rv));
+    }
+    return -rv;  // Return negative error code
+}
+
 // ============================================================
 // Options
 // ============================================================
@@ -367,13 +1243,22 @@ JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngVersion
     return env->NewStringUTF(version);
 }
 
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_setNativeLogLevel
+  (JNIEnv* env, jclass clazz, jint level) {
+    g_log_level.store(level, std::memory_order_relaxed);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_getNativeLogLevel
+  (JNIEnv* env, jclass clazz) {
+    return g_log_level.load(std::memory_order_relaxed);
+}
+
 // ============================================================
 // Survey Protocol Operations
 // ============================================================
 
 JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngSurveyor0Open
   (JNIEnv* env, jobject obj) {
-#ifdef NNG_HAVE_SURVEYOR0
     nng_socket socket;
     int rv = nng_surveyor0_open(&socket);
     if (rv != 0) {
@@ -382,15 +1267,10 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngSurveyor0Open
     }
     LOGI("nng_surveyor0_open successful, socket ID: %u", socket.id);
     return (jlong)socket.id;
-#else
-    LOGE("Survey protocol not supported in this NNG version");
-    return -NNG_ENOTSUP;
-#endif
 }
 
 JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngRespondent0Open
   (JNIEnv* env, jobject obj) {
-#ifdef NNG_HAVE_RESPONDENT0
     nng_socket socket;
     int rv = nng_respondent0_open(&socket);
     if (rv != 0) {
@@ -399,10 +1279,16 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngRespondent0Open
     }
     LOGI("nng_respondent0_open successful, socket ID: %u", socket.id);
     return (jlong)socket.id;
-#else
-    LOGE("Survey protocol not supported in this NNG version");
-    return -NNG_ENOTSUP;
-#endif
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSetSurveyTime
+  (JNIEnv* env, jobject obj, jlong handle, jint ms) {
+    nng_socket socket = id_to_socket(handle);
+    int rv = nng_socket_set_ms(socket, NNG_OPT_SURVEYOR_SURVEYTIME, (nng_duration)ms);
+    if (rv != 0) {
+        LOGE("nng_socket_set_ms(SURVEYTIME) failed: %s", nng_strerror(rv));
+    }
+    return rv;
 }
 
 // ============================================================
@@ -441,7 +1327,7 @@ JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngSocketSendAio
     }
     
     nng_sock_send(socket, aio);
-    LOGI("nng_socket_send_aio initiated");
+    LOGD("nng_socket_send_aio initiated");
 }
 
 JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngSocketRecvAio
@@ -455,7 +1341,7 @@ JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngSocketRecvAio
     }
     
     nng_sock_recv(socket, aio);
-    LOGI("nng_socket_recv_aio initiated");
+    LOGD("nng_socket_recv_aio initiated");
 }
 
 JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngAioResult
@@ -468,7 +1354,7 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngAioResult
     }
     
     int result = nng_aio_result(aio);
-    LOGI("nng_aio_result: %d", result);
+    LOGD("nng_aio_result: %d", result);
     return result;
 }
 
@@ -482,22 +1368,200 @@ JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioWait
     }
     
     nng_aio_wait(aio);
-    LOGI("nng_aio_wait completed");
+    LOGD("nng_aio_wait completed");
 }
 
-// ============================================================
-// Message Operations
-// ============================================================
-
-JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngMsgAlloc
-  (JNIEnv* env, jobject obj, jint size) {
-    nng_msg* msg;
-    int rv = nng_msg_alloc(&msg, (size_t)size);
-    if (rv != 0) {
-        LOGE("nng_msg_alloc failed: %s", nng_strerror(rv));
-        return -rv;
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioSetTimeout
+  (JNIEnv* env, jobject obj, jlong aio_ptr, jint ms) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio != NULL) {
+        nng_aio_set_timeout(aio, (nng_duration)ms);
     }
-    LOGI("nng_msg_alloc successful, msg: %p, size: %d", msg, size);
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioCancel
+  (JNIEnv* env, jobject obj, jlong aio_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio != NULL) {
+        nng_aio_cancel(aio);
+    }
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioStop
+  (JNIEnv* env, jobject obj, jlong aio_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio != NULL) {
+        nng_aio_stop(aio);
+    }
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioSetMsg
+  (JNIEnv* env, jobject obj, jlong aio_ptr, jlong msg_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio != NULL) {
+        nng_aio_set_msg(aio, (nng_msg*)(uintptr_t)msg_ptr);
+    }
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioGetMsg
+  (JNIEnv* env, jobject obj, jlong aio_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio == NULL) {
+        return 0;
+    }
+    return (jlong)(uintptr_t)nng_aio_get_msg(aio);
+}
+
+// ============================================================
+// Callback AIO (completion delivered to com.nng.android.NngAio)
+// ============================================================
+
+static const int kNoDroppedResult = -1;
+
+struct jni_aio {
+    nng_aio* aio;
+    jobject  target;            // NngAio (global reference)
+    std::atomic<int> dropped;   // Java に届けられなかった完了の結果 (なければ kNoDroppedResult)
+};
+
+// NNGワーカースレッド上で呼ばれる。Java側はExecutorへ投げるだけなので短時間で戻る
+static void jni_aio_callback(void* arg) {
+    jni_aio* ja = (jni_aio*)arg;
+    JNIEnv* env = callback_env();
+    if (env == nullptr) {
+        // 結果を残しておき、Java 側が次に AIO を触ったときに操作を失敗させる
+        int rv = nng_aio_result(ja->aio);
+        LOGE("AIO %p: completion (%s) dropped, thread could not be attached", ja->aio, nng_strerror(rv));
+        ja->dropped.store(rv);
+        return;
+    }
+    env->CallVoidMethod(ja->target, g_aio_on_complete, (jint)nng_aio_result(ja->aio));
+    if (env->ExceptionCheck()) {
+        env->ExceptionDescribe();
+        env->ExceptionClear();
+    }
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackAlloc
+  (JNIEnv* env, jobject obj, jobject target) {
+    jni_aio* ja = new (std::nothrow) jni_aio();
+    if (ja == nullptr) {
+        LOGE("nng_aio_alloc: Failed to allocate callback state");
+        return -NNG_ENOMEM;
+    }
+    ja->target = env->NewGlobalRef(target);
+    ja->dropped.store(kNoDroppedResult);
+
+    int rv = nng_aio_alloc(&ja->aio, jni_aio_callback, ja);
+    if (rv != 0) {
+        LOGE("nng_aio_alloc failed: %s", nng_strerror(rv));
+        env->DeleteGlobalRef(ja->target);
+        delete ja;
+        return -rv;
+    }
+    LOGI("nng_aio_alloc with callback successful, aio: %p", ja->aio);
+    return (jlong)(uintptr_t)ja;
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackAio
+  (JNIEnv* env, jobject obj, jlong handle) {
+    jni_aio* ja = (jni_aio*)(uintptr_t)handle;
+    if (ja == NULL) {
+        return 0;
+    }
+    return (jlong)(uintptr_t)ja->aio;
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackFree
+  (JNIEnv* env, jobject obj, jlong handle) {
+    jni_aio* ja = (jni_aio*)(uintptr_t)handle;
+    if (ja == NULL) {
+        return;
+    }
+    // nng_aio_free は実行中のコールバック完了を待ってから解放する
+    nng_aio_free(ja->aio);
+    env->DeleteGlobalRef(ja->target);
+    delete ja;
+    LOGI("nng_aio_free with callback completed");
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackDropped
+  (JNIEnv* env, jobject obj, jlong handle) {
+    jni_aio* ja = (jni_aio*)(uintptr_t)handle;
+    if (ja == NULL) {
+        return kNoDroppedResult;
+    }
+    return ja->dropped.exchange(kNoDroppedResult);
+}
+
+// ============================================================
+// Pipe Notifications (delivered to com.nng.android.NngPipeEvents)
+// ============================================================
+
+static const nng_pipe_ev kPipeEvents[] = {
+    NNG_PIPE_EV_ADD_PRE, NNG_PIPE_EV_ADD_POST, NNG_PIPE_EV_REM_POST,
+};
+
+// NNGのパイプ処理スレッド上で呼ばれる。ADD_PRE の間は接続確立が止まるので短時間で戻ること
+static void jni_pipe_callback(nng_pipe pipe, nng_pipe_ev ev, void* arg) {
+    jobject target = (jobject)arg;
+    JNIEnv* env = callback_env();
+    if (env == nullptr) {
+        return;
+    }
+    env->CallVoidMethod(target, g_pipe_on_event, (jlong)pipe.id, (jint)ev);
+    if (env->ExceptionCheck()) {
+        env->ExceptionDescribe();
+        env->ExceptionClear();
+    }
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeNotifyAlloc
+  (JNIEnv* env, jobject obj, jlong socket_id, jobject target) {
+    nng_socket socket = id_to_socket(socket_id);
+    jobject ref = env->NewGlobalRef(target);
+    if (ref == nullptr) {
+        return -NNG_ENOMEM;
+    }
+    for (size_t i = 0; i < sizeof(kPipeEvents) / sizeof(kPipeEvents[0]); i++) {
+        int rv = nng_pipe_notify(socket, kPipeEvents[i], jni_pipe_callback, ref);
+        if (rv != 0) {
+            LOGE("nng_pipe_notify failed: %s", nng_strerror(rv));
+            for (size_t j = 0; j < i; j++) {
+                nng_pipe_notify(socket, kPipeEvents[j], NULL, NULL);
+            }
+            env->DeleteGlobalRef(ref);
+            return -rv;
+        }
+    }
+    LOGI("nng_pipe_notify registered on socket %u", socket.id);
+    return (jlong)(uintptr_t)ref;
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngPipeNotifyFree
+  (JNIEnv* env, jobject obj, jlong handle) {
+    jobject ref = (jobject)(uintptr_t)handle;
+    if (ref == nullptr) {
+        return;
+    }
+    // nng_close はパイプの REM_POST 通知を済ませてから戻るので、
+    // ソケットを閉じた後であればコールバックと競合しない
+    env->DeleteGlobalRef(ref);
+}
+
+// ============================================================
+// Message Operations
+// ============================================================
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngMsgAlloc
+  (JNIEnv* env, jobject obj, jint size) {
+    nng_msg* msg;
+    int rv = nng_msg_alloc(&msg, (size_t)size);
+    if (rv != 0) {
+        LOGE("nng_msg_alloc failed: %s", nng_strerror(rv));
+        return -rv;
+    }
+    LOGD("nng_msg_alloc successful, msg: %p, size: %d", msg, size);
     return (jlong)(uintptr_t)msg;
 }
 
@@ -506,7 +1570,7 @@ JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgFree
     nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
     if (msg != NULL) {
         nng_msg_free(msg);
-        LOGI("nng_msg_free completed");
+        LOGD("nng_msg_free completed");
     }
 }
 
@@ -531,7 +1595,7 @@ JNIEXPORT jbyteArray JNICALL Java_com_nng_android_NngWrapper_nngMsgBody
         env->SetByteArrayRegion(result, 0, (jsize)len, (const jbyte*)body);
     }
     
-    LOGI("nng_msg_body returned %zu bytes", len);
+    LOGD("nng_msg_body returned %zu bytes", len);
     return result;
 }
 
@@ -545,7 +1609,7 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgLen
     }
     
     size_t len = nng_msg_len(msg);
-    LOGI("nng_msg_len: %zu", len);
+    LOGD("nng_msg_len: %zu", len);
     return (jint)len;
 }
 
@@ -561,9 +1625,11 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendMsg
     
     int rv = nng_sendmsg(socket, msg, flags);
     if (rv != 0) {
-        LOGE("nng_sendmsg failed: %s", nng_strerror(rv));
+        if (rv != NNG_EAGAIN) {
+            LOGE("nng_sendmsg failed: %s", nng_strerror(rv));
+        }
     } else {
-        LOGI("nng_sendmsg successful");
+        LOGD("nng_sendmsg successful");
     }
     
     return rv;
@@ -576,14 +1642,356 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngRecvMsg
     
     int rv = nng_recvmsg(socket, &msg, flags);
     if (rv != 0) {
-        LOGE("nng_recvmsg failed: %s", nng_strerror(rv));
+        if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+            LOGE("nng_recvmsg failed: %s", nng_strerror(rv));
+        }
         return -rv;
     }
     
-    LOGI("nng_recvmsg successful, msg: %p", msg);
+    LOGD("nng_recvmsg successful, msg: %p", msg);
+    return (jlong)(uintptr_t)msg;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgRealloc
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jint size) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL || size < 0) {
+        return NNG_EINVAL;
+    }
+    // クリア済みメッセージの容量内であれば再確保は発生しない
+    return nng_msg_realloc(msg, (size_t)size);
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgClear
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg != NULL) {
+        nng_msg_clear(msg);
+    }
+}
+
+// data[offset, offset + length) が配列内に収まるか確認する
+// 範囲外なら ArrayIndexOutOfBoundsException (null なら NullPointerException) を保留して false を返す
+static bool check_array_range(JNIEnv* env, jbyteArray data, jint offset, jint length) {
+    if (data == nullptr) {
+        jclass npe = env->FindClass("java/lang/NullPointerException");
+        if (npe != nullptr) {
+            env->ThrowNew(npe, "data == null");
+            env->DeleteLocalRef(npe);
+        }
+        return false;
+    }
+    jsize array_len = env->GetArrayLength(data);
+    if (offset < 0 || length < 0 || offset > array_len - length) {
+        char message[96];
+        snprintf(message, sizeof(message), "offset=%d, length=%d, array length=%d",
+                 (int)offset, (int)length, (int)array_len);
+        jclass aioobe = env->FindClass("java/lang/ArrayIndexOutOfBoundsException");
+        if (aioobe != nullptr) {
+            env->ThrowNew(aioobe, message);
+            env->DeleteLocalRef(aioobe);
+        }
+        return false;
+    }
+    return true;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgAppend
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jbyteArray data, jint offset, jint length) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        return NNG_EINVAL;
+    }
+    if (!check_array_range(env, data, offset, length)) {
+        return NNG_EINVAL;
+    }
+
+    // 本文を拡張し、Java配列から直接コピーする（一時バッファなし）
+    size_t old_len = nng_msg_len(msg);
+    int rv = nng_msg_realloc(msg, old_len + (size_t)length);
+    if (rv != 0) {
+        return rv;
+    }
+    env->GetByteArrayRegion(data, offset, length, (jbyte*)nng_msg_body(msg) + old_len);
+    if (env->ExceptionCheck()) {
+        // コピーに失敗した場合は伸ばした分を戻し、保留中の例外をそのまま Java へ返す
+        nng_msg_chop(msg, (size_t)length);
+        return NNG_EINVAL;
+    }
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgInsert
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jbyteArray data, jint offset, jint length) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        return NNG_EINVAL;
+    }
+    // 固定した配列を直接読むため、範囲外読み出しにならないよう先に確認する
+    if (!check_array_range(env, data, offset, length)) {
+        return NNG_EINVAL;
+    }
+
+    jbyte* bytes = (jbyte*)env->GetPrimitiveArrayCritical(data, nullptr);
+    if (bytes == nullptr) {
+        return NNG_ENOMEM;
+    }
+    int rv = nng_msg_insert(msg, bytes + offset, (size_t)length);
+    env->ReleasePrimitiveArrayCritical(data, bytes, JNI_ABORT);
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgTrim
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jint size) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL || size < 0) {
+        return NNG_EINVAL;
+    }
+    return nng_msg_trim(msg, (size_t)size);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgChop
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jint size) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL || size < 0) {
+        return NNG_EINVAL;
+    }
+    return nng_msg_chop(msg, (size_t)size);
+}
+
+JNIEXPORT jobject JNICALL Java_com_nng_android_NngWrapper_nngMsgBodyBuffer
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    static char empty_body;
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+
+    if (msg == NULL) {
+        LOGE("Invalid message pointer");
+        return NULL;
+    }
+
+    // 本文のネイティブメモリをそのまま参照するダイレクトバッファ（コピーなし）
+    void* body = nng_msg_body(msg);
+    size_t len = nng_msg_len(msg);
+    if (body == NULL) {
+        body = &empty_body;
+        len = 0;
+    }
+    return env->NewDirectByteBuffer(body, (jlong)len);
+}
+
+JNIEXPORT jbyteArray JNICALL Java_com_nng_android_NngWrapper_nngMsgHeader
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+
+    if (msg == NULL) {
+        LOGE("Invalid message pointer");
+        return NULL;
+    }
+
+    size_t len = nng_msg_header_len(msg);
+    jbyteArray result = env->NewByteArray((jsize)len);
+    if (result != NULL && len > 0) {
+        env->SetByteArrayRegion(result, 0, (jsize)len, (const jbyte*)nng_msg_header(msg));
+    }
+    return result;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderLen
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        return 0;
+    }
+    return (jint)nng_msg_header_len(msg);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderAppend
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jbyteArray data, jint offset, jint length) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        return NNG_EINVAL;
+    }
+    // 固定した配列を直接読むため、範囲外読み出しにならないよう先に確認する
+    if (!check_array_range(env, data, offset, length)) {
+        return NNG_EINVAL;
+    }
+
+    jbyte* bytes = (jbyte*)env->GetPrimitiveArrayCritical(data, nullptr);
+    if (bytes == nullptr) {
+        return NNG_ENOMEM;
+    }
+    int rv = nng_msg_header_append(msg, bytes + offset, (size_t)length);
+    env->ReleasePrimitiveArrayCritical(data, bytes, JNI_ABORT);
+    return rv;
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderClear
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg != NULL) {
+        nng_msg_header_clear(msg);
+    }
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngMsgGetPipe
+  (JNIEnv* env, jobject obj, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        return -1;
+    }
+    return (jlong)nng_pipe_id(nng_msg_get_pipe(msg));
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgSetPipe
+  (JNIEnv* env, jobject obj, jlong msg_ptr, jlong pipe_id) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg != NULL) {
+        nng_pipe pipe;
+        pipe.id = (uint32_t)pipe_id;
+        nng_msg_set_pipe(msg, pipe);
+    }
+}
+
+// ============================================================
+// Context Operations
+// ============================================================
+
+static inline nng_ctx id_to_ctx(jlong id) {
+    nng_ctx c;
+    c.id = (uint32_t)id;
+    return c;
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngCtxOpen
+  (JNIEnv* env, jobject obj, jlong socket_id) {
+    nng_socket socket = id_to_socket(socket_id);
+    nng_ctx ctx;
+    int rv = nng_ctx_open(&ctx, socket);
+    if (rv != 0) {
+        LOGE("nng_ctx_open failed: %s", nng_strerror(rv));
+        return -rv;
+    }
+    LOGI("Context opened: %u (socket %u)", ctx.id, socket.id);
+    return (jlong)ctx.id;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxClose
+  (JNIEnv* env, jobject obj, jlong ctx_id) {
+    nng_ctx ctx = id_to_ctx(ctx_id);
+    int rv = nng_ctx_close(ctx);
+    if (rv == 0) {
+        LOGI("Context closed: %u", ctx.id);
+    } else {
+        LOGE("nng_ctx_close failed: %s", nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxId
+  (JNIEnv* env, jobject obj, jlong ctx_id) {
+    return nng_ctx_id(id_to_ctx(ctx_id));
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSendMsg
+  (JNIEnv* env, jobject obj, jlong ctx_id, jlong msg_ptr) {
+    nng_msg* msg = (nng_msg*)(uintptr_t)msg_ptr;
+    if (msg == NULL) {
+        LOGE("Invalid message pointer");
+        return NNG_EINVAL;
+    }
+    nng_aio* aio = thread_sync_aio();
+    if (aio == nullptr) {
+        return NNG_ENOMEM;
+    }
+
+    // コンテキストの送信タイムアウトに従う
+    nng_aio_set_timeout(aio, NNG_DURATION_DEFAULT);
+    nng_aio_set_msg(aio, msg);
+    nng_ctx_send(id_to_ctx(ctx_id), aio);
+    nng_aio_wait(aio);
+
+    int rv = nng_aio_result(aio);
+    if (rv != 0) {
+        // 失敗時はメッセージの所有権は呼び出し側に残る
+        nng_aio_set_msg(aio, nullptr);
+        if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+            LOGE("nng_ctx_send failed: %s", nng_strerror(rv));
+        }
+    }
+    return rv;
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngCtxRecvMsg
+  (JNIEnv* env, jobject obj, jlong ctx_id) {
+    nng_aio* aio = thread_sync_aio();
+    if (aio == nullptr) {
+        return -NNG_ENOMEM;
+    }
+
+    // コンテキストの受信タイムアウトに従う
+    nng_aio_set_timeout(aio, NNG_DURATION_DEFAULT);
+    nng_ctx_recv(id_to_ctx(ctx_id), aio);
+    nng_aio_wait(aio);
+
+    int rv = nng_aio_result(aio);
+    if (rv != 0) {
+        if (rv != NNG_EAGAIN && rv != NNG_ETIMEDOUT) {
+            LOGE("nng_ctx_recv failed: %s", nng_strerror(rv));
+        }
+        return -rv;
+    }
+    nng_msg* msg = nng_aio_get_msg(aio);
+    nng_aio_set_msg(aio, nullptr);
     return (jlong)(uintptr_t)msg;
 }
 
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngCtxSendAio
+  (JNIEnv* env, jobject obj, jlong ctx_id, jlong aio_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio == NULL) {
+        LOGE("Invalid AIO pointer");
+        return;
+    }
+    nng_ctx_send(id_to_ctx(ctx_id), aio);
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngCtxRecvAio
+  (JNIEnv* env, jobject obj, jlong ctx_id, jlong aio_ptr) {
+    nng_aio* aio = (nng_aio*)(uintptr_t)aio_ptr;
+    if (aio == NULL) {
+        LOGE("Invalid AIO pointer");
+        return;
+    }
+    nng_ctx_recv(id_to_ctx(ctx_id), aio);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetRecvTimeout
+  (JNIEnv* env, jobject obj, jlong ctx_id, jint ms) {
+    int rv = nng_ctx_set_ms(id_to_ctx(ctx_id), NNG_OPT_RECVTIMEO, (nng_duration)ms);
+    if (rv != 0) {
+        LOGE("nng_ctx_set_ms(RECVTIMEO) failed: %s", nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetSendTimeout
+  (JNIEnv* env, jobject obj, jlong ctx_id, jint ms) {
+    int rv = nng_ctx_set_ms(id_to_ctx(ctx_id), NNG_OPT_SENDTIMEO, (nng_duration)ms);
+    if (rv != 0) {
+        LOGE("nng_ctx_set_ms(SENDTIMEO) failed: %s", nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetSurveyTime
+  (JNIEnv* env, jobject obj, jlong ctx_id, jint ms) {
+    int rv = nng_ctx_set_ms(id_to_ctx(ctx_id), NNG_OPT_SURVEYOR_SURVEYTIME, (nng_duration)ms);
+    if (rv != 0) {
+        LOGE("nng_ctx_set_ms(SURVEYTIME) failed: %s", nng_strerror(rv));
+    }
+    return rv;
+}
+
 // ============================================================
 // URL Operations
 // ============================================================
@@ -779,6 +2187,529 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngListenerClose
     return rv;
 }
 
+// ============================================================
+// Typed Options (socket / dialer / listener / pipe)
+// ============================================================
+// target は NngWrapper.NNG_OPT_TARGET_* と一致させること
+enum {
+    OPT_TARGET_SOCKET = 0,
+    OPT_TARGET_DIALER = 1,
+    OPT_TARGET_LISTENER = 2,
+    OPT_TARGET_PIPE = 3,
+};
+
+static inline nng_dialer id_to_dialer(jlong id) {
+    nng_dialer d;
+    d.id = (uint32_t)id;
+    return d;
+}
+
+static inline nng_listener id_to_listener(jlong id) {
+    nng_listener l;
+    l.id = (uint32_t)id;
+    return l;
+}
+
+static inline nng_pipe id_to_pipe(jlong id) {
+    nng_pipe p;
+    p.id = (uint32_t)id;
+    return p;
+}
+
+// 対象の種類ごとに nng_<socket|dialer|listener>_set_<type> を呼び分ける
+// パイプのオプションは読み取り専用
+#define NNG_OPT_SET(type, target, id, name, value)                                              \
+    ((target) == OPT_TARGET_SOCKET   ? nng_socket_set_##type(id_to_socket(id), name, value)     : \
+     (target) == OPT_TARGET_DIALER   ? nng_dialer_set_##type(id_to_dialer(id), name, value)     : \
+     (target) == OPT_TARGET_LISTENER ? nng_listener_set_##type(id_to_listener(id), name, value) : \
+     (target) == OPT_TARGET_PIPE     ? NNG_EREADONLY : NNG_EINVAL)
+
+#define NNG_OPT_GET(type, target, id, name, out)                                                \
+    ((target) == OPT_TARGET_SOCKET   ? nng_socket_get_##type(id_to_socket(id), name, out)       : \
+     (target) == OPT_TARGET_DIALER   ? nng_dialer_get_##type(id_to_dialer(id), name, out)       : \
+     (target) == OPT_TARGET_LISTENER ? nng_listener_get_##type(id_to_listener(id), name, out)   : \
+     (target) == OPT_TARGET_PIPE     ? nng_pipe_get_##type(id_to_pipe(id), name, out) : NNG_EINVAL)
+
+// オプション名 (jstring) をスコープ内だけ借用する
+// name が null、または変換に失敗した場合 c_str() は nullptr
+class OptionName {
+public:
+    OptionName(JNIEnv* env, jstring name) : env_(env), name_(name), chars_(nullptr) {
+        if (name != nullptr) {
+            chars_ = env->GetStringUTFChars(name, nullptr);
+        }
+    }
+    ~OptionName() {
+        if (chars_ != nullptr) {
+            env_->ReleaseStringUTFChars(name_, chars_);
+        }
+    }
+    const char* c_str() const { return chars_; }
+
+private:
+    OptionName(const OptionName&);
+    OptionName& operator=(const OptionName&);
+
+    JNIEnv* env_;
+    jstring name_;
+    const char* chars_;
+};
+
+// 取得系: 名前が使えない場合に例外を送出する (OOM 例外が保留中ならそのまま)
+static bool check_option_name(JNIEnv* env, const OptionName& name) {
+    if (name.c_str() != nullptr) {
+        return true;
+    }
+    if (!env->ExceptionCheck()) {
+        throw_nng_exception(env, "Option name is null", NNG_EINVAL);
+    }
+    return false;
+}
+
+// 設定系: 名前や値が null なら NNG_EINVAL を返す
+// 変換に失敗した場合は OutOfMemoryError が保留中なので、偽のエラーコードではなくその例外を伝える
+static int unusable_option_name(JNIEnv* env) {
+    return env->ExceptionCheck() ? 0 : NNG_EINVAL;
+}
+
+static void throw_option_exception(JNIEnv* env, const char* name, int rv) {
+    char message[128];
+    snprintf(message, sizeof(message), "Failed to get option %s", name);
+    throw_nng_exception(env, message, rv);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetBool
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name, jboolean value) {
+    OptionName opt(env, name);
+    if (opt.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    int rv = NNG_OPT_SET(bool, target, id, opt.c_str(), value == JNI_TRUE);
+    if (rv != 0) {
+        LOGE("set_bool(%s) failed: %s", opt.c_str(), nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetInt
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name, jint value) {
+    OptionName opt(env, name);
+    if (opt.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    int rv = NNG_OPT_SET(int, target, id, opt.c_str(), (int)value);
+    if (rv != 0) {
+        LOGE("set_int(%s) failed: %s", opt.c_str(), nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetMs
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name, jint ms) {
+    OptionName opt(env, name);
+    if (opt.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    int rv = NNG_OPT_SET(ms, target, id, opt.c_str(), (nng_duration)ms);
+    if (rv != 0) {
+        LOGE("set_ms(%s) failed: %s", opt.c_str(), nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetSize
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name, jlong value) {
+    if (value < 0) {
+        return NNG_EINVAL;
+    }
+    OptionName opt(env, name);
+    if (opt.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    int rv = NNG_OPT_SET(size, target, id, opt.c_str(), (size_t)value);
+    if (rv != 0) {
+        LOGE("set_size(%s) failed: %s", opt.c_str(), nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetString
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name, jstring value) {
+    OptionName opt(env, name);
+    if (opt.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    OptionName str(env, value);
+    if (str.c_str() == nullptr) {
+        return unusable_option_name(env);
+    }
+    int rv = NNG_OPT_SET(string, target, id, opt.c_str(), str.c_str());
+    if (rv != 0) {
+        LOGE("set_string(%s) failed: %s", opt.c_str(), nng_strerror(rv));
+    }
+    return rv;
+}
+
+JNIEXPORT jboolean JNICALL Java_com_nng_android_NngWrapper_nngOptGetBool
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return JNI_FALSE;
+    }
+    bool value = false;
+    int rv = NNG_OPT_GET(bool, target, id, opt.c_str(), &value);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return JNI_FALSE;
+    }
+    return value ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptGetInt
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return 0;
+    }
+    int value = 0;
+    int rv = NNG_OPT_GET(int, target, id, opt.c_str(), &value);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return 0;
+    }
+    return (jint)value;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptGetMs
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return 0;
+    }
+    nng_duration value = 0;
+    int rv = NNG_OPT_GET(ms, target, id, opt.c_str(), &value);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return 0;
+    }
+    return (jint)value;
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngOptGetSize
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return 0;
+    }
+    size_t value = 0;
+    int rv = NNG_OPT_GET(size, target, id, opt.c_str(), &value);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return 0;
+    }
+    return (jlong)value;
+}
+
+JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngOptGetString
+  (JNIEnv* env, jobject obj, jint target, jlong id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return nullptr;
+    }
+    char* value = nullptr;
+    int rv = NNG_OPT_GET(string, target, id, opt.c_str(), &value);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return nullptr;
+    }
+    jstring result = env->NewStringUTF(value);
+    nng_strfree(value);
+    return result;
+}
+
+#undef NNG_OPT_SET
+#undef NNG_OPT_GET
+
+// ============================================================
+// Pipe Operations
+// ============================================================
+// 戻り値は所属するソケット/ダイアラー/リスナーのID (該当なしは -1)
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeSocket
+  (JNIEnv* env, jobject obj, jlong pipe_id) {
+    return (jlong)nng_socket_id(nng_pipe_socket(id_to_pipe(pipe_id)));
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeDialer
+  (JNIEnv* env, jobject obj, jlong pipe_id) {
+    return (jlong)nng_dialer_id(nng_pipe_dialer(id_to_pipe(pipe_id)));
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeListener
+  (JNIEnv* env, jobject obj, jlong pipe_id) {
+    return (jlong)nng_listener_id(nng_pipe_listener(id_to_pipe(pipe_id)));
+}
+
+// アドレスを文字列化する。IPは "host:port" / "[host]:port"、
+// inproc/ipc/abstract は名前またはパスのみ。対応しないファミリーは空文字列
+static std::string format_sockaddr(const nng_sockaddr& sa) {
+    char buf[INET6_ADDRSTRLEN + 16];
+    switch (sa.s_family) {
+        case NNG_AF_INPROC:
+            return std::string(sa.s_inproc.sa_name, strnlen(sa.s_inproc.sa_name, sizeof(sa.s_inproc.sa_name)));
+        case NNG_AF_IPC:
+            return std::string(sa.s_ipc.sa_path, strnlen(sa.s_ipc.sa_path, sizeof(sa.s_ipc.sa_path)));
+        case NNG_AF_ABSTRACT: {
+            // 抽象ソケット名は任意のバイト列なので、ASCII以外は '?' に置き換える
+            std::string name;
+            size_t len = std::min((size_t)sa.s_abstract.sa_len, sizeof(sa.s_abstract.sa_name));
+            for (size_t i = 0; i < len; i++) {
+                uint8_t c = sa.s_abstract.sa_name[i];
+                name.push_back(c >= 0x20 && c < 0x7f ? (char)c : '?');
+            }
+            return name;
+        }
+        case NNG_AF_INET: {
+            // sa_addr / sa_port はネットワークバイトオーダー
+            char host[INET_ADDRSTRLEN];
+            if (inet_ntop(AF_INET, &sa.s_in.sa_addr, host, sizeof(host)) == nullptr) {
+                return std::string();
+            }
+            snprintf(buf, sizeof(buf), "%s:%u", host, (unsigned)ntohs(sa.s_in.sa_port));
+            return std::string(buf);
+        }
+        case NNG_AF_INET6: {
+            char host[INET6_ADDRSTRLEN];
+            if (inet_ntop(AF_INET6, sa.s_in6.sa_addr, host, sizeof(host)) == nullptr) {
+                return std::string();
+            }
+            snprintf(buf, sizeof(buf), "[%s]:%u", host, (unsigned)ntohs(sa.s_in6.sa_port));
+            return std::string(buf);
+        }
+        default:
+            return std::string();
+    }
+}
+
+JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngPipeGetAddr
+  (JNIEnv* env, jobject obj, jlong pipe_id, jstring name) {
+    OptionName opt(env, name);
+    if (!check_option_name(env, opt)) {
+        return nullptr;
+    }
+    nng_sockaddr sa;
+    memset(&sa, 0, sizeof(sa));
+    int rv = nng_pipe_get_addr(id_to_pipe(pipe_id), opt.c_str(), &sa);
+    if (rv != 0) {
+        throw_option_exception(env, opt.c_str(), rv);
+        return nullptr;
+    }
+    return env->NewStringUTF(format_sockaddr(sa).c_str());
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPipeClose
+  (JNIEnv* env, jobject obj, jlong pipe_id) {
+    int rv = nng_pipe_close(id_to_pipe(pipe_id));
+    if (rv != 0) {
+        LOGE("nng_pipe_close failed: %s", nng_strerror(rv));
+    }
+    return rv;
+}
+
+// ============================================================
+// Poller Operations
+// ============================================================
+// NNG_OPT_RECVFD / NNG_OPT_SENDFD は受信可能・送信可能な間だけ readable になる
+// (level-triggered)。これらを epoll にまとめ、1 スレッドで多数のソケットを待つ。
+// epoll のユーザーデータは (slot << 2) | op。op は POLL_OP_RECV / POLL_OP_SEND。
+
+enum {
+    POLL_OP_RECV = 1,
+    POLL_OP_SEND = 2,
+};
+
+// wakeup 用 eventfd のユーザーデータ
+static const uint64_t POLL_WAKEUP_DATA = UINT64_MAX;
+// 1 回の epoll_wait で取り出すイベント数の上限
+static const int POLL_MAX_EVENTS = 64;
+
+struct NngPoller {
+    int epfd;
+    int wakefd;
+};
+
+static int errno_to_nng(int err) {
+    switch (err) {
+        case ENOMEM: return NNG_ENOMEM;
+        case EMFILE:
+        case ENFILE: return NNG_ENOFILES;
+        case EINVAL: return NNG_EINVAL;
+        default:     return NNG_ESYSERR | err;
+    }
+}
+
+static int poller_socket_fd(jlong socket_handle, int op, int* fd) {
+    const char* name = op == POLL_OP_RECV ? NNG_OPT_RECVFD : NNG_OPT_SENDFD;
+    return nng_socket_get_int(id_to_socket(socket_handle), name, fd);
+}
+
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPollerOpen
+  (JNIEnv* env, jobject obj) {
+    NngPoller* poller = new (std::nothrow) NngPoller();
+    if (poller == nullptr) {
+        return -NNG_ENOMEM;
+    }
+    poller->epfd = epoll_create1(EPOLL_CLOEXEC);
+    if (poller->epfd < 0) {
+        int err = errno;
+        delete poller;
+        LOGE("epoll_create1 failed: %s", strerror(err));
+        return -errno_to_nng(err);
+    }
+    poller->wakefd = eventfd(0, EFD_CLOEXEC | EFD_NONBLOCK);
+    if (poller->wakefd < 0) {
+        int err = errno;
+        close(poller->epfd);
+        delete poller;
+        LOGE("eventfd failed: %s", strerror(err));
+        return -errno_to_nng(err);
+    }
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    ev.events = EPOLLIN;
+    ev.data.u64 = POLL_WAKEUP_DATA;
+    if (epoll_ctl(poller->epfd, EPOLL_CTL_ADD, poller->wakefd, &ev) != 0) {
+        int err = errno;
+        close(poller->wakefd);
+        close(poller->epfd);
+        delete poller;
+        LOGE("epoll_ctl failed: %s", strerror(err));
+        return -errno_to_nng(err);
+    }
+    LOGD("Poller opened: epfd=%d", poller->epfd);
+    return (jlong)(uintptr_t)poller;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerAdd
+  (JNIEnv* env, jobject obj, jlong handle, jlong socket_handle, jint ops, jint slot) {
+    NngPoller* poller = (NngPoller*)(uintptr_t)handle;
+    if (poller == nullptr || slot < 0) {
+        return NNG_EINVAL;
+    }
+    int added = 0;
+    for (int op = POLL_OP_RECV; op <= POLL_OP_SEND; op <<= 1) {
+        if ((ops & op) == 0) {
+            continue;
+        }
+        int fd;
+        int rv = poller_socket_fd(socket_handle, op, &fd);
+        if (rv == 0) {
+            struct epoll_event ev;
+            memset(&ev, 0, sizeof(ev));
+            ev.events = EPOLLIN;
+            ev.data.u64 = ((uint64_t)slot << 2) | (uint64_t)op;
+            if (epoll_ctl(poller->epfd, EPOLL_CTL_ADD, fd, &ev) != 0) {
+                rv = errno == EEXIST ? NNG_EBUSY : errno_to_nng(errno);
+            }
+        }
+        if (rv != 0) {
+            // 途中で失敗したら登録済みの fd を戻す
+            // (例: Pub0 には NNG_OPT_RECVFD がない → NNG_ENOTSUP)
+            LOGE("Failed to add socket %lld to poller: %s", (long long)socket_handle, nng_strerror(rv));
+            if (added != 0 && poller_socket_fd(socket_handle, added, &fd) == 0) {
+                epoll_ctl(poller->epfd, EPOLL_CTL_DEL, fd, nullptr);
+            }
+            return rv;
+        }
+        added |= op;
+    }
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerRemove
+  (JNIEnv* env, jobject obj, jlong handle, jlong socket_handle, jint ops) {
+    NngPoller* poller = (NngPoller*)(uintptr_t)handle;
+    if (poller == nullptr) {
+        return NNG_EINVAL;
+    }
+    for (int op = POLL_OP_RECV; op <= POLL_OP_SEND; op <<= 1) {
+        if ((ops & op) == 0) {
+            continue;
+        }
+        int fd;
+        // 閉じたソケットの fd は NNG が閉じており、epoll からも自動で外れている
+        if (poller_socket_fd(socket_handle, op, &fd) != 0) {
+            continue;
+        }
+        if (epoll_ctl(poller->epfd, EPOLL_CTL_DEL, fd, nullptr) != 0
+                && errno != ENOENT && errno != EBADF) {
+            return errno_to_nng(errno);
+        }
+    }
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerWait
+  (JNIEnv* env, jobject obj, jlong handle, jintArray ready, jint timeout_ms) {
+    NngPoller* poller = (NngPoller*)(uintptr_t)handle;
+    if (poller == nullptr || ready == nullptr) {
+        return -NNG_EINVAL;
+    }
+    jint capacity = env->GetArrayLength(ready);
+    int max = capacity < POLL_MAX_EVENTS ? (int)capacity : POLL_MAX_EVENTS;
+    if (max <= 0) {
+        return -NNG_EINVAL;
+    }
+    struct epoll_event events[POLL_MAX_EVENTS];
+    int n = epoll_wait(poller->epfd, events, max, timeout_ms < 0 ? -1 : (int)timeout_ms);
+    if (n < 0) {
+        // シグナルによる中断はタイムアウトと同じく 0 件として返す
+        return errno == EINTR ? 0 : -errno_to_nng(errno);
+    }
+    jint keys[POLL_MAX_EVENTS];
+    jint count = 0;
+    for (int i = 0; i < n; i++) {
+        if (events[i].data.u64 == POLL_WAKEUP_DATA) {
+            uint64_t value;
+            ssize_t r = read(poller->wakefd, &value, sizeof(value));
+            (void)r;
+            continue;
+        }
+        keys[count++] = (jint)events[i].data.u64;
+    }
+    if (count > 0) {
+        env->SetIntArrayRegion(ready, 0, count, keys);
+    }
+    return count;
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerWakeup
+  (JNIEnv* env, jobject obj, jlong handle) {
+    NngPoller* poller = (NngPoller*)(uintptr_t)handle;
+    if (poller == nullptr) {
+        return NNG_EINVAL;
+    }
+    uint64_t one = 1;
+    // カウンタが飽和していても (EAGAIN) wakeup は保留中なので成功扱い
+    if (write(poller->wakefd, &one, sizeof(one)) < 0 && errno != EAGAIN) {
+        return errno_to_nng(errno);
+    }
+    return 0;
+}
+
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngPollerClose
+  (JNIEnv* env, jobject obj, jlong handle) {
+    NngPoller* poller = (NngPoller*)(uintptr_t)handle;
+    if (poller == nullptr) {
+        return;
+    }
+    // ソケットの fd は NNG の所有なので閉じない
+    close(poller->wakefd);
+    close(poller->epfd);
+    delete poller;
+    LOGD("Poller closed");
+}
+
 // ============================================================
 // Statistics Operations
 // ============================================================
@@ -845,3 +2776,201 @@ JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngStatNext
     return (jlong)(uintptr_t)next;
 }
 
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngStatChild
+  (JNIEnv* env, jobject obj, jlong stat_ptr) {
+    nng_stat* stat = (nng_stat*)(uintptr_t)stat_ptr;
+    if (stat == NULL) {
+        return 0;
+    }
+    return (jlong)(uintptr_t)nng_stat_child(stat);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatType
+  (JNIEnv* env, jobject obj, jlong stat_ptr) {
+    nng_stat* stat = (nng_stat*)(uintptr_t)stat_ptr;
+    if (stat == NULL) {
+        return -1;
+    }
+    return nng_stat_type(stat);
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatUnit
+  (JNIEnv* env, jobject obj, jlong stat_ptr) {
+    nng_stat* stat = (nng_stat*)(uintptr_t)stat_ptr;
+    if (stat == NULL) {
+        return -1;
+    }
+    return nng_stat_unit(stat);
+}
+
+// 統計名は種類が限られるため、jstring をグローバル参照としてキャッシュし
+// スナップショットごとの NewStringUTF を避ける
+static const size_t kStatNameCacheMax = 1024;
+static pthread_mutex_t g_stat_names_lock = PTHREAD_MUTEX_INITIALIZER;
+static std::unordered_map<std::string, jstring> g_stat_names;
+
+// 戻り値はグローバル参照 (キャッシュ済み) またはローカル参照 (キャッシュ満杯時)
+static jstring interned_stat_name(JNIEnv* env, const char* name, bool* is_local) {
+    *is_local = false;
+    pthread_mutex_lock(&g_stat_names_lock);
+    auto it = g_stat_names.find(name);
+    if (it != g_stat_names.end()) {
+        jstring cached = it->second;
+        pthread_mutex_unlock(&g_stat_names_lock);
+        return cached;
+    }
+    jstring local = env->NewStringUTF(name);
+    if (local == nullptr || g_stat_names.size() >= kStatNameCacheMax) {
+        pthread_mutex_unlock(&g_stat_names_lock);
+        *is_local = true;
+        return local;
+    }
+    jstring global = (jstring)env->NewGlobalRef(local);
+    if (global == nullptr) {
+        // グローバル参照表が満杯: キャッシュせずローカル参照を返す
+        pthread_mutex_unlock(&g_stat_names_lock);
+        *is_local = true;
+        return local;
+    }
+    env->DeleteLocalRef(local);
+    g_stat_names.emplace(name, global);
+    pthread_mutex_unlock(&g_stat_names_lock);
+    return global;
+}
+
+// 配列を確保して src を書き込む。失敗時は nullptr (OutOfMemoryError が保留中)
+template <typename J, typename T>
+static J new_stats_array(JNIEnv* env, const std::vector<T>& src,
+                         J (JNIEnv::*alloc)(jsize),
+                         void (JNIEnv::*set)(J, jsize, jsize, const T*)) {
+    J array = (env->*alloc)((jsize)src.size());
+    if (array != nullptr) {
+        (env->*set)(array, 0, (jsize)src.size(), src.data());
+    }
+    return array;
+}
+
+static void delete_local_refs(JNIEnv* env, jobject* refs, size_t n) {
+    for (size_t i = 0; i < n; i++) {
+        if (refs[i] != nullptr) {
+            env->DeleteLocalRef(refs[i]);
+        }
+    }
+}
+
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatsSnapshot
+  (JNIEnv* env, jobject obj, jobject target) {
+    nng_stat* root;
+    int rv = nng_stats_get(&root);
+    if (rv != 0) {
+        LOGE("nng_stats_get failed: %s", nng_strerror(rv));
+        return rv;
+    }
+
+    // 行きがけ順に木全体を走査する (親は必ず子より前に並ぶ)
+    std::vector<nng_stat*> nodes;
+    std::vector<jint> parents;
+    std::vector<std::pair<nng_stat*, jint>> stack;
+    stack.emplace_back(root, -1);
+    while (!stack.empty()) {
+        nng_stat* stat = stack.back().first;
+        jint parent = stack.back().second;
+        stack.pop_back();
+        jint index = (jint)nodes.size();
+        nodes.push_back(stat);
+        parents.push_back(parent);
+
+        // 兄弟の順序を保つため子を逆順に積む
+        size_t mark = stack.size();
+        for (nng_stat* child = nng_stat_child(stat); child != nullptr; child = nng_stat_next(child)) {
+            stack.emplace_back(child, index);
+        }
+        std::reverse(stack.begin() + mark, stack.end());
+    }
+
+    size_t count = nodes.size();
+    std::vector<jlong> values(count);
+    std::vector<jint> types(count);
+    std::vector<jint> units(count);
+    for (size_t i = 0; i < count; i++) {
+        nng_stat* stat = nodes[i];
+        types[i] = nng_stat_type(stat);
+        units[i] = nng_stat_unit(stat);
+        if (types[i] == NNG_STAT_BOOLEAN) {
+            values[i] = nng_stat_bool(stat) ? 1 : 0;
+        } else if (types[i] == NNG_STAT_SCOPE || types[i] == NNG_STAT_STRING) {
+            values[i] = 0;
+        } else {
+            values[i] = (jlong)nng_stat_value(stat);
+        }
+    }
+
+    // 全配列を作り終えてからフィールドに設定する (途中で失敗しても target は前回のまま)
+    enum { kValues, kTypes, kUnits, kParents, kNames, kStrings, kArrayCount };
+    jobject arrays[kArrayCount] = {};
+    arrays[kValues] = new_stats_array(env, values, &JNIEnv::NewLongArray, &JNIEnv::SetLongArrayRegion);
+    if (arrays[kValues] != nullptr) {
+        arrays[kTypes] = new_stats_array(env, types, &JNIEnv::NewIntArray, &JNIEnv::SetIntArrayRegion);
+    }
+    if (arrays[kTypes] != nullptr) {
+        arrays[kUnits] = new_stats_array(env, units, &JNIEnv::NewIntArray, &JNIEnv::SetIntArrayRegion);
+    }
+    if (arrays[kUnits] != nullptr) {
+        arrays[kParents] = new_stats_array(env, parents, &JNIEnv::NewIntArray, &JNIEnv::SetIntArrayRegion);
+    }
+    if (arrays[kParents] != nullptr) {
+        arrays[kNames] = env->NewObjectArray((jsize)count, g_string_class, nullptr);
+    }
+    if (arrays[kNames] != nullptr) {
+        arrays[kStrings] = env->NewObjectArray((jsize)count, g_string_class, nullptr);
+    }
+    if (arrays[kStrings] == nullptr) {
+        delete_local_refs(env, arrays, kArrayCount);
+        nng_stats_free(root);
+        return NNG_ENOMEM;  // OutOfMemoryError pending
+    }
+    jobjectArray names = (jobjectArray)arrays[kNames];
+    jobjectArray strings = (jobjectArray)arrays[kStrings];
+    for (size_t i = 0; i < count; i++) {
+        bool is_local;
+        const char* raw_name = nng_stat_name(nodes[i]);
+        jstring name = interned_stat_name(env, raw_name != nullptr ? raw_name : "", &is_local);
+        if (name == nullptr) {
+            // OutOfMemoryError が保留中: 以降の JNI 呼び出しは不可
+            delete_local_refs(env, arrays, kArrayCount);
+            nng_stats_free(root);
+            return NNG_ENOMEM;
+        }
+        env->SetObjectArrayElement(names, (jsize)i, name);
+        if (is_local) {
+            env->DeleteLocalRef(name);
+        }
+        // 文字列統計 (URL など) は値が変わりうるため毎回生成する
+        if (types[i] == NNG_STAT_STRING) {
+            const char* value = nng_stat_string(nodes[i]);
+            if (value != nullptr) {
+                jstring jvalue = env->NewStringUTF(value);
+                if (jvalue == nullptr) {
+                    delete_local_refs(env, arrays, kArrayCount);
+                    nng_stats_free(root);
+                    return NNG_ENOMEM;
+                }
+                env->SetObjectArrayElement(strings, (jsize)i, jvalue);
+                env->DeleteLocalRef(jvalue);
+            }
+        }
+    }
+    env->SetObjectField(target, g_stats_values, arrays[kValues]);
+    env->SetObjectField(target, g_stats_types, arrays[kTypes]);
+    env->SetObjectField(target, g_stats_units, arrays[kUnits]);
+    env->SetObjectField(target, g_stats_parents, arrays[kParents]);
+    env->SetObjectField(target, g_stats_names, names);
+    env->SetObjectField(target, g_stats_strings, strings);
+    env->SetLongField(target, g_stats_timestamp, (jlong)nng_stat_timestamp(root));
+    delete_local_refs(env, arrays, kArrayCount);
+
+    nng_stats_free(root);
+    LOGD("Statistics snapshot: %zu nodes", count);
+    return 0;
+}
+
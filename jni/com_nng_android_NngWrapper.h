@@ -119,6 +119,54 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSend
 JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecv
   (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngRecvAlloc
+ * Signature: (JI)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_com_nng_android_NngWrapper_nngRecvAlloc
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngRecvInto
+ * Signature: (JLcom/nng/android/NngReceiveBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvInto
+  (JNIEnv *, jobject, jlong, jobject, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngSendBatch
+ * Signature: (J[[BI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngRecvBatch
+ * Signature: (JLcom/nng/android/NngReceiveBatch;II)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvBatch
+  (JNIEnv *, jobject, jlong, jobject, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngSendDirect
+ * Signature: (JLjava/nio/ByteBuffer;III)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendDirect
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngRecvDirect
+ * Signature: (JLjava/nio/ByteBuffer;III)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngRecvDirect
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jint);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngSetRecvTimeout
@@ -151,6 +199,14 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngGetRecvTimeout
 JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngGetSendTimeout
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngSetSurveyTime
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSetSurveyTime
+  (JNIEnv *, jobject, jlong, jint);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngSubSubscribe
@@ -167,6 +223,38 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSubSubscribe
 JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSubUnsubscribe
   (JNIEnv *, jobject, jlong, jbyteArray);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngStatChild
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngStatChild
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngStatType
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatType
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngStatUnit
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatUnit
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngStatsSnapshot
+ * Signature: (Lcom/nng/android/NngStats;)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngStatsSnapshot
+  (JNIEnv *, jobject, jobject);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngSocketId
@@ -191,6 +279,22 @@ JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngStrerror
 JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngVersion
   (JNIEnv *, jobject);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    setNativeLogLevel
+ * Signature: (I)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_setNativeLogLevel
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    getNativeLogLevel
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_getNativeLogLevel
+  (JNIEnv *, jclass);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngSurveyor0Open
@@ -255,6 +359,94 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngAioResult
 JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioWait
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioSetTimeout
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioSetTimeout
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioCancel
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioCancel
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioStop
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioStop
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioSetMsg
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioSetMsg
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioGetMsg
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioGetMsg
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioCallbackAlloc
+ * Signature: (Lcom/nng/android/NngAio;)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackAlloc
+  (JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioCallbackAio
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackAio
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioCallbackFree
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackFree
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngAioCallbackDropped
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngAioCallbackDropped
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeNotifyAlloc
+ * Signature: (JLcom/nng/android/NngPipeEvents;)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeNotifyAlloc
+  (JNIEnv *, jobject, jlong, jobject);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeNotifyFree
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngPipeNotifyFree
+  (JNIEnv *, jobject, jlong);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngMsgAlloc
@@ -303,6 +495,190 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngSendMsg
 JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngRecvMsg
   (JNIEnv *, jobject, jlong, jint);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgRealloc
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgRealloc
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgClear
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgClear
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgAppend
+ * Signature: (J[BII)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgAppend
+  (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgInsert
+ * Signature: (J[BII)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgInsert
+  (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgTrim
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgTrim
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgChop
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgChop
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgBodyBuffer
+ * Signature: (J)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_com_nng_android_NngWrapper_nngMsgBodyBuffer
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgHeader
+ * Signature: (J)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_com_nng_android_NngWrapper_nngMsgHeader
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgHeaderLen
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderLen
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgHeaderAppend
+ * Signature: (J[BII)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderAppend
+  (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgHeaderClear
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgHeaderClear
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgGetPipe
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngMsgGetPipe
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngMsgSetPipe
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngMsgSetPipe
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxOpen
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngCtxOpen
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxClose
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxClose
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxId
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxId
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxSendMsg
+ * Signature: (JJ)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSendMsg
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxRecvMsg
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngCtxRecvMsg
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxSendAio
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngCtxSendAio
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxRecvAio
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngCtxRecvAio
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxSetRecvTimeout
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetRecvTimeout
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxSetSendTimeout
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetSendTimeout
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngCtxSetSurveyTime
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngCtxSetSurveyTime
+  (JNIEnv *, jobject, jlong, jint);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngUrlParse
@@ -391,6 +767,174 @@ JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngDialerClose
 JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngListenerClose
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptSetBool
+ * Signature: (IJLjava/lang/String;Z)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetBool
+  (JNIEnv *, jobject, jint, jlong, jstring, jboolean);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptSetInt
+ * Signature: (IJLjava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetInt
+  (JNIEnv *, jobject, jint, jlong, jstring, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptSetMs
+ * Signature: (IJLjava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetMs
+  (JNIEnv *, jobject, jint, jlong, jstring, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptSetSize
+ * Signature: (IJLjava/lang/String;J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetSize
+  (JNIEnv *, jobject, jint, jlong, jstring, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptSetString
+ * Signature: (IJLjava/lang/String;Ljava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptSetString
+  (JNIEnv *, jobject, jint, jlong, jstring, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptGetBool
+ * Signature: (IJLjava/lang/String;)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_nng_android_NngWrapper_nngOptGetBool
+  (JNIEnv *, jobject, jint, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptGetInt
+ * Signature: (IJLjava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptGetInt
+  (JNIEnv *, jobject, jint, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptGetMs
+ * Signature: (IJLjava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngOptGetMs
+  (JNIEnv *, jobject, jint, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptGetSize
+ * Signature: (IJLjava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngOptGetSize
+  (JNIEnv *, jobject, jint, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngOptGetString
+ * Signature: (IJLjava/lang/String;)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngOptGetString
+  (JNIEnv *, jobject, jint, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeSocket
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeSocket
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeDialer
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeDialer
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeListener
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPipeListener
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeGetAddr
+ * Signature: (JLjava/lang/String;)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_com_nng_android_NngWrapper_nngPipeGetAddr
+  (JNIEnv *, jobject, jlong, jstring);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPipeClose
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPipeClose
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerOpen
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_com_nng_android_NngWrapper_nngPollerOpen
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerAdd
+ * Signature: (JJII)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerAdd
+  (JNIEnv *, jobject, jlong, jlong, jint, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerRemove
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerRemove
+  (JNIEnv *, jobject, jlong, jlong, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerWait
+ * Signature: (J[II)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerWait
+  (JNIEnv *, jobject, jlong, jintArray, jint);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerWakeup
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_nng_android_NngWrapper_nngPollerWakeup
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_nng_android_NngWrapper
+ * Method:    nngPollerClose
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_nng_android_NngWrapper_nngPollerClose
+  (JNIEnv *, jobject, jlong);
+
 /*
  * Class:     com_nng_android_NngWrapper
  * Method:    nngStatsGet
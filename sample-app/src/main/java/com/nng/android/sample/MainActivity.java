@@ -12,8 +12,12 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.nng.android.NngMessage;
+import com.nng.android.NngMessageSource;
+import com.nng.android.NngSocket;
 import com.nng.android.NngWrapper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -25,11 +29,12 @@ public class MainActivity extends AppCompatActivity {
     private static final String TAG = "NngSample";
     private static final String LOCAL_URL = "inproc://selftest";
     
-    private NngWrapper serverSocket;
-    private NngWrapper clientSocket;
+    private volatile NngSocket serverSocket;
+    private volatile NngSocket clientSocket;
+    private volatile NngMessageSource autoReceive;
     private ExecutorService executorService;
     private Handler mainHandler;
-    private boolean isLocalTestActive = false;
+    private volatile boolean isLocalTestActive = false;
     
     private EditText urlEditText;
     private EditText messageEditText;
@@ -90,9 +95,8 @@ public class MainActivity extends AppCompatActivity {
             
             updateStatus("NNG ready - Click 'Setup Local Test' to begin");
             
-            // Test NNG version with temporary wrapper
-            NngWrapper tempWrapper = new NngWrapper();
-            Log.i(TAG, "NNG Version: " + tempWrapper.nngVersion());
+            // Raw API is still available for queries like the version
+            Log.i(TAG, "NNG Version: " + new NngWrapper().nngVersion());
             
         } catch (Exception e) {
             Log.e(TAG, "Failed to initialize NNG", e);
@@ -106,32 +110,37 @@ public class MainActivity extends AppCompatActivity {
         executorService.execute(() -> {
             try {
                 // Create server socket
-                serverSocket = new NngWrapper();
-                serverSocket.openPair0();
+                serverSocket = NngSocket.pair0();
                 serverSocket.listen(LOCAL_URL);
                 Log.i(TAG, "Server socket listening on: " + LOCAL_URL);
                 
-                // Small delay to ensure server is ready
-                Thread.sleep(100);
-                
-                // Create client socket
-                clientSocket = new NngWrapper();
-                clientSocket.openPair0();
-                clientSocket.dial(LOCAL_URL);
-                Log.i(TAG, "Client socket connected to: " + LOCAL_URL);
+                // Create client socket; the UI is enabled once the pipe is up
+                clientSocket = NngSocket.pair0();
+                clientSocket.setPipeListener((pipe, event) -> {
+                    if (event == NngWrapper.NNG_PIPE_EV_ADD_POST) {
+                        mainHandler.post(() -> {
+                            updateStatus("Local test ready! Server and client connected.");
+                            enableButtons(true, true, true, true, true, false);
+                            Toast.makeText(MainActivity.this, "Local test setup complete!", Toast.LENGTH_SHORT).show();
+                        });
+                    } else if (event == NngWrapper.NNG_PIPE_EV_REM_POST) {
+                        mainHandler.post(() -> updateStatus("Client disconnected"));
+                    }
+                });
                 
-                // Start auto-receive thread for server
+                // Start auto-receive for server
                 startAutoReceive();
-                
                 isLocalTestActive = true;
                 
                 mainHandler.post(() -> {
-                    updateStatus("Local test ready! Server and client connected.");
-                    enableButtons(true, true, true, true, true, false);
+                    updateStatus("Connecting...");
                     setupLocalTestButton.setEnabled(false);
-                    Toast.makeText(MainActivity.this, "Local test setup complete!", Toast.LENGTH_SHORT).show();
                 });
                 
+                // Returns at once; no need to wait for the listener to be ready
+                clientSocket.dialNonBlocking(LOCAL_URL);
+                Log.i(TAG, "Client socket dialing: " + LOCAL_URL);
+                
             } catch (Exception e) {
                 Log.e(TAG, "Failed to setup local test", e);
                 mainHandler.post(() -> {
@@ -142,27 +151,34 @@ public class MainActivity extends AppCompatActivity {
         });
     }
     
-    private void startAutoReceive() {
-        executorService.execute(() -> {
-            while (isLocalTestActive && serverSocket != null) {
-                try {
-                    String receivedMessage = serverSocket.receiveString();
-                    
-                    mainHandler.post(() -> {
-                        String currentText = receivedTextView.getText().toString();
-                        String newText = currentText + "\n[" + getCurrentTime() + "] Received: " + receivedMessage;
-                        receivedTextView.setText(newText);
-                        updateStatus("Auto-received message: " + receivedMessage);
-                    });
-                    
-                } catch (Exception e) {
-                    if (isLocalTestActive) {
-                        Log.e(TAG, "Auto-receive error", e);
-                    }
-                    break;
+    private void startAutoReceive() throws NngWrapper.NngException {
+        // Receives run asynchronously and are delivered on the main thread;
+        // the next one starts only after the previous message was shown
+        autoReceive = NngMessageSource.open(serverSocket, mainHandler::post, 1, new NngMessageSource.Listener() {
+            @Override
+            public void onMessage(NngMessage message) {
+                String receivedMessage;
+                try (NngMessage m = message) {
+                    receivedMessage = new String(m.toByteArray(), StandardCharsets.UTF_8);
                 }
+                String currentText = receivedTextView.getText().toString();
+                String newText = currentText + "\n[" + getCurrentTime() + "] Received: " + receivedMessage;
+                receivedTextView.setText(newText);
+                updateStatus("Auto-received message: " + receivedMessage);
+                autoReceive.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                Log.e(TAG, "Auto-receive error", error);
+            }
+
+            @Override
+            public void onComplete() {
+                Log.i(TAG, "Auto-receive stopped: socket closed");
             }
         });
+        autoReceive.request(1);
     }
     
     private String getCurrentTime() {
@@ -177,14 +193,15 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         
-        if (!isLocalTestActive || clientSocket == null) {
+        NngSocket socket = clientSocket;
+        if (!isLocalTestActive || socket == null) {
             Toast.makeText(this, "Local test not active", Toast.LENGTH_SHORT).show();
             return;
         }
         
         executorService.execute(() -> {
             try {
-                clientSocket.sendString(message);
+                socket.sendString(message);
                 
                 mainHandler.post(() -> {
                     updateStatus("Sent to self: " + message);
@@ -210,10 +227,10 @@ public class MainActivity extends AppCompatActivity {
         
         executorService.execute(() -> {
             try {
-                if (serverSocket == null) {
-                    serverSocket = new NngWrapper();
+                if (serverSocket != null) {
+                    serverSocket.close();
                 }
-                serverSocket.openPair0();
+                serverSocket = NngSocket.pair0();
                 serverSocket.listen(url);
                 
                 mainHandler.post(() -> {
@@ -240,10 +257,10 @@ public class MainActivity extends AppCompatActivity {
         
         executorService.execute(() -> {
             try {
-                if (clientSocket == null) {
-                    clientSocket = new NngWrapper();
+                if (clientSocket != null) {
+                    clientSocket.close();
                 }
-                clientSocket.openPair0();
+                clientSocket = NngSocket.pair0();
                 clientSocket.dial(url);
                 
                 mainHandler.post(() -> {
@@ -270,7 +287,7 @@ public class MainActivity extends AppCompatActivity {
         
         executorService.execute(() -> {
             try {
-                NngWrapper activeSocket = isLocalTestActive ? clientSocket : serverSocket;
+                NngSocket activeSocket = isLocalTestActive ? clientSocket : serverSocket;
                 if (activeSocket != null) {
                     activeSocket.sendString(message);
                     
@@ -298,7 +315,7 @@ public class MainActivity extends AppCompatActivity {
     private void onReceiveClick(View view) {
         executorService.execute(() -> {
             try {
-                NngWrapper activeSocket = isLocalTestActive ? serverSocket : clientSocket;
+                NngSocket activeSocket = isLocalTestActive ? serverSocket : clientSocket;
                 if (activeSocket != null) {
                     String receivedMessage = activeSocket.receiveString();
                     
@@ -378,6 +395,10 @@ public class MainActivity extends AppCompatActivity {
         
         isLocalTestActive = false;
         
+        if (autoReceive != null) {
+            autoReceive.cancel();
+        }
+        
         if (executorService != null) {
             executorService.shutdown();
         }